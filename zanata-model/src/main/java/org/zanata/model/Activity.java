@@ -99,22 +99,41 @@ public class Activity extends ModelEntityBase implements Serializable {
 
     public Activity(HPerson actor, IsEntityWithType context,
             IsEntityWithType target, ActivityType activityType, int wordCount) {
+        this(actor, context.getEntityType(), context.getId(),
+                target.getEntityType(), target.getId(), activityType,
+                wordCount, 1);
+    }
+
+    /**
+     * Creates an activity for several events at once, eg from an
+     * aggregated batch of translation changes.
+     */
+    public Activity(HPerson actor, EntityType contextType, long contextId,
+            EntityType lastTargetType, long lastTargetId,
+            ActivityType activityType, int wordCount, int eventCount) {
         this.actor = actor;
-        this.contextType = context.getEntityType();
-        this.contextId = context.getId();
-        this.lastTargetType = target.getEntityType();
-        this.lastTargetId = target.getId();
+        this.contextType = contextType;
+        this.contextId = contextId;
+        this.lastTargetType = lastTargetType;
+        this.lastTargetId = lastTargetId;
         this.activityType = activityType;
         this.wordCount = wordCount;
+        this.eventCount = eventCount;
     }
 
     public void updateActivity(Date currentTime, IsEntityWithType target,
             int wordCount) {
+        updateActivity(currentTime, target.getEntityType(), target.getId(),
+                wordCount, 1);
+    }
+
+    public void updateActivity(Date currentTime, EntityType lastTargetType,
+            long lastTargetId, int wordCount, int eventCount) {
         this.endOffsetMillis = currentTime.getTime() - approxTime.getTime();
         this.wordCount += wordCount;
-        this.eventCount++;
-        this.lastTargetType = target.getEntityType();
-        this.lastTargetId = target.getId();
+        this.eventCount += eventCount;
+        this.lastTargetType = lastTargetType;
+        this.lastTargetId = lastTargetId;
     }
 
     @Transient
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.model;
+
+import java.io.Serializable;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+
+import org.zanata.common.ContentState;
+
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Materialised translation statistics: the number of messages and words of a
+ * document which have translations in a given locale and state. Text flows
+ * without a translation (and obsolete text flows) are not counted, so the
+ * untranslated count is the document total minus the other states.
+ * <p>
+ * Rows are maintained by
+ * {@code org.zanata.service.impl.DocumentStatisticListener} as translations
+ * are saved, and may be rebuilt from scratch by an admin.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = { "document_id",
+        "locale_id", "state" }))
+@NoArgsConstructor
+public class HDocumentStatistic implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Setter
+    private Long id;
+    @Setter
+    private HDocument document;
+    @Setter
+    private HLocale locale;
+    @Setter
+    private ContentState state;
+    @Setter
+    private int messages;
+    @Setter
+    private long words;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public Long getId() {
+        return id;
+    }
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "document_id", nullable = false)
+    public HDocument getDocument() {
+        return document;
+    }
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "locale_id", nullable = false)
+    public HLocale getLocale() {
+        return locale;
+    }
+
+    @NotNull
+    public ContentState getState() {
+        return state;
+    }
+
+    public int getMessages() {
+        return messages;
+    }
+
+    public long getWords() {
+        return words;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "@"
+                + Integer.toHexString(hashCode()) + "[state=" + state
+                + ", messages=" + messages + ", words=" + words + "]";
+    }
+}
@@ -52,6 +52,8 @@ public class HDocumentUpload extends ModelEntityBase implements Serializable {
     private HLocale locale;
     private String contentHash;
     private List<HDocumentUploadPart> parts;
+    // number of parts stored so far, wherever they are stored
+    private int partCount;
 
     public HDocumentUpload() {
         // hibernate requires this to be an ArrayList
@@ -26,12 +26,16 @@ import lombok.Getter;
 import lombok.Setter;
 import javax.inject.Inject;
 import javax.inject.Named;
+import org.zanata.async.AsyncTaskHandle;
+import org.zanata.async.AsyncTaskHandleManager;
 import org.zanata.dao.DocumentDAO;
 import org.zanata.dao.PersonDAO;
 import org.zanata.dao.ProjectDAO;
 import org.zanata.dao.ProjectIterationDAO;
 import org.zanata.dao.TextFlowDAO;
 import org.zanata.dao.TextFlowTargetDAO;
+import org.zanata.security.annotations.CheckRole;
+import org.zanata.service.DocumentStatisticService;
 
 /**
  *
@@ -46,6 +50,9 @@ public class AdminStatsAction implements Serializable {
     */
     private static final long serialVersionUID = 1L;
 
+    private static final String REBUILD_STATISTICS_KEY =
+            "rebuildDocumentStatistics";
+
     @Inject
     private ProjectDAO projectDAO;
 
@@ -64,6 +71,12 @@ public class AdminStatsAction implements Serializable {
     @Inject
     private DocumentDAO documentDAO;
 
+    @Inject
+    private AsyncTaskHandleManager asyncTaskHandleManager;
+
+    @Inject
+    private DocumentStatisticService documentStatisticServiceImpl;
+
     @Getter
     @Setter
     private boolean documentReady;
@@ -155,4 +168,24 @@ public class AdminStatsAction implements Serializable {
     public int getTotalUntranslatedTextFlowTargets() {
         return textFlowTargetDAO.getTotalNewTextFlowTargets();
     }
+
+    public boolean isRebuildingStatistics() {
+        AsyncTaskHandle handle =
+                asyncTaskHandleManager.getHandleByKey(REBUILD_STATISTICS_KEY);
+        return handle != null && !handle.isDone();
+    }
+
+    /**
+     * Recalculates the stored translation statistics of every document.
+     */
+    @CheckRole("admin")
+    public void rebuildStatistics() throws Exception {
+        if (isRebuildingStatistics()) {
+            return;
+        }
+        AsyncTaskHandle<Void> handle = new AsyncTaskHandle<>();
+        asyncTaskHandleManager.registerTaskHandle(handle,
+                REBUILD_STATISTICS_KEY);
+        documentStatisticServiceImpl.rebuildStatistics(handle);
+    }
 }
@@ -42,6 +42,7 @@ import javax.inject.Named;
 
 import org.zanata.async.handle.CopyVersionTaskHandle;
 import org.zanata.common.EntityStatus;
+import org.zanata.common.LocaleId;
 import org.zanata.dao.LocaleMemberDAO;
 import org.zanata.dao.PersonDAO;
 import org.zanata.dao.ProjectDAO;
@@ -398,10 +399,13 @@ public class ProjectHomeAction extends AbstractSortAction implements
     private WordStatistic getAllLocaleStatisticForVersion(
             HProjectIteration version) {
         WordStatistic versionStats = new WordStatistic();
-        List<HLocale> locales = getSupportedLocale(version);
-        for (HLocale locale : locales) {
-            versionStats.add(versionStateCacheImpl.getVersionStatistics(
-                    version.getId(), locale.getLocaleId()));
+        List<LocaleId> localeIds = Lists.newArrayList();
+        for (HLocale locale : getSupportedLocale(version)) {
+            localeIds.add(locale.getLocaleId());
+        }
+        for (WordStatistic statistic : versionStateCacheImpl
+                .getVersionStatistics(version.getId(), localeIds).values()) {
+            versionStats.add(statistic);
         }
         return versionStats;
     }
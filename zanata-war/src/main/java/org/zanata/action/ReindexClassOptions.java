@@ -26,6 +26,14 @@ public class ReindexClassOptions implements Serializable {
     @Setter
     private boolean optimize = false;
 
+    /**
+     * Whether partitioned reindexing should continue from its last
+     * checkpoint instead of starting from the beginning (and skip the purge).
+     */
+    @Getter
+    @Setter
+    private boolean resume = false;
+
     public ReindexClassOptions(Class<?> indexableClass) {
         clazz = indexableClass;
     }
@@ -443,14 +443,12 @@ public class VersionHomeAction extends AbstractSortAction implements
 
     @Override
     protected void loadStatistics() {
-        localeStatisticMap = Maps.newHashMap();
-        for (HLocale locale : getSupportedLocale()) {
-            WordStatistic wordStatistic =
-                    versionStateCacheImpl.getVersionStatistics(getVersion()
-                            .getId(), locale.getLocaleId());
+        localeStatisticMap =
+                Maps.newHashMap(versionStateCacheImpl.getVersionStatistics(
+                        getVersion().getId(), getSupportedLocaleIds()));
+        for (WordStatistic wordStatistic : localeStatisticMap.values()) {
             wordStatistic.setRemainingHours(StatisticsUtil
                     .getRemainingHours(wordStatistic));
-            localeStatisticMap.put(locale.getLocaleId(), wordStatistic);
         }
 
         overallStatistic = new WordStatistic();
@@ -551,6 +549,9 @@ public class VersionHomeAction extends AbstractSortAction implements
     public WordStatistic getStatisticForDocument(Long documentId,
             LocaleId localeId) {
         DocumentLocaleKey key = new DocumentLocaleKey(documentId, localeId);
+        if (documentStatisticMap.isEmpty()) {
+            loadDocumentStatistics();
+        }
         if (!documentStatisticMap.containsKey(key)) {
             WordStatistic wordStatistic =
                     translationStateCacheImpl.getDocumentStatistics(documentId,
@@ -562,6 +563,36 @@ public class VersionHomeAction extends AbstractSortAction implements
         return documentStatisticMap.get(key);
     }
 
+    /**
+     * Loads statistics of all documents in all supported locales of this
+     * version in one go, rather than one document and locale at a time as the
+     * page renders.
+     */
+    private void loadDocumentStatistics() {
+        List<Long> documentIds = Lists.newArrayList();
+        for (HDocument document : getDocuments()) {
+            documentIds.add(document.getId());
+        }
+        Map<DocumentLocaleKey, WordStatistic> statistics =
+                translationStateCacheImpl.getDocumentStatistics(documentIds,
+                        getSupportedLocaleIds());
+        for (Map.Entry<DocumentLocaleKey, WordStatistic> entry : statistics
+                .entrySet()) {
+            WordStatistic wordStatistic = entry.getValue();
+            wordStatistic.setRemainingHours(StatisticsUtil
+                    .getRemainingHours(wordStatistic));
+            documentStatisticMap.put(entry.getKey(), wordStatistic);
+        }
+    }
+
+    private List<LocaleId> getSupportedLocaleIds() {
+        List<LocaleId> localeIds = Lists.newArrayList();
+        for (HLocale locale : getSupportedLocale()) {
+            localeIds.add(locale.getLocaleId());
+        }
+        return localeIds;
+    }
+
     public WordStatistic getDocumentStatistic(Long documentId) {
         WordStatistic wordStatistic = new WordStatistic();
 
@@ -21,6 +21,7 @@
 package org.zanata.async;
 
 import com.google.common.base.Optional;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import org.zanata.util.ServiceLocator;
 
@@ -29,7 +30,9 @@ import javax.interceptor.AroundInvoke;
 import javax.interceptor.Interceptor;
 import javax.interceptor.InvocationContext;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author Carlos Munoz <a href="mailto:camunoz@redhat.com">camunoz@redhat.com</a>
@@ -102,8 +105,22 @@ public class AsyncMethodInterceptor {
                 }
             };
 
-            ListenableFuture<Object> futureResult =
-                    taskManager.startTask(asyncTask);
+            if (handle.isPresent()) {
+                handle.get().startQueueTiming();
+            }
+            ListenableFuture<Object> futureResult;
+            try {
+                futureResult =
+                        taskManager.startTask(asyncTask,
+                                getLane(ctx.getMethod()));
+            } catch (RejectedExecutionException e) {
+                if (handle.isPresent()) {
+                    handle.get().setFutureResult(
+                            Futures.immediateFailedFuture(e));
+                    taskHandleManager.taskFinished(handle.get());
+                }
+                throw e;
+            }
             if (handle.isPresent()) {
                 handle.get().setFutureResult(futureResult);
             }
@@ -114,6 +131,14 @@ public class AsyncMethodInterceptor {
         }
     }
 
+    private static AsyncTaskLane getLane(Method method) {
+        Async async = method.getAnnotation(Async.class);
+        if (async == null) {
+            async = method.getDeclaringClass().getAnnotation(Async.class);
+        }
+        return async != null ? async.value() : AsyncTaskLane.NORMAL;
+    }
+
     private AsyncTaskHandle findHandleIfPresent(Object[] params) {
         for (Object param : params) {
             if (param instanceof AsyncTaskHandle) {
@@ -55,17 +55,25 @@ public class AsyncTaskHandle<V> {
     @Setter
     public int currentProgress = 0;
 
+    @Getter
+    private long queueTime = -1;
+
     @Getter
     private long startTime = -1;
 
     @Getter
     private long finishTime = -1;
 
-    public int increaseProgress(int increaseBy) {
+    // synchronized because some tasks report progress from several threads
+    public synchronized int increaseProgress(int increaseBy) {
         currentProgress += increaseBy;
         return currentProgress;
     }
 
+    void startQueueTiming() {
+        queueTime = System.currentTimeMillis();
+    }
+
     void startTiming() {
         startTime = System.currentTimeMillis();
     }
@@ -116,6 +124,22 @@ public class AsyncTaskHandle<V> {
         }
     }
 
+    /**
+     * @return The time that the task waited (or has been waiting) in the
+     *         queue before it started executing (in milliseconds).
+     */
+    public long getWaitingTime() {
+        if (queueTime > 0) {
+            if (startTime >= queueTime) {
+                return startTime - queueTime;
+            } else {
+                return System.currentTimeMillis() - queueTime;
+            }
+        } else {
+            return 0;
+        }
+    }
+
     /**
      * @return The time that the task has been executing for, or the total
      *         execution time if the task has finished (in milliseconds).
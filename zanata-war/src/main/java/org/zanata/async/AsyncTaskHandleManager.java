@@ -27,6 +27,7 @@ import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.collect.Lists;
+import javax.inject.Inject;
 import javax.inject.Named;
 
 import com.google.common.cache.Cache;
@@ -41,6 +42,9 @@ import com.google.common.collect.Maps;
 
 public class AsyncTaskHandleManager {
 
+    @Inject
+    private AsyncTaskManager asyncTaskManager;
+
     private Map<Serializable, AsyncTaskHandle> handlesByKey = Maps
             .newConcurrentMap();
 
@@ -95,4 +99,25 @@ public class AsyncTaskHandleManager {
         handles.addAll(finishedTasks.asMap().values());
         return handles;
     }
+
+    /**
+     * @return Task handles which are waiting to start.
+     */
+    public Collection<AsyncTaskHandle> getQueuedHandles() {
+        Collection<AsyncTaskHandle> handles = Lists.newArrayList();
+        for (AsyncTaskHandle handle : handlesByKey.values()) {
+            if (!handle.isStarted() && !handle.isDone()) {
+                handles.add(handle);
+            }
+        }
+        return handles;
+    }
+
+    /**
+     * @return Queue depth, wait time and run time statistics for each
+     *         {@link AsyncTaskLane}.
+     */
+    public Collection<AsyncTaskLaneStatistics> getLaneStatistics() {
+        return asyncTaskManager.getLaneStatistics();
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.async;
+
+/**
+ * Execution lanes for asynchronous tasks. Each lane has its own threads and
+ * queue, so that short tasks which a user is waiting for are not queued behind
+ * long-running administrative jobs.
+ *
+ * @see Async#value()
+ */
+public enum AsyncTaskLane {
+    /**
+     * Short tasks, such as event handlers and requests which a client waits
+     * for.
+     */
+    INTERACTIVE,
+    /**
+     * Tasks started by users which may take a while, such as CopyTrans for a
+     * document.
+     */
+    NORMAL,
+    /**
+     * Long-running jobs which affect whole versions or the entire server,
+     * such as reindexing or copying a version.
+     */
+    BULK
+}
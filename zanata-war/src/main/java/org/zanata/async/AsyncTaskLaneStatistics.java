@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.async;
+
+import lombok.Value;
+
+/**
+ * A snapshot of the activity in an {@link AsyncTaskLane}. Times are in
+ * milliseconds.
+ */
+@Value
+public class AsyncTaskLaneStatistics {
+    AsyncTaskLane lane;
+    int threads;
+    int runningTasks;
+    /**
+     * tasks which have been accepted but have not yet started
+     */
+    int queuedTasks;
+    long submittedTasks;
+    long rejectedTasks;
+    long completedTasks;
+    long averageWaitTime;
+    long maxWaitTime;
+    long averageRunTime;
+    long maxRunTime;
+}
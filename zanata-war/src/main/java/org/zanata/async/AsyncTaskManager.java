@@ -21,9 +21,11 @@
 package org.zanata.async;
 
 import java.security.Principal;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.annotation.Nonnull;
 import javax.annotation.PostConstruct;
@@ -44,8 +46,10 @@ import org.zanata.seam.security.ZanataJpaIdentityStore;
 import org.zanata.security.ZanataIdentity;
 import org.zanata.security.annotations.Authenticated;
 import org.zanata.security.annotations.AuthenticatedLiteral;
+import org.zanata.util.Introspectable;
 import org.zanata.util.ServiceLocator;
 
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ListenableFuture;
 
 /**
@@ -56,18 +60,26 @@ import com.google.common.util.concurrent.ListenableFuture;
 @javax.enterprise.context.ApplicationScoped
 @Slf4j
 // TODO consider switching from Guava's ListenableFuture to Java 8's CompletableFuture
-public class AsyncTaskManager {
+public class AsyncTaskManager implements Introspectable {
+    private static final String BASE = AsyncTaskManager.class.getName();
 
     // TODO use ManagedExecutorService on Java EE 7, so that we can eg inject UserTransaction
-    private ExecutorService scheduler;
+    private AsyncTaskScheduler scheduler;
 
     @Inject
     private AsyncConfig asyncConfig;
 
     @PostConstruct
     public void init() {
-        scheduler =
-                Executors.newFixedThreadPool(asyncConfig.getThreadPoolSize());
+        Map<AsyncTaskLane, AsyncTaskScheduler.LaneConfig> lanes =
+                new EnumMap<>(AsyncTaskLane.class);
+        for (AsyncTaskLane lane : AsyncTaskLane.values()) {
+            lanes.put(lane, new AsyncTaskScheduler.LaneConfig(
+                    asyncConfig.getThreadPoolSize(lane),
+                    asyncConfig.getQueueSize(lane),
+                    asyncConfig.getMaxTasksPerUser(lane)));
+        }
+        scheduler = new AsyncTaskScheduler(lanes);
     }
 
     @PreDestroy
@@ -75,16 +87,29 @@ public class AsyncTaskManager {
         scheduler.shutdown();
     }
 
+    /**
+     * Starts a task asynchronously in the {@link AsyncTaskLane#NORMAL} lane.
+     *
+     * @see #startTask(AsyncTask, AsyncTaskLane)
+     */
+    public <V> ListenableFuture<V> startTask(
+            final @Nonnull AsyncTask<Future<V>> task) {
+        return startTask(task, AsyncTaskLane.NORMAL);
+    }
+
     /**
      * Starts a task asynchronously.
      * In its present implementation can only run tasks which expect a
      * {@code Future} result.
      * @param task The task to run.
+     * @param lane The lane to run the task in.
      * @param <V> The type of result expected.
      * @return A listenable future for the expected result.
+     * @throws RejectedExecutionException if the lane's queue is full
      */
     public <V> ListenableFuture<V> startTask(
-            final @Nonnull AsyncTask<Future<V>> task) {
+            final @Nonnull AsyncTask<Future<V>> task,
+            @Nonnull AsyncTaskLane lane) throws RejectedExecutionException {
         HAccount taskOwner = ServiceLocator.instance()
                 .getInstance(HAccount.class, new AuthenticatedLiteral());
         ZanataIdentity ownerIdentity = ZanataIdentity.instance();
@@ -127,10 +152,42 @@ public class AsyncTaskManager {
             }
         };
 
-        scheduler.execute(executableCommand);
+        scheduler.submit(lane, taskOwnerUsername, executableCommand);
         return taskFuture;
     }
 
+    /**
+     * @return queue depth, wait time and run time statistics for each lane
+     */
+    public Collection<AsyncTaskLaneStatistics> getLaneStatistics() {
+        return scheduler.getStatistics();
+    }
+
+    @Override
+    public String getIntrospectableId() {
+        // not getClass(), which may be a CDI proxy
+        return AsyncTaskManager.class.getCanonicalName();
+    }
+
+    @Override
+    public Collection<String> getIntrospectableFieldNames() {
+        Collection<String> fields = Lists.newArrayList();
+        for (AsyncTaskLane lane : AsyncTaskLane.values()) {
+            fields.add(BASE + "." + lane.name().toLowerCase());
+        }
+        return fields;
+    }
+
+    @Override
+    public String getFieldValueAsString(String fieldName) {
+        for (AsyncTaskLane lane : AsyncTaskLane.values()) {
+            if (fieldName.equals(BASE + "." + lane.name().toLowerCase())) {
+                return scheduler.getStatistics(lane).toString();
+            }
+        }
+        throw new IllegalArgumentException("unknown field:" + fieldName);
+    }
+
     private static <V> V getReturnValue(Future<V> asyncTaskFuture)
             throws Exception {
         // If the async method returns void
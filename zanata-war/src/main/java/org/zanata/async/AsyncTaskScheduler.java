@@ -0,0 +1,250 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.async;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runs asynchronous tasks in separate lanes (see {@link AsyncTaskLane}), each
+ * with its own threads.
+ * <p>
+ * Each lane admits a limited number of waiting tasks, and rejects any more
+ * with a {@link RejectedExecutionException}. A lane may also limit the number
+ * of tasks running at once for each user; a user's extra tasks wait their
+ * turn without holding up other users' tasks.
+ */
+@Slf4j
+class AsyncTaskScheduler {
+    private final Map<AsyncTaskLane, Lane> lanes =
+            new EnumMap<>(AsyncTaskLane.class);
+
+    AsyncTaskScheduler(Map<AsyncTaskLane, LaneConfig> configs) {
+        for (AsyncTaskLane lane : AsyncTaskLane.values()) {
+            LaneConfig config = configs.get(lane);
+            if (config == null) {
+                throw new IllegalArgumentException(
+                        "no configuration for lane " + lane);
+            }
+            lanes.put(lane, new Lane(lane, config));
+        }
+    }
+
+    /**
+     * Queues a task to run in the given lane.
+     *
+     * @param lane
+     *            lane to run the task in
+     * @param owner
+     *            username of the user who started the task, or null for
+     *            system tasks (which are not subject to per-user limits)
+     * @param command
+     *            the task
+     * @throws RejectedExecutionException
+     *             if the lane's queue is full
+     */
+    void submit(AsyncTaskLane lane, @Nullable String owner,
+            Runnable command) throws RejectedExecutionException {
+        lanes.get(lane).submit(owner, command);
+    }
+
+    Collection<AsyncTaskLaneStatistics> getStatistics() {
+        ImmutableList.Builder<AsyncTaskLaneStatistics> stats =
+                ImmutableList.builder();
+        for (Lane lane : lanes.values()) {
+            stats.add(lane.getStatistics());
+        }
+        return stats.build();
+    }
+
+    AsyncTaskLaneStatistics getStatistics(AsyncTaskLane lane) {
+        return lanes.get(lane).getStatistics();
+    }
+
+    void shutdown() {
+        for (Lane lane : lanes.values()) {
+            lane.executor.shutdown();
+        }
+    }
+
+    @Value
+    static class LaneConfig {
+        int threads;
+        /**
+         * maximum number of tasks waiting to start
+         */
+        int queueCapacity;
+        /**
+         * maximum number of tasks running at once for each user, or 0 for no
+         * limit
+         */
+        int maxTasksPerUser;
+    }
+
+    private static class Lane {
+        private final AsyncTaskLane name;
+        private final ThreadPoolExecutor executor;
+        private final int queueCapacity;
+        private final int maxTasksPerUser;
+
+        // the fields below are guarded by this
+        private final Map<String, Integer> runningByUser = Maps.newHashMap();
+        private final Map<String, Deque<Task>> deferredByUser =
+                Maps.newHashMap();
+        private int queued;
+        private long submitted;
+        private long rejected;
+        private long started;
+        private long completed;
+        private long totalWaitTime;
+        private long maxWaitTime;
+        private long totalRunTime;
+        private long maxRunTime;
+
+        Lane(AsyncTaskLane name, LaneConfig config) {
+            this.name = name;
+            this.queueCapacity = config.getQueueCapacity();
+            this.maxTasksPerUser = config.getMaxTasksPerUser();
+            // admission is limited by queueCapacity, so the executor's own
+            // queue does not need a bound
+            this.executor = new ThreadPoolExecutor(config.getThreads(),
+                    config.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("async-"
+                                    + name.name().toLowerCase() + "-%d")
+                            .build());
+        }
+
+        synchronized void submit(@Nullable String owner, Runnable command) {
+            if (queued >= queueCapacity) {
+                rejected++;
+                throw new RejectedExecutionException("The " + name
+                        + " task queue is full (" + queueCapacity
+                        + " tasks). Please try again later.");
+            }
+            boolean throttled = owner != null && maxTasksPerUser > 0;
+            Task task = new Task(this, owner, throttled, command);
+            if (throttled) {
+                int running = runningByUser.getOrDefault(owner, 0);
+                if (running >= maxTasksPerUser) {
+                    log.debug("deferring {} task for {} ({} running)", name,
+                            owner, running);
+                    deferredByUser
+                            .computeIfAbsent(owner, k -> new ArrayDeque<>())
+                            .add(task);
+                    queued++;
+                    submitted++;
+                    return;
+                }
+                runningByUser.put(owner, running + 1);
+            }
+            executor.execute(task);
+            queued++;
+            submitted++;
+        }
+
+        synchronized void taskStarted(Task task) {
+            queued--;
+            started++;
+            long waitTime = task.startTime - task.enqueueTime;
+            totalWaitTime += waitTime;
+            maxWaitTime = Math.max(maxWaitTime, waitTime);
+        }
+
+        synchronized void taskFinished(Task task, long runTime) {
+            completed++;
+            totalRunTime += runTime;
+            maxRunTime = Math.max(maxRunTime, runTime);
+            if (!task.throttled) {
+                return;
+            }
+            // hand the user's slot to their next deferred task, if any
+            Deque<Task> deferred = deferredByUser.get(task.owner);
+            Task next = deferred != null ? deferred.poll() : null;
+            if (deferred != null && deferred.isEmpty()) {
+                deferredByUser.remove(task.owner);
+            }
+            if (next != null) {
+                executor.execute(next);
+                return;
+            }
+            int running = runningByUser.get(task.owner) - 1;
+            if (running > 0) {
+                runningByUser.put(task.owner, running);
+            } else {
+                runningByUser.remove(task.owner);
+            }
+        }
+
+        synchronized AsyncTaskLaneStatistics getStatistics() {
+            return new AsyncTaskLaneStatistics(name,
+                    executor.getMaximumPoolSize(), executor.getActiveCount(),
+                    queued, submitted, rejected, completed,
+                    started > 0 ? totalWaitTime / started : 0, maxWaitTime,
+                    completed > 0 ? totalRunTime / completed : 0, maxRunTime);
+        }
+    }
+
+    private static class Task implements Runnable {
+        private final Lane lane;
+        private final String owner;
+        private final boolean throttled;
+        private final Runnable command;
+        private final long enqueueTime = System.currentTimeMillis();
+        private long startTime;
+
+        Task(Lane lane, String owner, boolean throttled, Runnable command) {
+            this.lane = lane;
+            this.owner = owner;
+            this.throttled = throttled;
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            startTime = System.currentTimeMillis();
+            lane.taskStarted(this);
+            try {
+                command.run();
+            } finally {
+                lane.taskFinished(this,
+                        System.currentTimeMillis() - startTime);
+            }
+        }
+    }
+}
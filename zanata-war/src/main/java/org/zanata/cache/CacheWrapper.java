@@ -1,5 +1,11 @@
 package org.zanata.cache;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.google.common.cache.CacheStats;
+
 public interface CacheWrapper<K, V> {
     void put(K key, V value);
 
@@ -7,5 +13,32 @@ public interface CacheWrapper<K, V> {
 
     V getWithLoader(K key);
 
+    /**
+     * Returns the values for all the given keys. Keys which are not in the
+     * cache are loaded together with a single call to the cache loader's
+     * bulk load (falling back to loading one key at a time if the loader
+     * does not support bulk loading).
+     */
+    Map<K, V> getAll(Collection<K> keys);
+
     boolean remove(K key);
+
+    /**
+     * Reloads every cached entry with the cache loader and replaces entries
+     * whose cached value no longer matches the loaded one. Used to correct
+     * values which are updated incrementally rather than invalidated.
+     * <p>
+     * An entry is only replaced if it still equals a copy taken before it
+     * was loaded, so an update applied during the load is not lost.
+     *
+     * @param copier
+     *            copies a cached value (values may be updated in place)
+     * @return number of entries which had drifted
+     */
+    int reconcile(Function<V, V> copier);
+
+    /**
+     * @return a snapshot of the hit, miss and load counters of this cache.
+     */
+    CacheStats getStats();
 }
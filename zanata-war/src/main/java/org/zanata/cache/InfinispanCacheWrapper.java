@@ -20,18 +20,44 @@
  */
 package org.zanata.cache;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import com.google.common.cache.AbstractCache;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import lombok.extern.slf4j.Slf4j;
 import org.infinispan.Cache;
 import org.infinispan.manager.CacheContainer;
 
 /**
+ * Wraps an Infinispan cache and adds loading semantics to it.
+ * <p>
+ * Loading is done per key: concurrent misses on the same key will share a
+ * single call to the cache loader, while misses on different keys are loaded
+ * in parallel.
+ *
  * @author Carlos Munoz <a href="mailto:camunoz@redhat.com">camunoz@redhat.com</a>
  */
+@Slf4j
 public class InfinispanCacheWrapper<K, V> implements CacheWrapper<K, V> {
+    private static final int RECONCILE_BATCH_SIZE = 500;
 
     private final String cacheName;
     private final CacheContainer cacheContainer;
     private CacheLoader<K, V> cacheLoader;
+    private final ConcurrentMap<K, SettableFuture<V>> loadsInProgress =
+            Maps.newConcurrentMap();
+    private final AbstractCache.SimpleStatsCounter statsCounter =
+            new AbstractCache.SimpleStatsCounter();
 
     public InfinispanCacheWrapper(String cacheName,
             CacheContainer cacheContainer) {
@@ -57,19 +83,160 @@ public class InfinispanCacheWrapper<K, V> implements CacheWrapper<K, V> {
     }
 
     @Override
-    public synchronized V getWithLoader(K key) {
+    public V getWithLoader(K key) {
         // NB: Need to manually implement the cache loader feature
         V cachedValue = getCache().get(key);
-        if(cachedValue == null && cacheLoader != null) {
+        if (cachedValue != null) {
+            statsCounter.recordHits(1);
+            return cachedValue;
+        }
+        statsCounter.recordMisses(1);
+        if (cacheLoader == null) {
+            return null;
+        }
+        return loadOnce(key);
+    }
+
+    /**
+     * Loads a single key, sharing the load with any other thread which is
+     * loading the same key at the same time.
+     */
+    private V loadOnce(K key) {
+        SettableFuture<V> newLoad = SettableFuture.create();
+        SettableFuture<V> existingLoad =
+                loadsInProgress.putIfAbsent(key, newLoad);
+        if (existingLoad != null) {
+            // another thread is already loading this key
+            return waitForLoad(existingLoad);
+        }
+        try {
+            // the value may have been put by a load which just finished
+            V cachedValue = getCache().get(key);
+            if (cachedValue == null) {
+                cachedValue = load(key);
+                getCache().put(key, cachedValue);
+            }
+            newLoad.set(cachedValue);
+            return cachedValue;
+        } catch (RuntimeException e) {
+            newLoad.setException(e);
+            throw e;
+        } finally {
+            loadsInProgress.remove(key, newLoad);
+        }
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) {
+        Map<K, V> result = Maps.newHashMapWithExpectedSize(keys.size());
+        List<K> missingKeys = Lists.newArrayList();
+        for (K key : keys) {
+            V cachedValue = getCache().get(key);
+            if (cachedValue != null) {
+                result.put(key, cachedValue);
+            } else {
+                missingKeys.add(key);
+            }
+        }
+        statsCounter.recordHits(result.size());
+        statsCounter.recordMisses(missingKeys.size());
+        if (missingKeys.isEmpty() || cacheLoader == null) {
+            return result;
+        }
+
+        Map<K, V> loaded;
+        long start = System.nanoTime();
+        try {
+            loaded = cacheLoader.loadAll(missingKeys);
+            statsCounter.recordLoadSuccess(System.nanoTime() - start);
+        } catch (CacheLoader.UnsupportedLoadingOperationException e) {
+            for (K key : missingKeys) {
+                result.put(key, loadOnce(key));
+            }
+            return result;
+        } catch (Exception e) {
+            statsCounter.recordLoadException(System.nanoTime() - start);
+            throw new RuntimeException(
+                    "Unable to load entries with cache loader ", e);
+        }
+        for (K key : missingKeys) {
+            V value = loaded.get(key);
+            if (value == null) {
+                // bulk loader did not return this key
+                value = loadOnce(key);
+            } else {
+                getCache().put(key, value);
+            }
+            result.put(key, value);
+        }
+        return result;
+    }
+
+    @Override
+    public int reconcile(Function<V, V> copier) {
+        if (cacheLoader == null) {
+            return 0;
+        }
+        int drifted = 0;
+        List<K> keys = Lists.newArrayList(getCache().keySet());
+        for (List<K> batch : Lists.partition(keys, RECONCILE_BATCH_SIZE)) {
+            // Copy the cached values before loading: values may be updated in
+            // place while the batch is loaded, and such an entry must not be
+            // overwritten with a value loaded before (or after) the update.
+            Map<K, V> snapshots = Maps.newHashMap();
+            for (K key : batch) {
+                V cachedValue = getCache().get(key);
+                if (cachedValue != null) {
+                    snapshots.put(key, copier.apply(cachedValue));
+                }
+            }
+            Map<K, V> loaded;
             try {
-                cachedValue = cacheLoader.load(key);
+                loaded = cacheLoader.loadAll(batch);
+            } catch (CacheLoader.UnsupportedLoadingOperationException e) {
+                loaded = Maps.newHashMap();
+                for (K key : batch) {
+                    loaded.put(key, load(key));
+                }
             } catch (Exception e) {
                 throw new RuntimeException(
-                        "Unable to load entry with cache loader ", e);
+                        "Unable to load entries with cache loader ", e);
+            }
+            for (Map.Entry<K, V> entry : snapshots.entrySet()) {
+                K key = entry.getKey();
+                V snapshot = entry.getValue();
+                V loadedValue = loaded.get(key);
+                if (loadedValue != null && !snapshot.equals(loadedValue)
+                        && getCache().replace(key, snapshot, loadedValue)) {
+                    log.warn("cache {} entry {} has drifted: {} -> {}",
+                            cacheName, key, snapshot, loadedValue);
+                    drifted++;
+                }
             }
-            getCache().put(key, cachedValue);
         }
-        return cachedValue;
+        return drifted;
+    }
+
+    private V load(K key) {
+        long start = System.nanoTime();
+        try {
+            V value = cacheLoader.load(key);
+            statsCounter.recordLoadSuccess(System.nanoTime() - start);
+            return value;
+        } catch (Exception e) {
+            statsCounter.recordLoadException(System.nanoTime() - start);
+            throw new RuntimeException(
+                    "Unable to load entry with cache loader ", e);
+        }
+    }
+
+    private V waitForLoad(SettableFuture<V> load) {
+        try {
+            return Uninterruptibles.getUninterruptibly(load);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(
+                    "Unable to load entry with cache loader ", e.getCause());
+        }
     }
 
     @Override
@@ -77,6 +244,11 @@ public class InfinispanCacheWrapper<K, V> implements CacheWrapper<K, V> {
         return getCache().remove(key) != null;
     }
 
+    @Override
+    public CacheStats getStats() {
+        return statsCounter.snapshot();
+    }
+
     public Cache<K, V> getCache() {
         return cacheContainer.getCache(cacheName);
     }
@@ -22,6 +22,7 @@ package org.zanata.config;
 
 import com.google.common.annotations.VisibleForTesting;
 import lombok.NoArgsConstructor;
+import org.zanata.async.AsyncTaskLane;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -38,7 +39,28 @@ import javax.inject.Named;
 @NoArgsConstructor
 public class AsyncConfig {
 
+    /**
+     * Number of threads for {@link AsyncTaskLane#NORMAL} tasks
+     */
     public static final String THREAD_POOL_SIZE = "async.threadpool.size";
+    public static final String INTERACTIVE_THREAD_POOL_SIZE =
+            "async.threadpool.interactive.size";
+    public static final String BULK_THREAD_POOL_SIZE =
+            "async.threadpool.bulk.size";
+    /**
+     * Maximum number of {@link AsyncTaskLane#NORMAL} tasks waiting to start
+     */
+    public static final String QUEUE_SIZE = "async.queue.size";
+    public static final String INTERACTIVE_QUEUE_SIZE =
+            "async.queue.interactive.size";
+    public static final String BULK_QUEUE_SIZE = "async.queue.bulk.size";
+    /**
+     * Maximum number of {@link AsyncTaskLane#NORMAL} tasks running at once
+     * for each user (0 for no limit)
+     */
+    public static final String MAX_TASKS_PER_USER = "async.user.max.tasks";
+    public static final String MAX_BULK_TASKS_PER_USER =
+            "async.user.max.bulk.tasks";
 
     @Inject
     private SystemPropertyConfigStore systemPropertyConfigStore;
@@ -50,4 +72,42 @@ public class AsyncConfig {
     public int getThreadPoolSize() {
         return systemPropertyConfigStore.get(THREAD_POOL_SIZE, 10);
     }
+
+    public int getThreadPoolSize(AsyncTaskLane lane) {
+        switch (lane) {
+            case INTERACTIVE:
+                return systemPropertyConfigStore.get(
+                        INTERACTIVE_THREAD_POOL_SIZE, 4);
+            case BULK:
+                return systemPropertyConfigStore.get(BULK_THREAD_POOL_SIZE, 2);
+            default:
+                return getThreadPoolSize();
+        }
+    }
+
+    public int getQueueSize(AsyncTaskLane lane) {
+        switch (lane) {
+            case INTERACTIVE:
+                return systemPropertyConfigStore.get(INTERACTIVE_QUEUE_SIZE,
+                        10000);
+            case BULK:
+                return systemPropertyConfigStore.get(BULK_QUEUE_SIZE, 100);
+            default:
+                return systemPropertyConfigStore.get(QUEUE_SIZE, 1000);
+        }
+    }
+
+    public int getMaxTasksPerUser(AsyncTaskLane lane) {
+        switch (lane) {
+            case INTERACTIVE:
+                // interactive tasks are short, and are often event handlers
+                // which must not be held back
+                return 0;
+            case BULK:
+                return systemPropertyConfigStore.get(MAX_BULK_TASKS_PER_USER,
+                        1);
+            default:
+                return systemPropertyConfigStore.get(MAX_TASKS_PER_USER, 4);
+        }
+    }
 }
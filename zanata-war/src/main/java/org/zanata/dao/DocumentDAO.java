@@ -1,6 +1,8 @@
 package org.zanata.dao;
 
 import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -19,6 +21,7 @@ import org.zanata.common.ContentState;
 import org.zanata.common.LocaleId;
 import org.zanata.common.TransUnitCount;
 import org.zanata.common.TransUnitWords;
+import org.zanata.events.DocumentLocaleKey;
 import org.zanata.file.GlobalDocumentId;
 import org.zanata.model.HDocument;
 import org.zanata.model.HLocale;
@@ -32,6 +35,8 @@ import org.zanata.rest.dto.stats.TranslationStatistics.StatUnit;
 import org.zanata.ui.model.statistic.WordStatistic;
 import org.zanata.util.StatisticsUtil;
 import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -39,6 +44,9 @@ import lombok.extern.slf4j.Slf4j;
 @RequestScoped
 @Slf4j
 public class DocumentDAO extends AbstractDAOImpl<HDocument, Long> {
+    // keeps "in (...)" parameter lists within database limits
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
+
     public DocumentDAO() {
         super(HDocument.class);
     }
@@ -206,19 +214,112 @@ public class DocumentDAO extends AbstractDAOImpl<HDocument, Long> {
         return wordStatistic;
     }
 
+    /**
+     * Bulk version of {@link #getWordStatistics(Long, LocaleId)}. Statistics
+     * for every combination of the given documents and locales are calculated
+     * with one grouped query (per batch of documents) instead of one query per
+     * document and locale.
+     *
+     * @param documentIds
+     *            documents to calculate statistics for
+     * @param localeIds
+     *            locales to calculate statistics for
+     * @return word statistics for every (document, locale) combination
+     */
+    public Map<DocumentLocaleKey, WordStatistic> getWordStatistics(
+            Collection<Long> documentIds, Collection<LocaleId> localeIds) {
+        Map<DocumentLocaleKey, WordStatistic> result = Maps.newHashMap();
+        if (documentIds.isEmpty() || localeIds.isEmpty()) {
+            return result;
+        }
+        for (List<Long> batch : Lists.partition(
+                Lists.newArrayList(documentIds), MAX_IN_CLAUSE_SIZE)) {
+            for (Long documentId : batch) {
+                for (LocaleId localeId : localeIds) {
+                    result.put(new DocumentLocaleKey(documentId, localeId),
+                            new WordStatistic());
+                }
+            }
+            Query q =
+                    getSession()
+                            .createQuery(
+                                    "select s.document.id, "
+                                            + "s.locale.localeId, s.state, "
+                                            + "sum(s.words) "
+                                            + "from HDocumentStatistic s "
+                                            + "where s.document.id in (:documentIds) "
+                                            + "and s.locale.localeId in (:localeIds) "
+                                            + "and s.document.obsolete = false "
+                                            + "group by s.document.id, "
+                                            + "s.locale.localeId, s.state");
+            q.setParameterList("documentIds", batch).setParameterList(
+                    "localeIds", localeIds);
+            q.setCacheable(true).setComment(
+                    "DocumentDAO.getWordStatisticsForDocuments");
+            @SuppressWarnings("unchecked")
+            List<Object[]> stats = q.list();
+            for (Object[] row : stats) {
+                WordStatistic wordStatistic =
+                        result.get(new DocumentLocaleKey((Long) row[0],
+                                (LocaleId) row[1]));
+                wordStatistic.set((ContentState) row[2],
+                        ((Long) row[3]).intValue());
+            }
+
+            Map<Long, Long> totalWordCounts =
+                    getTotalWordCountForDocuments(batch);
+            for (Long documentId : batch) {
+                Long totalCount = totalWordCounts.get(documentId);
+                for (LocaleId localeId : localeIds) {
+                    WordStatistic wordStatistic =
+                            result.get(new DocumentLocaleKey(documentId,
+                                    localeId));
+                    wordStatistic.set(ContentState.New,
+                            (totalCount == null ? 0 : totalCount.intValue())
+                                    - (wordStatistic.getTranslated()
+                                            + wordStatistic.getNeedReview()
+                                            + wordStatistic.getRejected()));
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, Long> getTotalWordCountForDocuments(
+            List<Long> documentIds) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> totals =
+                getSession()
+                        .createQuery(
+                                "select tf.document.id, sum(tf.wordCount) "
+                                        + "from HTextFlow tf "
+                                        + "where tf.document.id in (:documentIds) "
+                                        + "and tf.obsolete = false "
+                                        + "group by tf.document.id")
+                        .setParameterList("documentIds", documentIds)
+                        .setCacheable(true)
+                        .setComment(
+                                "DocumentDAO.getTotalWordCountForDocuments")
+                        .list();
+        Map<Long, Long> result = Maps.newHashMap();
+        for (Object[] row : totals) {
+            result.put((Long) row[0], (Long) row[1]);
+        }
+        return result;
+    }
+
     public List<StatusCount> getWordStatusCount(Long documentId,
             LocaleId localeId) {
         Query q =
                 getSession()
                         .createQuery(
-                                "select new org.zanata.model.StatusCount(tft.state, "
-                                        + "sum(tft.textFlow.wordCount)) "
-                                        + "from HTextFlowTarget tft "
-                                        + "where tft.textFlow.document.id = :documentId "
-                                        + "and tft.locale.localeId = :localeId "
-                                        + "and tft.textFlow.obsolete = false "
-                                        + "and tft.textFlow.document.obsolete = false "
-                                        + "group by tft.state ");
+                                "select new org.zanata.model.StatusCount(s.state, "
+                                        + "sum(s.words)) "
+                                        + "from HDocumentStatistic s "
+                                        + "where s.document.id = :documentId "
+                                        + "and s.locale.localeId = :localeId "
+                                        + "and s.document.obsolete = false "
+                                        + "group by s.state ");
         q.setParameter("documentId", documentId).setParameter("localeId",
                 localeId);
         q.setCacheable(true).setComment("DocumentDAO.getWordStatistics");
@@ -242,12 +343,11 @@ public class DocumentDAO extends AbstractDAOImpl<HDocument, Long> {
         List<StatusCount> stats =
                 session.createQuery(
                         "select new org.zanata.model.StatusCount("
-                                + "tft.state, count(tft)) "
-                                + "from HTextFlowTarget tft "
-                                + "where tft.textFlow.document.id = :id "
-                                + "  and tft.locale.localeId = :locale "
-                                + "  and tft.textFlow.obsolete = false "
-                                + "group by tft.state")
+                                + "s.state, sum(s.messages)) "
+                                + "from HDocumentStatistic s "
+                                + "where s.document.id = :id "
+                                + "  and s.locale.localeId = :locale "
+                                + "group by s.state")
                         .setParameter("id", docId)
                         .setParameter("locale", localeId)
                         .setComment("DocumentDAO.getStatistics-units")
@@ -266,12 +366,11 @@ public class DocumentDAO extends AbstractDAOImpl<HDocument, Long> {
         List<StatusCount> wordStats =
                 session.createQuery(
                         "select new org.zanata.model.StatusCount("
-                                + "tft.state, sum(tft.textFlow.wordCount)) "
-                                + "from HTextFlowTarget tft "
-                                + "where tft.textFlow.document.id = :id "
-                                + "  and tft.locale.localeId = :locale "
-                                + "  and tft.textFlow.obsolete = false "
-                                + "group by tft.state")
+                                + "s.state, sum(s.words)) "
+                                + "from HDocumentStatistic s "
+                                + "where s.document.id = :id "
+                                + "  and s.locale.localeId = :locale "
+                                + "group by s.state")
                         .setParameter("id", docId)
                         .setParameter("locale", localeId).setCacheable(true)
                         .setComment("DocumentDAO.getStatistics-words").list();
@@ -318,16 +417,15 @@ public class DocumentDAO extends AbstractDAOImpl<HDocument, Long> {
                 new HashMap<String, TransUnitWords>();
 
         StringBuilder query = new StringBuilder();
-        query.append("select new map (tft.state as state, count(tft) as msgCount, ");
-        query.append("          sum(tft.textFlow.wordCount) as wordCount, "
-                + "tft.locale.localeId as locale) ");
-        query.append("from HTextFlowTarget tft ");
-        query.append("where tft.textFlow.document.id = :id ");
+        query.append("select new map (s.state as state, sum(s.messages) as msgCount, ");
+        query.append("          sum(s.words) as wordCount, "
+                + "s.locale.localeId as locale) ");
+        query.append("from HDocumentStatistic s ");
+        query.append("where s.document.id = :id ");
         if (localeIds != null && localeIds.length > 0) {
-            query.append("  and tft.locale.localeId in (:locales) ");
+            query.append("  and s.locale.localeId in (:locales) ");
         }
-        query.append("  and tft.textFlow.obsolete = false ");
-        query.append("group by tft.state, tft.locale");
+        query.append("group by s.state, s.locale");
 
         // calculate unit counts
         @SuppressWarnings("unchecked")
@@ -510,7 +608,6 @@ public class DocumentDAO extends AbstractDAOImpl<HDocument, Long> {
      *            Translated document's locale.
      * @return A Hash string (checksum) for a translated document.
      */
-    @NativeQuery
     public String
             getTranslatedDocumentStateHash(final String projectSlug,
                     final String iterationSlug, final String docId,
@@ -520,10 +617,36 @@ public class DocumentDAO extends AbstractDAOImpl<HDocument, Long> {
         if (doc == null) {
             return "";
         }
+        return toTranslatedDocumentStateHash(doc.getLastChanged(),
+                getTranslationsLastChanged(doc, locale));
+    }
+
+    /**
+     * Combines a document's last changed date with the last change to its
+     * translations (see {@link #getTranslationsLastChanged}) to give the
+     * translated document's hash.
+     */
+    public static String toTranslatedDocumentStateHash(
+            Date documentLastChanged, Date translationsLastChanged) {
+        Date latest = documentLastChanged;
+        if (latest == null || translationsLastChanged.after(latest)) {
+            latest = translationsLastChanged;
+        }
+        return new Timestamp(latest.getTime()).toString();
+    }
+
+    /**
+     * Finds the last time any translation, translation comment or PO target
+     * header of the document was changed in the locale.
+     *
+     * @return the latest change, or 1753-01-01 if there are no translations
+     */
+    @NativeQuery
+    public Date getTranslationsLastChanged(HDocument doc, HLocale locale) {
         // NB: This method uses a native SQL query tested on mysql and h2
         // databases.
         String sql =
-                "select greatest(\n" + "  d.lastChanged,\n"
+                "select greatest(\n"
                         + "  max(ifnull(tft.lastChanged, {d '1753-01-01'})),\n"
                         + "  max(ifnull(c.lastChanged, {d '1753-01-01'})),\n"
                         + "  max(ifnull(poth.lastChanged, {d '1753-01-01'}))\n"
@@ -537,7 +660,7 @@ public class DocumentDAO extends AbstractDAOImpl<HDocument, Long> {
                         + "  left outer join HPoTargetHeader poth\n"
                         + "    on poth.document_id = d.id\n"
                         + "    and poth.targetLanguage = :locale\n"
-                        + "where d.id = :doc\n" + "group by d.lastChanged";
+                        + "where d.id = :doc";
 
         Query query =
                 getSession().createSQLQuery(sql)
@@ -545,8 +668,7 @@ public class DocumentDAO extends AbstractDAOImpl<HDocument, Long> {
                         .addScalar("latest", TimestampType.INSTANCE)
                         .setParameter("locale", locale)
                         .setParameter("doc", doc);
-        Timestamp timestamp = (Timestamp) query.uniqueResult();
-        return timestamp.toString();
+        return (Timestamp) query.uniqueResult();
     }
 
     /**
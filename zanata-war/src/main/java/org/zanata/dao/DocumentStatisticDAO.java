@@ -0,0 +1,157 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.dao;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Named;
+
+import org.hibernate.Query;
+import org.hibernate.SQLQuery;
+import org.hibernate.Session;
+import org.zanata.common.ContentState;
+import org.zanata.model.HDocumentStatistic;
+
+/**
+ * Maintains the materialised statistics in {@link HDocumentStatistic}.
+ * <p>
+ * Updates are native queries so that they can run while a transaction is
+ * being completed, after the session has been flushed. Callers should lock
+ * the documents first (see {@link #lockDocuments(Collection)}), so that
+ * concurrent transactions don't both create the row for the same document,
+ * locale and state.
+ */
+@Named("documentStatisticDAO")
+@RequestScoped
+public class DocumentStatisticDAO extends
+        AbstractDAOImpl<HDocumentStatistic, Long> {
+    private static final long serialVersionUID = 1L;
+
+    public DocumentStatisticDAO() {
+        super(HDocumentStatistic.class);
+    }
+
+    public DocumentStatisticDAO(Session session) {
+        super(HDocumentStatistic.class, session);
+    }
+
+    /**
+     * Locks the given documents' rows until the end of the transaction. Rows
+     * are locked in order of id to avoid deadlocks.
+     */
+    @NativeQuery("select for update of rows which aren't loaded as entities")
+    public void lockDocuments(Collection<Long> documentIds) {
+        if (documentIds.isEmpty()) {
+            return;
+        }
+        getSession()
+                .createSQLQuery(
+                        "select id from HDocument where id in (:ids) "
+                                + "order by id for update")
+                .setParameterList("ids", documentIds)
+                .setComment("DocumentStatisticDAO.lockDocuments").list();
+    }
+
+    /**
+     * Adds the given numbers of messages and words (which may be negative)
+     * to the statistics of a document in a locale and state.
+     */
+    @NativeQuery("runs after the session has been flushed")
+    public void addToStatistic(Long documentId, Long localeId,
+            ContentState state, int messages, long words) {
+        int updated =
+                synchronizedQuery(
+                        "update HDocumentStatistic "
+                                + "set messages = messages + :messages, "
+                                + "words = words + :words "
+                                + "where document_id = :docId "
+                                + "and locale_id = :localeId "
+                                + "and state = :state")
+                        .setParameter("messages", messages)
+                        .setParameter("words", words)
+                        .setParameter("docId", documentId)
+                        .setParameter("localeId", localeId)
+                        .setParameter("state", state.ordinal())
+                        .setComment("DocumentStatisticDAO.addToStatistic")
+                        .executeUpdate();
+        if (updated == 0) {
+            synchronizedQuery(
+                    "insert into HDocumentStatistic "
+                            + "(document_id, locale_id, state, messages, words) "
+                            + "values (:docId, :localeId, :state, :messages, :words)")
+                    .setParameter("docId", documentId)
+                    .setParameter("localeId", localeId)
+                    .setParameter("state", state.ordinal())
+                    .setParameter("messages", messages)
+                    .setParameter("words", words)
+                    .setComment("DocumentStatisticDAO.insertStatistic")
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * Replaces the statistics of a document, in every locale, with ones
+     * calculated from its current text flows and targets.
+     */
+    @NativeQuery("runs after the session has been flushed")
+    public void recalculate(Long documentId) {
+        synchronizedQuery(
+                "delete from HDocumentStatistic where document_id = :docId")
+                .setParameter("docId", documentId)
+                .setComment("DocumentStatisticDAO.deleteStatistics")
+                .executeUpdate();
+        synchronizedQuery(
+                "insert into HDocumentStatistic "
+                        + "(document_id, locale_id, state, messages, words) "
+                        + "select tf.document_id, tft.locale, tft.state, "
+                        + "count(*), sum(tf.wordCount) "
+                        + "from HTextFlowTarget tft "
+                        + "join HTextFlow tf on tft.tf_id = tf.id "
+                        + "where tf.document_id = :docId "
+                        + "and tf.obsolete = :obsolete "
+                        + "group by tf.document_id, tft.locale, tft.state")
+                .setParameter("docId", documentId)
+                .setParameter("obsolete", false)
+                .setComment("DocumentStatisticDAO.recalculate")
+                .executeUpdate();
+    }
+
+    /**
+     * @return ids of all documents, obsolete or not, in order
+     */
+    public List<Long> getAllDocumentIds() {
+        Query q =
+                getSession().createQuery(
+                        "select d.id from HDocument d order by d.id");
+        q.setComment("DocumentStatisticDAO.getAllDocumentIds");
+        @SuppressWarnings("unchecked")
+        List<Long> ids = q.list();
+        return ids;
+    }
+
+    private SQLQuery synchronizedQuery(String sql) {
+        // only invalidate cached queries over this table
+        return getSession().createSQLQuery(sql)
+                .addSynchronizedEntityClass(HDocumentStatistic.class);
+    }
+}
@@ -20,6 +20,9 @@
  */
 package org.zanata.dao;
 
+import java.util.Date;
+import java.util.List;
+
 import org.hibernate.Session;
 
 import javax.enterprise.context.RequestScoped;
@@ -39,4 +42,16 @@ public class DocumentUploadDAO extends AbstractDAOImpl<HDocumentUpload, Long> {
         super(HDocumentUpload.class, session);
     }
 
+    /**
+     * @return uploads which were started before the given time
+     */
+    @SuppressWarnings("unchecked")
+    public List<HDocumentUpload> findAllCreatedBefore(Date threshold) {
+        return getSession()
+                .createQuery("from HDocumentUpload where creationDate < :date")
+                .setTimestamp("date", threshold)
+                .setComment("DocumentUploadDAO.findAllCreatedBefore")
+                .list();
+    }
+
 }
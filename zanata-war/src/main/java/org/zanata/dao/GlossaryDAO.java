@@ -21,10 +21,13 @@
 package org.zanata.dao;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.Nullable;
+
 import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -227,6 +230,55 @@ public class GlossaryDAO extends AbstractDAOImpl<HGlossaryEntry, Long> {
         return query.list();
     }
 
+    /**
+     * Returns the source and target terms of every glossary entry which has
+     * both a term in srcLocale (as its source) and a term in transLocale.
+     *
+     * @return rows of [entry id (Long), source term id (Long), source term
+     *         content, target term content]
+     */
+    public List<Object[]> getTermPairs(LocaleId srcLocale,
+            LocaleId transLocale) {
+        return getTermPairs(srcLocale, transLocale, null);
+    }
+
+    /**
+     * As {@link #getTermPairs(LocaleId, LocaleId)}, but limited to the given
+     * glossary entries.
+     */
+    public List<Object[]> getTermPairsByEntryIds(LocaleId srcLocale,
+            LocaleId transLocale, Collection<Long> entryIds) {
+        if (entryIds.isEmpty()) {
+            return new ArrayList<Object[]>();
+        }
+        return getTermPairs(srcLocale, transLocale, entryIds);
+    }
+
+    private List<Object[]> getTermPairs(LocaleId srcLocale,
+            LocaleId transLocale, @Nullable Collection<Long> entryIds) {
+        StringBuilder queryString = new StringBuilder();
+        queryString
+                .append("select s.glossaryEntry.id, s.id, s.content, t.content ")
+                .append("from HGlossaryTerm s, HGlossaryTerm t ")
+                .append("where t.glossaryEntry = s.glossaryEntry ")
+                .append("and s.glossaryEntry.srcLocale.localeId = :srcLocale ")
+                .append("and s.locale.localeId = :srcLocale ")
+                .append("and t.locale.localeId = :transLocale ");
+        if (entryIds != null) {
+            queryString.append("and s.glossaryEntry.id in (:entryIds) ");
+        }
+        Query query = getSession().createQuery(queryString.toString())
+                .setParameter("srcLocale", srcLocale)
+                .setParameter("transLocale", transLocale)
+                .setComment("GlossaryDAO.getTermPairs");
+        if (entryIds != null) {
+            query.setParameterList("entryIds", entryIds);
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> list = query.list();
+        return list;
+    }
+
     public List<Object[]> getSearchResult(String searchText,
             SearchType searchType, LocaleId srcLocale, final int maxResult)
             throws ParseException {
@@ -21,6 +21,7 @@
 package org.zanata.dao;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -52,6 +53,7 @@ import org.zanata.util.HashUtil;
 import org.zanata.util.StatisticsUtil;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 @Named("projectIterationDAO")
 @RequestScoped
@@ -195,6 +197,58 @@ public class ProjectIterationDAO extends
         return wordStatistic;
     }
 
+    /**
+     * Bulk version of {@link #getWordStatistics(Long, LocaleId)}. Statistics
+     * for all the given locales are calculated with one grouped query.
+     *
+     * @param iterationId
+     *            project iteration id
+     * @param localeIds
+     *            locales to calculate statistics for
+     * @return word statistics for every given locale
+     */
+    public Map<LocaleId, WordStatistic> getWordStatistics(Long iterationId,
+            Collection<LocaleId> localeIds) {
+        Map<LocaleId, WordStatistic> result = Maps.newHashMap();
+        if (localeIds.isEmpty()) {
+            return result;
+        }
+        for (LocaleId localeId : localeIds) {
+            result.put(localeId, new WordStatistic());
+        }
+        Query q =
+                getSession()
+                        .createQuery(
+                                "select s.locale.localeId, s.state, "
+                                        + "sum(s.words) "
+                                        + "from HDocumentStatistic s "
+                                        + "where s.document.projectIteration.id = :id "
+                                        + "and s.locale.localeId in (:locales) "
+                                        + "and s.document.obsolete = false "
+                                        + "group by s.locale.localeId, s.state");
+        q.setParameter("id", iterationId).setParameterList("locales",
+                localeIds);
+        q.setCacheable(true).setComment(
+                "ProjectIterationDAO.getWordStatisticsForLocales");
+        @SuppressWarnings("unchecked")
+        List<Object[]> stats = q.list();
+        for (Object[] row : stats) {
+            result.get((LocaleId) row[0]).set((ContentState) row[1],
+                    ((Long) row[2]).intValue());
+        }
+
+        Long totalCount = getTotalWordCountForIteration(iterationId);
+        for (WordStatistic wordStatistic : result.values()) {
+            wordStatistic.set(
+                    ContentState.New,
+                    totalCount.intValue()
+                            - (wordStatistic.getTranslated()
+                                    + wordStatistic.getNeedReview() + wordStatistic
+                                        .getRejected()));
+        }
+        return result;
+    }
+
     public MessageStatistic getMessageStatistics(Long iterationId,
             LocaleId localeId) {
 
@@ -223,14 +277,13 @@ public class ProjectIterationDAO extends
         Query q =
                 getSession()
                         .createQuery(
-                                "select new org.zanata.model.StatusCount(tft.state, "
-                                        + "sum(tft.textFlow.wordCount)) "
-                                        + "from HTextFlowTarget tft "
-                                        + "where tft.textFlow.document.projectIteration.id = :id "
-                                        + "and tft.locale.localeId = :locale "
-                                        + "and tft.textFlow.obsolete = false "
-                                        + "and tft.textFlow.document.obsolete = false "
-                                        + "group by tft.state ");
+                                "select new org.zanata.model.StatusCount(s.state, "
+                                        + "sum(s.words)) "
+                                        + "from HDocumentStatistic s "
+                                        + "where s.document.projectIteration.id = :id "
+                                        + "and s.locale.localeId = :locale "
+                                        + "and s.document.obsolete = false "
+                                        + "group by s.state ");
         q.setParameter("id", iterationId).setParameter("locale", localeId);
         q.setCacheable(true)
                 .setComment("ProjectIterationDAO.getWordStatistics");
@@ -245,13 +298,12 @@ public class ProjectIterationDAO extends
         Query q =
                 getSession()
                         .createQuery(
-                                "select new org.zanata.model.StatusCount(tft.state, count(tft)) "
-                                        + "from HTextFlowTarget tft "
-                                        + "where tft.textFlow.document.projectIteration.id = :id "
-                                        + "and tft.locale.localeId = :locale "
-                                        + "and tft.textFlow.obsolete = false "
-                                        + "and tft.textFlow.document.obsolete = false "
-                                        + "group by tft.state");
+                                "select new org.zanata.model.StatusCount(s.state, sum(s.messages)) "
+                                        + "from HDocumentStatistic s "
+                                        + "where s.document.projectIteration.id = :id "
+                                        + "and s.locale.localeId = :locale "
+                                        + "and s.document.obsolete = false "
+                                        + "group by s.state");
         q.setParameter("id", iterationId).setParameter("locale", localeId);
         q.setCacheable(true).setComment(
                 "ProjectIterationDAO.getMessageStatusCount");
@@ -291,14 +343,13 @@ public class ProjectIterationDAO extends
         Query q =
                 getSession()
                         .createQuery(
-                                "select tft.state, "
-                                        + "sum(tft.textFlow.wordCount), "
-                                        + "tft.locale.localeId "
-                                        + "from HTextFlowTarget tft "
-                                        + "where tft.textFlow.document.projectIteration.id = :id "
-                                        + "and tft.textFlow.obsolete = false "
-                                        + "and tft.textFlow.document.obsolete = false "
-                                        + "group by tft.state, tft.locale.localeId");
+                                "select s.state, "
+                                        + "sum(s.words), "
+                                        + "s.locale.localeId "
+                                        + "from HDocumentStatistic s "
+                                        + "where s.document.projectIteration.id = :id "
+                                        + "and s.document.obsolete = false "
+                                        + "group by s.state, s.locale.localeId");
         q.setParameter("id", iterationId);
         q.setCacheable(true).setComment(
                 "ProjectIterationDAO.getAllWordStatsStatistics");
@@ -343,14 +394,13 @@ public class ProjectIterationDAO extends
         Query q =
                 getSession()
                         .createQuery(
-                                "select new map(tft.state as state, "
-                                        + "count(tft) as count, "
-                                        + "tft.locale.localeId as locale) "
-                                        + "from HTextFlowTarget tft "
-                                        + "where tft.textFlow.document.projectIteration.id = :id "
-                                        + " and tft.textFlow.obsolete = false"
-                                        + " and tft.textFlow.document.obsolete = false"
-                                        + " group by tft.state, tft.locale");
+                                "select new map(s.state as state, "
+                                        + "sum(s.messages) as count, "
+                                        + "s.locale.localeId as locale) "
+                                        + "from HDocumentStatistic s "
+                                        + "where s.document.projectIteration.id = :id "
+                                        + " and s.document.obsolete = false"
+                                        + " group by s.state, s.locale");
         q.setParameter("id", iterationId);
         q.setComment("ProjectIterationDAO.getAllStatisticsForContainer");
 
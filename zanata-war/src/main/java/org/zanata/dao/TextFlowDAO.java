@@ -191,6 +191,63 @@ public class TextFlowDAO extends AbstractDAOImpl<HTextFlow, Long> {
         return q.list();
     }
 
+    /**
+     * Loads a page of a document's text flows, each with its target and
+     * comments for one locale, as a single projection query. No entities are
+     * loaded, so the result transformer receives plain column values (see
+     * the aliases below).
+     * <p>
+     * Non-obsolete text flows are numbered by pos from 0, so a page starting
+     * at a given offset starts at that pos. Paging by pos (rather than by
+     * offset) lets the database seek straight to the page.
+     *
+     * @param fromPos
+     *            pos of the first text flow in the page
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getTextFlowsAndTargetsByDocumentId(Long documentId,
+            HLocale hLocale, int fromPos, int maxResults,
+            ResultTransformer resultTransformer) {
+        StringBuilder select = new StringBuilder(
+                "select tf.id as id, tf.resId as resId, tf.pos as pos, "
+                        + "tf.plural as plural, ");
+        for (int i = 0; i < HTextFlow.MAX_PLURALS; i++) {
+            select.append("tf.content").append(i).append(" as source")
+                    .append(i).append(", ");
+            select.append("tft.content").append(i).append(" as target")
+                    .append(i).append(", ");
+        }
+        select.append("tfc.comment as sourceComment, ")
+                .append("pot.context as msgContext, ")
+                .append("pot.references as sourceRefs, ")
+                .append("pot.flags as sourceFlags, ")
+                .append("tft.state as state, ")
+                .append("tft.versionNum as verNum, ")
+                .append("tftc.comment as targetComment, ")
+                .append("lmb.name as lastModifiedBy, ")
+                .append("tft.lastChanged as lastChanged, ")
+                .append("tft.revisionComment as revisionComment, ")
+                .append("(select count(*) from HTextFlowTargetReviewComment rc ")
+                .append("where rc.textFlowTarget = tft) as commentsCount ");
+        Query q = getSession().createQuery(select
+                .append("from HTextFlow tf ")
+                .append("left join tf.comment tfc ")
+                .append("left join tf.potEntryData pot ")
+                .append("left join tf.targets tft with tft.locale.id = :localeId ")
+                .append("left join tft.comment tftc ")
+                .append("left join tft.lastModifiedBy lmb ")
+                .append("where tf.document.id = :documentId ")
+                .append("and tf.obsolete = false and tf.pos >= :fromPos ")
+                .append("order by tf.pos").toString());
+        q.setParameter("documentId", documentId);
+        q.setParameter("localeId", hLocale.getId());
+        q.setParameter("fromPos", fromPos);
+        q.setMaxResults(maxResults);
+        q.setResultTransformer(resultTransformer);
+        q.setComment("TextFlowDAO.getTextFlowsAndTargetsByDocumentId");
+        return q.list();
+    }
+
     /**
      * for a given locale, we can filter it by content state or search in source
      * and target.
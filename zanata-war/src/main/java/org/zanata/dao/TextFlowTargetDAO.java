@@ -1,7 +1,14 @@
 package org.zanata.dao;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import lombok.Value;
 
 import org.hibernate.Query;
 import org.hibernate.SQLQuery;
@@ -21,6 +28,8 @@ import org.zanata.model.HTextFlowTarget;
 import org.zanata.service.TranslationFinder;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 @Named("textFlowTargetDAO")
 @RequestScoped
@@ -203,6 +212,90 @@ public class TextFlowTargetDAO extends AbstractDAOImpl<HTextFlowTarget, Long>
         return q.list();
     }
 
+    /**
+     * Counts the targets which would be returned by
+     * {@link #findTranslations(HDocument, HLocale)}.
+     */
+    public int getTranslationCount(HDocument document, HLocale locale) {
+        Query q =
+                getSession().createQuery(
+                        "select count(t) from HTextFlowTarget t where "
+                                + "t.textFlow.document =:document "
+                                + "and t.locale =:locale "
+                                + "and t.textFlow.obsolete=false");
+        q.setParameter("document", document);
+        q.setParameter("locale", locale);
+        q.setComment("TextFlowTargetDAO.getTranslationCount");
+        return ((Long) q.uniqueResult()).intValue();
+    }
+
+    /**
+     * Finds the ids of the targets which would be returned by
+     * {@link #findTranslations(HDocument, HLocale)}, without loading them.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> findTranslationIds(HDocument document, HLocale locale) {
+        Query q =
+                getSession().createQuery(
+                        "select t.id from HTextFlowTarget t where "
+                                + "t.textFlow.document =:document "
+                                + "and t.locale =:locale "
+                                + "and t.textFlow.obsolete=false");
+        q.setParameter("document", document);
+        q.setParameter("locale", locale);
+        q.setComment("TextFlowTargetDAO.findTranslationIds");
+        return q.list();
+    }
+
+    /**
+     * Finds the most recently changed of the targets which would be returned
+     * by {@link #findTranslations(HDocument, HLocale)} (the first in document
+     * order, if several were changed at the same time).
+     *
+     * @return the target, or null if there are no targets
+     */
+    public @Nullable
+    HTextFlowTarget findLastChangedTranslation(HDocument document,
+            HLocale locale) {
+        Query q =
+                getSession().createQuery(
+                        "select t from HTextFlowTarget t where "
+                                + "t.textFlow.document =:document "
+                                + "and t.locale =:locale "
+                                + "and t.textFlow.obsolete=false "
+                                + "order by t.lastChanged desc, "
+                                + "t.textFlow.pos");
+        q.setParameter("document", document);
+        q.setParameter("locale", locale);
+        q.setMaxResults(1);
+        q.setComment("TextFlowTargetDAO.findLastChangedTranslation");
+        return (HTextFlowTarget) q.uniqueResult();
+    }
+
+    /**
+     * Finds the people who last modified the targets which would be returned
+     * by {@link #findTranslations(HDocument, HLocale)}, without loading the
+     * targets.
+     *
+     * @return distinct rows of email, name and year of the change
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findTranslatorCredits(HDocument document,
+            HLocale locale) {
+        Query q =
+                getSession().createQuery(
+                        "select distinct p.email, p.name, year(t.lastChanged) "
+                                + "from HTextFlowTarget t "
+                                + "join t.lastModifiedBy p where "
+                                + "t.textFlow.document =:document "
+                                + "and t.locale =:locale "
+                                + "and t.textFlow.obsolete=false");
+        q.setParameter("document", document);
+        q.setParameter("locale", locale);
+        q.setComment("TextFlowTargetDAO.findTranslatorCredits");
+        return q.list();
+    }
+
     /**
      * Finds the best matching translations for a single text flow and a locale.
      * Other parameters (context, document id, and project) can also influence
@@ -274,6 +367,134 @@ public class TextFlowTargetDAO extends AbstractDAOImpl<HTextFlowTarget, Long>
         return Optional.fromNullable((HTextFlowTarget) sqlQuery.uniqueResult());
     }
 
+    /**
+     * Counts the translations which CopyTrans could copy to text flows with
+     * each of the given content hashes, so that the caller can avoid loading
+     * every candidate for very popular strings.
+     *
+     * @see #findCopyTransCandidates
+     * @return number of candidates by content hash (hashes without
+     *         candidates are omitted)
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> countCopyTransCandidates(
+            Collection<String> contentHashes, LocaleId localeId,
+            @Nullable String docId, @Nullable Long projectId) {
+        if (contentHashes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Object[]> rows = createCopyTransCandidateQuery(
+                "select tf.contentHash, count(tft) ",
+                "group by tf.contentHash", contentHashes, localeId, docId,
+                projectId)
+                .setComment("TextFlowTargetDAO.countCopyTransCandidates")
+                .list();
+        Map<String, Long> counts = Maps.newHashMap();
+        for (Object[] row : rows) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    /**
+     * Finds all the translations which CopyTrans could copy to text flows
+     * with the given content hashes, ie the same candidates as
+     * {@link #searchBestMatchTransMemory} but for many text flows at once.
+     * Only the fields needed to choose the best match are returned, so that
+     * popular strings with many translations stay cheap. Callers should use
+     * {@link #countCopyTransCandidates} to leave out hashes with too many
+     * candidates.
+     *
+     * @param docId
+     *            if not null, only translations in documents with this docId
+     * @param projectId
+     *            if not null, only translations in this project
+     */
+    @SuppressWarnings("unchecked")
+    public List<CopyTransCandidate> findCopyTransCandidates(
+            Collection<String> contentHashes, LocaleId localeId,
+            @Nullable String docId, @Nullable Long projectId) {
+        if (contentHashes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object[]> rows = createCopyTransCandidateQuery(
+                "select tft.id, tf.id, tf.contentHash, tf.resId, "
+                        + "doc.docId, project.id, tft.lastChanged ",
+                "", contentHashes, localeId, docId, projectId)
+                .setComment("TextFlowTargetDAO.findCopyTransCandidates")
+                .list();
+        List<CopyTransCandidate> candidates =
+                Lists.newArrayListWithCapacity(rows.size());
+        for (Object[] row : rows) {
+            candidates.add(new CopyTransCandidate((Long) row[0],
+                    (Long) row[1], (String) row[2], (String) row[3],
+                    (String) row[4], (Long) row[5], (Date) row[6]));
+        }
+        return candidates;
+    }
+
+    private Query createCopyTransCandidateQuery(String select,
+            String groupBy, Collection<String> contentHashes,
+            LocaleId localeId, @Nullable String docId,
+            @Nullable Long projectId) {
+        StringBuilder queryBuilder = new StringBuilder();
+        queryBuilder
+                .append(select)
+                .append("from HTextFlowTarget tft ")
+                .append("join tft.textFlow tf ")
+                .append("join tf.document doc ")
+                .append("join doc.projectIteration iter ")
+                .append("join iter.project project ")
+                .append("where tf.contentHash in (:contentHashes) ")
+                .append("and tft.locale.localeId = :localeId ")
+                .append("and tft.state in (:states) ")
+                .append("and iter.status <> :obsoleteStatus ")
+                .append("and project.status <> :obsoleteStatus ");
+        if (docId != null) {
+            queryBuilder.append("and doc.docId = :docId ");
+        }
+        if (projectId != null) {
+            queryBuilder.append("and project.id = :projectId ");
+        }
+        queryBuilder.append(groupBy);
+        Query query = getSession().createQuery(queryBuilder.toString())
+                .setParameterList("contentHashes", contentHashes)
+                .setParameter("localeId", localeId)
+                .setParameterList("states",
+                        new ContentState[] { ContentState.Translated,
+                                ContentState.Approved })
+                .setParameter("obsoleteStatus", EntityStatus.OBSOLETE);
+        if (docId != null) {
+            query.setParameter("docId", docId);
+        }
+        if (projectId != null) {
+            query.setParameter("projectId", projectId);
+        }
+        return query;
+    }
+
+    /**
+     * Loads translations by id, along with the text flow, document, version
+     * and project which CopyTrans needs to check each match.
+     */
+    @SuppressWarnings("unchecked")
+    public List<HTextFlowTarget> findCopyTransMatches(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return getSession()
+                .createQuery(
+                        "select tft from HTextFlowTarget tft "
+                                + "join fetch tft.textFlow tf "
+                                + "join fetch tf.document doc "
+                                + "join fetch doc.projectIteration iter "
+                                + "join fetch iter.project "
+                                + "where tft.id in (:ids)")
+                .setParameterList("ids", ids)
+                .setComment("TextFlowTargetDAO.findCopyTransMatches")
+                .list();
+    }
+
     /**
      * Look up the {@link HTextFlowTarget} for the given hLocale in hTextFlow,
      * creating a new one if none is present.
@@ -288,17 +509,31 @@ public class TextFlowTargetDAO extends AbstractDAOImpl<HTextFlowTarget, Long>
         HTextFlowTarget hTextFlowTarget = getTextFlowTarget(hTextFlow, hLocale);
 
         if (hTextFlowTarget == null) {
-            hTextFlowTarget = new HTextFlowTarget(hTextFlow, hLocale);
-            hTextFlowTarget.setVersionNum(0); // this will be incremented when
-                                              // content is set (below)
-            // TODO getTargets just to make sure hTextFlowTarget is persisted in
-            // the end
-            hTextFlow.getTargets().put(hLocale.getId(), hTextFlowTarget);
-            // getSession().persist(hTextFlowTarget);
+            hTextFlowTarget = createTarget(hTextFlow, hLocale);
         }
         return hTextFlowTarget;
     }
 
+    /**
+     * Create a new {@link HTextFlowTarget} for the given hLocale in
+     * hTextFlow. The caller must know that none exists yet.
+     *
+     * @param hTextFlow
+     *            The parent text flow.
+     * @param hLocale
+     *            The locale for the text flow target.
+     */
+    public HTextFlowTarget createTarget(HTextFlow hTextFlow, HLocale hLocale) {
+        HTextFlowTarget hTextFlowTarget = new HTextFlowTarget(hTextFlow, hLocale);
+        hTextFlowTarget.setVersionNum(0); // this will be incremented when
+                                          // content is set (below)
+        // TODO getTargets just to make sure hTextFlowTarget is persisted in
+        // the end
+        hTextFlow.getTargets().put(hLocale.getId(), hTextFlowTarget);
+        // getSession().persist(hTextFlowTarget);
+        return hTextFlowTarget;
+    }
+
     /**
      * Look up the {@link HTextFlowTarget} for the given hLocale in hTextFlow.
      * If none can be found, return null.
@@ -358,6 +593,35 @@ public class TextFlowTargetDAO extends AbstractDAOImpl<HTextFlowTarget, Long>
         return query.list();
     }
 
+    /**
+     * Finds all targets in the given documents and locale, with their text
+     * flows, using a single query.
+     *
+     * @param documentIds
+     *            documents to find targets in
+     * @param localeId
+     *            locale of the targets
+     */
+    @SuppressWarnings("unchecked")
+    public List<HTextFlowTarget> findByDocumentIds(
+            Collection<Long> documentIds, LocaleId localeId) {
+        if (documentIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Query query =
+                getSession()
+                        .createQuery(
+                                "select tft from HTextFlowTarget tft "
+                                        + "join fetch tft.textFlow tf "
+                                        + "where tf.document.id in (:documentIds) "
+                                        + "and tft.locale.localeId = :localeId");
+        query.setParameterList("documentIds", documentIds);
+        query.setParameter("localeId", localeId);
+        query.setCacheable(false).setComment(
+                "TextFlowTargetDAO.findByDocumentIds");
+        return query.list();
+    }
+
     public HTextFlowTarget getTextFlowTarget(HTextFlow hTextFlow,
             LocaleId localeId) {
         HTextFlowTarget hTextFlowTarget =
@@ -471,4 +735,21 @@ public class TextFlowTargetDAO extends AbstractDAOImpl<HTextFlowTarget, Long>
                                 "TextFlowTargetDAO.getTranslationCandidateCountWithProjectAndLocale");
         return (Long) query.uniqueResult();
     }
+
+    /**
+     * A translation which CopyTrans could copy, with the fields needed to
+     * choose between candidates.
+     *
+     * @see #findCopyTransCandidates
+     */
+    @Value
+    public static class CopyTransCandidate {
+        Long targetId;
+        Long textFlowId;
+        String contentHash;
+        String resId;
+        String docId;
+        Long projectId;
+        Date lastChanged;
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.dao;
+
+import javax.annotation.Nonnull;
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Named;
+
+import lombok.NoArgsConstructor;
+
+import org.hibernate.Query;
+import org.hibernate.ejb.HibernateEntityManagerFactory;
+import org.zanata.model.HDocument;
+import org.zanata.model.HLocale;
+import org.zanata.model.HTextFlowTarget;
+import org.zanata.util.CloseableIterator;
+
+@Named("textFlowTargetStreamDAO")
+@RequestScoped
+@NoArgsConstructor
+public class TextFlowTargetStreamingDAO extends
+        StreamingDAO<HTextFlowTarget> {
+
+    public TextFlowTargetStreamingDAO(HibernateEntityManagerFactory emf) {
+        super(emf);
+    }
+
+    /**
+     * Returns the same HTextFlowTargets as
+     * {@link TextFlowTargetDAO#findTranslations(HDocument, HLocale)}, in
+     * document order, eagerly fetching text flow, translator and comment.
+     * <p>
+     * NB: caller must close the iterator, or call next() until the iterator is
+     * exhausted, or else a database connection will be leaked.
+     */
+    public @Nonnull
+    CloseableIterator<HTextFlowTarget> findTranslations(HDocument document,
+            HLocale locale) {
+        StreamingEntityIterator<HTextFlowTarget> iter = createIterator();
+        try {
+            Query q =
+                    iter.getSession()
+                            .createQuery(
+                                    "select t from HTextFlowTarget t "
+                                            + "inner join fetch t.textFlow tf "
+                                            + "left join fetch t.translator "
+                                            + "left join fetch t.comment "
+                                            + "where tf.document.id = :documentId "
+                                            + "and t.locale.id = :localeId "
+                                            + "and tf.obsolete = false "
+                                            + "order by tf.pos");
+            q.setParameter("documentId", document.getId());
+            q.setParameter("localeId", locale.getId());
+            q.setComment("TextFlowTargetStreamDAO.findTranslations");
+            iter.initQuery(q);
+            return iter;
+        } catch (Throwable e) {
+            iter.close();
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -20,7 +20,10 @@
  */
 package org.zanata.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -38,6 +41,8 @@ import org.zanata.jpa.FullText;
 import org.zanata.model.tm.TransMemory;
 import org.zanata.model.tm.TransMemoryUnit;
 import com.google.common.base.Optional;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 /**
  * Data Access Object for Translation Memory and related entities.
@@ -49,6 +54,8 @@ import com.google.common.base.Optional;
 @RequestScoped
 public class TransMemoryDAO extends AbstractDAOImpl<TransMemory, Long> {
 
+    private static final int MAX_IN_CLAUSE_SIZE = 1000;
+
     @Inject @FullText
     private FullTextSession session;
 
@@ -140,6 +147,36 @@ public class TransMemoryDAO extends AbstractDAOImpl<TransMemory, Long> {
                 .setCacheable(false).uniqueResult();
     }
 
+    /**
+     * Bulk version of {@link #findTranslationUnit(String, String)}, which
+     * also fetches the variants of each unit.
+     *
+     * @return units indexed by unique id
+     */
+    public Map<String, TransMemoryUnit> findTranslationUnits(
+            @Nonnull String tmSlug, @Nonnull Collection<String> uniqueIds) {
+        Map<String, TransMemoryUnit> result = Maps.newHashMap();
+        for (List<String> batch : Lists.partition(
+                Lists.newArrayList(uniqueIds), MAX_IN_CLAUSE_SIZE)) {
+            @SuppressWarnings("unchecked")
+            List<TransMemoryUnit> units =
+                    getSession()
+                            .createQuery(
+                                    "select distinct tu from TransMemoryUnit tu "
+                                            + "left join fetch tu.transUnitVariants "
+                                            + "where tu.uniqueId in (:uniqueIds) "
+                                            + "and tu.translationMemory.slug = :tmSlug")
+                            .setParameterList("uniqueIds", batch)
+                            .setString("tmSlug", tmSlug).setCacheable(false)
+                            .setComment("TransMemoryDAO.findTranslationUnits")
+                            .list();
+            for (TransMemoryUnit tu : units) {
+                result.put(tu.getUniqueId(), tu);
+            }
+        }
+        return result;
+    }
+
     public long getTranslationMemorySize(@Nonnull String tmSlug) {
         return (Long) getSession()
                 .createQuery(
@@ -74,5 +74,8 @@ public final class TextFlowTargetStateEvent {
         private final Long textFlowTargetId;
         private final ContentState newState;
         private final ContentState previousState;
+        // word count of the text flow, so that observers don't need to
+        // load it again
+        private final long wordCount;
     }
 }
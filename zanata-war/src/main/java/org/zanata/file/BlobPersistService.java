@@ -20,31 +20,90 @@
  */
 package org.zanata.file;
 
+import java.io.File;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.Vector;
+
+import javax.enterprise.inject.Alternative;
+import javax.ws.rs.core.Response.Status;
 
 import org.hibernate.Session;
 import javax.inject.Inject;
 import javax.inject.Named;
+import org.zanata.exception.ChunkUploadException;
+import org.zanata.model.HDocumentUpload;
 import org.zanata.model.HDocumentUploadPart;
+import org.zanata.service.TranslationFileService;
+import org.zanata.util.PasswordUtil;
 
-// TODO damason: replace with file system implementation, named something like "filePartPersistService"
+/**
+ * Stores upload parts as BLOBs in the database, and recombines them when the
+ * final part arrives. Replaced by {@link FileSystemUploadPartPersistService}
+ * unless enabled as an alternative in beans.xml.
+ */
 @Named("blobPersistService")
 @javax.enterprise.context.Dependent
-
+@Alternative
 public class BlobPersistService implements UploadPartPersistService {
 
     @Inject
     private Session session;
 
-    public HDocumentUploadPart newUploadPartFromStream(
+    @Inject
+    private TranslationFileService translationFileServiceImpl;
+
+    @Override
+    public void saveUploadPart(HDocumentUpload upload,
             InputStream partContentStream, int contentLength) {
         HDocumentUploadPart newPart = new HDocumentUploadPart();
         Blob partContent =
                 session.getLobHelper().createBlob(partContentStream,
                         contentLength);
         newPart.setContent(partContent);
-        return newPart;
+        upload.getParts().add(newPart);
+        session.flush();
+    }
+
+    @Override
+    public CombinedUpload combineUploadParts(HDocumentUpload upload,
+            InputStream finalPartStream) {
+        Vector<InputStream> partStreams = new Vector<InputStream>();
+        try {
+            for (HDocumentUploadPart part : upload.getParts()) {
+                partStreams.add(part.getContent().getBinaryStream());
+            }
+        } catch (SQLException e) {
+            throw new ChunkUploadException(Status.INTERNAL_SERVER_ERROR,
+                    "Error while retrieving document upload part contents", e);
+        }
+        partStreams.add(finalPartStream);
+
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        InputStream combinedParts =
+                new SequenceInputStream(partStreams.elements());
+        combinedParts = new DigestInputStream(combinedParts, md);
+        File tempFile =
+                translationFileServiceImpl.persistToTempFile(combinedParts);
+        return new CombinedUpload(tempFile,
+                new String(PasswordUtil.encodeHex(md.digest())));
+    }
+
+    @Override
+    public int deleteUploadPartsOlderThan(Date threshold) {
+        // parts are deleted along with their HDocumentUpload
+        return 0;
     }
 
 }
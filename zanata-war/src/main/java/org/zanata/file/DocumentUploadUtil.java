@@ -26,12 +26,9 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
-import java.io.SequenceInputStream;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.sql.SQLException;
-import java.util.Vector;
 
 import javax.enterprise.context.Dependent;
 import javax.ws.rs.core.Response.Status;
@@ -47,9 +44,8 @@ import org.zanata.dao.DocumentDAO;
 import org.zanata.dao.DocumentUploadDAO;
 import org.zanata.dao.ProjectIterationDAO;
 import org.zanata.exception.ChunkUploadException;
-import org.zanata.exception.HashMismatchException;
+import org.zanata.file.UploadPartPersistService.CombinedUpload;
 import org.zanata.model.HDocumentUpload;
-import org.zanata.model.HDocumentUploadPart;
 import org.zanata.model.HLocale;
 import org.zanata.model.HProjectIteration;
 import org.zanata.rest.DocumentFileUploadForm;
@@ -237,12 +233,12 @@ public class DocumentUploadUtil {
             HDocumentUpload upload) {
         InputStream contentStream = uploadForm.getFileStream();
         int contentLength = uploadForm.getSize().intValue();
-        HDocumentUploadPart newPart =
-                uploadPartPersistService.newUploadPartFromStream(contentStream,
-                        contentLength);
-        upload.getParts().add(newPart);
+        // parts are stored by upload id
         session.saveOrUpdate(upload);
         session.flush();
+        uploadPartPersistService.saveUploadPart(upload, contentStream,
+                contentLength);
+        upload.setPartCount(upload.getPartCount() + 1);
     }
 
     protected static boolean isSinglePart(DocumentFileUploadForm uploadForm) {
@@ -251,50 +247,22 @@ public class DocumentUploadUtil {
 
     public File combineToTempFileAndDeleteUploadRecord(HDocumentUpload upload,
             DocumentFileUploadForm finalPart) {
-        File tempFile;
         try {
-            tempFile = combineToTempFile(upload, finalPart);
-        } catch (HashMismatchException e) {
-            throw new ChunkUploadException(Status.CONFLICT, "MD5 hash \""
-                    + e.getExpectedHash()
-                    + "\" sent with initial request does not match"
-                    + " server-generated hash of combined parts \""
-                    + e.getGeneratedHash()
-                    + "\". Upload aborted. Retry upload from first part.");
-        } catch (SQLException e) {
-            throw new ChunkUploadException(Status.INTERNAL_SERVER_ERROR,
-                    "Error while retrieving document upload part contents", e);
+            CombinedUpload combined =
+                    uploadPartPersistService.combineUploadParts(upload,
+                            finalPart.getFileStream());
+            try {
+                checkAndUpdateHash(finalPart, combined.getMd5Hash(),
+                        upload.getContentHash());
+            } catch (ChunkUploadException e) {
+                combined.getFile().delete();
+                throw e;
+            }
+            return combined.getFile();
         } finally {
             // no more need for upload
             session.delete(upload);
         }
-        return tempFile;
-    }
-
-    private File
-            combineToTempFile(HDocumentUpload upload, DocumentFileUploadForm finalPart)
-                    throws SQLException {
-        Vector<InputStream> partStreams = new Vector<InputStream>();
-        for (HDocumentUploadPart part : upload.getParts()) {
-            partStreams.add(part.getContent().getBinaryStream());
-        }
-        partStreams.add(finalPart.getFileStream());
-
-        MessageDigest md;
-        try {
-            md = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            log.error("MD5 algorithm not available.", e);
-            throw new RuntimeException(e);
-        }
-        InputStream combinedParts =
-                new SequenceInputStream(partStreams.elements());
-        combinedParts = new DigestInputStream(combinedParts, md);
-        File tempFile =
-                translationFileServiceImpl.persistToTempFile(combinedParts);
-
-        checkAndUpdateHash(finalPart, md, upload.getContentHash());
-        return tempFile;
     }
 
     protected static InputStream getInputStream(Optional<File> tempFile,
@@ -322,7 +290,9 @@ public class DocumentUploadUtil {
             tempFile =
                     translationFileServiceImpl.persistToTempFile(fileContents);
             String providedHash = uploadForm.getHash();
-            checkAndUpdateHash(uploadForm, md, providedHash);
+            checkAndUpdateHash(uploadForm,
+                    new String(PasswordUtil.encodeHex(md.digest())),
+                    providedHash);
         } catch (NoSuchAlgorithmException e) {
             throw new ChunkUploadException(Status.INTERNAL_SERVER_ERROR,
                     "MD5 hash algorithm not available", e);
@@ -334,15 +304,13 @@ public class DocumentUploadUtil {
      * Makes sure any provided hash matches the calculated hash, and sets the
      * calculated hash into the given upload form for use in subsequent steps.
      *
-     * @param md an MD5 message digester that has had the contents of the file
-     *        streamed through it.
+     * @param md5hash hex MD5 hash of the contents of the file
      * @param providedHash provided by client, may be null or empty
      * @throws ChunkUploadException if a hash is provided and it does not match
      *         the hash of the file contents.
      */
     private void checkAndUpdateHash(DocumentFileUploadForm uploadForm,
-            MessageDigest md, String providedHash) {
-        String md5hash = new String(PasswordUtil.encodeHex(md.digest()));
+            String md5hash, String providedHash) {
         if (isNullOrEmpty(providedHash)) {
             // Web upload with no hash provided, use generated hash for metadata
             uploadForm.setHash(md5hash);
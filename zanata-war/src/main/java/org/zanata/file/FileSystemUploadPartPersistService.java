@@ -0,0 +1,283 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.file;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+
+import javax.annotation.Nullable;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.ws.rs.core.Response.Status;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.zanata.ApplicationConfiguration;
+import org.zanata.exception.ChunkUploadException;
+import org.zanata.model.HDocumentUpload;
+import org.zanata.util.PasswordUtil;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Appends the parts of each multipart upload to a staging file, so that they
+ * don't pass through the database. The MD5 hash of the upload is updated as
+ * each part is appended, and the staging file is handed over as the complete
+ * upload when the final part arrives.
+ * <p>
+ * Staging files are kept in the "uploads" directory of the document storage
+ * location, or in the system temp directory if that is not configured.
+ * Abandoned staging files are deleted by a scheduled job (see
+ * {@link #deleteUploadPartsOlderThan(Date)}).
+ */
+@Named("uploadPartPersistService")
+@ApplicationScoped
+@Slf4j
+public class FileSystemUploadPartPersistService
+        implements UploadPartPersistService {
+    private static final String UPLOADS_SUBDIRECTORY = "uploads";
+    private static final String TEMP_SUBDIRECTORY = "zanata-uploads";
+    private static final String PART_FILE_PREFIX = "upload-";
+    private static final String PART_FILE_SUFFIX = ".part";
+    private static final long TRANSFER_SIZE = 1024 * 1024;
+
+    @Inject
+    private ApplicationConfiguration appConfig;
+
+    private @Nullable File stagingDirectory;
+
+    // MD5 of the parts staged so far, by upload id. An upload which is not
+    // here (eg after a restart), or whose staging file has been appended to
+    // elsewhere, is hashed from its staging file when it is combined.
+    private final ConcurrentMap<Long, StagedDigest> digests =
+            new ConcurrentHashMap<>();
+
+    // clients send the parts of an upload one at a time, but a retried part
+    // could overlap the original
+    private final Striped<Lock> uploadLocks = Striped.lock(64);
+
+    public FileSystemUploadPartPersistService() {
+    }
+
+    @VisibleForTesting
+    FileSystemUploadPartPersistService(File stagingDirectory) {
+        this.stagingDirectory = stagingDirectory;
+    }
+
+    @Override
+    public void saveUploadPart(HDocumentUpload upload,
+            InputStream partContentStream, int contentLength) {
+        Long uploadId = upload.getId();
+        Lock lock = uploadLocks.get(uploadId);
+        lock.lock();
+        try {
+            appendPart(uploadId, partContentStream);
+        } catch (IOException e) {
+            throw new ChunkUploadException(Status.INTERNAL_SERVER_ERROR,
+                    "Error while storing document upload part contents", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CombinedUpload combineUploadParts(HDocumentUpload upload,
+            InputStream finalPartStream) {
+        Long uploadId = upload.getId();
+        File partFile = getPartFile(uploadId);
+        Lock lock = uploadLocks.get(uploadId);
+        lock.lock();
+        try {
+            appendPart(uploadId, finalPartStream);
+            StagedDigest staged = digests.remove(uploadId);
+            MessageDigest md = staged != null
+                    && staged.getLength() == partFile.length()
+                            ? staged.getDigest() : hashFile(partFile);
+            return new CombinedUpload(partFile,
+                    new String(PasswordUtil.encodeHex(md.digest())));
+        } catch (IOException e) {
+            partFile.delete();
+            throw new ChunkUploadException(Status.INTERNAL_SERVER_ERROR,
+                    "Error while retrieving document upload part contents", e);
+        } finally {
+            digests.remove(uploadId);
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int deleteUploadPartsOlderThan(Date threshold) {
+        File[] abandoned = getStagingDirectory().listFiles(
+                file -> file.getName().startsWith(PART_FILE_PREFIX)
+                        && file.getName().endsWith(PART_FILE_SUFFIX)
+                        && file.lastModified() < threshold.getTime());
+        if (abandoned == null) {
+            return 0;
+        }
+        int deleted = 0;
+        for (File file : abandoned) {
+            log.debug("Removing abandoned upload part file {}", file);
+            if (file.delete()) {
+                deleted++;
+            }
+            String name = file.getName();
+            try {
+                digests.remove(Long.valueOf(name.substring(
+                        PART_FILE_PREFIX.length(),
+                        name.length() - PART_FILE_SUFFIX.length())));
+            } catch (NumberFormatException e) {
+                // not a staging file of ours
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Appends the stream to the staging file of the upload, and updates the
+     * upload's hash. If the append fails, the staging file is truncated to
+     * its previous length and the hash is left alone.
+     */
+    private void appendPart(Long uploadId, InputStream partContentStream)
+            throws IOException {
+        File partFile = getPartFile(uploadId);
+        try (FileChannel channel = FileChannel.open(partFile.toPath(),
+                CREATE, WRITE)) {
+            long start = channel.size();
+            MessageDigest partDigest = nextDigest(uploadId, start);
+            InputStream in = partDigest == null ? partContentStream
+                    : new DigestInputStream(partContentStream, partDigest);
+            ReadableByteChannel source = Channels.newChannel(in);
+            try {
+                long position = start;
+                long transferred;
+                while ((transferred = channel.transferFrom(source, position,
+                        TRANSFER_SIZE)) > 0) {
+                    position += transferred;
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.truncate(start);
+                throw e;
+            }
+            if (partDigest != null) {
+                digests.put(uploadId,
+                        new StagedDigest(partDigest, channel.size()));
+            }
+        }
+    }
+
+    /**
+     * @return a copy of the upload's hash to be updated with the next part,
+     *         or null if the hash of the parts already staged is unknown
+     */
+    private @Nullable MessageDigest nextDigest(Long uploadId,
+            long stagedLength) {
+        if (stagedLength == 0) {
+            return newMd5();
+        }
+        StagedDigest staged = digests.get(uploadId);
+        if (staged == null) {
+            return null;
+        }
+        if (staged.getLength() != stagedLength) {
+            // parts were staged without updating this hash (eg on another
+            // node sharing the staging directory)
+            digests.remove(uploadId);
+            return null;
+        }
+        try {
+            return (MessageDigest) staged.getDigest().clone();
+        } catch (CloneNotSupportedException e) {
+            digests.remove(uploadId);
+            return null;
+        }
+    }
+
+    private static MessageDigest hashFile(File file) throws IOException {
+        MessageDigest md = newMd5();
+        try (FileChannel channel = FileChannel.open(file.toPath(), READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                md.update(buffer);
+                buffer.clear();
+            }
+        }
+        return md;
+    }
+
+    private static MessageDigest newMd5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            log.error("MD5 algorithm not available.", e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private File getPartFile(Long uploadId) {
+        return new File(getStagingDirectory(),
+                PART_FILE_PREFIX + uploadId + PART_FILE_SUFFIX);
+    }
+
+    /**
+     * The hash of an upload's staging file, when it was the given length.
+     */
+    @Value
+    private static class StagedDigest {
+        MessageDigest digest;
+        long length;
+    }
+
+    private File getStagingDirectory() {
+        if (stagingDirectory == null) {
+            String documentStorage = appConfig.getDocumentFileStorageLocation();
+            if (documentStorage != null) {
+                stagingDirectory =
+                        new File(documentStorage, UPLOADS_SUBDIRECTORY);
+            } else {
+                stagingDirectory = new File(
+                        System.getProperty("java.io.tmpdir"),
+                        TEMP_SUBDIRECTORY);
+            }
+        }
+        stagingDirectory.mkdirs();
+        return stagingDirectory;
+    }
+}
@@ -128,7 +128,7 @@ public class SourceDocumentUpload {
             if (!uploadForm.getLast()) {
                 HDocumentUpload upload =
                         util.saveUploadPart(id, NULL_LOCALE, uploadForm);
-                totalChunks = upload.getParts().size();
+                totalChunks = upload.getPartCount();
                 return Response
                         .status(Status.ACCEPTED)
                         .entity(new ChunkUploadResponse(upload.getId(),
@@ -143,7 +143,7 @@ public class SourceDocumentUpload {
             } else {
                 HDocumentUpload previousParts =
                         documentUploadDAO.findById(uploadForm.getUploadId());
-                totalChunks = previousParts.getParts().size();
+                totalChunks = previousParts.getPartCount();
                 totalChunks++; // add final part
                 tempFile =
                         Optional.of(util
@@ -101,7 +101,7 @@ public class TranslationDocumentUpload {
                 if (!uploadForm.getLast()) {
                     HDocumentUpload upload =
                             util.saveUploadPart(id, locale, uploadForm);
-                    totalChunks = upload.getParts().size();
+                    totalChunks = upload.getPartCount();
                     return Response
                             .status(Status.ACCEPTED)
                             .entity(new ChunkUploadResponse(upload.getId(),
@@ -112,7 +112,7 @@ public class TranslationDocumentUpload {
                     HDocumentUpload previousParts =
                             documentUploadDAO
                                     .findById(uploadForm.getUploadId());
-                    totalChunks = previousParts.getParts().size();
+                    totalChunks = previousParts.getPartCount();
                     totalChunks++; // add final part
                     tempFile =
                             Optional.of(util
@@ -20,13 +20,48 @@
  */
 package org.zanata.file;
 
+import java.io.File;
 import java.io.InputStream;
+import java.util.Date;
 
-import org.zanata.model.HDocumentUploadPart;
+import lombok.Value;
 
+import org.zanata.model.HDocumentUpload;
+
+/**
+ * Stores the parts of a multipart document upload until the final part
+ * arrives.
+ */
 public interface UploadPartPersistService {
 
-    public HDocumentUploadPart newUploadPartFromStream(
+    /**
+     * Stores the content of the next part of an upload, after any parts
+     * already stored for it. The upload must already have an id.
+     */
+    void saveUploadPart(HDocumentUpload upload,
             InputStream partContentStream, int contentLength);
 
+    /**
+     * Stores the final part of an upload and returns the complete content as
+     * a single file, which then belongs to the caller. The stored parts of
+     * the upload are discarded, even if this fails.
+     *
+     * @return the file and the MD5 hash (as hex) of its content
+     */
+    CombinedUpload combineUploadParts(HDocumentUpload upload,
+            InputStream finalPartStream);
+
+    /**
+     * Discards the stored parts of uploads which have not been added to since
+     * the given time, and which are presumably abandoned.
+     *
+     * @return number of uploads discarded
+     */
+    int deleteUploadPartsOlderThan(Date threshold);
+
+    @Value
+    class CombinedUpload {
+        File file;
+        String md5Hash;
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.job;
+
+import java.io.Serializable;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+
+import org.apache.deltaspike.scheduler.api.Scheduled;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.service.TranslationStateCache;
+import org.zanata.service.VersionStateCache;
+
+/**
+ * Statistics caches are updated incrementally as translations are saved.
+ * This job periodically compares the cached statistics with the database and
+ * corrects any drift (e.g. from updates which raced with a cache load).
+ */
+// We have to start a scope whether we need it or not, due to
+// https://issues.apache.org/jira/browse/DELTASPIKE-1002
+@Scheduled(cronExpression = CdiStatisticsReconciliationJob.CRON_EXPRESSION,
+        startScopes = { RequestScoped.class },
+        description = CdiStatisticsReconciliationJob.DESCRIPTION)
+class CdiStatisticsReconciliationJob implements Job, Serializable {
+    static final String DESCRIPTION = "Statistics Cache Reconciliation";
+    // seconds minutes hours dayOfMonth(1-31) month(1-12) dayOfWeek(1-7) year
+    static final String CRON_EXPRESSION = "0 15 * * * ? *";
+
+    private static final Logger log =
+            LoggerFactory.getLogger(CdiStatisticsReconciliationJob.class);
+    private static final long serialVersionUID = 1L;
+
+    @Inject
+    private TranslationStateCache translationStateCacheImpl;
+
+    @Inject
+    private VersionStateCache versionStateCacheImpl;
+
+    @Override
+    public void execute(JobExecutionContext context)
+            throws JobExecutionException {
+        log.info("executing job: {}", DESCRIPTION);
+        int documentDrift = translationStateCacheImpl.reconcileStatistics();
+        int versionDrift = versionStateCacheImpl.reconcileStatistics();
+        if (documentDrift > 0 || versionDrift > 0) {
+            log.warn(
+                    "corrected {} document statistics and {} version statistics",
+                    documentDrift, versionDrift);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.job;
+
+import java.io.Serializable;
+import java.util.Calendar;
+import java.util.List;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+
+import org.apache.deltaspike.scheduler.api.Scheduled;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zanata.dao.DocumentUploadDAO;
+import org.zanata.file.UploadPartPersistService;
+import org.zanata.model.HDocumentUpload;
+import org.zanata.transaction.TransactionUtil;
+
+/**
+ * Removes multipart document uploads which were started more than a day ago
+ * and never completed, along with their stored parts.
+ */
+// We have to start a scope whether we need it or not, due to
+// https://issues.apache.org/jira/browse/DELTASPIKE-1002
+@Scheduled(cronExpression = CdiUploadPartCleanupJob.CRON_EXPRESSION,
+        startScopes = { RequestScoped.class },
+        description = CdiUploadPartCleanupJob.DESCRIPTION)
+class CdiUploadPartCleanupJob implements Job, Serializable {
+    static final String DESCRIPTION = "Abandoned Upload Cleanup";
+    // seconds minutes hours dayOfMonth(1-31) month(1-12) dayOfWeek(1-7) year
+    static final String CRON_EXPRESSION = "0 30 * * * ? *";
+
+    private static final Logger log =
+            LoggerFactory.getLogger(CdiUploadPartCleanupJob.class);
+    private static final long serialVersionUID = 1L;
+
+    @Inject
+    private DocumentUploadDAO documentUploadDAO;
+
+    @Inject
+    private UploadPartPersistService uploadPartPersistService;
+
+    @Inject
+    private TransactionUtil transactionUtil;
+
+    @Override
+    public void execute(JobExecutionContext context)
+            throws JobExecutionException {
+        log.info("executing job: {}", DESCRIPTION);
+        Calendar removalThreshold = Calendar.getInstance();
+        removalThreshold.add(Calendar.DATE, -1);
+        try {
+            transactionUtil.run(() -> {
+                List<HDocumentUpload> abandoned = documentUploadDAO
+                        .findAllCreatedBefore(removalThreshold.getTime());
+                for (HDocumentUpload upload : abandoned) {
+                    log.debug("Removing abandoned upload {}", upload);
+                    documentUploadDAO.makeTransient(upload);
+                }
+            });
+        } catch (Exception e) {
+            throw new JobExecutionException(e);
+        }
+        int deleted = uploadPartPersistService
+                .deleteUploadPartsOlderThan(removalThreshold.getTime());
+        if (deleted > 0) {
+            log.info("removed {} abandoned upload part files", deleted);
+        }
+    }
+}
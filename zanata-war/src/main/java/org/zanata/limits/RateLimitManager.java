@@ -15,6 +15,7 @@ import javax.inject.Named;
 import org.apache.deltaspike.jpa.api.transaction.Transactional;
 import org.zanata.ApplicationConfiguration;
 import org.zanata.async.Async;
+import org.zanata.async.AsyncTaskLane;
 import org.zanata.events.ConfigurationChanged;
 import org.zanata.util.Introspectable;
 import com.google.common.base.Function;
@@ -41,6 +42,8 @@ public class RateLimitManager implements Introspectable {
 
     public static final String INTROSPECTABLE_FIELD_RATE_LIMITERS =
             "RateLimiters";
+    public static final String INTROSPECTABLE_FIELD_QUEUE_DEPTHS =
+            "QueueDepths";
     private final Cache<RateLimiterToken, RestCallLimiter> activeCallers = CacheBuilder
             .newBuilder().maximumSize(100).build();
 
@@ -68,7 +71,7 @@ public class RateLimitManager implements Introspectable {
         maxActive = appConfig.getMaxActiveRequestsPerApiKey();
     }
 
-    @Async
+    @Async(AsyncTaskLane.INTERACTIVE)
     @Transactional
     public void configurationChanged(
             @Observes(during = TransactionPhase.AFTER_SUCCESS)
@@ -105,7 +108,8 @@ public class RateLimitManager implements Introspectable {
 
     @Override
     public Collection<String> getIntrospectableFieldNames() {
-        return Lists.newArrayList(INTROSPECTABLE_FIELD_RATE_LIMITERS);
+        return Lists.newArrayList(INTROSPECTABLE_FIELD_RATE_LIMITERS,
+                INTROSPECTABLE_FIELD_QUEUE_DEPTHS);
     }
 
     @Override
@@ -114,6 +118,9 @@ public class RateLimitManager implements Introspectable {
         if (INTROSPECTABLE_FIELD_RATE_LIMITERS.equals(fieldName)) {
             return Iterables.toString(peekCurrentBuckets());
         }
+        if (INTROSPECTABLE_FIELD_QUEUE_DEPTHS.equals(fieldName)) {
+            return Iterables.toString(peekQueueDepths());
+        }
         throw new IllegalArgumentException("unknown field:" + fieldName);
     }
 
@@ -132,6 +139,12 @@ public class RateLimitManager implements Introspectable {
                 });
     }
 
+    private Iterable<String> peekQueueDepths() {
+        return Iterables.transform(activeCallers.asMap().entrySet(),
+                input -> input.getKey() + ":"
+                        + input.getValue().getQueueDepth());
+    }
+
     /**
      * @param key - {@link RateLimiterToken.TYPE )
      */
@@ -1,5 +1,6 @@
 package org.zanata.limits;
 
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 import lombok.AccessLevel;
@@ -8,11 +9,22 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.zanata.util.RunnableEx;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 /**
  * This class is used by RestLimitingSynchronousDispatcher to dispatch API calls
  * via the appropriate RestCallLimiter and have access to seam environment.
+ * <p>
+ * Each call needs [active] permits according to its {@link RestCallCost}. If
+ * the servlet chain supports it, a call which has to wait for permits is
+ * suspended (so that it doesn't hold a container thread) and dispatched again
+ * when its turn comes. Otherwise the thread blocks. Either way, a call which
+ * waits too long is rejected with status 429 and a Retry-After header.
  *
  * @author Patrick Huang <a
  *         href="mailto:pahuang@redhat.com">pahuang@redhat.com</a>
@@ -22,6 +34,11 @@ import javax.servlet.http.HttpServletResponse;
 public class RateLimitingProcessor {
     // http://tools.ietf.org/html/rfc6585
     public static final int TOO_MANY_REQUEST = 429;
+    static final String RETRY_AFTER_HEADER = "Retry-After";
+    static final int RETRY_AFTER_SECONDS = 10;
+    // holds the Ticket of a suspended request when it is dispatched again
+    static final String TICKET_ATTRIBUTE =
+            RateLimitingProcessor.class.getName() + ".ticket";
     private RateLimitManager rateLimitManager;
 
     // for seam to use
@@ -29,50 +46,163 @@ public class RateLimitingProcessor {
         rateLimitManager = RateLimitManager.getInstance();
     }
 
-    private final LeakyBucket logLimiter = new LeakyBucket(1, 5,
+    private final TokenBucket logLimiter = new TokenBucket(1, 5,
             TimeUnit.MINUTES);
 
-    public void processForApiKey(String apiKey, HttpServletResponse response,
-            RunnableEx taskToRun) throws Exception {
-        process(RateLimiterToken.fromApiKey(apiKey), response, taskToRun);
+    public void processForApiKey(String apiKey, HttpServletRequest request,
+            HttpServletResponse response, RunnableEx taskToRun)
+            throws Exception {
+        process(RateLimiterToken.fromApiKey(apiKey), request, response,
+                taskToRun);
     }
 
-    public void processForUser(String username, HttpServletResponse response,
-            RunnableEx taskToRun) throws Exception {
-        process(RateLimiterToken.fromUsername(username), response, taskToRun);
+    public void processForUser(String username, HttpServletRequest request,
+            HttpServletResponse response, RunnableEx taskToRun)
+            throws Exception {
+        process(RateLimiterToken.fromUsername(username), request, response,
+                taskToRun);
     }
 
-    public void processForAnonymousIP(String ip, HttpServletResponse response,
-            RunnableEx taskToRun) throws Exception {
-        process(RateLimiterToken.fromIPAddress(ip), response, taskToRun);
+    public void processForAnonymousIP(String ip, HttpServletRequest request,
+            HttpServletResponse response, RunnableEx taskToRun)
+            throws Exception {
+        process(RateLimiterToken.fromIPAddress(ip), request, response,
+                taskToRun);
     }
 
-    private void process(RateLimiterToken key, HttpServletResponse response,
+    /**
+     * Runs the task for a request which was suspended while waiting for
+     * [active] permits, and has now been dispatched again with them.
+     *
+     * @return false if the request is not such a dispatch, and should be
+     *         processed as usual
+     */
+    public boolean resumeIfAdmitted(HttpServletRequest request,
             RunnableEx taskToRun) throws Exception {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            return false;
+        }
+        Object ticket = request.getAttribute(TICKET_ATTRIBUTE);
+        if (!(ticket instanceof RestCallLimiter.Ticket)) {
+            return false;
+        }
+        request.removeAttribute(TICKET_ATTRIBUTE);
+        try {
+            taskToRun.run();
+        } finally {
+            ((RestCallLimiter.Ticket) ticket).release();
+        }
+        return true;
+    }
+
+    private void process(RateLimiterToken key, HttpServletRequest request,
+            HttpServletResponse response, RunnableEx taskToRun)
+            throws Exception {
         RestCallLimiter rateLimiter = rateLimitManager.getLimiter(key);
+        int weight = RestCallCost.of(request.getMethod(),
+                request.getRequestURI()).getWeight();
 
         log.debug("check semaphore for {}", this);
 
-        if (!rateLimiter.tryAcquireAndRun(taskToRun)) {
-            if (logLimiter.tryAcquire()) {
-                log.warn(
-                        "{} has too many concurrent requests. Returning status 429",
-                        key);
+        if (!request.isAsyncSupported()) {
+            try {
+                if (!rateLimiter.tryAcquireAndRun(weight, taskToRun)) {
+                    rejectConcurrent(key, rateLimiter, response);
+                }
+            } catch (ActivePermitTimeoutException e) {
+                rejectTimedOut(key, response);
+            }
+            return;
+        }
+
+        RestCallLimiter.Ticket ticket = rateLimiter.tryEnter(weight);
+        if (ticket == null) {
+            rejectConcurrent(key, rateLimiter, response);
+        } else if (ticket.tryActivate()) {
+            try {
+                taskToRun.run();
+            } finally {
+                ticket.release();
+            }
+        } else {
+            suspend(key, ticket, request);
+        }
+    }
+
+    private void suspend(final RateLimiterToken key,
+            final RestCallLimiter.Ticket ticket, HttpServletRequest request) {
+        log.debug("suspending request for {} until permits are available",
+                key);
+        final AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(TimeUnit.SECONDS
+                .toMillis(RestCallLimiter.ACTIVE_WAIT_SECONDS));
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                if (ticket.cancel()) {
+                    rejectTimedOut(key, (HttpServletResponse) asyncContext
+                            .getResponse());
+                    asyncContext.complete();
+                }
+            }
+
+            @Override
+            public void onComplete(AsyncEvent event) {
+                ticket.release();
             }
 
-            String errorMessage;
-            if (key.getType().equals(RateLimiterToken.TYPE.API_KEY)) {
-                errorMessage =
-                        String.format(
-                                "Too many concurrent requests for client API key (maximum is %d)",
-                                rateLimiter.getMaxConcurrentPermits());
-            } else  {
-                errorMessage =
-                        String.format(
-                                "Too many concurrent requests for client '%s' (maximum is %d)",
-                                key.getValue(), rateLimiter.getMaxConcurrentPermits());
+            @Override
+            public void onError(AsyncEvent event) {
+                ticket.release();
             }
-            response.sendError(TOO_MANY_REQUEST, errorMessage);
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        ticket.whenActive(() -> {
+            asyncContext.getRequest().setAttribute(TICKET_ATTRIBUTE, ticket);
+            asyncContext.dispatch();
+        });
+    }
+
+    private void rejectConcurrent(RateLimiterToken key,
+            RestCallLimiter rateLimiter, HttpServletResponse response)
+            throws IOException {
+        if (logLimiter.tryAcquire()) {
+            log.warn(
+                    "{} has too many concurrent requests. Returning status 429",
+                    key);
+        }
+
+        String errorMessage;
+        if (key.getType().equals(RateLimiterToken.TYPE.API_KEY)) {
+            errorMessage =
+                    String.format(
+                            "Too many concurrent requests for client API key (maximum is %d)",
+                            rateLimiter.getMaxConcurrentPermits());
+        } else  {
+            errorMessage =
+                    String.format(
+                            "Too many concurrent requests for client '%s' (maximum is %d)",
+                            key.getValue(), rateLimiter.getMaxConcurrentPermits());
+        }
+        response.setHeader(RETRY_AFTER_HEADER,
+                String.valueOf(RETRY_AFTER_SECONDS));
+        response.sendError(TOO_MANY_REQUEST, errorMessage);
+    }
+
+    private void rejectTimedOut(RateLimiterToken key,
+            HttpServletResponse response) throws IOException {
+        if (logLimiter.tryAcquire()) {
+            log.warn(
+                    "{} waited too long for an active request. Returning status 429",
+                    key);
         }
+        response.setHeader(RETRY_AFTER_HEADER,
+                String.valueOf(RETRY_AFTER_SECONDS));
+        response.sendError(TOO_MANY_REQUEST, String.format(
+                "Timed out after %d seconds waiting for other requests to finish",
+                RestCallLimiter.ACTIVE_WAIT_SECONDS));
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.limits;
+
+import javax.annotation.Nullable;
+
+import org.zanata.util.SysProperties;
+
+/**
+ * How many [active] permits a REST call needs. Pushing source or translated
+ * documents (or uploading files) parses and persists whole documents, so it
+ * counts as several light calls.
+ */
+enum RestCallCost {
+    LIGHT(1),
+    HEAVY(SysProperties.getInt(SysProperties.REST_LIMIT_HEAVY_WEIGHT, 2));
+
+    private final int weight;
+
+    RestCallCost(int weight) {
+        this.weight = weight;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    static RestCallCost of(@Nullable String method,
+            @Nullable String requestURI) {
+        if (method == null || requestURI == null) {
+            return LIGHT;
+        }
+        switch (method) {
+            case "PUT":
+            case "POST":
+                return isDocumentPath(requestURI) ? HEAVY : LIGHT;
+            default:
+                return LIGHT;
+        }
+    }
+
+    private static boolean isDocumentPath(String requestURI) {
+        // source and translated document resources (.../iterations/i/x/r[/...]),
+        // file uploads, asynchronous pushes and bulk pushes
+        return requestURI.contains("/r/") || requestURI.endsWith("/r")
+                || requestURI.contains("/file/")
+                || requestURI.contains("/async/")
+                || requestURI.contains("/bulk/");
+    }
+}
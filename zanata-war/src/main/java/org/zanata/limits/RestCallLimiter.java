@@ -1,13 +1,18 @@
 package org.zanata.limits;
 
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Objects;
 import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 import org.zanata.util.RunnableEx;
+import org.zanata.util.SysProperties;
 
 /**
  * @author Patrick Huang <a
@@ -15,10 +20,16 @@ import org.zanata.util.RunnableEx;
  */
 @Slf4j
 class RestCallLimiter {
+    static final long ACTIVE_WAIT_SECONDS = SysProperties.getLong(
+            SysProperties.REST_LIMIT_WAIT_SECONDS, 300);
+
     private volatile Semaphore maxConcurrentSemaphore;
     private volatile Semaphore maxActiveSemaphore;
     private int maxConcurrent;
     private int maxActive;
+    // requests waiting for [active] permits, in arrival order. Also guards
+    // the state of every Ticket.
+    private final Queue<Ticket> waiters = new ArrayDeque<>();
 
     /**
      * Creates a limiter which limits maximum concurrent requests and maximum
@@ -40,14 +51,9 @@ class RestCallLimiter {
         this.maxActiveSemaphore = makeSemaphore(maxActive);
     }
 
-    @VisibleForTesting
-    protected RestCallLimiter changeActiveSemaphore(Semaphore activeSemaphore) {
-        this.maxActiveSemaphore = activeSemaphore;
-        return this;
-    }
-
     /**
-     * This method is potentially blocking on available active permits. It may
+     * This method is potentially blocking on available active permits, which
+     * are granted in arrival order along with any queued tickets. It may
      * throw an exception if it takes too long to obtain one of the semaphores.
      * It may immediately return false if there is not enough concurrent
      * permits.
@@ -57,50 +63,123 @@ class RestCallLimiter {
      */
     public boolean tryAcquireAndRun(RunnableEx taskAfterAcquire)
             throws Exception {
-        // hang on to the semaphore, so that we can be certain of
-        // releasing the same one we acquired
-        final Semaphore concSem = maxConcurrentSemaphore;
-        boolean gotConcurrentPermit = concSem.tryAcquire();
-        if (gotConcurrentPermit) {
-            // if acquired, immediately enter try finally (release)
-            try {
-                log.debug("acquired [concurrent] permit");
-                if (!acquireActivePermit(taskAfterAcquire)) {
-                    throw new RuntimeException(
-                            "Couldn't get an [active] permit before timeout");
-                }
-            } finally {
-                concSem.release();
-                log.debug("released [concurrent] semaphore");
+        return tryAcquireAndRun(1, taskAfterAcquire);
+    }
+
+    /**
+     * As {@link #tryAcquireAndRun(RunnableEx)}, but the task needs the given
+     * number of [active] permits (capped at maxActive).
+     *
+     * @throws ActivePermitTimeoutException
+     *             if the [active] permits are not available within
+     *             {@link #ACTIVE_WAIT_SECONDS}
+     */
+    public boolean tryAcquireAndRun(int weight, RunnableEx taskAfterAcquire)
+            throws Exception {
+        Ticket ticket = tryEnter(weight);
+        if (ticket == null) {
+            return false;
+        }
+        // if acquired, immediately enter try finally (release)
+        try {
+            if (!awaitActive(ticket)) {
+                throw new ActivePermitTimeoutException(
+                        "Couldn't get an [active] permit before timeout");
             }
-        } else {
-            log.debug("failed to acquire [concurrent] permit");
+            taskAfterAcquire.run();
+        } finally {
+            ticket.release();
         }
-        return gotConcurrentPermit;
+        return true;
     }
 
-    private boolean acquireActivePermit(RunnableEx taskAfterAcquire)
-            throws Exception {
+    /**
+     * Blocks until the ticket is granted its [active] permits, queueing it
+     * behind any tickets which are already waiting.
+     *
+     * @return false if the permits were not granted within
+     *         {@link #ACTIVE_WAIT_SECONDS}
+     */
+    private boolean awaitActive(Ticket ticket) {
         log.debug("before acquire [active] semaphore:{}", maxActiveSemaphore);
+        CountDownLatch granted = new CountDownLatch(1);
+        if (ticket.activateOrQueue(granted::countDown)) {
+            return true;
+        }
         try {
-            // hang on to the semaphore, so that we can be certain of
-            // releasing the same one we acquired
-            final Semaphore activeSem = maxActiveSemaphore;
-            boolean gotActivePermit = activeSem.tryAcquire(5, TimeUnit.MINUTES);
-            if (gotActivePermit) {
-                // if acquired, immediately enter try finally (release)
-                try {
-                    log.debug("got [active] semaphore");
-                    taskAfterAcquire.run();
-                } finally {
-                    activeSem.release();
-                    log.debug("released [active] semaphore");
-                }
+            if (granted.await(ACTIVE_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                return true;
             }
-            return gotActivePermit;
         } catch (InterruptedException e) {
+            // the caller releases the ticket if it was granted meanwhile
+            ticket.cancel();
             throw Throwables.propagate(e);
         }
+        // the permits may have been granted just after the timeout
+        return !ticket.cancel();
+    }
+
+    /**
+     * Non-blocking alternative to {@link #tryAcquireAndRun(int, RunnableEx)},
+     * for callers which can wait for [active] permits without holding a
+     * thread (eg a suspended servlet request).
+     *
+     * @return a ticket holding a [concurrent] permit, or null if there are no
+     *         [concurrent] permits left. The ticket must be released (or
+     *         cancelled) exactly once.
+     */
+    public Ticket tryEnter(int weight) {
+        final Semaphore concSem = maxConcurrentSemaphore;
+        if (!concSem.tryAcquire()) {
+            log.debug("failed to acquire [concurrent] permit");
+            return null;
+        }
+        log.debug("acquired [concurrent] permit");
+        return new Ticket(concSem, permitsFor(weight));
+    }
+
+    /**
+     * Gives [active] permits to waiting tickets in arrival order, stopping at
+     * the first ticket which can't be satisfied, so that heavy requests are
+     * not starved by a stream of light ones.
+     */
+    private void grantWaiters() {
+        List<Runnable> granted = Lists.newArrayList();
+        synchronized (waiters) {
+            Ticket head;
+            while ((head = waiters.peek()) != null) {
+                Semaphore activeSem = maxActiveSemaphore;
+                if (!tryAcquire(activeSem, head.permits)) {
+                    break;
+                }
+                waiters.remove();
+                head.activated(activeSem);
+                granted.add(head.onActive);
+            }
+        }
+        // run callbacks outside the lock
+        for (Runnable onActive : granted) {
+            onActive.run();
+        }
+    }
+
+    private int permitsFor(int weight) {
+        int permits = Math.max(1, weight);
+        // a request can never need more than all the permits
+        return maxActive > 0 ? Math.min(permits, maxActive) : permits;
+    }
+
+    private static boolean tryAcquire(Semaphore semaphore, int permits) {
+        return permits == 1 ? semaphore.tryAcquire()
+                : semaphore.tryAcquire(permits);
+    }
+
+    private static void release(Semaphore semaphore, int permits) {
+        if (permits == 1) {
+            semaphore.release();
+        } else {
+            semaphore.release(permits);
+        }
     }
 
     /**
@@ -138,6 +217,8 @@ class RestCallLimiter {
                     maxActive);
             maxActiveSemaphore = makeSemaphore(maxActive);
             this.maxActive = maxActive;
+            // queued tickets may fit in the new semaphore
+            grantWaiters();
         }
     }
 
@@ -154,6 +235,15 @@ class RestCallLimiter {
         return maxActiveSemaphore.availablePermits();
     }
 
+    /**
+     * @return number of requests waiting for [active] permits
+     */
+    public int getQueueDepth() {
+        synchronized (waiters) {
+            return waiters.size();
+        }
+    }
+
     private static Semaphore makeSemaphore(int permit) {
         if (permit == 0) {
             return NoLimitSemaphore.INSTANCE;
@@ -171,7 +261,7 @@ class RestCallLimiter {
                         maxConcurrentSemaphore.availablePermits())
                 .add("maxActive(available)",
                         maxActiveSemaphore.availablePermits())
-                .add("maxActive(queue)", maxActiveSemaphore.getQueueLength())
+                .add("maxActive(queue)", getQueueDepth())
                 .toString();
     }
 
@@ -179,6 +269,138 @@ class RestCallLimiter {
         return maxConcurrent;
     }
 
+    /**
+     * A request admitted by {@link #tryEnter(int)}. It holds a [concurrent]
+     * permit until released, and [active] permits once activated.
+     */
+    final class Ticket {
+        private final Semaphore concSem;
+        private final int permits;
+        // all fields below are guarded by waiters
+        private TicketState state = TicketState.NEW;
+        private Semaphore activeSem;
+        private Runnable onActive;
+
+        private Ticket(Semaphore concSem, int permits) {
+            this.concSem = concSem;
+            this.permits = permits;
+        }
+
+        /**
+         * Takes the [active] permits if they are available now and nobody is
+         * queued ahead.
+         */
+        public boolean tryActivate() {
+            synchronized (waiters) {
+                if (state != TicketState.NEW || !waiters.isEmpty()) {
+                    return false;
+                }
+                Semaphore sem = maxActiveSemaphore;
+                if (!tryAcquire(sem, permits)) {
+                    return false;
+                }
+                activated(sem);
+                return true;
+            }
+        }
+
+        /**
+         * Takes the [active] permits if they are available now and nobody is
+         * queued ahead, otherwise queues the ticket as
+         * {@link #whenActive(Runnable)} does. onActive is not run if the
+         * permits are taken at once.
+         *
+         * @return true if the permits were taken at once
+         */
+        boolean activateOrQueue(Runnable onActive) {
+            synchronized (waiters) {
+                if (tryActivate()) {
+                    return true;
+                }
+                // no need to grant waiters: the permits were just checked,
+                // and any later release will grant them
+                queue(onActive);
+                return false;
+            }
+        }
+
+        /**
+         * Queues the ticket for [active] permits. onActive will be run once
+         * they are granted, possibly on the thread which releases them.
+         */
+        public void whenActive(Runnable onActive) {
+            synchronized (waiters) {
+                queue(onActive);
+            }
+            grantWaiters();
+        }
+
+        // guarded by waiters
+        private void queue(Runnable onActive) {
+            if (state != TicketState.NEW) {
+                throw new IllegalStateException("ticket is " + state);
+            }
+            this.onActive = onActive;
+            state = TicketState.QUEUED;
+            waiters.add(this);
+        }
+
+        /**
+         * Gives up waiting for [active] permits.
+         *
+         * @return false if the ticket was not waiting (eg it has just been
+         *         activated)
+         */
+        public boolean cancel() {
+            synchronized (waiters) {
+                if (state != TicketState.QUEUED) {
+                    return false;
+                }
+                waiters.remove(this);
+                state = TicketState.DONE;
+            }
+            concSem.release();
+            log.debug("cancelled ticket; released [concurrent] semaphore");
+            // the ticket may have been blocking the head of the queue
+            grantWaiters();
+            return true;
+        }
+
+        /**
+         * Returns all permits held by the ticket. Later calls do nothing.
+         */
+        public void release() {
+            Semaphore heldActiveSem;
+            synchronized (waiters) {
+                if (state == TicketState.DONE) {
+                    return;
+                }
+                if (state == TicketState.QUEUED) {
+                    waiters.remove(this);
+                }
+                heldActiveSem = state == TicketState.ACTIVE ? activeSem : null;
+                state = TicketState.DONE;
+            }
+            if (heldActiveSem != null) {
+                RestCallLimiter.release(heldActiveSem, permits);
+                log.debug("released [active] semaphore");
+            }
+            concSem.release();
+            log.debug("released [concurrent] semaphore");
+            grantWaiters();
+        }
+
+        private void activated(Semaphore sem) {
+            activeSem = sem;
+            state = TicketState.ACTIVE;
+            log.debug("got [active] semaphore");
+        }
+    }
+
+    private enum TicketState {
+        NEW, QUEUED, ACTIVE, DONE
+    }
+
     /**
      * Overrides tryAcquire method to return true all the time.
      */
@@ -195,15 +417,31 @@ class RestCallLimiter {
             // do nothing
         }
 
+        @Override
+        public void release(int permits) {
+            // do nothing
+        }
+
         @Override
         public boolean tryAcquire() {
             return true;
         }
 
+        @Override
+        public boolean tryAcquire(int permits) {
+            return true;
+        }
+
         @Override
         public boolean tryAcquire(long timeout, TimeUnit unit)
                 throws InterruptedException {
             return true;
         }
+
+        @Override
+        public boolean tryAcquire(int permits, long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return true;
+        }
     }
 }
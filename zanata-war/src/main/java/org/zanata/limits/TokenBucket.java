@@ -0,0 +1,140 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.limits;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.common.base.Ticker;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lock-free rate-limit bucket. Starts off with full permits. Each
+ * {@link #tryAcquire()} deducts a permit, and one permit is added back for
+ * every refill period which has passed since the last successful acquire (up
+ * to the capacity).
+ * <p>
+ * The permits and the time of the last acquire are held in one immutable
+ * state which is replaced by compare-and-set, so concurrent callers never
+ * wait for a monitor. When the bucket is empty, {@link #tryAcquire()} returns
+ * false without writing anything.
+ */
+@Slf4j
+public class TokenBucket {
+    private final long capacity;
+    private final long refillPeriod;
+    private final Ticker ticker;
+    private final AtomicReference<State> state;
+
+    /**
+     * @param capacity
+     *            capacity
+     * @param refillDuration
+     *            refill duration
+     * @param refillTimeUnit
+     *            refill time unit
+     */
+    public TokenBucket(long capacity, int refillDuration,
+            TimeUnit refillTimeUnit) {
+        this(capacity, refillDuration, refillTimeUnit, Ticker.systemTicker());
+    }
+
+    /**
+     * @param ticker
+     *            source of nanosecond time for refills
+     */
+    public TokenBucket(long capacity, int refillDuration,
+            TimeUnit refillTimeUnit, Ticker ticker) {
+        this.capacity = capacity;
+        this.ticker = ticker;
+        refillPeriod = Math.max(1,
+                TimeUnit.NANOSECONDS.convert(refillDuration, refillTimeUnit));
+        state = new AtomicReference<>(new State(capacity, ticker.read()));
+    }
+
+    /**
+     * Try acquire 1 permit. Will not block.
+     *
+     * @return true if there is enough permit
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Try acquire a number of permits. Will not block.
+     *
+     * @return true if there is enough permits
+     */
+    public boolean tryAcquire(final long requestPermits) {
+        while (true) {
+            State current = state.get();
+            long now = ticker.read();
+            long available = current.availableAt(now);
+            if (available < requestPermits) {
+                return false;
+            }
+            State next = new State(available - requestPermits, now);
+            if (state.compareAndSet(current, next)) {
+                log.debug(
+                        "deduct {} permits(s), current left permits {}, return true",
+                        requestPermits, next.permits);
+                return true;
+            }
+            // another thread acquired in the meantime; try again
+        }
+    }
+
+    /**
+     * @return permits which could be acquired now
+     */
+    public long availablePermits() {
+        return state.get().availableAt(ticker.read());
+    }
+
+    @Override
+    public String toString() {
+        return "TokenBucket(capacity=" + capacity + ", refillPeriod="
+                + refillPeriod + ", availablePermits=" + availablePermits()
+                + ")";
+    }
+
+    private final class State {
+        private final long permits;
+        // ticker time of the last successful acquire
+        private final long lastAcquired;
+
+        private State(long permits, long lastAcquired) {
+            this.permits = permits;
+            this.lastAcquired = lastAcquired;
+        }
+
+        private long availableAt(long now) {
+            if (permits >= capacity) {
+                return capacity;
+            }
+            // a clock which goes backwards never removes permits
+            long permitsShouldAdd =
+                    Math.max(0, now - lastAcquired) / refillPeriod;
+            return Math.min(capacity, permits + permitsShouldAdd);
+        }
+    }
+}
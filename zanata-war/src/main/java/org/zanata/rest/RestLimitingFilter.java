@@ -54,6 +54,9 @@ import static javax.ws.rs.core.Response.Status.UNAUTHORIZED;
 /**
  * This class filters JAX-RS calls to limit API calls per
  * API key (via RateLimitingProcessor and RateLimitManager).
+ * <p>
+ * Calls waiting for a permit may be suspended, and are then dispatched to
+ * this filter again (DispatcherType.ASYNC) when they can proceed.
  *
  * @author Patrick Huang <a
  *         href="mailto:pahuang@redhat.com">pahuang@redhat.com</a>
@@ -61,7 +64,7 @@ import static javax.ws.rs.core.Response.Status.UNAUTHORIZED;
  *         href="mailto:sflaniga@redhat.com">sflaniga@redhat.com</a>
  */
 @Slf4j
-@WebFilter(filterName = "RestLimitingFilter")
+@WebFilter(filterName = "RestLimitingFilter", asyncSupported = true)
 public class RestLimitingFilter implements Filter {
     private static final String API_KEY_ABSENCE_WARNING =
             "You must have a valid API key. You can create one by logging " +
@@ -92,6 +95,18 @@ public class RestLimitingFilter implements Filter {
 
         HttpServletRequest request = (HttpServletRequest) req;
         HttpServletResponse response = (HttpServletResponse) resp;
+        RunnableEx invokeChain = () -> chain.doFilter(req, resp);
+
+        try {
+            // a suspended call has already been authorised and admitted
+            if (processor.resumeIfAdmitted(request, invokeChain)) {
+                return;
+            }
+        } catch (IOException | ServletException e) {
+            throw e;
+        } catch (Exception e) {
+            Throwables.propagate(e);
+        }
 
         /**
          * This is only non-null if request came from same browser which
@@ -127,8 +142,6 @@ public class RestLimitingFilter implements Filter {
             return;
         }
 
-        RunnableEx invokeChain = () -> chain.doFilter(req, resp);
-
         try {
             //authenticatedUser can be from browser or client request
             if (authenticatedUser == null) {
@@ -139,14 +152,15 @@ public class RestLimitingFilter implements Filter {
                  * all the requests from same proxy server into a single queue.
                  */
                 String clientIP = HttpUtil.getClientIp(request);
-                processor.processForAnonymousIP(clientIP, response, invokeChain);
+                processor.processForAnonymousIP(clientIP, request, response,
+                        invokeChain);
             } else {
                 if (!Strings.isNullOrEmpty(authenticatedUser.getApiKey())) {
                     processor.processForApiKey(authenticatedUser.getApiKey(),
-                            response, invokeChain);
+                            request, response, invokeChain);
                 } else {
                     processor.processForUser(authenticatedUser.getUsername(),
-                            response, invokeChain);
+                            request, response, invokeChain);
                 }
             }
         } catch (IOException | ServletException e) {
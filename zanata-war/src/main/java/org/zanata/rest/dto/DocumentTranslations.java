@@ -0,0 +1,23 @@
+package org.zanata.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import org.codehaus.jackson.annotate.JsonIgnoreProperties;
+import org.zanata.common.LocaleId;
+import org.zanata.rest.dto.resource.TranslationsResource;
+
+/**
+ * Translations of one document in one locale, as pushed to
+ * {@link org.zanata.rest.service.BulkTranslationsService}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DocumentTranslations {
+    private String docId;
+    private LocaleId locale;
+    private TranslationsResource translations;
+}
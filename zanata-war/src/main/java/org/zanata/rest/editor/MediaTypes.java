@@ -35,6 +35,9 @@ public class MediaTypes {
     public static final String APPLICATION_ZANATA_SUGGESTIONS_JSON =
             APPLICATION_VND_ZANATA + ".suggestions" + JSON;
 
+    public static final String APPLICATION_ZANATA_GLOSSARY_TERMS_JSON =
+            APPLICATION_VND_ZANATA + ".glossary.terms" + JSON;
+
     public static final String APPLICATION_ZANATA_PROJECT_VERSION =
             APPLICATION_VND_ZANATA + ".version";
     public static final String APPLICATION_ZANATA_PROJECT_VERSION_JSON =
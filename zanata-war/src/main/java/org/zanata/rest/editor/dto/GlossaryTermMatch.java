@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.editor.dto;
+
+import java.io.Serializable;
+
+import lombok.Getter;
+import org.codehaus.jackson.annotate.JsonPropertyOrder;
+
+/**
+ * A glossary term found in a source string, with its translation.
+ *
+ * This representation is designed for use with the pure JavaScript editor.
+ */
+@Getter
+@JsonPropertyOrder({ "start", "end", "source", "target", "sourceTermId" })
+public class GlossaryTermMatch implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** index of the first character of the term in the source string */
+    private final int start;
+    /** index after the last character of the term in the source string */
+    private final int end;
+    private final String source;
+    private final String target;
+    private final long sourceTermId;
+
+    public GlossaryTermMatch(int start, int end, String source, String target,
+            long sourceTermId) {
+        this.start = start;
+        this.end = end;
+        this.source = source;
+        this.target = target;
+        this.sourceTermId = sourceTermId;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.editor.service;
+
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.GenericEntity;
+import javax.ws.rs.core.Response;
+
+import org.apache.deltaspike.jpa.api.transaction.Transactional;
+import org.zanata.model.HLocale;
+import org.zanata.rest.editor.dto.GlossaryTermMatch;
+import org.zanata.rest.editor.service.resource.GlossaryTermsResource;
+import org.zanata.service.LocaleService;
+import org.zanata.service.impl.GlossaryTermMatcherCache;
+import org.zanata.service.impl.GlossaryTermMatcherCache.TermPair;
+import org.zanata.util.AhoCorasickMatcher.Match;
+
+import com.google.common.collect.Lists;
+
+/**
+ * @see org.zanata.rest.editor.service.resource.GlossaryTermsResource
+ */
+@RequestScoped
+@Named("editor.glossaryTermsService")
+@Path(GlossaryTermsResource.SERVICE_PATH)
+@Transactional
+public class GlossaryTermsService implements GlossaryTermsResource {
+
+    @Inject
+    private GlossaryTermMatcherCache glossaryTermMatcherCache;
+
+    @Inject
+    private LocaleService localeService;
+
+    @Override
+    public Response findTerms(List<String> sources, String sourceLocale,
+            String transLocale) {
+        @Nullable HLocale srcLocale = sourceLocale == null ? null
+                : localeService.getByLocaleId(sourceLocale);
+        if (srcLocale == null) {
+            return Response.status(BAD_REQUEST)
+                    .entity(String.format("Unrecognized source locale: \"%s\"", sourceLocale))
+                    .build();
+        }
+        @Nullable HLocale targetLocale = transLocale == null ? null
+                : localeService.getByLocaleId(transLocale);
+        if (targetLocale == null) {
+            return Response.status(BAD_REQUEST)
+                    .entity(String.format("Unrecognized translation locale: \"%s\"", transLocale))
+                    .build();
+        }
+
+        if (sources == null) {
+            return Response.status(BAD_REQUEST)
+                    .entity("Expected a JSON array of source strings")
+                    .build();
+        }
+        if (sources.size() > TransUnitUtils.MAX_SIZE) {
+            return Response.status(Response.Status.FORBIDDEN)
+                    .entity(String.format("More than %d source strings.",
+                            TransUnitUtils.MAX_SIZE))
+                    .build();
+        }
+
+        List<List<Match<TermPair>>> matches =
+                glossaryTermMatcherCache.findTerms(srcLocale.getLocaleId(),
+                        targetLocale.getLocaleId(), sources);
+        List<List<GlossaryTermMatch>> terms =
+                Lists.newArrayListWithCapacity(matches.size());
+        for (List<Match<TermPair>> sourceMatches : matches) {
+            List<GlossaryTermMatch> sourceTerms =
+                    Lists.newArrayListWithCapacity(sourceMatches.size());
+            for (Match<TermPair> match : sourceMatches) {
+                TermPair pair = match.getValue();
+                sourceTerms.add(new GlossaryTermMatch(match.getStart(),
+                        match.getEnd(), pair.getSource(), pair.getTarget(),
+                        pair.getSourceTermId()));
+            }
+            terms.add(sourceTerms);
+        }
+
+        // Wrap in generic entity to prevent type erasure, so that an
+        // appropriate MessageBodyReader can be used.
+        GenericEntity<List<List<GlossaryTermMatch>>> entity =
+                new GenericEntity<List<List<GlossaryTermMatch>>>(terms) {};
+        return Response.ok(entity).build();
+    }
+}
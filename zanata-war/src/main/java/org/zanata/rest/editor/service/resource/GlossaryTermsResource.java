@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.editor.service.resource;
+
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.zanata.rest.editor.MediaTypes;
+
+/**
+ * Endpoint to find the glossary terms which occur in source strings.
+ */
+@Produces({ MediaType.APPLICATION_JSON })
+@Consumes({ MediaType.APPLICATION_JSON })
+public interface GlossaryTermsResource {
+
+    public static final String SERVICE_PATH = "/glossary-terms";
+
+    /**
+     * Finds every glossary term which occurs in each of a list of source
+     * strings (eg a page of the editor), so that the terms can be
+     * highlighted.
+     *
+     * @param sources a JSON array of source strings in the body of the
+     *                request
+     * @param sourceLocale locale id of the source strings, in the form
+     *                     lang[-country[-modifier]]
+     * @param transLocale locale id of the glossary translations to return,
+     *                    in the form lang[-country[-modifier]]
+     * @return The following response status codes will be returned from this
+     *         operation:<br>
+     *         OK (200) - Response containing a JSON array with an array of
+     *             matched terms for each source string, in the same order as
+     *             the request. <br>
+     *         BAD REQUEST (400) - If sourceLocale or transLocale are
+     *             malformed or not available on the server.
+     *         INTERNAL SERVER ERROR (500) - If there is an unexpected error in
+     *         the server while performing this operation.
+     */
+    @POST
+    @Produces({ MediaTypes.APPLICATION_ZANATA_GLOSSARY_TERMS_JSON,
+            MediaType.APPLICATION_JSON })
+    Response findTerms(List<String> sources,
+            @QueryParam("from") String sourceLocale,
+            @QueryParam("to") String transLocale);
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.service;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.apache.deltaspike.jpa.api.transaction.Transactional;
+import org.zanata.async.AsyncTaskHandle;
+import org.zanata.async.AsyncTaskHandleManager;
+import org.zanata.common.LocaleId;
+import org.zanata.common.MergeType;
+import org.zanata.model.HProjectIteration;
+import org.zanata.model.type.TranslationSourceType;
+import org.zanata.rest.dto.DocumentTranslations;
+import org.zanata.rest.dto.ProcessStatus;
+import org.zanata.rest.dto.resource.TranslationsResource;
+import org.zanata.security.ZanataIdentity;
+import org.zanata.service.LocaleService;
+import org.zanata.service.TranslationService;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static org.zanata.rest.dto.ProcessStatus.ProcessStatusCode;
+
+/**
+ * Pushes the translations of many documents and locales of a project version
+ * as a single asynchronous process, instead of one process per document and
+ * locale. The returned process can be polled through
+ * {@link AsynchronousProcessResource}.
+ */
+@RequestScoped
+@Named("bulkTranslationsService")
+@Path("/bulk/projects/p/{projectSlug}/iterations/i/{iterationSlug}/translations")
+@Produces({ MediaType.APPLICATION_JSON })
+@Consumes({ MediaType.APPLICATION_JSON })
+@Transactional
+@Slf4j
+public class BulkTranslationsService {
+    @Inject
+    private LocaleService localeServiceImpl;
+
+    @Inject
+    private TranslationService translationServiceImpl;
+
+    @Inject
+    private AsyncTaskHandleManager asyncTaskHandleManager;
+
+    @Inject
+    private AsynchronousProcessResourceService asynchronousProcessResourceService;
+
+    @Inject
+    private ZanataIdentity identity;
+
+    @POST
+    public ProcessStatus startTranslatedDocsCreationOrUpdate(
+            @PathParam("projectSlug") String projectSlug,
+            @PathParam("iterationSlug") String iterationSlug,
+            List<DocumentTranslations> translatedDocs,
+            @QueryParam("ext") Set<String> extensions,
+            @QueryParam("merge") @DefaultValue("auto") String merge,
+            @QueryParam("assignCreditToUploader") @DefaultValue("false") boolean assignCreditToUploader) {
+        HProjectIteration iteration =
+                asynchronousProcessResourceService.getSecuredIteration(
+                        projectSlug, iterationSlug);
+
+        MergeType mergeType;
+        try {
+            mergeType = MergeType.valueOf(merge.toUpperCase());
+        } catch (Exception e) {
+            ProcessStatus status = new ProcessStatus();
+            status.setStatusCode(ProcessStatusCode.Failed);
+            status.getMessages().add("bad merge type " + merge);
+            return status;
+        }
+
+        failIfNotValid(translatedDocs);
+        Map<String, Map<LocaleId, TranslationsResource>> translations =
+                Maps.newLinkedHashMap();
+        Set<LocaleId> locales = Sets.newHashSet();
+        for (DocumentTranslations docTranslations : translatedDocs) {
+            String docId = URIHelper.convertFromDocumentURIId(
+                    docTranslations.getDocId());
+            Map<LocaleId, TranslationsResource> byLocale =
+                    translations.get(docId);
+            if (byLocale == null) {
+                byLocale = Maps.newLinkedHashMap();
+                translations.put(docId, byLocale);
+            }
+            byLocale.put(docTranslations.getLocale(),
+                    docTranslations.getTranslations());
+            locales.add(docTranslations.getLocale());
+        }
+
+        // check security (cannot be on @Restrict as it refers to method
+        // parameters)
+        for (LocaleId locale : locales) {
+            identity.checkPermission("modify-translation",
+                    localeServiceImpl.getByLocaleId(locale),
+                    iteration.getProject());
+        }
+
+        AsyncTaskHandle<List<String>> handle = new AsyncTaskHandle<>();
+        Serializable taskId = asyncTaskHandleManager.registerTaskHandle(handle);
+        log.debug("bulk push of {} documents in {} locales to {}:{}",
+                translations.size(), locales.size(), projectSlug,
+                iterationSlug);
+        translationServiceImpl.translateAllInDocsAsync(projectSlug,
+                iterationSlug, translations, extensions, mergeType,
+                assignCreditToUploader, handle,
+                TranslationSourceType.API_UPLOAD);
+
+        return asynchronousProcessResourceService.getProcessStatus(taskId
+                .toString());
+    }
+
+    private static void failIfNotValid(
+            List<DocumentTranslations> translatedDocs) {
+        if (translatedDocs == null) {
+            throw badRequest("Expected a list of document translations");
+        }
+        for (DocumentTranslations docTranslations : translatedDocs) {
+            if (docTranslations.getDocId() == null) {
+                throw badRequest("Document translations without a docId");
+            }
+            if (docTranslations.getLocale() == null) {
+                throw badRequest("Translations of document "
+                        + docTranslations.getDocId() + " without a locale");
+            }
+            if (docTranslations.getTranslations() == null) {
+                throw badRequest("Document " + docTranslations.getDocId()
+                        + " [" + docTranslations.getLocale()
+                        + "] without translations");
+            }
+        }
+    }
+
+    private static WebApplicationException badRequest(String message) {
+        return new WebApplicationException(Response
+                .status(Response.Status.BAD_REQUEST).entity(message).build());
+    }
+}
@@ -2,6 +2,7 @@ package org.zanata.rest.service;
 
 import static org.zanata.common.EntityStatus.OBSOLETE;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
@@ -12,12 +13,14 @@ import org.hibernate.Session;
 import javax.inject.Inject;
 import javax.inject.Named;
 import org.zanata.dao.DocumentDAO;
+import org.zanata.events.DocumentLocaleKey;
 import org.zanata.model.HDocument;
 import org.zanata.model.HLocale;
 import org.zanata.model.HProjectIteration;
 import org.zanata.model.po.HPoHeader;
 import org.zanata.rest.NoSuchEntityException;
 import org.zanata.rest.dto.extensions.gettext.PoHeader;
+import org.zanata.service.impl.TranslatedDocumentStateCache;
 import org.zanata.util.HashUtil;
 
 @Named("eTagUtils")
@@ -30,6 +33,9 @@ public class ETagUtils {
     @Inject
     private DocumentDAO documentDAO;
 
+    @Inject
+    private TranslatedDocumentStateCache translatedDocumentStateCache;
+
     /**
      * Retrieves the ETag for the Project
      *
@@ -129,15 +135,20 @@ public class ETagUtils {
     }
 
     public EntityTag generateETagForTranslatedDocument(
-            HProjectIteration iteration, String docId, HLocale locale) {
-        String stateHash =
-                documentDAO.getTranslatedDocumentStateHash(iteration
-                        .getProject().getSlug(), iteration.getSlug(), docId,
-                        locale);
-
-        if (stateHash == null) {
-            stateHash = "";
+            HProjectIteration iteration, String docId, final HLocale locale) {
+        final HDocument doc =
+                documentDAO.getByProjectIterationAndDocId(iteration
+                        .getProject().getSlug(), iteration.getSlug(), docId);
+        if (doc == null) {
+            return EntityTag.valueOf("");
         }
-        return EntityTag.valueOf(stateHash);
+        Date translationsLastChanged =
+                translatedDocumentStateCache.getTranslationsLastChanged(
+                        new DocumentLocaleKey(doc.getId(),
+                                locale.getLocaleId()),
+                        () -> documentDAO.getTranslationsLastChanged(doc,
+                                locale));
+        return EntityTag.valueOf(DocumentDAO.toTranslatedDocumentStateHash(
+                doc.getLastChanged(), translationsLastChanged));
     }
 }
@@ -21,6 +21,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.ws.rs.core.StreamingOutput;
@@ -33,6 +34,7 @@ import org.zanata.adapter.glossary.GlossaryPoWriter;
 import org.zanata.common.GlossarySortField;
 import org.zanata.common.LocaleId;
 import org.zanata.dao.GlossaryDAO;
+import org.zanata.events.GlossaryDeletedEvent;
 import org.zanata.exception.ZanataServiceException;
 import org.zanata.model.HGlossaryEntry;
 import org.zanata.model.HGlossaryTerm;
@@ -68,6 +70,9 @@ public class GlossaryService implements GlossaryResource {
     @Inject
     private LocaleService localeServiceImpl;
 
+    @Inject
+    private Event<GlossaryDeletedEvent> glossaryDeletedEvent;
+
     @Override
     public Response getInfo() {
         HLocale srcLocale = getSourceLocale();
@@ -270,6 +275,7 @@ public class GlossaryService implements GlossaryResource {
 
         int rowCount = glossaryDAO.deleteAllEntries();
         log.info("Glossary delete all: " + rowCount);
+        glossaryDeletedEvent.fire(new GlossaryDeletedEvent(rowCount));
 
         return Response.ok().build();
     }
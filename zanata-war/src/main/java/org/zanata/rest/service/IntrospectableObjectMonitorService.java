@@ -24,11 +24,21 @@ import org.apache.deltaspike.jpa.api.transaction.Transactional;
 import org.zanata.security.annotations.CheckLoggedIn;
 import org.zanata.security.annotations.CheckPermission;
 import org.zanata.security.annotations.CheckRole;
+import org.zanata.async.AsyncTaskManager;
 import org.zanata.common.Namespaces;
 import org.zanata.rest.MediaTypes;
 import org.zanata.rest.dto.Link;
+import org.zanata.security.permission.PermissionDecisionCache;
 import org.zanata.limits.RateLimitManager;
+import org.zanata.service.impl.GlossaryTermMatcherCache;
+import org.zanata.service.impl.TransMemorySuggestionCache;
+import org.zanata.service.impl.TranslatedDocumentStateCache;
+import org.zanata.service.impl.TranslationStateCacheImpl;
+import org.zanata.service.impl.VersionStateCacheImpl;
+import org.zanata.service.impl.WebHookDispatcher;
 import org.zanata.util.Introspectable;
+import org.zanata.util.ServiceLocator;
+import org.zanata.webtrans.server.rpc.TransUnitNavigationIndexCache;
 import com.google.common.annotations.Beta;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
@@ -59,6 +69,24 @@ public class IntrospectableObjectMonitorService {
     private static List<Introspectable> introspectables = ImmutableList
             .<Introspectable> builder()
             .add(RateLimitManager.getInstance())
+            .add(ServiceLocator.instance().getInstance(
+                    TranslationStateCacheImpl.class))
+            .add(ServiceLocator.instance().getInstance(
+                    VersionStateCacheImpl.class))
+            .add(ServiceLocator.instance().getInstance(
+                    TransMemorySuggestionCache.class))
+            .add(ServiceLocator.instance().getInstance(
+                    AsyncTaskManager.class))
+            .add(ServiceLocator.instance().getInstance(
+                    WebHookDispatcher.class))
+            .add(ServiceLocator.instance().getInstance(
+                    TransUnitNavigationIndexCache.class))
+            .add(ServiceLocator.instance().getInstance(
+                    TranslatedDocumentStateCache.class))
+            .add(ServiceLocator.instance().getInstance(
+                    GlossaryTermMatcherCache.class))
+            .add(ServiceLocator.instance().getInstance(
+                    PermissionDecisionCache.class))
             .build();
 
     /** Type of media requested. */
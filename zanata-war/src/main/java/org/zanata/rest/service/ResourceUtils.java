@@ -677,10 +677,11 @@ public class ResourceUtils {
      * @see #transferFromPoTargetHeader
      */
     private void transferToPoTargetHeader(HPoTargetHeader from,
-            PoTargetHeader to, List<HTextFlowTarget> hTargets, HLocale locale) {
-        pullPoTargetComment(from, to, hTargets);
+            PoTargetHeader to, Set<TranslatorCredit> credits,
+            @Nullable HTextFlowTarget lastChangedTarget, HLocale locale) {
+        pullPoTargetComment(from, to, credits);
         to.getEntries().addAll(this.headerToList(from.getEntries()));
-        populateHeaderEntries(to.getEntries(), hTargets, locale);
+        populateHeaderEntries(to.getEntries(), lastChangedTarget, locale);
     }
 
     /**
@@ -699,16 +700,17 @@ public class ResourceUtils {
      *
      * @param headerEntries
      *            The header entries to be populated.
-     * @param hTargets
-     *            The Text Flow Targets that the header applies to.
+     * @param lastChangedTarget
+     *            The most recently changed of the Text Flow Targets that the
+     *            header applies to.
      * @param locale
      *            The locale that is bein
      */
     private void populateHeaderEntries(final List<HeaderEntry> headerEntries,
-            final List<HTextFlowTarget> hTargets, final HLocale locale) {
+            final @Nullable HTextFlowTarget lastChangedTarget,
+            final HLocale locale) {
         final Map<String, HeaderEntry> containedHeaders =
                 new LinkedHashMap<String, HeaderEntry>(headerEntries.size());
-        HTextFlowTarget lastChangedTarget = getLastChangedTarget(hTargets);
 
         // Collect the existing header entries
         for (HeaderEntry entry : headerEntries) {
@@ -1195,13 +1197,35 @@ public class ResourceUtils {
      */
     protected void pullPoTargetComment(HPoTargetHeader fromHeader,
             PoTargetHeader toHeader, List<HTextFlowTarget> hTargets) {
+        pullPoTargetComment(fromHeader, toHeader,
+                getTranslatorCredits(hTargets));
+    }
+
+    private void pullPoTargetComment(HPoTargetHeader fromHeader,
+            PoTargetHeader toHeader, Set<TranslatorCredit> zanataCredits) {
         StringBuilder sb = new StringBuilder();
         HSimpleComment comment = fromHeader.getComment();
         if (comment != null) {
             sb.append(comment.getComment());
         }
         // generate #zanata credit comments
-        // order by year, then alphabetically
+        for (TranslatorCredit credit : zanataCredits) {
+            if (sb.length() != 0)
+                sb.append(NEWLINE);
+            sb.append(credit);
+            sb.append(' ');
+            sb.append(ZANATA_TAG);
+        }
+
+        toHeader.setComment(sb.toString());
+    }
+
+    /**
+     * @return credits for the people who last modified the targets, ordered
+     *         by year, then alphabetically
+     */
+    private Set<TranslatorCredit> getTranslatorCredits(
+            List<HTextFlowTarget> hTargets) {
         Set<TranslatorCredit> zanataCredits = new TreeSet<TranslatorCredit>();
         for (HTextFlowTarget tft : hTargets) {
             HPerson person = tft.getLastModifiedBy();
@@ -1209,22 +1233,36 @@ public class ResourceUtils {
                 Calendar lastChanged = Calendar.getInstance();
                 lastChanged.setTime(tft.getLastChanged());
                 int year = lastChanged.get(Calendar.YEAR);
-                TranslatorCredit credit = new TranslatorCredit();
-                credit.setEmail(person.getEmail());
-                credit.setName(person.getName());
-                credit.setYear(year);
-                zanataCredits.add(credit);
+                zanataCredits.add(newTranslatorCredit(person.getEmail(),
+                        person.getName(), year));
             }
         }
-        for (TranslatorCredit credit : zanataCredits) {
-            if (sb.length() != 0)
-                sb.append(NEWLINE);
-            sb.append(credit);
-            sb.append(' ');
-            sb.append(ZANATA_TAG);
+        return zanataCredits;
+    }
+
+    /**
+     * @param rows
+     *            email, name and year of last change for each person who
+     *            last modified some targets (see
+     *            {@link org.zanata.dao.TextFlowTargetDAO#findTranslatorCredits})
+     * @return credits ordered by year, then alphabetically
+     */
+    Set<TranslatorCredit> toTranslatorCredits(List<Object[]> rows) {
+        Set<TranslatorCredit> zanataCredits = new TreeSet<TranslatorCredit>();
+        for (Object[] row : rows) {
+            zanataCredits.add(newTranslatorCredit((String) row[0],
+                    (String) row[1], ((Number) row[2]).intValue()));
         }
+        return zanataCredits;
+    }
 
-        toHeader.setComment(sb.toString());
+    private static TranslatorCredit newTranslatorCredit(String email,
+            String name, int year) {
+        TranslatorCredit credit = new TranslatorCredit();
+        credit.setEmail(email);
+        credit.setName(name);
+        credit.setYear(year);
+        return credit;
     }
 
     public void transferToTextFlow(HTextFlow from, TextFlow to) {
@@ -1276,6 +1314,24 @@ public class ResourceUtils {
             ExtensionSet<TranslationsResourceExtension> to,
             Set<String> enabledExtensions, HLocale locale,
             List<HTextFlowTarget> hTargets) {
+        return transferToTranslationsResourceExtensions(from, to,
+                enabledExtensions, locale, getTranslatorCredits(hTargets),
+                getLastChangedTarget(hTargets));
+    }
+
+    /**
+     * As for {@link #transferToTranslationsResourceExtensions(HDocument,
+     * ExtensionSet, Set, HLocale, List)}, but using credits and the last
+     * changed target which have already been found, so that the targets
+     * themselves need not be loaded.
+     *
+     * @return true only if extensions were found
+     */
+    boolean transferToTranslationsResourceExtensions(HDocument from,
+            ExtensionSet<TranslationsResourceExtension> to,
+            Set<String> enabledExtensions, HLocale locale,
+            Set<TranslatorCredit> credits,
+            @Nullable HTextFlowTarget lastChangedTarget) {
         boolean found = false;
         if (enabledExtensions.contains(PoTargetHeader.ID)) {
             log.debug("PoTargetHeader requested");
@@ -1291,8 +1347,8 @@ public class ResourceUtils {
                 fromHeader = new HPoTargetHeader();
                 fromHeader.setEntries("");
             }
-            transferToPoTargetHeader(fromHeader, poTargetHeader, hTargets,
-                    locale);
+            transferToPoTargetHeader(fromHeader, poTargetHeader, credits,
+                    lastChangedTarget, locale);
             to.add(poTargetHeader);
         }
         return found;
@@ -1472,16 +1528,26 @@ public class ResourceUtils {
 
         for (HTextFlowTarget hTarget : hTargets) {
             found = true;
-            TextFlowTarget target = new TextFlowTarget();
-            target.setResId(hTarget.getTextFlow().getResId());
-            this.transferToTextFlowTarget(hTarget, target, apiVersion);
-            this.transferToTextFlowTargetExtensions(hTarget,
-                    target.getExtensions(true), enabledExtensions);
-            transRes.getTextFlowTargets().add(target);
+            transRes.getTextFlowTargets().add(
+                    buildTextFlowTarget(hTarget, enabledExtensions,
+                            apiVersion));
         }
         return found;
     }
 
+    /**
+     * Converts a single target, including its resId and extensions.
+     */
+    public TextFlowTarget buildTextFlowTarget(HTextFlowTarget hTarget,
+            Set<String> enabledExtensions, Optional<String> apiVersion) {
+        TextFlowTarget target = new TextFlowTarget();
+        target.setResId(hTarget.getTextFlow().getResId());
+        this.transferToTextFlowTarget(hTarget, target, apiVersion);
+        this.transferToTextFlowTargetExtensions(hTarget,
+                target.getExtensions(true), enabledExtensions);
+        return target;
+    }
+
     /**
      * Ensures that any extensions sent with the current query are valid for
      * this context.
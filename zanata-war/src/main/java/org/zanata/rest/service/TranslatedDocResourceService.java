@@ -50,6 +50,7 @@ import org.zanata.dao.DocumentDAO;
 import org.zanata.dao.ProjectDAO;
 import org.zanata.dao.ProjectIterationDAO;
 import org.zanata.dao.TextFlowTargetDAO;
+import org.zanata.dao.TextFlowTargetStreamingDAO;
 import org.zanata.model.HDocument;
 import org.zanata.model.HLocale;
 import org.zanata.model.HProjectIteration;
@@ -60,6 +61,8 @@ import org.zanata.security.ZanataIdentity;
 import org.zanata.service.CopyTransService;
 import org.zanata.service.LocaleService;
 import org.zanata.service.TranslationService;
+import org.zanata.util.CloseableIterator;
+import org.zanata.util.SysProperties;
 
 import com.google.common.base.Optional;
 
@@ -74,6 +77,9 @@ import com.google.common.base.Optional;
 @Transactional
 public class TranslatedDocResourceService implements TranslatedDocResource {
 
+    private static final int STREAMING_THRESHOLD = SysProperties.getInt(
+            SysProperties.REST_TRANSLATIONS_STREAMING_THRESHOLD, 5000);
+
     // security actions
     // private static final String ACTION_IMPORT_TEMPLATE = "import-template";
     // private static final String ACTION_IMPORT_TRANSLATION =
@@ -119,6 +125,9 @@ public class TranslatedDocResourceService implements TranslatedDocResource {
     @Inject
     private TextFlowTargetDAO textFlowTargetDAO;
 
+    @Inject
+    private TextFlowTargetStreamingDAO textFlowTargetStreamingDAO;
+
     @Inject
     private ResourceUtils resourceUtils;
 
@@ -173,6 +182,16 @@ public class TranslatedDocResourceService implements TranslatedDocResource {
             return Response.status(Status.NOT_FOUND).build();
         }
 
+        Optional<MediaType> streamingType = getStreamingMediaType();
+        if (streamingType.isPresent()) {
+            int targetCount =
+                    textFlowTargetDAO.getTranslationCount(document, hLocale);
+            if (targetCount > STREAMING_THRESHOLD) {
+                return streamTranslations(document, hLocale, extensions,
+                        streamingType.get(), generatedEtag);
+            }
+        }
+
         TranslationsResource translationResource = new TranslationsResource();
         // TODO avoid queries for better cacheability
         List<HTextFlowTarget> hTargets =
@@ -191,6 +210,58 @@ public class TranslatedDocResourceService implements TranslatedDocResource {
                 .build();
     }
 
+    /**
+     * Writes the targets of a (non-empty) translated document to the
+     * response one at a time, using a separate streaming session, so that
+     * memory use does not grow with the size of the document.
+     */
+    private Response streamTranslations(HDocument document, HLocale hLocale,
+            Set<String> extensions, MediaType mediaType, EntityTag etag) {
+        TranslationsResource translationResource = new TranslationsResource();
+        // the PO header is built from aggregates instead of all the targets
+        resourceUtils.transferToTranslationsResourceExtensions(document,
+                translationResource.getExtensions(true), extensions, hLocale,
+                resourceUtils.toTranslatorCredits(textFlowTargetDAO
+                        .findTranslatorCredits(document, hLocale)),
+                textFlowTargetDAO.findLastChangedTranslation(document,
+                        hLocale));
+        CloseableIterator<HTextFlowTarget> hTargets =
+                textFlowTargetStreamingDAO.findTranslations(document, hLocale);
+        TranslationsStreamingOutput<HTextFlowTarget> output =
+                new TranslationsStreamingOutput<HTextFlowTarget>(
+                        translationResource, hTargets,
+                        hTarget -> resourceUtils.buildTextFlowTarget(hTarget,
+                                extensions, Optional.<String> absent()),
+                        isJson(mediaType));
+        return Response.ok(output, mediaType).tag(etag).build();
+    }
+
+    /**
+     * @return the media type to stream the response as, or absent if the
+     *         client's preference should be left to JAX-RS content
+     *         negotiation
+     */
+    private Optional<MediaType> getStreamingMediaType() {
+        List<MediaType> acceptable = headers.getAcceptableMediaTypes();
+        if (acceptable.isEmpty()) {
+            return Optional.of(MediaType.APPLICATION_XML_TYPE);
+        }
+        MediaType preferred = acceptable.get(0);
+        if (preferred.isWildcardType()) {
+            return Optional.of(MediaType.APPLICATION_XML_TYPE);
+        }
+        if (preferred.isWildcardSubtype()
+                || !(isJson(preferred) || preferred.getSubtype().endsWith(
+                        "xml"))) {
+            return Optional.absent();
+        }
+        return Optional.of(preferred);
+    }
+
+    private static boolean isJson(MediaType mediaType) {
+        return mediaType.getSubtype().endsWith("json");
+    }
+
     @Override
     public
             Response deleteTranslations(String idNoSlash, LocaleId locale) {
@@ -27,6 +27,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import javax.enterprise.context.RequestScoped;
+import javax.enterprise.event.Event;
 import javax.ws.rs.Path;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.StreamingOutput;
@@ -42,6 +43,7 @@ import org.zanata.async.Async;
 import org.zanata.async.AsyncTaskHandle;
 import org.zanata.async.AsyncTaskResult;
 import org.zanata.common.LocaleId;
+import org.zanata.events.TransMemoryUpdatedEvent;
 import org.zanata.dao.TextFlowStreamingDAO;
 import org.zanata.dao.TransMemoryDAO;
 import org.zanata.dao.TransMemoryStreamingDAO;
@@ -88,6 +90,8 @@ public class TranslationMemoryResourceService implements
     private TMXParser tmxParser;
     @Inject
     private ZanataIdentity identity;
+    @Inject
+    private Event<TransMemoryUpdatedEvent> transMemoryUpdatedEvent;
 
     @Override
     @CheckRole("admin")
@@ -163,6 +167,7 @@ public class TranslationMemoryResourceService implements
         try {
             Optional<TransMemory> tm = transMemoryDAO.getBySlug(slug);
             tmxParser.parseAndSaveTMX(input, getTM(tm, slug));
+            transMemoryUpdatedEvent.fire(new TransMemoryUpdatedEvent(slug));
             return Response.ok().build();
         } finally {
             lockManagerServiceImpl.release(tmLock);
@@ -185,6 +190,7 @@ public class TranslationMemoryResourceService implements
             Optional<TransMemory> transMemory = transMemoryDAO.getBySlug(slug);
             if (transMemory.isPresent()) {
                 transMemoryDAO.makeTransient(transMemory.get());
+                transMemoryUpdatedEvent.fire(new TransMemoryUpdatedEvent(slug));
                 return "Translation memory '" + slug + "' deleted";
             } else {
                 throw new EntityMissingException(slug);
@@ -211,6 +217,7 @@ public class TranslationMemoryResourceService implements
         Lock tmLock = lockTM(slug);
         try {
             int numDeleted = transMemoryDAO.deleteTransMemoryContents(slug);
+            transMemoryUpdatedEvent.fire(new TransMemoryUpdatedEvent(slug));
             return numDeleted + " translation units deleted";
         } finally {
             lockManagerServiceImpl.release(tmLock);
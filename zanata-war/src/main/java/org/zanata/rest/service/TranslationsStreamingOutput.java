@@ -0,0 +1,304 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.SerializationConfig;
+import org.codehaus.jackson.node.ObjectNode;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+import org.zanata.rest.dto.resource.TranslationsResource;
+import org.zanata.util.CloseableIterator;
+import org.zanata.util.NullCloseable;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+
+/**
+ * Writes a TranslationsResource to an OutputStream one TextFlowTarget at a
+ * time, so that a large translated document can be returned without building
+ * the whole object graph in memory.
+ * <p>
+ * The document-level parts (root element, extensions) are produced by the
+ * normal JAXB/Jackson bindings of TranslationsResource; only the list of
+ * targets is written incrementally.
+ *
+ * @param <T>
+ *            type of the translations which are converted to TextFlowTargets
+ */
+@ParametersAreNonnullByDefault
+@Slf4j
+public class TranslationsStreamingOutput<T> implements StreamingOutput,
+        Closeable {
+    private static final String TARGETS_PROPERTY = "textFlowTargets";
+    private static final String MARKER = "zanata-streaming-target-marker";
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper()
+            .configure(SerializationConfig.Feature.FLUSH_AFTER_WRITE_VALUE,
+                    false);
+    private static JAXBContext jaxbContext;
+
+    private final TranslationsResource resource;
+    private final Iterator<T> iter;
+    private final Function<T, TextFlowTarget> converter;
+    private final Closeable closeable;
+    private final boolean json;
+
+    private TranslationsStreamingOutput(TranslationsResource resource,
+            Iterator<T> iter, Function<T, TextFlowTarget> converter,
+            Closeable closeable, boolean json) {
+        this.resource = resource;
+        this.iter = iter;
+        this.converter = converter;
+        this.closeable = closeable;
+        this.json = json;
+    }
+
+    /**
+     * @param resource
+     *            the document-level parts (eg extensions) of the output. Its
+     *            list of targets should be empty.
+     * @param iter
+     *            the translations to be written, in order. It will be closed
+     *            after write() is called, or call close() to close it earlier.
+     * @param converter
+     *            converts each translation into a TextFlowTarget
+     * @param json
+     *            true to write JSON, false to write XML
+     */
+    public TranslationsStreamingOutput(TranslationsResource resource,
+            CloseableIterator<T> iter, Function<T, TextFlowTarget> converter,
+            boolean json) {
+        this(resource, iter, converter, iter, json);
+    }
+
+    /**
+     * As for the public constructor, but the iterator will NOT be closed.
+     */
+    public static <T> TranslationsStreamingOutput<T> testInstance(
+            TranslationsResource resource, Iterator<T> iter,
+            Function<T, TextFlowTarget> converter, boolean json) {
+        return new TranslationsStreamingOutput<T>(resource, iter, converter,
+                NullCloseable.INSTANCE, json);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeable.close();
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException,
+            WebApplicationException {
+        int count = 0;
+        try {
+            PeekingIterator<T> targets = Iterators.peekingIterator(iter);
+            // Fetch the first result, so that we can fail fast, before
+            // writing any output.
+            if (targets.hasNext()) {
+                targets.peek();
+            }
+            count = json ? writeJson(output, targets)
+                    : writeXml(output, targets);
+        } finally {
+            close();
+            log.debug("streamed {} text flow targets", count);
+        }
+    }
+
+    private int writeJson(OutputStream output, Iterator<T> targets)
+            throws IOException {
+        ObjectNode root = JSON_MAPPER.valueToTree(resource);
+        root.remove(TARGETS_PROPERTY);
+        JsonGenerator generator =
+                JSON_MAPPER.getJsonFactory().createJsonGenerator(output,
+                        JsonEncoding.UTF8);
+        generator.writeStartObject();
+        Iterator<Map.Entry<String, JsonNode>> fields = root.getFields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            generator.writeFieldName(field.getKey());
+            JSON_MAPPER.writeTree(generator, field.getValue());
+        }
+        generator.writeArrayFieldStart(TARGETS_PROPERTY);
+        int count = 0;
+        while (targets.hasNext()) {
+            JSON_MAPPER.writeValue(generator,
+                    converter.apply(targets.next()));
+            ++count;
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+        return count;
+    }
+
+    private int writeXml(OutputStream output, Iterator<T> targets)
+            throws IOException {
+        try {
+            Envelope envelope = buildXmlEnvelope();
+            output.write(envelope.prefix.getBytes(StandardCharsets.UTF_8));
+            Marshaller marshaller = getJaxbContext().createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+            marshaller.setProperty(Marshaller.JAXB_ENCODING, "UTF-8");
+            int count = 0;
+            while (targets.hasNext()) {
+                marshaller.marshal(new JAXBElement<TextFlowTarget>(
+                        envelope.targetName, TextFlowTarget.class,
+                        converter.apply(targets.next())), output);
+                ++count;
+            }
+            output.write(envelope.suffix.getBytes(StandardCharsets.UTF_8));
+            output.flush();
+            return count;
+        } catch (JAXBException | TransformerException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Marshals the resource with a single marker target, to find out how
+     * targets are named and where they go, without depending on the details
+     * of the TranslationsResource bindings.
+     */
+    private Envelope buildXmlEnvelope() throws JAXBException,
+            TransformerException {
+        TextFlowTarget marker = new TextFlowTarget(MARKER);
+        resource.getTextFlowTargets().add(marker);
+        DOMResult dom = new DOMResult();
+        try {
+            getJaxbContext().createMarshaller().marshal(resource, dom);
+        } finally {
+            resource.getTextFlowTargets().remove(marker);
+        }
+        Document doc = (Document) dom.getNode();
+        Element markerElement = findMarkerElement(doc);
+        if (markerElement == null) {
+            throw new IllegalStateException(
+                    "unable to locate text flow target in marshalled output");
+        }
+        QName targetName = new QName(
+                nullToEmpty(markerElement.getNamespaceURI()),
+                markerElement.getLocalName());
+        markerElement.getParentNode().replaceChild(
+                doc.createComment(MARKER), markerElement);
+
+        Transformer transformer =
+                TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        StringWriter xml = new StringWriter();
+        transformer.transform(new DOMSource(doc), new StreamResult(xml));
+        String placeholder = "<!--" + MARKER + "-->";
+        String text = xml.toString();
+        int index = text.indexOf(placeholder);
+        if (index < 0) {
+            throw new IllegalStateException(
+                    "unable to split marshalled output at text flow targets");
+        }
+        return new Envelope(targetName, text.substring(0, index),
+                text.substring(index + placeholder.length()));
+    }
+
+    /**
+     * @return the element of the target whose resId is MARKER (as an
+     *         attribute or as element content)
+     */
+    private static @Nullable
+    Element findMarkerElement(Document doc) {
+        NodeList elements = doc.getElementsByTagNameNS("*", "*");
+        for (int i = 0; i < elements.getLength(); i++) {
+            Element element = (Element) elements.item(i);
+            NamedNodeMap attributes = element.getAttributes();
+            for (int j = 0; j < attributes.getLength(); j++) {
+                if (MARKER.equals(attributes.item(j).getNodeValue())) {
+                    return element;
+                }
+            }
+            Node child = element.getFirstChild();
+            if (child != null && child.getNodeType() == Node.TEXT_NODE
+                    && child.getNextSibling() == null
+                    && MARKER.equals(child.getNodeValue())) {
+                return (Element) element.getParentNode();
+            }
+        }
+        return null;
+    }
+
+    private static String nullToEmpty(@Nullable String s) {
+        return s == null ? "" : s;
+    }
+
+    private static synchronized JAXBContext getJaxbContext()
+            throws JAXBException {
+        if (jaxbContext == null) {
+            jaxbContext = JAXBContext.newInstance(TranslationsResource.class);
+        }
+        return jaxbContext;
+    }
+
+    private static final class Envelope {
+        private final @Nonnull QName targetName;
+        private final @Nonnull String prefix;
+        private final @Nonnull String suffix;
+
+        private Envelope(QName targetName, String prefix, String suffix) {
+            this.targetName = targetName;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.zanata.search;
 
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
 import org.hibernate.ScrollableResults;
 import org.hibernate.search.FullTextSession;
 
@@ -55,12 +57,66 @@ public abstract class AbstractIndexingStrategy<T> {
         } finally {
             if (scrollableResults != null) {
                 scrollableResults.close();
+                scrollableResults = null;
             }
         }
     }
 
     /**
-     * Callback method that is called every time an entity is indexed.
+     * Indexes the entities with ids between fromId and toId (inclusive).
+     * Unlike {@link #invoke(AsyncTaskHandle, FullTextSession)}, this does not
+     * use the strategy's scrollable results, so several ranges can be indexed
+     * at the same time using different sessions.
+     *
+     * @return the number of entities indexed
+     */
+    public int invokeForRange(AsyncTaskHandle handle, FullTextSession session,
+            long fromId, long toId) {
+        int rowNum = 0;
+        ScrollableResults results = queryResultsInRange(fromId, toId, session);
+        try {
+            while (results.next()) {
+                if (handle != null && handle.isCancelled()) {
+                    break;
+                }
+                rowNum++;
+                session.index(results.get(0));
+
+                if (handle != null) {
+                    handle.increaseProgress(1);
+                }
+                if (rowNum % sessionClearBatchSize == 0) {
+                    session.flushToIndexes(); // apply changes to indexes
+                    session.clear(); // clear since the queue is processed
+                }
+                onEntityIndexed(rowNum, session);
+            }
+        } finally {
+            results.close();
+        }
+        session.flushToIndexes();
+        session.clear();
+        return rowNum;
+    }
+
+    /**
+     * Returns the Scrollable results for instances of clazz with ids between
+     * fromId and toId (inclusive).
+     */
+    protected ScrollableResults queryResultsInRange(long fromId, long toId,
+            FullTextSession session) {
+        Query query =
+                session.createQuery("from " + entityType.getName()
+                        + " e where e.id between :fromId and :toId");
+        query.setParameter("fromId", fromId);
+        query.setParameter("toId", toId);
+        return query.scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    /**
+     * Callback method that is called every time an entity is indexed. When
+     * indexing a range of ids, n counts from the start of the range and
+     * {@link #getScrollableResults()} is null.
      *
      * @param n
      *            The entity number that was indexed.
@@ -44,6 +44,14 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class HTextFlowTargetIndexingStrategy extends
         AbstractIndexingStrategy<HTextFlowTarget> {
+    private static final String FETCH_ALL_QUERY = "from HTextFlowTarget tft "
+            + "join fetch tft.locale "
+            + "join fetch tft.textFlow "
+            + "join fetch tft.textFlow.document "
+            + "join fetch tft.textFlow.document.locale "
+            + "join fetch tft.textFlow.document.projectIteration "
+            + "join fetch tft.textFlow.document.projectIteration.project";
+
     public HTextFlowTargetIndexingStrategy() {
         super(HTextFlowTarget.class);
     }
@@ -56,15 +64,19 @@ public class HTextFlowTargetIndexingStrategy extends
     @Override
     protected ScrollableResults queryResults(int ignoredOffset, FullTextSession session) {
         // TODO move this query into something like HTextFlowTargetStreamingDAO
+        Query query = session.createQuery(FETCH_ALL_QUERY);
+        query.setFetchSize(Integer.MIN_VALUE);
+        return query.scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    @Override
+    protected ScrollableResults queryResultsInRange(long fromId, long toId,
+            FullTextSession session) {
         Query query =
-                session.createQuery(
-                                "from HTextFlowTarget tft "
-                                        + "join fetch tft.locale "
-                                        + "join fetch tft.textFlow "
-                                        + "join fetch tft.textFlow.document "
-                                        + "join fetch tft.textFlow.document.locale "
-                                        + "join fetch tft.textFlow.document.projectIteration "
-                                        + "join fetch tft.textFlow.document.projectIteration.project");
+                session.createQuery(FETCH_ALL_QUERY
+                        + " where tft.id between :fromId and :toId");
+        query.setParameter("fromId", fromId);
+        query.setParameter("toId", toId);
         query.setFetchSize(Integer.MIN_VALUE);
         return query.scroll(ScrollMode.FORWARD_ONLY);
     }
@@ -4,6 +4,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -14,6 +15,15 @@ public class LevenshteinTokenUtil {
 
     private static final Set<String> stopwords;
 
+    /**
+     * Token arrays longer than this won't have their cost arrays kept in the
+     * thread-local scratch buffer.
+     */
+    private static final int MAX_BUFFERED_LENGTH = 1024;
+
+    private static final ThreadLocal<int[][]> scratchBuffers =
+            new ThreadLocal<int[][]>();
+
     static {
         Set<String> stopwordsSet = new HashSet<String>();
         try {
@@ -116,6 +126,120 @@ public class LevenshteinTokenUtil {
         return p[n];
     }
 
+    /**
+     * Compute Levenshtein distance in words, giving up as soon as the
+     * distance is known to be greater than threshold.
+     *
+     * @see LevenshteinUtil#getLevenshteinDistance(String, String, int)
+     * @param threshold
+     *            maximum distance of interest (non-negative)
+     * @return the distance between s and t, or -1 if it is greater than
+     *         threshold
+     */
+    public static int getLevenshteinDistanceInWords(String[] s, String[] t,
+            int threshold) {
+        if (s == null || t == null) {
+            throw new IllegalArgumentException("Strings must not be null");
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+
+        // skip common prefix and suffix, they don't affect the distance
+        int start = 0;
+        int sEnd = s.length;
+        int tEnd = t.length;
+        while (start < sEnd && start < tEnd && s[start].equals(t[start])) {
+            start++;
+        }
+        while (sEnd > start && tEnd > start
+                && s[sEnd - 1].equals(t[tEnd - 1])) {
+            sEnd--;
+            tEnd--;
+        }
+
+        int n = sEnd - start;
+        int m = tEnd - start;
+        // make s the shorter array so the cost arrays are as small as possible
+        if (n > m) {
+            String[] tmp = s;
+            s = t;
+            t = tmp;
+            int tmpLength = n;
+            n = m;
+            m = tmpLength;
+        }
+
+        if (m - n > threshold) {
+            return -1;
+        }
+        if (n == 0) {
+            return m;
+        }
+
+        int[][] buffers = getScratchBuffers(n + 1);
+        int p[] = buffers[0]; // 'previous' cost array, horizontally
+        int d[] = buffers[1]; // cost array, horizontally
+        int _d[]; // placeholder to assist in swapping p and d
+
+        // cells outside the band are treated as infinitely expensive
+        int boundary = Math.min(n, threshold) + 1;
+        for (int i = 0; i < boundary; i++) {
+            p[i] = i;
+        }
+        Arrays.fill(p, boundary, n + 1, Integer.MAX_VALUE);
+        Arrays.fill(d, 0, n + 1, Integer.MAX_VALUE);
+
+        for (int j = 1; j <= m; j++) {
+            String t_j = t[start + j - 1];
+            d[0] = j;
+
+            // only calculate the band within threshold of the diagonal
+            int min = Math.max(1, j - threshold);
+            int max = j > Integer.MAX_VALUE - threshold ? n : Math.min(n,
+                    j + threshold);
+            if (min > 1) {
+                d[min - 1] = Integer.MAX_VALUE;
+            }
+
+            int rowMin = min > 1 ? Integer.MAX_VALUE : j;
+            for (int i = min; i <= max; i++) {
+                if (s[start + i - 1].equals(t_j)) {
+                    d[i] = p[i - 1];
+                } else {
+                    // minimum of cell to the left+1, to the top+1, diagonally
+                    // left and up +1
+                    d[i] = 1 + Math.min(Math.min(d[i - 1], p[i]), p[i - 1]);
+                }
+                rowMin = Math.min(rowMin, d[i]);
+            }
+            if (rowMin > threshold) {
+                // no path through this row can come in under the threshold
+                return -1;
+            }
+
+            // copy current distance counts to 'previous row' distance counts
+            _d = p;
+            p = d;
+            d = _d;
+        }
+
+        return p[n] <= threshold ? p[n] : -1;
+    }
+
+    private static int[][] getScratchBuffers(int length) {
+        if (length > MAX_BUFFERED_LENGTH) {
+            return new int[][] { new int[length], new int[length] };
+        }
+        int[][] buffers = scratchBuffers.get();
+        if (buffers == null || buffers[0].length < length) {
+            int size = Math.max(length, 32);
+            buffers = new int[][] { new int[size], new int[size] };
+            scratchBuffers.set(buffers);
+        }
+        return buffers;
+    }
+
     public static double getSimilarity(final String s1, final String s2) {
         String[] s1s = tokenise(s1);
         String[] s2s = tokenise(s2);
@@ -127,6 +251,38 @@ public class LevenshteinTokenUtil {
         return similarity;
     }
 
+    /**
+     * Same as {@link #getSimilarity(String, String)}, but stops calculating
+     * as soon as the similarity is known to be below minSimilarity.
+     *
+     * @param minSimilarity
+     *            minimum similarity of interest (0.0 to 1.0)
+     * @return similarity between s1 and s2, or 0.0 if it is below
+     *         minSimilarity
+     */
+    public static double getSimilarity(final String s1, final String s2,
+            double minSimilarity) {
+        return getSimilarity(tokenise(s1), tokenise(s2), minSimilarity);
+    }
+
+    private static double getSimilarity(String[] s1s, String[] s2s,
+            double minSimilarity) {
+        int maxDistance = Math.max(s1s.length, s2s.length);
+        if (maxDistance == 0) {
+            // keep the behaviour of getSimilarity(String, String)
+            return (maxDistance - getLevenshteinDistanceInWords(s1s, s2s))
+                    / (double) maxDistance;
+        }
+        int levDistance =
+                getLevenshteinDistanceInWords(s1s, s2s,
+                        LevenshteinUtil.getDistanceThreshold(maxDistance,
+                                minSimilarity));
+        if (levDistance < 0) {
+            return 0.0;
+        }
+        return (maxDistance - levDistance) / (double) maxDistance;
+    }
+
     /**
      * Splits into tokens (lower-case).
      *
@@ -173,6 +329,38 @@ public class LevenshteinTokenUtil {
         return totalSimilarity / strings2.size();
     }
 
+    /**
+     * Same as {@link #getSimilarity(String, List)}, but stops calculating as
+     * soon as the mean similarity is known to be below minSimilarity.
+     *
+     * @param minSimilarity
+     *            minimum mean similarity of interest (0.0 to 1.0)
+     * @return mean similarity between s1 and each of strings2, or 0.0 if it
+     *         is below minSimilarity
+     */
+    public static double getSimilarity(final String s1,
+            final List<String> strings2, double minSimilarity) {
+        String[] s1s = tokenise(s1);
+        int stringCount = strings2.size();
+        double requiredTotal = minSimilarity * stringCount;
+        double totalSimilarity = 0.0;
+        for (int i = 0; i < stringCount; i++) {
+            // the remaining strings can contribute at most 1.0 each
+            int remainingStrings = stringCount - i - 1;
+            double minForThisString =
+                    requiredTotal - totalSimilarity - remainingStrings;
+            double similarity =
+                    getSimilarity(s1s, tokenise(strings2.get(i)),
+                            Math.max(0.0, minForThisString));
+            // (allowing for rounding errors)
+            if (similarity < minForThisString - 1e-9) {
+                return 0.0;
+            }
+            totalSimilarity += similarity;
+        }
+        return totalSimilarity / stringCount;
+    }
+
     /**
      * Calculate the word-based case-insensitive similarity of two lists of
      * strings (range 0.0 to 1.0).
@@ -242,4 +430,64 @@ public class LevenshteinTokenUtil {
         return (totalMaxDistance - totalLevDistance) / (double) totalMaxDistance;
     }
 
+    /**
+     * Same as {@link #getSimilarity(List, List)}, but stops calculating as
+     * soon as the similarity is known to be below minSimilarity.
+     *
+     * @param minSimilarity
+     *            minimum similarity of interest (0.0 to 1.0)
+     * @return average similarity between the strings, or 0.0 if it is below
+     *         minSimilarity
+     */
+    public static double getSimilarity(final List<String> strings1,
+            final List<String> strings2, double minSimilarity) {
+        // all empty lists are identical
+        if (strings1.isEmpty() && strings2.isEmpty()) {
+            return 1.0;
+        }
+
+        final int minListSize = Math.min(strings1.size(), strings2.size());
+        final List<String> longestList = strings1.size() > minListSize ?
+                strings1 : strings2;
+        final int extraStringLengths =
+                countExtraStringLengths(longestList, minListSize);
+
+        // tokenise up front so that the maximum distance (and therefore the
+        // distance we can afford) is known before comparing anything
+        String[][] tokens1 = new String[minListSize][];
+        String[][] tokens2 = new String[minListSize][];
+        int totalMaxDistance = extraStringLengths;
+        for (int i = 0; i < minListSize; i++) {
+            tokens1[i] = tokenise(strings1.get(i));
+            tokens2[i] = tokenise(strings2.get(i));
+            totalMaxDistance += Math.max(tokens1[i].length, tokens2[i].length);
+        }
+        if (totalMaxDistance == 0) {
+            return 0.0;
+        }
+        int threshold =
+                LevenshteinUtil.getDistanceThreshold(totalMaxDistance,
+                        minSimilarity);
+
+        int totalLevDistance = extraStringLengths;
+        for (int i = 0; i < minListSize; i++) {
+            int remaining = threshold - totalLevDistance;
+            if (remaining < 0) {
+                return 0.0;
+            }
+            int levenshteinDistance =
+                    getLevenshteinDistanceInWords(tokens1[i], tokens2[i],
+                            remaining);
+            if (levenshteinDistance < 0) {
+                return 0.0;
+            }
+            totalLevDistance += levenshteinDistance;
+        }
+        if (totalLevDistance > threshold) {
+            return 0.0;
+        }
+        return (totalMaxDistance - totalLevDistance)
+                / (double) totalMaxDistance;
+    }
+
 }
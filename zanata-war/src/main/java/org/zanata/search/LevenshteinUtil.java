@@ -1,8 +1,17 @@
 package org.zanata.search;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class LevenshteinUtil {
+    /**
+     * Strings longer than this won't have their cost arrays kept in the
+     * thread-local scratch buffer.
+     */
+    private static final int MAX_BUFFERED_LENGTH = 4096;
+
+    private static final ThreadLocal<int[][]> scratchBuffers =
+            new ThreadLocal<int[][]>();
 
     /**
      * Compute Levenshtein distance. Taken from
@@ -83,6 +92,137 @@ public class LevenshteinUtil {
         return p[n];
     }
 
+    /**
+     * Compute Levenshtein distance, giving up as soon as the distance is known
+     * to be greater than threshold.
+     * <p>
+     * Common prefixes and suffixes are skipped, and only the diagonal band of
+     * width 2 * threshold + 1 of the cost matrix is calculated (Ukkonen).
+     * Cost arrays are reused between calls on the same thread.
+     *
+     * @param threshold
+     *            maximum distance of interest (non-negative)
+     * @return the distance between s and t, or -1 if it is greater than
+     *         threshold
+     */
+    public static int getLevenshteinDistance(String s, String t,
+            int threshold) {
+        if (s == null || t == null) {
+            throw new IllegalArgumentException("Strings must not be null");
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+
+        // skip common prefix and suffix, they don't affect the distance
+        int start = 0;
+        int sEnd = s.length();
+        int tEnd = t.length();
+        while (start < sEnd && start < tEnd
+                && s.charAt(start) == t.charAt(start)) {
+            start++;
+        }
+        while (sEnd > start && tEnd > start
+                && s.charAt(sEnd - 1) == t.charAt(tEnd - 1)) {
+            sEnd--;
+            tEnd--;
+        }
+
+        int n = sEnd - start;
+        int m = tEnd - start;
+        // make s the shorter string so the cost arrays are as small as
+        // possible
+        if (n > m) {
+            String tmp = s;
+            s = t;
+            t = tmp;
+            int tmpLength = n;
+            n = m;
+            m = tmpLength;
+        }
+
+        if (m - n > threshold) {
+            return -1;
+        }
+        if (n == 0) {
+            return m;
+        }
+
+        int[][] buffers = getScratchBuffers(n + 1);
+        int p[] = buffers[0]; // 'previous' cost array, horizontally
+        int d[] = buffers[1]; // cost array, horizontally
+        int _d[]; // placeholder to assist in swapping p and d
+
+        // cells outside the band are treated as infinitely expensive
+        int boundary = Math.min(n, threshold) + 1;
+        for (int i = 0; i < boundary; i++) {
+            p[i] = i;
+        }
+        Arrays.fill(p, boundary, n + 1, Integer.MAX_VALUE);
+        Arrays.fill(d, 0, n + 1, Integer.MAX_VALUE);
+
+        for (int j = 1; j <= m; j++) {
+            char t_j = t.charAt(start + j - 1);
+            d[0] = j;
+
+            // only calculate the band within threshold of the diagonal
+            int min = Math.max(1, j - threshold);
+            int max = j > Integer.MAX_VALUE - threshold ? n : Math.min(n,
+                    j + threshold);
+            if (min > 1) {
+                d[min - 1] = Integer.MAX_VALUE;
+            }
+
+            int rowMin = min > 1 ? Integer.MAX_VALUE : j;
+            for (int i = min; i <= max; i++) {
+                if (s.charAt(start + i - 1) == t_j) {
+                    d[i] = p[i - 1];
+                } else {
+                    // minimum of cell to the left+1, to the top+1, diagonally
+                    // left and up +1
+                    d[i] = 1 + Math.min(Math.min(d[i - 1], p[i]), p[i - 1]);
+                }
+                rowMin = Math.min(rowMin, d[i]);
+            }
+            if (rowMin > threshold) {
+                // no path through this row can come in under the threshold
+                return -1;
+            }
+
+            // copy current distance counts to 'previous row' distance counts
+            _d = p;
+            p = d;
+            d = _d;
+        }
+
+        return p[n] <= threshold ? p[n] : -1;
+    }
+
+    private static int[][] getScratchBuffers(int length) {
+        if (length > MAX_BUFFERED_LENGTH) {
+            return new int[][] { new int[length], new int[length] };
+        }
+        int[][] buffers = scratchBuffers.get();
+        if (buffers == null || buffers[0].length < length) {
+            int size = Math.max(length, 64);
+            buffers = new int[][] { new int[size], new int[size] };
+            scratchBuffers.set(buffers);
+        }
+        return buffers;
+    }
+
+    /**
+     * Maximum Levenshtein distance which still gives a similarity of at least
+     * minSimilarity for strings of the given maximum length.
+     */
+    static int getDistanceThreshold(int maxDistance, double minSimilarity) {
+        if (minSimilarity <= 0) {
+            return maxDistance;
+        }
+        // allow for rounding errors in the floating point calculation
+        return (int) Math.floor(maxDistance * (1 - minSimilarity) + 1e-9);
+    }
+
     public static double getSimilarity(final String s1, final String s2) {
         int levDistance = getLevenshteinDistance(s1, s2);
         int maxDistance = Math.max(s1.length(), s2.length());
@@ -90,6 +230,30 @@ public class LevenshteinUtil {
         return similarity;
     }
 
+    /**
+     * Same as {@link #getSimilarity(String, String)}, but stops calculating
+     * as soon as the similarity is known to be below minSimilarity.
+     *
+     * @param minSimilarity
+     *            minimum similarity of interest (0.0 to 1.0)
+     * @return similarity between s1 and s2, or 0.0 if it is below
+     *         minSimilarity
+     */
+    public static double getSimilarity(final String s1, final String s2,
+            double minSimilarity) {
+        int maxDistance = Math.max(s1.length(), s2.length());
+        if (maxDistance == 0) {
+            return getSimilarity(s1, s2);
+        }
+        int levDistance =
+                getLevenshteinDistance(s1, s2,
+                        getDistanceThreshold(maxDistance, minSimilarity));
+        if (levDistance < 0) {
+            return 0.0;
+        }
+        return (maxDistance - levDistance) / (double) maxDistance;
+    }
+
     private static int countExtraStringLengths(List<String> strings,
             int fromIndex) {
         int total = 0;
@@ -157,4 +321,59 @@ public class LevenshteinUtil {
         return similarity;
     }
 
+    /**
+     * Same as {@link #getSimilarity(List, List)}, but stops calculating as
+     * soon as the similarity is known to be below minSimilarity.
+     *
+     * @param minSimilarity
+     *            minimum similarity of interest (0.0 to 1.0)
+     * @return similarity between the lists, or 0.0 if it is below
+     *         minSimilarity
+     */
+    public static double getSimilarity(final List<String> strings1,
+            final List<String> strings2, double minSimilarity) {
+        int minListSize;
+        int extraStringLengths;
+        if (strings1.size() < strings2.size()) {
+            minListSize = strings1.size();
+            extraStringLengths = countExtraStringLengths(strings2, minListSize);
+        } else {
+            minListSize = strings2.size();
+            extraStringLengths = countExtraStringLengths(strings1, minListSize);
+        }
+
+        // the maximum distance is known up front, so we know how much
+        // distance we can afford before falling below minSimilarity
+        int totalMaxDistance = extraStringLengths;
+        for (int i = 0; i < minListSize; i++) {
+            totalMaxDistance +=
+                    Math.max(strings1.get(i).length(), strings2.get(i)
+                            .length());
+        }
+        if (totalMaxDistance == 0) {
+            return getSimilarity(strings1, strings2);
+        }
+        int threshold = getDistanceThreshold(totalMaxDistance, minSimilarity);
+
+        int totalLevDistance = extraStringLengths;
+        for (int i = 0; i < minListSize; i++) {
+            int remaining = threshold - totalLevDistance;
+            if (remaining < 0) {
+                return 0.0;
+            }
+            int levenshteinDistance =
+                    getLevenshteinDistance(strings1.get(i), strings2.get(i),
+                            remaining);
+            if (levenshteinDistance < 0) {
+                return 0.0;
+            }
+            totalLevDistance += levenshteinDistance;
+        }
+        if (totalLevDistance > threshold) {
+            return 0.0;
+        }
+        return (totalMaxDistance - totalLevDistance)
+                / (double) totalMaxDistance;
+    }
+
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.search;
+
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.search.FullTextSession;
+import org.zanata.async.AsyncTaskHandle;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Indexes a class by splitting its id range into chunks, which are indexed in
+ * parallel by an executor, each chunk using its own session. Progress from
+ * all chunks is added to the same task handle.
+ * <p>
+ * Chunks may complete in any order. Whenever all the chunks below an id have
+ * completed, that id is saved as the class's checkpoint, so that indexing can
+ * be resumed from there. Entities created after indexing starts are left to
+ * Hibernate Search's normal indexing.
+ *
+ * @see ReindexCheckpoint
+ */
+@Slf4j
+public class PartitionedClassIndexer<T> extends ClassIndexer<T> {
+    private final AsyncTaskHandle handle;
+    private final Class<T> entityType;
+    private final Supplier<FullTextSession> sessionSupplier;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final ReindexCheckpoint checkpoint;
+
+    public PartitionedClassIndexer(AsyncTaskHandle handle,
+            Class<T> entityType, AbstractIndexingStrategy<T> indexingStrategy,
+            Supplier<FullTextSession> sessionSupplier,
+            ExecutorService executor, int chunkSize,
+            ReindexCheckpoint checkpoint) {
+        super(handle, entityType, indexingStrategy);
+        this.handle = handle;
+        this.entityType = entityType;
+        this.sessionSupplier = sessionSupplier;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Returns the number of entities which have not been indexed according
+     * to the checkpoint.
+     */
+    @Override
+    public int getEntityCount(FullTextSession session) {
+        Long result =
+                (Long) session
+                        .createQuery("select count(e) from "
+                                + entityType.getName()
+                                + " e where e.id >= :fromId")
+                        .setParameter("fromId", getStartId())
+                        .uniqueResult();
+        return result.intValue();
+    }
+
+    @Override
+    public void index(FullTextSession session) throws Exception {
+        Object[] bounds =
+                (Object[]) session
+                        .createQuery("select min(e.id), max(e.id) from "
+                                + entityType.getName()
+                                + " e where e.id >= :fromId")
+                        .setParameter("fromId", getStartId())
+                        .uniqueResult();
+        if (bounds[0] == null) {
+            checkpoint.clear(entityType);
+            return;
+        }
+        long minId = (Long) bounds[0];
+        long maxId = (Long) bounds[1];
+
+        CompletionService<Long> completionService =
+                new ExecutorCompletionService<>(executor);
+        List<Future<Long>> chunks = Lists.newArrayList();
+        for (long fromId = minId; fromId <= maxId; fromId += chunkSize) {
+            long chunkStart = fromId;
+            long chunkEnd = Math.min(fromId + chunkSize - 1, maxId);
+            chunks.add(completionService
+                    .submit(() -> indexChunk(chunkStart, chunkEnd)));
+        }
+        log.info("indexing {} in {} chunks of {} ids", entityType,
+                chunks.size(), chunkSize);
+
+        SortedSet<Long> completedChunks = new TreeSet<>();
+        long nextId = minId;
+        boolean finished = false;
+        try {
+            for (int i = 0; i < chunks.size(); i++) {
+                Long chunkStart = completionService.take().get();
+                if (chunkStart == null) {
+                    // cancelled part way through the chunk
+                    continue;
+                }
+                completedChunks.add(chunkStart);
+                long previousNextId = nextId;
+                while (completedChunks.remove(nextId)) {
+                    nextId += chunkSize;
+                }
+                if (nextId != previousNextId) {
+                    checkpoint.setNextId(entityType, nextId);
+                }
+            }
+            finished = true;
+        } finally {
+            if (!finished) {
+                for (Future<Long> chunk : chunks) {
+                    chunk.cancel(true);
+                }
+            }
+        }
+        if (!handle.isCancelled()) {
+            checkpoint.clear(entityType);
+        }
+    }
+
+    /**
+     * @return fromId if the chunk was completely indexed, otherwise null
+     */
+    private Long indexChunk(long fromId, long toId) {
+        if (handle.isCancelled()) {
+            return null;
+        }
+        FullTextSession session = sessionSupplier.get();
+        try {
+            session.setFlushMode(FlushMode.MANUAL);
+            session.setCacheMode(CacheMode.IGNORE);
+            getIndexingStrategy().invokeForRange(handle, session, fromId,
+                    toId);
+        } finally {
+            session.close();
+        }
+        return handle.isCancelled() ? null : fromId;
+    }
+
+    private long getStartId() {
+        return checkpoint.getNextId(entityType).or(0L);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.search;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import javax.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+
+import com.google.common.base.Optional;
+
+/**
+ * Records how far partitioned reindexing has got for each indexed class, so
+ * that an interrupted reindex can be resumed after a restart. The checkpoint
+ * for a class is the lowest entity id which may not have been indexed yet;
+ * every entity with a lower id has been indexed.
+ * <p>
+ * If no file is given, checkpoints are only kept in memory.
+ */
+@Slf4j
+public class ReindexCheckpoint {
+    private final @Nullable File file;
+    private final Properties checkpoints = new Properties();
+
+    public ReindexCheckpoint(@Nullable File file) {
+        this.file = file;
+        if (file != null && file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                checkpoints.load(in);
+            } catch (IOException e) {
+                log.warn("unable to read reindex checkpoints from {}", file,
+                        e);
+            }
+        }
+    }
+
+    public synchronized Optional<Long> getNextId(Class<?> clazz) {
+        String nextId = checkpoints.getProperty(clazz.getName());
+        if (nextId == null) {
+            return Optional.absent();
+        }
+        return Optional.of(Long.valueOf(nextId));
+    }
+
+    public synchronized void setNextId(Class<?> clazz, long nextId) {
+        checkpoints.setProperty(clazz.getName(), String.valueOf(nextId));
+        store();
+    }
+
+    public synchronized void clear(Class<?> clazz) {
+        if (checkpoints.remove(clazz.getName()) != null) {
+            store();
+        }
+    }
+
+    private void store() {
+        if (file == null) {
+            return;
+        }
+        // write a new file and rename it, so that a crash can't leave a
+        // truncated checkpoint behind
+        File tempFile = new File(file.getPath() + ".tmp");
+        try {
+            try (OutputStream out = new FileOutputStream(tempFile)) {
+                checkpoints.store(out, "Zanata reindex checkpoints");
+            }
+            Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // reindexing can carry on, but may not be resumable
+            log.warn("unable to write reindex checkpoints to {}", file, e);
+        }
+    }
+}
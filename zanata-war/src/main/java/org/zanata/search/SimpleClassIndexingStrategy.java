@@ -45,7 +45,8 @@ public class SimpleClassIndexingStrategy<T> extends AbstractIndexingStrategy<T>
 
     @Override
     protected void onEntityIndexed(int rowNum, FullTextSession session) {
-        if (rowNum % MAX_QUERY_ROWS == 0) {
+        // ranges are queried in one go, so only the paged query is restarted
+        if (getScrollableResults() != null && rowNum % MAX_QUERY_ROWS == 0) {
             log.info("restarting query for {} (rowNum={})", getEntityType(),
                     rowNum);
             getScrollableResults().close();
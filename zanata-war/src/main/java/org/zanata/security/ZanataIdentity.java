@@ -24,8 +24,11 @@ import java.io.Serializable;
 import java.security.Principal;
 import java.security.acl.Group;
 import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.annotation.Nullable;
 import javax.annotation.PreDestroy;
@@ -311,7 +314,27 @@ public class ZanataIdentity implements Identity, Serializable {
             return false;
         }
 
-        return permissionResolver.hasPermission(target, action);
+        tryLogin();
+        // The subject's roles are part of the decision, since granters check
+        // them and runAs swaps the subject without changing the account.
+        return permissionResolver.hasPermission(getAccountUsername(),
+                getSubjectRoles(), target, action);
+    }
+
+    /**
+     * @return the names of the roles in the current subject
+     */
+    private Set<String> getSubjectRoles() {
+        Set<String> roles = new HashSet<>();
+        for (Group sg : getSubject().getPrincipals(Group.class)) {
+            if (ROLES_GROUP.equals(sg.getName())) {
+                Enumeration<? extends Principal> members = sg.members();
+                while (members.hasMoreElements()) {
+                    roles.add(members.nextElement().getName());
+                }
+            }
+        }
+        return roles;
     }
 
     /**
@@ -22,7 +22,9 @@ package org.zanata.security.permission;
 
 
 import java.io.Serializable;
+import java.util.Set;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -30,7 +32,8 @@ import javax.inject.Named;
  * This permission resolver will use the
  * {@link org.zanata.security.permission.PermissionEvaluator} component to
  * resolve permissions using java methods annotated with
- * {@link GrantsPermission}.
+ * {@link GrantsPermission}. Decisions are cached per account in
+ * {@link PermissionDecisionCache}.
  *
  * @author Carlos Munoz <a
  *         href="mailto:camunoz@redhat.com">camunoz@redhat.com</a>
@@ -42,9 +45,20 @@ public class CustomPermissionResolver implements Serializable {
     @Inject
     private PermissionEvaluator evaluator;
 
+    @Inject
+    private PermissionDecisionCache decisionCache;
+
     private static final long serialVersionUID = 6302681723997573877L;
 
-    public boolean hasPermission(Object target, String action) {
+    /**
+     * @param username
+     *            the authenticated account, or null for anonymous users
+     * @param roles
+     *            the roles of the current subject, which may differ from
+     *            the account's roles inside a run-as operation
+     */
+    public boolean hasPermission(@Nullable String username, Set<String> roles,
+            Object target, String action) {
         Object[] targetArray;
         if (target instanceof MultiTargetList) {
             targetArray = ((MultiTargetList) target).toArray();
@@ -52,11 +66,9 @@ public class CustomPermissionResolver implements Serializable {
             targetArray = new Object[] { target };
         }
 
-        return hasPermission(action, targetArray);
-    }
-
-    private boolean hasPermission(String action, Object... targets) {
-        return evaluator.checkPermission(action, targets);
+        return decisionCache.checkPermission(username, roles, action,
+                targetArray,
+                () -> evaluator.checkPermission(action, targetArray));
     }
 
 }
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.security.permission;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Named;
+
+import lombok.Value;
+
+import org.hibernate.proxy.HibernateProxyHelper;
+import org.zanata.common.LocaleId;
+import org.zanata.events.LanguageTeamPermissionChangedEvent;
+import org.zanata.events.ProjectIterationUpdate;
+import org.zanata.events.ProjectUpdate;
+import org.zanata.model.ModelEntityBase;
+import org.zanata.util.Introspectable;
+import org.zanata.util.SysProperties;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * Application-wide cache of permission decisions, keyed by the account which
+ * asked, the roles of its current subject, the action and the identity of
+ * each target. This saves running the
+ * permission granters (and their membership queries) again for every check
+ * on the same page or REST call.
+ * <p>
+ * Only targets with a stable identity are cached: persisted entities (by
+ * class and id), strings, locale ids, numbers and enums. A check involving
+ * any other target is always evaluated.
+ * <p>
+ * The whole cache is discarded when a language team, project membership,
+ * account role, project or version changes (see
+ * {@link PermissionDecisionListener}), since any of these may change the
+ * decisions of many accounts. Entries also expire after a while, for changes
+ * which are not seen by the listener.
+ */
+@Named("permissionDecisionCache")
+@ApplicationScoped
+public class PermissionDecisionCache implements Introspectable {
+    private static final String BASE =
+            PermissionDecisionCache.class.getName();
+    private static final String SIZE_FIELD = BASE + ".size";
+    private static final String HIT_RATE_FIELD = BASE + ".hitRate";
+    private static final String STATS_FIELD = BASE + ".stats";
+    private static final String HITS_FIELD = BASE + ".hits";
+    private static final String MISSES_FIELD = BASE + ".misses";
+
+    private static final int MAX_ENTRIES = SysProperties.getInt(
+            SysProperties.PERMISSION_CACHE_SIZE, 10000);
+    private static final int EXPIRY_SECONDS = SysProperties.getInt(
+            SysProperties.PERMISSION_CACHE_EXPIRY_SECONDS, 300);
+
+    private final Cache<DecisionKey, Boolean> cache;
+    private final boolean enabled;
+
+    // Incremented by every invalidation. A decision which overlaps an
+    // invalidation may have been based on the old memberships, so it is
+    // not cached.
+    private final AtomicLong generation = new AtomicLong();
+
+    public PermissionDecisionCache() {
+        this(MAX_ENTRIES, EXPIRY_SECONDS);
+    }
+
+    @VisibleForTesting
+    PermissionDecisionCache(long maximumSize, long expirySeconds) {
+        enabled = maximumSize > 0;
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(maximumSize, 0))
+                .expireAfterWrite(expirySeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached decision for the account, roles, action and targets,
+     * using the evaluator (and caching its result) if there is none.
+     *
+     * @param username
+     *            the authenticated account, or null for anonymous users
+     * @param roles
+     *            the roles of the current subject. These are not always the
+     *            account's roles: a run-as operation (eg for account
+     *            activation) swaps in a subject with extra roles.
+     */
+    public boolean checkPermission(@Nullable String username,
+            Set<String> roles, String action, Object[] targets,
+            Supplier<Boolean> evaluator) {
+        DecisionKey key =
+                enabled ? keyOf(username, roles, action, targets) : null;
+        if (key == null) {
+            return evaluator.get();
+        }
+        Boolean granted = cache.getIfPresent(key);
+        if (granted != null) {
+            return granted;
+        }
+        long generationAtStart = generation.get();
+        granted = evaluator.get();
+        if (generation.get() == generationAtStart) {
+            cache.put(key, granted);
+            if (generation.get() != generationAtStart) {
+                // an invalidation ran while we were adding the entry
+                cache.invalidate(key);
+            }
+        }
+        return granted;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public void onLanguageTeamPermissionChanged(
+            @Observes LanguageTeamPermissionChangedEvent event) {
+        invalidateAll();
+    }
+
+    public void onProjectUpdate(@Observes ProjectUpdate event) {
+        invalidateAll();
+    }
+
+    public void onProjectIterationUpdate(
+            @Observes ProjectIterationUpdate event) {
+        invalidateAll();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * @return a key for the decision, or null if any of the targets has no
+     *         stable identity
+     */
+    private static @Nullable DecisionKey keyOf(@Nullable String username,
+            Set<String> roles, String action, Object[] targets) {
+        List<Object> targetIds = Lists.newArrayListWithCapacity(targets.length);
+        for (Object target : targets) {
+            Object targetId = identityOf(target);
+            if (targetId == null) {
+                return null;
+            }
+            targetIds.add(targetId);
+        }
+        return new DecisionKey(username, ImmutableSet.copyOf(roles), action,
+                ImmutableList.copyOf(targetIds));
+    }
+
+    @VisibleForTesting
+    static @Nullable Object identityOf(@Nullable Object target) {
+        if (target instanceof ModelEntityBase) {
+            Long id = ((ModelEntityBase) target).getId();
+            if (id == null) {
+                return null;
+            }
+            return new EntityId(HibernateProxyHelper
+                    .getClassWithoutInitializingProxy(target), id);
+        }
+        if (target instanceof String || target instanceof LocaleId
+                || target instanceof Number || target instanceof Enum) {
+            return target;
+        }
+        return null;
+    }
+
+    @Override
+    public String getIntrospectableId() {
+        return getClass().getCanonicalName();
+    }
+
+    @Override
+    public Collection<String> getIntrospectableFieldNames() {
+        return Lists.newArrayList(SIZE_FIELD, HIT_RATE_FIELD, HITS_FIELD,
+                MISSES_FIELD, STATS_FIELD);
+    }
+
+    @Override
+    public String getFieldValueAsString(String fieldName) {
+        if (SIZE_FIELD.equals(fieldName)) {
+            return String.valueOf(cache.size());
+        }
+        if (HIT_RATE_FIELD.equals(fieldName)) {
+            return String.valueOf(cache.stats().hitRate());
+        }
+        if (HITS_FIELD.equals(fieldName)) {
+            return String.valueOf(getHitCount());
+        }
+        if (MISSES_FIELD.equals(fieldName)) {
+            return String.valueOf(getMissCount());
+        }
+        if (STATS_FIELD.equals(fieldName)) {
+            return cache.stats().toString();
+        }
+        throw new IllegalArgumentException("unknown field:" + fieldName);
+    }
+
+    @Value
+    private static class EntityId {
+        Class<?> entityClass;
+        Long id;
+    }
+
+    @Value
+    private static class DecisionKey {
+        @Nullable String username;
+        Set<String> roles;
+        String action;
+        List<Object> targets;
+    }
+}
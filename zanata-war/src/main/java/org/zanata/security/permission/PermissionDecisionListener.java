@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.security.permission;
+
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.zanata.model.HAccount;
+import org.zanata.model.HAccountRole;
+import org.zanata.model.HIterationGroup;
+import org.zanata.model.HLocale;
+import org.zanata.model.HLocaleMember;
+import org.zanata.model.HProject;
+import org.zanata.model.HProjectIteration;
+import org.zanata.model.HProjectLocaleMember;
+import org.zanata.model.HProjectMember;
+import org.zanata.util.LazyBean;
+
+/**
+ * This class is a hibernate event listener which listens on post commit events
+ * for the entities which permission decisions depend on (memberships, roles,
+ * projects, versions, groups and locales), and discards
+ * {@link PermissionDecisionCache}.
+ * <p>
+ * Changes to the roles of an account or the maintainers of a group are seen
+ * as updates of the (versioned) account or group.
+ *
+ * @see org.zanata.webtrans.server.HibernateIntegrator
+ */
+public class PermissionDecisionListener implements PostInsertEventListener,
+        PostUpdateEventListener, PostDeleteEventListener {
+    private static final long serialVersionUID = 1L;
+
+    private final LazyBean<PermissionDecisionCache> cache =
+            new LazyBean<>(PermissionDecisionCache.class);
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        entityChanged(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        entityChanged(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        entityChanged(event.getEntity());
+    }
+
+    private void entityChanged(Object entity) {
+        if (entity instanceof HProjectMember
+                || entity instanceof HProjectLocaleMember
+                || entity instanceof HLocaleMember
+                || entity instanceof HAccount
+                || entity instanceof HAccountRole
+                || entity instanceof HProject
+                || entity instanceof HProjectIteration
+                || entity instanceof HIterationGroup
+                || entity instanceof HLocale) {
+            cache.get().invalidateAll();
+        }
+    }
+}
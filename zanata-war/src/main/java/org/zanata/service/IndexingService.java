@@ -22,6 +22,7 @@ package org.zanata.service;
 
 import org.zanata.action.ReindexClassOptions;
 import org.zanata.async.Async;
+import org.zanata.async.AsyncTaskLane;
 import org.zanata.async.AsyncTaskHandle;
 import org.zanata.model.HProject;
 import org.zanata.model.SlugEntityBase;
@@ -33,7 +34,7 @@ import java.util.concurrent.Future;
  * @author Carlos Munoz <a href="mailto:camunoz@redhat.com">camunoz@redhat.com</a>
  */
 public interface IndexingService {
-    @Async
+    @Async(AsyncTaskLane.BULK)
     Future<Void> startIndexing(
             Map<Class<?>, ReindexClassOptions> indexingOptions,
             AsyncTaskHandle<Void> handle)
@@ -42,7 +43,7 @@ public interface IndexingService {
     /**
      * This will re-index all HTextFlowTargets under a given project.
      */
-    @Async
+    @Async(AsyncTaskLane.BULK)
     Future<Void> reindexHTextFlowTargetsForProject(HProject hProject,
             AsyncTaskHandle<Void> handle)
             throws Exception;
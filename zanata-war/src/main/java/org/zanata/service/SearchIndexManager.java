@@ -92,6 +92,16 @@ public class SearchIndexManager implements Serializable {
         }
     }
 
+    /**
+     * Sets whether partitioned reindexing should resume from its last
+     * checkpoint, for all indexable classes.
+     */
+    public void setResume(boolean resume) {
+        for (ReindexClassOptions classOptions : indexingOptions.values()) {
+            classOptions.setResume(resume);
+        }
+    }
+
     public List<ReindexClassOptions> getReindexOptions() {
         List<ReindexClassOptions> result = new ArrayList<ReindexClassOptions>();
         for (Class<?> clazz : indexingOptions.keySet()) {
@@ -42,6 +42,9 @@ public interface SearchService {
      *            Reindexes all elements.
      * @param optimizeAll
      *            Optimizes all indexes.
+     * @param resume
+     *            Resumes an interrupted partitioned reindex from its last
+     *            checkpoint, instead of purging and starting again.
      * @return The following response status codes will be returned from this
      *         operation:<br>
      *         OK(200) - Response containing the Indexing process' status.<br>
@@ -52,7 +55,8 @@ public interface SearchService {
     @Path("/reindex/start")
     ReindexStatus startReindex(@QueryParam("purge") boolean purgeAll,
             @QueryParam("index") boolean indexAll,
-            @QueryParam("optimize") boolean optimizeAll);
+            @QueryParam("optimize") boolean optimizeAll,
+            @QueryParam("resume") boolean resume);
 
     /**
      * Returns the status of a system search reindex operation. NOTE: This is
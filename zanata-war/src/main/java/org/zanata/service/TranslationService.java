@@ -21,6 +21,7 @@
 package org.zanata.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
 
@@ -151,6 +152,39 @@ public interface TranslationService {
             boolean assignCreditToUploader,
             TranslationSourceType translationSourceType);
 
+    /**
+     * Translates several documents, each in one or more locales, as a single
+     * task. Text flows are loaded once per batch for all the locales of a
+     * document, rather than once per locale. Each document/locale pair is
+     * locked for push while its translations are saved.
+     *
+     * @param translations
+     *            translations to save, keyed by document id and then by
+     *            locale
+     * @return A list of warnings, each prefixed by its document id and locale.
+     *         Documents which can't be found are skipped with a warning.
+     * @see TranslationService#translateAllInDoc(String, String, String,
+     *      LocaleId, TranslationsResource, Set, MergeType, boolean,
+     *      AsyncTaskHandle, TranslationSourceType)
+     */
+    List<String> translateAllInDocs(String projectSlug, String iterationSlug,
+            Map<String, Map<LocaleId, TranslationsResource>> translations,
+            Set<String> extensions, MergeType mergeType,
+            boolean assignCreditToUploader, AsyncTaskHandle handle,
+            TranslationSourceType translationSourceType);
+
+    /**
+     * Same as
+     * {@link #translateAllInDocs(String, String, Map, Set, MergeType, boolean, AsyncTaskHandle, TranslationSourceType)}
+     * but runs asynchronously.
+     */
+    Future<List<String>> translateAllInDocsAsync(String projectSlug,
+            String iterationSlug,
+            Map<String, Map<LocaleId, TranslationsResource>> translations,
+            Set<String> extensions, MergeType mergeType,
+            boolean assignCreditToUploader, AsyncTaskHandle handle,
+            TranslationSourceType translationSourceType);
+
     public interface TranslationResult {
         boolean isTranslationSuccessful();
 
@@ -21,9 +21,15 @@
  */
 package org.zanata.service;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
 import org.zanata.common.LocaleId;
 import org.zanata.events.DocStatsEvent;
+import org.zanata.events.DocumentLocaleKey;
 import org.zanata.events.TextFlowTargetStateEvent;
+import org.zanata.model.HTextFlowTarget;
 import org.zanata.ui.model.statistic.WordStatistic;
 import org.zanata.webtrans.shared.model.DocumentStatus;
 import org.zanata.webtrans.shared.model.ValidationId;
@@ -45,6 +51,16 @@ public interface TranslationStateCache {
      */
     void textFlowStateUpdated(TextFlowTargetStateEvent event);
 
+    /**
+     * Informs the cache that the word statistics of a document have changed
+     * in a given locale. Cached statistics are updated with the word deltas
+     * carried by the event.
+     *
+     * @param event
+     *            The document statistics event
+     */
+    void docStatsUpdated(DocStatsEvent event);
+
     /**
      * Returns DocumentStatus of last modified HTextFlowTarget for the given
      * locale id of the documentId
@@ -64,6 +80,19 @@ public interface TranslationStateCache {
     Boolean textFlowTargetHasWarningOrError(Long textFlowTargetId,
         ValidationId validationId);
 
+    /**
+     * Return ids of the textFlowTargets which have a validation error against
+     * any of the given validation rules. Results which are not already cached
+     * are calculated in parallel, then cached.
+     *
+     * @param targets
+     *            textFlowTargets to check, with their textFlows loaded
+     * @param validationIds
+     */
+    Set<Long> findTargetsWithWarningOrError(
+            Collection<HTextFlowTarget> targets,
+            Collection<ValidationId> validationIds);
+
     /**
      * Return document wordStatistic in given localeId
      *
@@ -73,6 +102,17 @@ public interface TranslationStateCache {
     WordStatistic getDocumentStatistics(Long documentId,
             LocaleId localeId);
 
+    /**
+     * Return document wordStatistic for every combination of the given
+     * documents and locales. Statistics which are not yet cached are loaded
+     * together.
+     *
+     * @param documentIds
+     * @param localeIds
+     */
+    Map<DocumentLocaleKey, WordStatistic> getDocumentStatistics(
+            Collection<Long> documentIds, Collection<LocaleId> localeIds);
+
     /*
      * Clears the stats for a document in all present locales.
      *
@@ -87,4 +127,12 @@ public interface TranslationStateCache {
      * @param localeId
      */
     void clearDocumentStatistics(Long documentId, LocaleId localeId);
+
+    /**
+     * Compares all cached document statistics with the database and replaces
+     * any which have drifted.
+     *
+     * @return number of cached statistics which were out of date
+     */
+    int reconcileStatistics();
 }
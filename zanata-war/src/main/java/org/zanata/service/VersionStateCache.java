@@ -22,6 +22,9 @@
 
 package org.zanata.service;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.zanata.common.LocaleId;
 import org.zanata.events.DocStatsEvent;
 import org.zanata.ui.model.statistic.WordStatistic;
@@ -43,9 +46,27 @@ public interface VersionStateCache {
     WordStatistic getVersionStatistics(Long projectIterationId,
             LocaleId localeId);
 
+    /**
+     * Returns version statistics for all the given locales. Statistics which
+     * are not yet cached are loaded together.
+     *
+     * @param projectIterationId
+     * @param localeIds
+     */
+    Map<LocaleId, WordStatistic> getVersionStatistics(
+            Long projectIterationId, Collection<LocaleId> localeIds);
+
     /**
      * Clears all caches for a single project version (all locales).
      * @param versionId All cached stats for this version will be cleared.
      */
     void clearVersionStatsCache(Long versionId);
+
+    /**
+     * Compares all cached version statistics with the database and replaces
+     * any which have drifted.
+     *
+     * @return number of cached statistics which were out of date
+     */
+    int reconcileStatistics();
 }
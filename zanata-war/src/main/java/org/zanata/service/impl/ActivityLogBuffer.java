@@ -0,0 +1,295 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.commons.lang.time.DateUtils;
+import org.zanata.common.ActivityType;
+import org.zanata.dao.ActivityDAO;
+import org.zanata.dao.PersonDAO;
+import org.zanata.events.ServerStarted;
+import org.zanata.events.TextFlowTargetStateEvent;
+import org.zanata.events.TextFlowTargetStateEvent.TextFlowTargetStateChange;
+import org.zanata.model.Activity;
+import org.zanata.model.type.EntityType;
+import org.zanata.transaction.TransactionUtil;
+import org.zanata.util.ScopeHelper;
+import org.zanata.util.SysProperties;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Collects translation activity in memory and writes it to the
+ * {@link Activity} table in the background, so that saving a translation
+ * doesn't pay for an extra transaction and several queries just for the
+ * dashboard feed.
+ * <p>
+ * Changes are summed per actor, version, activity type and hour (the period
+ * of an {@link Activity}), using the word counts carried by each
+ * {@link TextFlowTargetStateEvent}. Everything collected is written in one
+ * transaction every few seconds, and whatever is left is written when the
+ * application shuts down.
+ */
+@Named("activityLogBuffer")
+@ApplicationScoped
+@Slf4j
+public class ActivityLogBuffer {
+    private static final long FLUSH_MILLIS = SysProperties.getLong(
+            SysProperties.ACTIVITY_FLUSH_MILLIS, 2000);
+    // an activity which can't be saved this many times in a row is dropped
+    @VisibleForTesting
+    static final int MAX_ATTEMPTS = 10;
+
+    private final ConcurrentMap<ActivityKey, PendingActivity> pending =
+            new ConcurrentHashMap<>();
+    // failed attempts to save each activity; only used by the flush thread
+    private final Map<ActivityKey, Integer> failures = Maps.newHashMap();
+
+    private ScheduledExecutorService executor;
+
+    @Inject
+    private ActivityDAO activityDAO;
+
+    @Inject
+    private PersonDAO personDAO;
+
+    @Inject
+    private ActivityLockManager activityLockManager;
+
+    @Inject
+    private TransactionUtil transactionUtil;
+
+    public void start(@Observes ServerStarted payload) {
+        executor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("activity-log-%d")
+                        .setDaemon(true).build());
+        executor.scheduleWithFixedDelay(this::flushInRequestScope,
+                FLUSH_MILLIS, FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(FLUSH_MILLIS + 10000,
+                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushInRequestScope();
+    }
+
+    /**
+     * Adds the changes in the event to the pending activity of its actor.
+     * Events without an actor (eg from document uploads) are ignored.
+     */
+    public void add(TextFlowTargetStateEvent event) {
+        Long actorId = event.getActorId();
+        if (actorId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        PendingActivity reviewed = null;
+        PendingActivity translated = null;
+        for (TextFlowTargetStateChange state : event.getStates()) {
+            PendingActivity change = new PendingActivity(
+                    (int) state.getWordCount(), 1,
+                    state.getTextFlowTargetId(), now, now);
+            if (state.getNewState().isReviewed()) {
+                reviewed = reviewed == null ? change : reviewed.plus(change);
+            } else {
+                translated = translated == null ? change
+                        : translated.plus(change);
+            }
+        }
+        Date hour = DateUtils.truncate(new Date(now), Calendar.HOUR);
+        // each event counts once for each type of activity, as before
+        if (reviewed != null) {
+            pending.merge(new ActivityKey(actorId,
+                    event.getProjectIterationId(),
+                    ActivityType.REVIEWED_TRANSLATION, hour),
+                    reviewed.asOneEvent(), PendingActivity::plus);
+        }
+        if (translated != null) {
+            pending.merge(new ActivityKey(actorId,
+                    event.getProjectIterationId(),
+                    ActivityType.UPDATE_TRANSLATION, hour),
+                    translated.asOneEvent(), PendingActivity::plus);
+        }
+    }
+
+    @VisibleForTesting
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    private void flushInRequestScope() {
+        try {
+            ScopeHelper.withRequestScope(this::flush);
+        } catch (Exception e) {
+            log.error("unable to save translation activity", e);
+        }
+    }
+
+    /**
+     * Writes all the pending activity in one transaction. If that fails,
+     * each activity is written in a transaction of its own, so that one bad
+     * activity (eg for a deleted person) can't hold up the others. An
+     * activity which fails is kept for the next flush, until it has failed
+     * {@link #MAX_ATTEMPTS} times, when it is logged and dropped.
+     * <p>
+     * Only called by the flush thread, during shutdown and in tests.
+     */
+    public void flush() {
+        Map<ActivityKey, PendingActivity> batch = Maps.newHashMap();
+        for (ActivityKey key : pending.keySet()) {
+            PendingActivity activity = pending.remove(key);
+            if (activity != null) {
+                batch.put(key, activity);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        // keep out ActivityServiceImpl.logActivity etc for these actors
+        Set<Lock> locks = Sets.newIdentityHashSet();
+        batch.keySet().forEach(key -> locks
+                .add(activityLockManager.getLock(key.getActorId())));
+        locks.forEach(Lock::lock);
+        try {
+            transactionUtil.run(() -> {
+                batch.forEach(this::save);
+                activityDAO.flush();
+            });
+            failures.keySet().removeAll(batch.keySet());
+            log.debug("saved {} translation activities", batch.size());
+        } catch (Exception e) {
+            log.warn("unable to save {} translation activities together; "
+                    + "saving them one at a time", batch.size(), e);
+            batch.forEach(this::saveAlone);
+        } finally {
+            locks.forEach(Lock::unlock);
+        }
+    }
+
+    private void saveAlone(ActivityKey key, PendingActivity activity) {
+        // the failed transaction may have left entities in the session
+        activityDAO.clear();
+        try {
+            transactionUtil.run(() -> {
+                save(key, activity);
+                activityDAO.flush();
+            });
+            failures.remove(key);
+        } catch (Exception e) {
+            int attempts = failures.merge(key, 1, Integer::sum);
+            if (attempts >= MAX_ATTEMPTS) {
+                failures.remove(key);
+                log.error("dropping translation activity {} {} after {} "
+                        + "failed attempts", key, activity, attempts, e);
+            } else {
+                log.warn("unable to save translation activity {}; will "
+                        + "retry", key, e);
+                pending.merge(key, activity,
+                        (newer, retry) -> retry.plus(newer));
+            }
+        }
+    }
+
+    private void save(ActivityKey key, PendingActivity pendingActivity) {
+        Activity activity = activityDAO.findActivity(key.getActorId(),
+                EntityType.HProjectIteration, key.getVersionId(),
+                key.getActivityType(), key.getHour());
+        if (activity != null) {
+            activity.updateActivity(
+                    new Date(pendingActivity.getLastEventTime()),
+                    EntityType.HTexFlowTarget,
+                    pendingActivity.getLastTargetId(),
+                    pendingActivity.getWordCount(),
+                    pendingActivity.getEventCount());
+        } else {
+            activity = new Activity(personDAO.findById(key.getActorId()),
+                    EntityType.HProjectIteration, key.getVersionId(),
+                    EntityType.HTexFlowTarget,
+                    pendingActivity.getLastTargetId(),
+                    key.getActivityType(), pendingActivity.getWordCount(),
+                    pendingActivity.getEventCount());
+            // places the activity in the hour of its first event
+            activity.setCreationDate(
+                    new Date(pendingActivity.getFirstEventTime()));
+        }
+        activityDAO.makePersistent(activity);
+    }
+
+    @Value
+    static class ActivityKey {
+        long actorId;
+        long versionId;
+        ActivityType activityType;
+        Date hour;
+    }
+
+    @Value
+    static class PendingActivity {
+        int wordCount;
+        int eventCount;
+        long lastTargetId;
+        long firstEventTime;
+        long lastEventTime;
+
+        PendingActivity plus(PendingActivity later) {
+            return new PendingActivity(wordCount + later.wordCount,
+                    eventCount + later.eventCount, later.lastTargetId,
+                    Math.min(firstEventTime, later.firstEventTime),
+                    Math.max(lastEventTime, later.lastEventTime));
+        }
+
+        PendingActivity asOneEvent() {
+            return new PendingActivity(wordCount, 1, lastTargetId,
+                    firstEventTime, lastEventTime);
+        }
+    }
+}
@@ -38,18 +38,17 @@ import javax.inject.Named;
 
 import org.zanata.action.DashboardUserStats;
 import org.zanata.async.Async;
+import org.zanata.async.AsyncTaskLane;
 import org.zanata.common.ActivityType;
 import org.zanata.dao.ActivityDAO;
 import org.zanata.dao.DocumentDAO;
 import org.zanata.dao.PersonDAO;
-import org.zanata.dao.TextFlowTargetDAO;
 import org.zanata.events.DocumentUploadedEvent;
 import org.zanata.events.TextFlowTargetStateEvent;
 import org.zanata.model.Activity;
 import org.zanata.model.HDocument;
 import org.zanata.model.HPerson;
 import org.zanata.model.HTextFlow;
-import org.zanata.model.HTextFlowTarget;
 import org.zanata.model.IsEntityWithType;
 import org.zanata.model.type.EntityType;
 import org.zanata.service.ActivityService;
@@ -64,9 +63,6 @@ public class ActivityServiceImpl implements ActivityService {
     @Inject
     private ActivityDAO activityDAO;
 
-    @Inject
-    private TextFlowTargetDAO textFlowTargetDAO;
-
     @Inject
     private DocumentDAO documentDAO;
 
@@ -82,6 +78,9 @@ public class ActivityServiceImpl implements ActivityService {
     @Inject
     private TransactionUtil transactionUtil;
 
+    @Inject
+    private ActivityLogBuffer activityLogBuffer;
+
     @Override
     public Activity findActivity(long actorId, EntityType contextType,
             long contextId, ActivityType activityType, Date actionTime) {
@@ -175,70 +174,14 @@ public class ActivityServiceImpl implements ActivityService {
     }
 
     /**
-     * Logs each text flow target translation immediately after successful
-     * translation.
+     * Adds each text flow target translation to the activity buffer after
+     * successful translation. The buffer writes it to the database in the
+     * background.
+     *
+     * @see ActivityLogBuffer
      */
-    // uses Async to ensure transaction environment is reset, because
-    // this is triggered during transaction.commit
-    @Async
-    public void logTextFlowStateUpdate(@Observes(during = TransactionPhase.AFTER_SUCCESS) TextFlowTargetStateEvent event_) {
-        // workaround for https://issues.jboss.org/browse/WELD-2019
-        final TextFlowTargetStateEvent event = event_;
-
-        Long actorId = event.getActorId();
-
-        if (actorId != null) {
-            Lock lock = activityLockManager.getLock(actorId);
-            lock.lock();
-            try {
-                transactionUtil.run(() -> {
-                    HDocument document =
-                        documentDAO.getById(event.getKey().getDocumentId());
-
-                    HTextFlowTarget lastReviewedTarget = null;
-                    HTextFlowTarget lastTranslatedTarget = null;
-
-                    int totalReviewedWords = 0;
-                    int totalTranslatedWords = 0;
-
-                    for (TextFlowTargetStateEvent.TextFlowTargetStateChange state : event
-                        .getStates()) {
-                        HTextFlowTarget target =
-                            textFlowTargetDAO.findById(
-                                state.getTextFlowTargetId(), false);
-                        if (state.getNewState().isReviewed()) {
-                            lastReviewedTarget = target;
-                            totalReviewedWords +=
-                                target.getTextFlow().getWordCount()
-                                    .intValue();
-                        } else {
-                            lastTranslatedTarget = target;
-                            totalTranslatedWords +=
-                                target.getTextFlow().getWordCount()
-                                    .intValue();
-                        }
-                    }
-                    if (lastReviewedTarget != null) {
-                        logActivityAlreadyLocked(actorId,
-                            document.getProjectIteration(), lastReviewedTarget,
-                            ActivityType.REVIEWED_TRANSLATION,
-                            totalReviewedWords);
-                    }
-
-                    if (lastTranslatedTarget != null) {
-                        logActivityAlreadyLocked(actorId,
-                            document.getProjectIteration(),
-                            lastTranslatedTarget,
-                            ActivityType.UPDATE_TRANSLATION,
-                            totalTranslatedWords);
-                    }
-                });
-            } catch (Exception e) {
-                Throwables.propagate(e);
-            } finally {
-                lock.unlock();
-            }
-        }
+    public void logTextFlowStateUpdate(@Observes(during = TransactionPhase.AFTER_SUCCESS) TextFlowTargetStateEvent event) {
+        activityLogBuffer.add(event);
     }
 
     /**
@@ -246,7 +189,7 @@ public class ActivityServiceImpl implements ActivityService {
      */
     // uses Async to ensure transaction environment is reset, because
     // this is triggered during transaction.commit
-    @Async
+    @Async(AsyncTaskLane.INTERACTIVE)
     public void onDocumentUploaded(@Observes(during = TransactionPhase.AFTER_SUCCESS) DocumentUploadedEvent event_)
             throws Exception {
         // workaround for https://issues.jboss.org/browse/WELD-2019
@@ -35,6 +35,7 @@ import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.zanata.async.Async;
+import org.zanata.async.AsyncTaskLane;
 import org.zanata.async.AsyncTaskResult;
 import org.zanata.async.handle.CopyTransTaskHandle;
 import org.zanata.dao.DocumentDAO;
@@ -50,6 +51,7 @@ import org.zanata.service.CopyTransService;
 import org.zanata.service.LocaleService;
 import org.zanata.service.TranslationStateCache;
 import org.zanata.util.ServiceLocator;
+import org.zanata.util.SysProperties;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Stopwatch;
@@ -63,6 +65,13 @@ public class CopyTransServiceImpl implements CopyTransService {
 
     private static final int COPY_TRANS_BATCH_SIZE = 20;
 
+    // the bulk engine's queries don't grow with the batch, so it can use
+    // bigger batches (matching hibernate.jdbc.batch_size)
+    private static final int BULK_COPY_TRANS_BATCH_SIZE = 100;
+
+    private static final boolean BULK_COPY_TRANS = SysProperties.getBoolean(
+            SysProperties.COPY_TRANS_BULK, true);
+
     @Inject
     private LocaleService localeServiceImpl;
     @Inject
@@ -77,6 +86,8 @@ public class CopyTransServiceImpl implements CopyTransService {
     private TranslationStateCache translationStateCacheImpl;
     @Inject
     private TextFlowDAO textFlowDAO;
+    @Inject
+    private TransMemorySuggestionCache transMemorySuggestionCache;
 
     /**
      * Copies previous matching translations for the given locale into a
@@ -129,12 +140,14 @@ public class CopyTransServiceImpl implements CopyTransService {
             boolean requireTranslationReview =
                     document.getProjectIteration().getRequireTranslationReview();
 
+            int batchSize = BULK_COPY_TRANS ? BULK_COPY_TRANS_BATCH_SIZE
+                    : COPY_TRANS_BATCH_SIZE;
             while (start < document.getTextFlows().size()) {
                 numCopied +=
-                        copyTransForBatch(document, start, COPY_TRANS_BATCH_SIZE,
+                        copyTransForBatch(document, start, batchSize,
                                 targetLocale, options, taskHandleOpt,
                                 requireTranslationReview);
-                start += COPY_TRANS_BATCH_SIZE;
+                start += batchSize;
                 documentDAO.clear();
             }
         } else if (taskHandleOpt.isPresent()) {
@@ -146,12 +159,6 @@ public class CopyTransServiceImpl implements CopyTransService {
             taskHandleOpt.get().increaseProgress(totalActiveTextFlows);
         }
 
-        // If there have been any changes to the document stats, reset them
-        if (numCopied > 0) {
-            translationStateCacheImpl.clearDocumentStatistics(document.getId(),
-                    targetLocale.getLocaleId());
-        }
-
         stopwatch.stop();
         log.info(
                 "copyTrans: {} {} translations for document \"{}{}\" - duration: {}",
@@ -183,10 +190,22 @@ public class CopyTransServiceImpl implements CopyTransService {
         int batchSize = batchEnd - batchStart;
         List<HTextFlow> copyTargets =
                 docTextFlows.subList(batchStart, batchEnd);
-        Integer numCopied =
-                copyTransWorkFactory.runCopyTransInNewTx(targetLocale,
-                        options, document, requireTranslationReview,
-                        copyTargets);
+        Integer numCopied;
+        if (BULK_COPY_TRANS) {
+            numCopied = copyTransWorkFactory.runBulkCopyTransInNewTx(
+                    targetLocale, options, document, requireTranslationReview,
+                    copyTargets);
+        } else {
+            numCopied = copyTransWorkFactory.runCopyTransInNewTx(targetLocale,
+                    options, document, requireTranslationReview,
+                    copyTargets);
+        }
+        if (numCopied > 0) {
+            // the batch has been committed, so TM suggestions for this
+            // locale may now be out of date
+            transMemorySuggestionCache.invalidateLocale(
+                    targetLocale.getLocaleId());
+        }
 
         if (taskHandleOpt.isPresent()) {
             taskHandleOpt.get().increaseProgress(batchSize);
@@ -265,7 +284,7 @@ public class CopyTransServiceImpl implements CopyTransService {
     }
 
     @Override
-    @Async
+    @Async(AsyncTaskLane.BULK)
     public Future<Void> startCopyTransForIteration(HProjectIteration iteration,
             HCopyTransOptions copyTransOptions, CopyTransTaskHandle handle) {
         copyTransForIteration(iteration, copyTransOptions, handle);
@@ -28,17 +28,25 @@ import static org.zanata.model.HCopyTransOptions.ConditionRuleAction.DOWNGRADE_T
 import static org.zanata.model.HCopyTransOptions.ConditionRuleAction.REJECT;
 import static org.zanata.transaction.TransactionUtil.runInTransaction;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.inject.Named;
 import org.zanata.common.ContentState;
+import org.zanata.common.LocaleId;
 import org.zanata.dao.TextFlowTargetDAO;
+import org.zanata.dao.TextFlowTargetDAO.CopyTransCandidate;
 import org.zanata.events.DocStatsEvent;
 import org.zanata.events.DocumentLocaleKey;
 import org.zanata.model.HAccount;
@@ -52,14 +60,19 @@ import org.zanata.model.HTextFlowTarget;
 import org.zanata.model.type.TranslationSourceType;
 import org.zanata.security.annotations.Authenticated;
 import org.zanata.service.ValidationService;
-import org.zanata.service.VersionStateCache;
 import org.zanata.util.TranslationUtil;
 import org.zanata.webtrans.shared.model.ValidationAction;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Supplier;
+import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
 
 /**
  * @author Sean Flanigan <a href="mailto:sflaniga@redhat.com">sflaniga@redhat.com</a>
@@ -68,6 +81,7 @@ import com.google.common.collect.Maps;
 @javax.enterprise.context.Dependent
 @Slf4j
 public class CopyTransWorkFactory {
+    static final int MAX_CANDIDATES_PER_HASH = 100;
 
     // Inject textFlowTargetDAO (@DatabaseSearch) for Hibernate-based query
     // Inject translationMemoryServiceImpl (no qualifier) for Hibernate Search query
@@ -81,7 +95,7 @@ public class CopyTransWorkFactory {
     private ValidationService validationServiceImpl;
 
     @Inject
-    private VersionStateCache versionStateCacheImpl;
+    private Event<DocStatsEvent> docStatsEvent;
 
     @Inject @Authenticated
     private HAccount authenticatedAccount;
@@ -94,6 +108,20 @@ public class CopyTransWorkFactory {
                 document, requireTranslationReview, copyTargets));
     }
 
+    public Integer runBulkCopyTransInNewTx(HLocale targetLocale,
+            HCopyTransOptions options, HDocument document,
+            boolean requireTranslationReview, List<HTextFlow> copyTargets)
+            throws Exception {
+        return runInTransaction(() -> runBulkCopyTrans(targetLocale, options,
+                document, requireTranslationReview, copyTargets));
+    }
+
+    /**
+     * Finds matches one text flow at a time, using
+     * {@link TextFlowTargetDAO#searchBestMatchTransMemory}.
+     *
+     * @see #runBulkCopyTrans
+     */
     public Integer runCopyTrans(HLocale targetLocale,
             HCopyTransOptions options, HDocument document,
             boolean requireTranslationReview, List<HTextFlow> copyTargets) {
@@ -113,6 +141,7 @@ public class CopyTransWorkFactory {
         }
 
         Long actorId = authenticatedAccount.getPerson().getId();
+        CopiedTranslations copied = new CopiedTranslations();
         for (HTextFlow textFlow : copyTargets) {
             if (shouldFindMatch(textFlow, targetLocale,
                     requireTranslationReview)) {
@@ -126,14 +155,177 @@ public class CopyTransWorkFactory {
                     numCopied++;
 
                     saveCopyTransMatch(actorId, bestMatch.get(), textFlow,
-                        options, requireTranslationReview);
+                        options, requireTranslationReview,
+                        () -> textFlowTargetDAO.getOrCreateTarget(textFlow,
+                                targetLocale), copied);
 
                 }
             }
         }
+        copied.fireDocStatsEvent(document, targetLocale);
         return numCopied;
     }
 
+    /**
+     * Does the same as {@link #runCopyTrans}, but with a fixed number of
+     * queries per batch instead of several per text flow: one for the
+     * existing targets, one to count the match candidates of every content
+     * hash in the batch, one to fetch them, and one to load the chosen
+     * matches. The best match for each text flow is chosen in memory, in the
+     * same order as {@link TextFlowTargetDAO#searchBestMatchTransMemory}.
+     * Text flows whose content hash has more than
+     * {@link #MAX_CANDIDATES_PER_HASH} candidates are matched with that
+     * query instead, so that the candidates held in memory stay bounded.
+     */
+    public Integer runBulkCopyTrans(HLocale targetLocale,
+            HCopyTransOptions options, HDocument document,
+            boolean requireTranslationReview, List<HTextFlow> copyTargets) {
+        LocaleId localeId = targetLocale.getLocaleId();
+        List<Long> textFlowIds = Lists.newArrayListWithCapacity(
+                copyTargets.size());
+        for (HTextFlow textFlow : copyTargets) {
+            textFlowIds.add(textFlow.getId());
+        }
+        Map<Long, HTextFlowTarget> existingTargets = Maps.newHashMap();
+        for (HTextFlowTarget target : textFlowTargetDAO.findByTextFlowIdList(
+                textFlowIds, localeId)) {
+            existingTargets.put(target.getTextFlow().getId(), target);
+        }
+
+        List<HTextFlow> textFlowsToMatch = Lists.newArrayList();
+        Collection<String> contentHashes = Sets.newHashSet();
+        for (HTextFlow textFlow : copyTargets) {
+            if (shouldFindMatch(existingTargets.get(textFlow.getId()),
+                    requireTranslationReview)) {
+                textFlowsToMatch.add(textFlow);
+                contentHashes.add(textFlow.getContentHash());
+            }
+        }
+        if (textFlowsToMatch.isEmpty()) {
+            return 0;
+        }
+
+        // Only outright reject copies if the options say so
+        String docId =
+                options.getDocIdMismatchAction() == REJECT ? document
+                        .getDocId() : null;
+        Long projectId =
+                options.getProjectMismatchAction() == REJECT ? document
+                        .getProjectIteration().getProject().getId() : null;
+        boolean checkContext = options.getContextMismatchAction() == REJECT;
+
+        // Strings with too many candidates to load (eg "OK") are matched one
+        // text flow at a time instead, by a query which returns only the best.
+        Set<String> popularHashes = Sets.newHashSet();
+        for (Map.Entry<String, Long> entry : textFlowTargetDAO
+                .countCopyTransCandidates(contentHashes, localeId, docId,
+                        projectId).entrySet()) {
+            if (entry.getValue() > MAX_CANDIDATES_PER_HASH) {
+                popularHashes.add(entry.getKey());
+            }
+        }
+        contentHashes.removeAll(popularHashes);
+
+        ListMultimap<String, CopyTransCandidate> candidatesByHash =
+                Multimaps.index(textFlowTargetDAO.findCopyTransCandidates(
+                        contentHashes, localeId, docId, projectId),
+                        CopyTransCandidate::getContentHash);
+        Map<HTextFlow, Long> bestMatchIds = Maps.newLinkedHashMap();
+        Map<Long, HTextFlowTarget> matches = Maps.newHashMap();
+        for (HTextFlow textFlow : textFlowsToMatch) {
+            if (popularHashes.contains(textFlow.getContentHash())) {
+                Optional<HTextFlowTarget> bestMatch =
+                        translationFinder.searchBestMatchTransMemory(textFlow,
+                                localeId, document.getLocale().getLocaleId(),
+                                checkContext, docId != null,
+                                projectId != null);
+                if (bestMatch.isPresent()) {
+                    bestMatchIds.put(textFlow, bestMatch.get().getId());
+                    matches.put(bestMatch.get().getId(), bestMatch.get());
+                }
+                continue;
+            }
+            Optional<CopyTransCandidate> bestMatch =
+                    findBestMatch(textFlow,
+                            candidatesByHash.get(textFlow.getContentHash()),
+                            checkContext);
+            if (bestMatch.isPresent()) {
+                bestMatchIds.put(textFlow, bestMatch.get().getTargetId());
+            }
+        }
+        Set<Long> idsToLoad = Sets.newHashSet(bestMatchIds.values());
+        idsToLoad.removeAll(matches.keySet());
+        for (HTextFlowTarget match : textFlowTargetDAO.findCopyTransMatches(
+                idsToLoad)) {
+            matches.put(match.getId(), match);
+        }
+
+        Long actorId = authenticatedAccount.getPerson().getId();
+        CopiedTranslations copied = new CopiedTranslations();
+        int numCopied = 0;
+        for (Map.Entry<HTextFlow, Long> entry : bestMatchIds.entrySet()) {
+            HTextFlow textFlow = entry.getKey();
+            HTextFlowTarget match = matches.get(entry.getValue());
+            if (match == null) {
+                // deleted since the candidates were found
+                continue;
+            }
+            numCopied++;
+            HTextFlowTarget existingTarget =
+                    existingTargets.get(textFlow.getId());
+            saveCopyTransMatch(actorId, match, textFlow, options,
+                    requireTranslationReview,
+                    () -> existingTarget != null ? existingTarget
+                            : textFlowTargetDAO.createTarget(textFlow,
+                                    targetLocale), copied);
+        }
+        copied.fireDocStatsEvent(document, targetLocale);
+        return numCopied;
+    }
+
+    /**
+     * Chooses the candidate which
+     * {@link TextFlowTargetDAO#searchBestMatchTransMemory} would return for
+     * the text flow: a translation of another text flow, preferring the same
+     * resId, then the same docId, then the same project, then the most
+     * recently changed.
+     *
+     * @param candidates
+     *            candidates with the text flow's content hash, already
+     *            filtered by docId and project if those must match
+     * @param checkContext
+     *            whether the resId must match
+     */
+    static Optional<CopyTransCandidate> findBestMatch(HTextFlow textFlow,
+            Collection<CopyTransCandidate> candidates, boolean checkContext) {
+        String resId = textFlow.getResId();
+        String docId = textFlow.getDocument().getDocId();
+        Long projectId =
+                textFlow.getDocument().getProjectIteration().getProject()
+                        .getId();
+        CopyTransCandidate best = null;
+        for (CopyTransCandidate candidate : candidates) {
+            if (candidate.getTextFlowId().equals(textFlow.getId())
+                    || (checkContext && !resId.equals(candidate.getResId()))) {
+                continue;
+            }
+            if (best == null || ComparisonChain.start()
+                    .compareTrueFirst(resId.equals(candidate.getResId()),
+                            resId.equals(best.getResId()))
+                    .compareTrueFirst(docId.equals(candidate.getDocId()),
+                            docId.equals(best.getDocId()))
+                    .compareTrueFirst(projectId.equals(candidate.getProjectId()),
+                            projectId.equals(best.getProjectId()))
+                    // most recent first
+                    .compare(best.getLastChanged(), candidate.getLastChanged(),
+                            Ordering.<Date> natural().nullsFirst())
+                    .result() < 0) {
+                best = candidate;
+            }
+        }
+        return Optional.fromNullable(best);
+    }
+
     /**
      * Determines the content state for a translation given a list of rules and
      * their evaluation result, and the initial state that it was copied as.
@@ -229,10 +421,19 @@ public class CopyTransWorkFactory {
                 requireTranslationReview, matchingTargetState);
     }
 
+    /**
+     * @param targetSupplier
+     *            supplies the target to copy into, which may be new. Only
+     *            called if the match is valid.
+     * @param copied
+     *            collects the statistics changes of copied translations
+     */
     private void saveCopyTransMatch(Long actorId,
         final HTextFlowTarget matchingTarget,
         final HTextFlow originalTf, final HCopyTransOptions options,
-        final boolean requireTranslationReview) {
+        final boolean requireTranslationReview,
+        Supplier<HTextFlowTarget> targetSupplier,
+        CopiedTranslations copied) {
         final HProjectIteration matchingTargetProjectIteration =
                 matchingTarget.getTextFlow().getDocument()
                         .getProjectIteration();
@@ -280,9 +481,7 @@ public class CopyTransWorkFactory {
             return;
         }
 
-        HTextFlowTarget hTarget =
-                textFlowTargetDAO.getOrCreateTarget(originalTf,
-                        matchingTarget.getLocale());
+        HTextFlowTarget hTarget = targetSupplier.get();
         ContentState prevState =
                 hTarget.getId() == null ? ContentState.New : hTarget.getState();
         if (shouldOverwrite(hTarget, copyState)) {
@@ -314,10 +513,7 @@ public class CopyTransWorkFactory {
 
             TranslationUtil.copyEntity(matchingTarget, hTarget);
 
-            // TODO Maybe we should think about registering a Hibernate
-            // integrator for these updates
-            signalCopiedTranslation(hTarget, prevState,
-                originalTf.getWordCount());
+            copied.add(hTarget, prevState, originalTf.getWordCount());
         }
     }
 
@@ -348,7 +544,12 @@ public class CopyTransWorkFactory {
                 textFlow.getTargets().get(locale.getId());
 //        HTextFlowTarget targetForLocale = textFlowTargetDAO.getTextFlowTarget(
 //                textFlow, locale);
+        return shouldFindMatch(targetForLocale, requireTranslationReview);
+    }
 
+    private static boolean shouldFindMatch(
+            @Nullable HTextFlowTarget targetForLocale,
+            boolean requireTranslationReview) {
         if (targetForLocale == null
                 || targetForLocale.getState() == ContentState.NeedReview) {
             return true;
@@ -403,32 +604,6 @@ public class CopyTransWorkFactory {
         return true;
     }
 
-    private void signalCopiedTranslation(HTextFlowTarget target,
-            ContentState previousState, Long wordCount) {
-        /*
-         * Using a direct method call instead of an event because it's easier to
-         * read. Since these events are being called synchronously (as opposed
-         * to an 'after Transaction' events), there is no big performance gain
-         * and makes the code easier to read and navigate.
-         */
-        // TODO how was this not causing duplicate events?  Is this bypassing TranslationServiceImpl?
-        // FIXME other observers may not be notified
-        HDocument document = target.getTextFlow().getDocument();
-
-        DocumentLocaleKey key =
-            new DocumentLocaleKey(document.getId(), target.getLocaleId());
-
-        Map<ContentState, Long> contentStates = Maps.newHashMap();
-        DocStatsEvent.updateContentStateDeltas(contentStates, target.getState(),
-                previousState, wordCount);
-
-        DocStatsEvent docEvent =
-                new DocStatsEvent(key, document.getProjectIteration().getId(),
-                        contentStates, target.getId());
-
-        versionStateCacheImpl.docStatsUpdated(docEvent);
-    }
-
     /**
      * Run enforced validation check(Error) if translation is saving as
      * 'Translated'.
@@ -456,6 +631,39 @@ public class CopyTransWorkFactory {
         return false;
     }
 
+    /**
+     * Statistics changes of the translations copied into one document and
+     * locale, which are announced as a single {@link DocStatsEvent} (like
+     * the other writers of translations) rather than one per translation.
+     * Observers which update caches see the event once the transaction
+     * succeeds.
+     */
+    private final class CopiedTranslations {
+        private final Map<ContentState, Long> contentStateDeltas =
+                Maps.newHashMap();
+        private HTextFlowTarget lastCopied;
+
+        void add(HTextFlowTarget target, ContentState previousState,
+                Long wordCount) {
+            DocStatsEvent.updateContentStateDeltas(contentStateDeltas,
+                    target.getState(), previousState, wordCount);
+            lastCopied = target;
+        }
+
+        void fireDocStatsEvent(HDocument document, HLocale locale) {
+            if (lastCopied == null) {
+                return;
+            }
+            // new targets only get an id when they are flushed
+            textFlowTargetDAO.flush();
+            DocumentLocaleKey key = new DocumentLocaleKey(document.getId(),
+                    locale.getLocaleId());
+            docStatsEvent.fire(new DocStatsEvent(key,
+                    document.getProjectIteration().getId(),
+                    contentStateDeltas, lastCopied.getId()));
+        }
+    }
+
     /**
      * Holds the result of a match evaluation in the form of a boolean, and the
      * corresponding action to be taken for the result.
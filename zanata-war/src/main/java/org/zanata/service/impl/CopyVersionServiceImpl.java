@@ -16,6 +16,7 @@ import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 import org.zanata.async.Async;
+import org.zanata.async.AsyncTaskLane;
 import org.zanata.async.AsyncTaskResult;
 import org.zanata.async.handle.CopyVersionTaskHandle;
 import org.zanata.common.EntityStatus;
@@ -168,7 +169,7 @@ public class CopyVersionServiceImpl implements CopyVersionService {
 
 
     @Override
-    @Async
+    @Async(AsyncTaskLane.BULK)
     public Future<Void> startCopyVersion(@Nonnull String projectSlug,
             @Nonnull String versionSlug,
             @Nonnull String newVersionSlug, CopyVersionTaskHandle handle) {
@@ -38,6 +38,7 @@ import javax.inject.Named;
 import org.apache.deltaspike.jpa.api.transaction.Transactional;
 import org.zanata.ApplicationConfiguration;
 import org.zanata.async.Async;
+import org.zanata.async.AsyncTaskLane;
 import org.zanata.async.AsyncTaskHandle;
 import org.zanata.async.AsyncTaskResult;
 import org.zanata.common.ContentState;
@@ -121,6 +122,9 @@ public class DocumentServiceImpl implements DocumentService {
     @Inject
     private UrlUtil urlUtil;
 
+    @Inject
+    private WebHookDispatcher webHookDispatcher;
+
     @Inject @Authenticated
     private HAccount authenticatedAccount;
 
@@ -155,7 +159,7 @@ public class DocumentServiceImpl implements DocumentService {
     }
 
     @Override
-    @Async
+    @Async(AsyncTaskLane.NORMAL)
     @Transactional
     public Future<HDocument> saveDocumentAsync(String projectSlug,
             String iterationSlug,
@@ -260,20 +264,22 @@ public class DocumentServiceImpl implements DocumentService {
         Long docId = event.getKey().getDocumentId();
         LocaleId localeId = event.getKey().getLocaleId();
 
-        translationStateCacheImpl.clearDocumentStatistics(docId, localeId);
-
-        WordStatistic stats =
-                translationStateCacheImpl.getDocumentStatistics(docId,
-                        localeId);
+        // This observer runs inside the saving transaction, and
+        // HDocumentStatistic is only updated just before that transaction
+        // completes, so the database still holds the statistics from before
+        // this event. (The statistics cache applies the deltas itself once
+        // the transaction commits.)
+        WordStatistic oldStats =
+                documentDAO.getWordStatistics(docId, localeId);
 
-        WordStatistic oldStats = StatisticsUtil.copyWordStatistic(stats);
-        if (oldStats == null) {
+        WordStatistic stats = StatisticsUtil.copyWordStatistic(oldStats);
+        if (stats == null) {
             return;
         }
         for (Map.Entry<ContentState, Long> entry : event
                 .getWordDeltasByState().entrySet()) {
             int count = Math.toIntExact(entry.getValue());
-            oldStats.decrement(entry.getKey(), count);
+            stats.increment(entry.getKey(), count);
         }
 
         processWebHookDocumentMilestoneEvent(event.getKey(), stats, oldStats,
@@ -324,7 +330,7 @@ public class DocumentServiceImpl implements DocumentService {
     public void publishDocumentMilestoneEvent(List<WebHook> webHooks,
             DocumentMilestoneEvent event) {
         for (WebHook webHook : webHooks) {
-            WebHooksPublisher.publish(webHook.getUrl(), event,
+            webHookDispatcher.publish(webHook.getUrl(), event,
                     Optional.fromNullable(webHook.getSecret()));
         }
     }
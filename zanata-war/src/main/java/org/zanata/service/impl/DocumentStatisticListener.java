@@ -0,0 +1,233 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.Session;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.zanata.common.ContentState;
+import org.zanata.dao.DocumentStatisticDAO;
+import org.zanata.model.HDocumentStatistic;
+import org.zanata.model.HTextFlow;
+import org.zanata.model.HTextFlowTarget;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * This class is a hibernate event listener which keeps
+ * {@link HDocumentStatistic} up to date in the same transaction as the
+ * translations it counts.
+ * <p>
+ * Changes to translation states are collected as deltas while the session is
+ * flushed, and applied just before the transaction completes. A change which
+ * can't be expressed as a delta (eg a text flow becoming obsolete, or a word
+ * count change) causes its document's statistics to be recalculated instead.
+ * Bulk HQL updates bypass this listener; an admin can rebuild the table with
+ * {@link DocumentStatisticServiceImpl}.
+ *
+ * @see org.zanata.webtrans.server.HibernateIntegrator
+ */
+@Slf4j
+public class DocumentStatisticListener implements PostInsertEventListener,
+        PostUpdateEventListener, PostDeleteEventListener {
+    private static final long serialVersionUID = 1L;
+
+    private final Map<EventSource, PendingStatistics> pending =
+            new ConcurrentHashMap<>();
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof HTextFlowTarget) {
+            HTextFlowTarget target = (HTextFlowTarget) event.getEntity();
+            getPending(event.getSession()).add(target, target.getState(), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        Object[] oldState = event.getOldState();
+        if (entity instanceof HTextFlowTarget) {
+            HTextFlowTarget target = (HTextFlowTarget) entity;
+            if (oldState == null) {
+                getPending(event.getSession()).recalculate(target
+                        .getTextFlow());
+                return;
+            }
+            ContentState oldContentState =
+                    (ContentState) oldState[propertyIndex(
+                            event.getPersister(), "state")];
+            if (oldContentState != target.getState()) {
+                PendingStatistics statistics =
+                        getPending(event.getSession());
+                statistics.add(target, oldContentState, -1);
+                statistics.add(target, target.getState(), 1);
+            }
+        } else if (entity instanceof HTextFlow) {
+            HTextFlow textFlow = (HTextFlow) entity;
+            EntityPersister persister = event.getPersister();
+            if (oldState == null
+                    || !Objects.equals(
+                            oldState[propertyIndex(persister, "obsolete")],
+                            textFlow.isObsolete())
+                    || !Objects.equals(
+                            oldState[propertyIndex(persister, "wordCount")],
+                            textFlow.getWordCount())) {
+                getPending(event.getSession()).recalculate(textFlow);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof HTextFlowTarget) {
+            HTextFlowTarget target = (HTextFlowTarget) entity;
+            ContentState deletedState =
+                    (ContentState) event.getDeletedState()[propertyIndex(
+                            event.getPersister(), "state")];
+            getPending(event.getSession()).add(target, deletedState, -1);
+        } else if (entity instanceof HTextFlow) {
+            getPending(event.getSession()).recalculate((HTextFlow) entity);
+        }
+    }
+
+    private static int propertyIndex(EntityPersister persister,
+            String property) {
+        return persister.getEntityMetamodel().getPropertyIndex(property);
+    }
+
+    private PendingStatistics getPending(EventSource session) {
+        PendingStatistics statistics = pending.get(session);
+        if (statistics == null) {
+            statistics = new PendingStatistics(session);
+            pending.put(session, statistics);
+            session.getActionQueue().registerProcess(
+                    (BeforeTransactionCompletionProcess) statistics);
+            session.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) statistics);
+        }
+        return statistics;
+    }
+
+    @Value
+    private static class StatisticKey {
+        Long documentId;
+        Long localeId;
+        ContentState state;
+    }
+
+    private static class Delta {
+        private int messages;
+        private long words;
+    }
+
+    /**
+     * Statistics changes made by one session in the current transaction.
+     */
+    private class PendingStatistics implements
+            BeforeTransactionCompletionProcess,
+            AfterTransactionCompletionProcess {
+        private final EventSource session;
+        private final Map<StatisticKey, Delta> deltas = Maps.newHashMap();
+        private final Set<Long> recalculate = Sets.newHashSet();
+
+        private PendingStatistics(EventSource session) {
+            this.session = session;
+        }
+
+        void add(HTextFlowTarget target, ContentState state, int messages) {
+            HTextFlow textFlow = target.getTextFlow();
+            if (textFlow.isObsolete()) {
+                return;
+            }
+            StatisticKey key =
+                    new StatisticKey(textFlow.getDocument().getId(), target
+                            .getLocale().getId(), state);
+            Delta delta = deltas.get(key);
+            if (delta == null) {
+                delta = new Delta();
+                deltas.put(key, delta);
+            }
+            Long wordCount = textFlow.getWordCount();
+            delta.messages += messages;
+            delta.words += messages * (wordCount == null ? 0 : wordCount);
+        }
+
+        void recalculate(HTextFlow textFlow) {
+            recalculate.add(textFlow.getDocument().getId());
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor ignored) {
+            pending.remove(session);
+            Set<Long> documentIds = Sets.newHashSet(recalculate);
+            for (StatisticKey key : deltas.keySet()) {
+                documentIds.add(key.getDocumentId());
+            }
+            if (documentIds.isEmpty()) {
+                return;
+            }
+            DocumentStatisticDAO dao =
+                    new DocumentStatisticDAO((Session) session);
+            dao.lockDocuments(documentIds);
+            for (Long documentId : recalculate) {
+                dao.recalculate(documentId);
+            }
+            for (Map.Entry<StatisticKey, Delta> entry : deltas.entrySet()) {
+                StatisticKey key = entry.getKey();
+                Delta delta = entry.getValue();
+                if (recalculate.contains(key.getDocumentId())
+                        || (delta.messages == 0 && delta.words == 0)) {
+                    continue;
+                }
+                dao.addToStatistic(key.getDocumentId(), key.getLocaleId(),
+                        key.getState(), delta.messages, delta.words);
+            }
+            log.debug("updated statistics for documents {}", documentIds);
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success,
+                SessionImplementor ignored) {
+            // the transaction may have been rolled back before completion
+            pending.remove(session);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.zanata.async.Async;
+import org.zanata.async.AsyncTaskHandle;
+import org.zanata.async.AsyncTaskLane;
+import org.zanata.async.AsyncTaskResult;
+import org.zanata.dao.DocumentStatisticDAO;
+import org.zanata.service.DocumentStatisticService;
+import org.zanata.transaction.TransactionUtil;
+
+import com.google.common.collect.Lists;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Named("documentStatisticServiceImpl")
+@RequestScoped
+@Slf4j
+public class DocumentStatisticServiceImpl implements DocumentStatisticService {
+    // documents recalculated in each transaction
+    private static final int BATCH_SIZE = 50;
+
+    @Inject
+    private DocumentStatisticDAO documentStatisticDAO;
+
+    @Inject
+    private TransactionUtil transactionUtil;
+
+    @Override
+    @Async(AsyncTaskLane.BULK)
+    public Future<Void> rebuildStatistics(AsyncTaskHandle<Void> handle)
+            throws Exception {
+        List<Long> documentIds = documentStatisticDAO.getAllDocumentIds();
+        handle.setMaxProgress(documentIds.size());
+        log.info("rebuilding statistics for {} documents", documentIds.size());
+        for (List<Long> batch : Lists.partition(documentIds, BATCH_SIZE)) {
+            if (handle.isCancelled()) {
+                log.info("statistics rebuild cancelled");
+                return AsyncTaskResult.taskResult();
+            }
+            transactionUtil.run(() -> {
+                documentStatisticDAO.lockDocuments(batch);
+                for (Long documentId : batch) {
+                    documentStatisticDAO.recalculate(documentId);
+                }
+            });
+            handle.increaseProgress(batch.size());
+        }
+        log.info("statistics rebuild finished");
+        return AsyncTaskResult.taskResult();
+    }
+}
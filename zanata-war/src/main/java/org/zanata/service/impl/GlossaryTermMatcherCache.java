@@ -0,0 +1,284 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.zanata.common.LocaleId;
+import org.zanata.dao.GlossaryDAO;
+import org.zanata.events.GlossaryDeletedEvent;
+import org.zanata.util.AhoCorasickMatcher;
+import org.zanata.util.AhoCorasickMatcher.Match;
+import org.zanata.util.Introspectable;
+import org.zanata.util.SysProperties;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Application-wide cache of glossary term matchers, one for each pair of
+ * source and target locale. Each matcher is an Aho-Corasick automaton built
+ * from the source terms of the glossary, so every glossary term in a string
+ * is found in a single pass over the string, without a search index query.
+ * <p>
+ * {@link GlossaryTermListener} reports each glossary entry which is committed.
+ * Only the reported entries are reloaded (the next time the matcher is
+ * used), after which the automaton is rebuilt from memory. A bulk delete of
+ * the whole glossary discards every matcher.
+ */
+@Named("glossaryTermMatcherCache")
+@ApplicationScoped
+@Slf4j
+public class GlossaryTermMatcherCache implements Introspectable {
+    private static final String BASE =
+            GlossaryTermMatcherCache.class.getName();
+    private static final String SIZE_FIELD = BASE + ".size";
+    private static final String TERMS_FIELD = BASE + ".terms";
+    private static final String STATS_FIELD = BASE + ".stats";
+
+    private static final int MAX_LOCALE_PAIRS = SysProperties.getInt(
+            SysProperties.GLOSSARY_MATCHER_CACHE_SIZE, 50);
+
+    // if more entries than this have changed (eg after a glossary upload),
+    // the locale pair is reloaded from scratch rather than entry by entry
+    private static final int MAX_INCREMENTAL_ENTRIES = 1000;
+    private static final int ENTRY_BATCH_SIZE = 500;
+
+    private final Cache<LocalePair, LocaleGlossary> glossaries;
+
+    @Inject
+    private GlossaryDAO glossaryDAO;
+
+    public GlossaryTermMatcherCache() {
+        this(MAX_LOCALE_PAIRS);
+    }
+
+    @VisibleForTesting
+    GlossaryTermMatcherCache(long maximumSize) {
+        glossaries = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    @VisibleForTesting
+    GlossaryTermMatcherCache(long maximumSize, GlossaryDAO glossaryDAO) {
+        this(maximumSize);
+        this.glossaryDAO = glossaryDAO;
+    }
+
+    /**
+     * Finds every glossary term (with a translation in transLocale) which
+     * occurs in the text.
+     */
+    public List<Match<TermPair>> findTerms(LocaleId srcLocale,
+            LocaleId transLocale, String text) {
+        return getMatcher(srcLocale, transLocale).findAll(text);
+    }
+
+    /**
+     * Finds every glossary term (with a translation in transLocale) which
+     * occurs in each of the texts, eg the source strings of a page of the
+     * editor.
+     *
+     * @return the matches for each text, in the same order as texts
+     */
+    public List<List<Match<TermPair>>> findTerms(LocaleId srcLocale,
+            LocaleId transLocale, List<String> texts) {
+        AhoCorasickMatcher<TermPair> matcher =
+                getMatcher(srcLocale, transLocale);
+        List<List<Match<TermPair>>> matches =
+                Lists.newArrayListWithCapacity(texts.size());
+        for (String text : texts) {
+            matches.add(matcher.findAll(text));
+        }
+        return matches;
+    }
+
+    private AhoCorasickMatcher<TermPair> getMatcher(LocaleId srcLocale,
+            LocaleId transLocale) {
+        LocalePair key = new LocalePair(srcLocale, transLocale);
+        try {
+            return glossaries.get(key, () -> new LocaleGlossary(key))
+                    .getMatcher();
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Marks a glossary entry (or one of its terms) as changed, so that it
+     * will be reloaded the next time a matcher is used.
+     */
+    public void entryChanged(Long entryId) {
+        for (LocaleGlossary glossary : glossaries.asMap().values()) {
+            glossary.staleEntries.add(entryId);
+        }
+    }
+
+    public void glossaryDeleted(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) GlossaryDeletedEvent event) {
+        log.debug("{} glossary terms deleted; discarding term matchers",
+                event.getTermCount());
+        invalidateAll();
+    }
+
+    public void invalidateAll() {
+        glossaries.invalidateAll();
+    }
+
+    @Override
+    public String getIntrospectableId() {
+        return getClass().getCanonicalName();
+    }
+
+    @Override
+    public Collection<String> getIntrospectableFieldNames() {
+        return Lists.newArrayList(SIZE_FIELD, TERMS_FIELD, STATS_FIELD);
+    }
+
+    @Override
+    public String getFieldValueAsString(String fieldName) {
+        if (SIZE_FIELD.equals(fieldName)) {
+            return String.valueOf(glossaries.size());
+        }
+        if (TERMS_FIELD.equals(fieldName)) {
+            Map<String, Integer> terms = Maps.newTreeMap();
+            for (LocaleGlossary glossary : glossaries.asMap().values()) {
+                AhoCorasickMatcher<TermPair> matcher = glossary.matcher;
+                terms.put(glossary.key.toString(),
+                        matcher == null ? 0 : matcher.size());
+            }
+            return terms.toString();
+        }
+        if (STATS_FIELD.equals(fieldName)) {
+            return glossaries.stats().toString();
+        }
+        throw new IllegalArgumentException("unknown field:" + fieldName);
+    }
+
+    /**
+     * The matcher for one pair of locales, and the term pairs it was built
+     * from.
+     */
+    private final class LocaleGlossary {
+        private final LocalePair key;
+        // term pairs by glossary entry id; guarded by this
+        private final Map<Long, List<TermPair>> entries = Maps.newHashMap();
+        private final Set<Long> staleEntries = ConcurrentHashMap.newKeySet();
+        private volatile AhoCorasickMatcher<TermPair> matcher;
+
+        private LocaleGlossary(LocalePair key) {
+            this.key = key;
+        }
+
+        private AhoCorasickMatcher<TermPair> getMatcher() {
+            AhoCorasickMatcher<TermPair> current = matcher;
+            if (current != null && staleEntries.isEmpty()) {
+                return current;
+            }
+            synchronized (this) {
+                if (matcher != null && staleEntries.isEmpty()) {
+                    return matcher;
+                }
+                // Entries which change after this point are reported again
+                // by the listener, and reloaded by a later call.
+                List<Long> stale = Lists.newArrayList(staleEntries);
+                staleEntries.removeAll(stale);
+                try {
+                    if (matcher == null
+                            || stale.size() > MAX_INCREMENTAL_ENTRIES) {
+                        entries.clear();
+                        addTermPairs(glossaryDAO.getTermPairs(
+                                key.getSrcLocale(), key.getTransLocale()));
+                    } else {
+                        entries.keySet().removeAll(stale);
+                        for (List<Long> batch : Lists.partition(stale,
+                                ENTRY_BATCH_SIZE)) {
+                            addTermPairs(glossaryDAO.getTermPairsByEntryIds(
+                                    key.getSrcLocale(),
+                                    key.getTransLocale(), batch));
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    // try these entries again next time
+                    staleEntries.addAll(stale);
+                    throw e;
+                }
+                AhoCorasickMatcher.Builder<TermPair> builder =
+                        AhoCorasickMatcher.builder();
+                for (List<TermPair> pairs : entries.values()) {
+                    for (TermPair pair : pairs) {
+                        builder.add(pair.getSource(), pair);
+                    }
+                }
+                matcher = builder.build();
+                log.debug("built glossary term matcher for {} with {} terms",
+                        key, matcher.size());
+                return matcher;
+            }
+        }
+
+        private void addTermPairs(List<Object[]> rows) {
+            for (Object[] row : rows) {
+                Long entryId = (Long) row[0];
+                TermPair pair = new TermPair(entryId, (Long) row[1],
+                        (String) row[2], (String) row[3]);
+                entries.computeIfAbsent(entryId, id -> Lists.newArrayList())
+                        .add(pair);
+            }
+        }
+    }
+
+    @Value
+    private static class LocalePair {
+        LocaleId srcLocale;
+        LocaleId transLocale;
+    }
+
+    /**
+     * A glossary term and its translation.
+     */
+    @Value
+    public static class TermPair {
+        long entryId;
+        long sourceTermId;
+        String source;
+        String target;
+    }
+}
@@ -20,9 +20,14 @@
  */
 package org.zanata.service.impl;
 
+import java.io.File;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import javax.annotation.Nullable;
+
 import javax.enterprise.context.RequestScoped;
 import javax.persistence.EntityManagerFactory;
 
@@ -34,8 +39,10 @@ import org.hibernate.search.FullTextSession;
 import org.hibernate.search.Search;
 import javax.inject.Inject;
 import javax.inject.Named;
+import org.zanata.ApplicationConfiguration;
 import org.zanata.action.ReindexClassOptions;
 import org.zanata.async.Async;
+import org.zanata.async.AsyncTaskLane;
 import org.zanata.async.AsyncTaskHandle;
 import org.zanata.async.AsyncTaskResult;
 import org.zanata.dao.HTextFlowTargetStreamingDAO;
@@ -44,10 +51,15 @@ import org.zanata.model.HTextFlowTarget;
 import org.zanata.search.AbstractIndexingStrategy;
 import org.zanata.search.ClassIndexer;
 import org.zanata.search.HTextFlowTargetIndexingStrategy;
+import org.zanata.search.PartitionedClassIndexer;
+import org.zanata.search.ReindexCheckpoint;
 import org.zanata.search.SimpleClassIndexingStrategy;
 import org.zanata.service.IndexingService;
+import org.zanata.util.SysProperties;
 import org.zanata.util.Zanata;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * @author Carlos Munoz <a
  *         href="mailto:camunoz@redhat.com">camunoz@redhat.com</a>
@@ -56,6 +68,15 @@ import org.zanata.util.Zanata;
 @RequestScoped
 @Slf4j
 public class IndexingServiceImpl implements IndexingService {
+    private static final String CHECKPOINT_FILE_NAME =
+            "reindex-checkpoints.properties";
+
+    // more than one thread enables partitioned (and resumable) reindexing
+    private static final int REINDEX_THREADS = SysProperties.getInt(
+            SysProperties.REINDEX_THREADS, 1);
+
+    private static final int REINDEX_CHUNK_SIZE = SysProperties.getInt(
+            SysProperties.REINDEX_CHUNK_SIZE, 10000);
 
     @Inject @Zanata
     private EntityManagerFactory entityManagerFactory;
@@ -63,16 +84,32 @@ public class IndexingServiceImpl implements IndexingService {
     @Inject
     private HTextFlowTargetStreamingDAO hTextFlowTargetStreamingDAO;
 
+    @Inject
+    private ApplicationConfiguration applicationConfiguration;
+
     @Override
-    @Async
+    @Async(AsyncTaskLane.BULK)
     public Future<Void> startIndexing(
             Map<Class<?>, ReindexClassOptions> indexingOptions,
             AsyncTaskHandle<Void> handle)
             throws Exception {
+        ExecutorService executor = null;
+        ReindexCheckpoint checkpoint = openCheckpoint();
+        if (REINDEX_THREADS > 1) {
+            executor = Executors.newFixedThreadPool(REINDEX_THREADS,
+                    new ThreadFactoryBuilder().setNameFormat("reindex-%d")
+                            .setDaemon(true).build());
+        }
+        for (Class<?> clazz : indexingOptions.keySet()) {
+            if (executor == null || !indexingOptions.get(clazz).isResume()) {
+                // start again from the beginning
+                checkpoint.clear(clazz);
+            }
+        }
         FullTextSession session = openFullTextSession();
         try {
             handle.setMaxProgress(getTotalOperations(session, indexingOptions,
-                    handle));
+                    handle, executor, checkpoint));
             // TODO this is necessary because isInProgress checks number of
             // operations, which may be 0
             // look at updating isInProgress not to care about count
@@ -83,7 +120,8 @@ public class IndexingServiceImpl implements IndexingService {
             }
             for (Class<?> clazz : indexingOptions.keySet()) {
                 if (!handle.isCancelled()
-                        && indexingOptions.get(clazz).isPurge()) {
+                        && shouldPurge(clazz, indexingOptions.get(clazz),
+                                checkpoint)) {
                     log.info("purging index for {}", clazz);
                     session.purgeAll(clazz);
                     handle.increaseProgress(1);
@@ -92,7 +130,8 @@ public class IndexingServiceImpl implements IndexingService {
                         && indexingOptions.get(clazz).isReindex()) {
                     log.info("reindexing {}", clazz);
                     // currentClass = clazz;
-                    getIndexer(clazz, handle).index(session);
+                    getIndexer(clazz, handle, executor, checkpoint).index(
+                            session);
                 }
                 if (!handle.isCancelled()
                         && indexingOptions.get(clazz).isOptimize()) {
@@ -125,10 +164,40 @@ public class IndexingServiceImpl implements IndexingService {
             }
         } finally {
             session.close();
+            if (executor != null) {
+                executor.shutdownNow();
+            }
         }
         return AsyncTaskResult.taskResult();
     }
 
+    /**
+     * A purge would discard the work of the reindex being resumed.
+     */
+    private static boolean shouldPurge(Class<?> clazz,
+            ReindexClassOptions opts, ReindexCheckpoint checkpoint) {
+        if (!opts.isPurge()) {
+            return false;
+        }
+        if (checkpoint.getNextId(clazz).isPresent()) {
+            log.info("not purging index for {}: resuming from checkpoint",
+                    clazz);
+            return false;
+        }
+        return true;
+    }
+
+    private ReindexCheckpoint openCheckpoint() {
+        String directory =
+                applicationConfiguration.getDocumentFileStorageLocation();
+        if (directory == null) {
+            log.debug("no file storage directory; reindexing can't be "
+                    + "resumed after a restart");
+            return new ReindexCheckpoint(null);
+        }
+        return new ReindexCheckpoint(new File(directory, CHECKPOINT_FILE_NAME));
+    }
+
     private FullTextSession openFullTextSession() {
         return Search.getFullTextSession(entityManagerFactory
                 .createEntityManager().unwrap(Session.class));
@@ -139,18 +208,20 @@ public class IndexingServiceImpl implements IndexingService {
      */
     private int getTotalOperations(FullTextSession session,
             Map<Class<?>, ReindexClassOptions> indexingOptions,
-            AsyncTaskHandle handle) {
+            AsyncTaskHandle handle, @Nullable ExecutorService executor,
+            ReindexCheckpoint checkpoint) {
         // set up progress counter
         int totalOperations = 0;
         for (Class<?> clazz : indexingOptions.keySet()) {
             ReindexClassOptions opts = indexingOptions.get(clazz);
-            if (opts.isPurge()) {
+            if (shouldPurge(clazz, opts, checkpoint)) {
                 totalOperations++;
             }
 
             if (opts.isReindex()) {
                 totalOperations +=
-                        getIndexer(clazz, handle).getEntityCount(session);
+                        getIndexer(clazz, handle, executor, checkpoint)
+                                .getEntityCount(session);
             }
 
             if (opts.isOptimize()) {
@@ -160,8 +231,13 @@ public class IndexingServiceImpl implements IndexingService {
         return totalOperations;
     }
 
+    /**
+     * Returns a partitioned indexer if an executor is given, otherwise a
+     * serial one.
+     */
     private <T> ClassIndexer<T> getIndexer(Class<T> clazz,
-            AsyncTaskHandle handle) {
+            AsyncTaskHandle handle, @Nullable ExecutorService executor,
+            ReindexCheckpoint checkpoint) {
         AbstractIndexingStrategy<T> strategy;
         // TODO add a strategy which uses TransMemoryStreamingDAO
         if (clazz.equals(HTextFlowTarget.class)) {
@@ -170,11 +246,16 @@ public class IndexingServiceImpl implements IndexingService {
         } else {
             strategy = new SimpleClassIndexingStrategy<T>(clazz);
         }
+        if (executor != null) {
+            return new PartitionedClassIndexer<T>(handle, clazz, strategy,
+                    this::openFullTextSession, executor, REINDEX_CHUNK_SIZE,
+                    checkpoint);
+        }
         return new ClassIndexer<T>(handle, clazz, strategy);
     }
 
     @Override
-    @Async
+    @Async(AsyncTaskLane.BULK)
     public Future<Void> reindexHTextFlowTargetsForProject(HProject hProject,
             AsyncTaskHandle<Void> handle)
             throws Exception {
@@ -56,8 +56,6 @@ import org.zanata.security.ZanataIdentity;
 import org.zanata.security.annotations.Authenticated;
 import org.zanata.service.LocaleService;
 import org.zanata.service.MergeTranslationsService;
-import org.zanata.service.TranslationStateCache;
-import org.zanata.service.VersionStateCache;
 import org.zanata.util.TranslationUtil;
 
 import com.google.common.base.Optional;
@@ -88,12 +86,6 @@ public class MergeTranslationsServiceImpl implements MergeTranslationsService {
     @Inject
     private ZanataIdentity identity;
 
-    @Inject
-    private VersionStateCache versionStateCacheImpl;
-
-    @Inject
-    private TranslationStateCache translationStateCacheImpl;
-
     @Inject
     private LocaleService localeServiceImpl;
 
@@ -185,7 +177,6 @@ public class MergeTranslationsServiceImpl implements MergeTranslationsService {
             startCount += TEXTFLOWS_PER_BATCH;
             textFlowDAO.clear();
         }
-        versionStateCacheImpl.clearVersionStatsCache(targetVersion.getId());
         log.info("merge translation end: from {} to {}, {}", sourceProjectSlug
                 + ":" + sourceVersionSlug, targetProjectSlug + ":"
                 + targetVersionSlug, overallStopwatch);
@@ -264,8 +255,6 @@ public class MergeTranslationsServiceImpl implements MergeTranslationsService {
                 }
             }
             if (foundChange) {
-                translationStateCacheImpl.clearDocumentStatistics(targetTf
-                        .getDocument().getId());
                 textFlowDAO.makePersistent(targetTf);
                 textFlowDAO.flush();
 
@@ -280,7 +269,7 @@ public class MergeTranslationsServiceImpl implements MergeTranslationsService {
 
                     eventMap.put(key, new TextFlowTargetStateEvent.TextFlowTargetStateChange(targetTf.getId(),
                             updatedTarget.getId(), updatedTarget.getState(),
-                            entry.getValue()));
+                            entry.getValue(), targetTf.getWordCount()));
 
                     lastUpdatedTargetId.put(key, updatedTarget.getId());
 
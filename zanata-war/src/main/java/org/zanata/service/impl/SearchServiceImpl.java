@@ -53,8 +53,10 @@ public class SearchServiceImpl implements SearchService {
     @Override
     public ReindexStatus startReindex(@QueryParam("purge") boolean purgeAll,
             @QueryParam("index") boolean indexAll,
-            @QueryParam("optimize") boolean optimizeAll) {
+            @QueryParam("optimize") boolean optimizeAll,
+            @QueryParam("resume") boolean resume) {
         searchIndexManager.setOptions(purgeAll, indexAll, optimizeAll);
+        searchIndexManager.setResume(resume);
         boolean startedReindex = false;
 
         if (searchIndexManager.getProcessHandle().isDone()) {
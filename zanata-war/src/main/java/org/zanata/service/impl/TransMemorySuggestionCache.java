@@ -0,0 +1,267 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Named;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang.StringUtils;
+import org.zanata.common.LocaleId;
+import org.zanata.events.DocStatsEvent;
+import org.zanata.events.TextFlowTargetStateEvent;
+import org.zanata.events.TransMemoryUpdatedEvent;
+import org.zanata.rest.editor.dto.suggestion.Suggestion;
+import org.zanata.util.HashUtil;
+import org.zanata.util.Introspectable;
+import org.zanata.util.SysProperties;
+import org.zanata.webtrans.shared.model.TransMemoryQuery;
+import org.zanata.webtrans.shared.rpc.HasSearchType.SearchType;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+
+/**
+ * Application-wide cache of translation memory suggestions, as returned by
+ * {@link TranslationMemoryServiceImpl#searchTransMemoryWithDetails}.
+ * <p>
+ * Suggestions for a target locale are discarded whenever a translation in
+ * that locale changes, and all suggestions are discarded when a translation
+ * memory is imported or deleted. Entries also expire after a few minutes, to
+ * cover changes which are not signalled by an event (eg a version being made
+ * obsolete).
+ * <p>
+ * Each target locale has a generation number, which is incremented when its
+ * translations change. Entries remember the generation they were searched
+ * in, and an entry from an older generation is discarded when it is next
+ * read, so invalidating a locale doesn't have to scan the cache.
+ */
+@Named("transMemorySuggestionCache")
+@ApplicationScoped
+@Slf4j
+public class TransMemorySuggestionCache implements Introspectable {
+    private static final String BASE =
+            TransMemorySuggestionCache.class.getName();
+    private static final String SIZE_FIELD = BASE + ".size";
+    private static final String HIT_RATE_FIELD = BASE + ".hitRate";
+    private static final String STATS_FIELD = BASE + ".stats";
+
+    private static final int MAX_ENTRIES = SysProperties.getInt(
+            SysProperties.TM_SUGGESTION_CACHE_SIZE, 10000);
+
+    private static final long EXPIRY_MINUTES = SysProperties.getLong(
+            SysProperties.TM_SUGGESTION_CACHE_EXPIRY_MINUTES, 10);
+
+    private final Cache<Key, Entry> cache;
+
+    // Incremented by invalidateAll and by invalidations of each target
+    // locale. A search which overlaps an invalidation of its locale may have
+    // seen the old translations, so its results are not cached.
+    private final AtomicLong globalGeneration = new AtomicLong();
+    private final ConcurrentMap<LocaleId, AtomicLong> localeGenerations =
+            new ConcurrentHashMap<>();
+
+    public TransMemorySuggestionCache() {
+        this(MAX_ENTRIES, EXPIRY_MINUTES);
+    }
+
+    @VisibleForTesting
+    TransMemorySuggestionCache(long maximumSize, long expiryMinutes) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expiryMinutes, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the current generation of the target locale, which should be
+     * passed to {@link #put(Key, List, long)} once the search has completed.
+     */
+    public long getGeneration(LocaleId targetLocale) {
+        // Both counters only increase, so the sum changes whenever either
+        // of them does.
+        return globalGeneration.get() + localeGeneration(targetLocale).get();
+    }
+
+    private AtomicLong localeGeneration(LocaleId targetLocale) {
+        return localeGenerations.computeIfAbsent(targetLocale,
+                locale -> new AtomicLong());
+    }
+
+    /**
+     * @return a copy of the cached suggestions for the key, if any
+     */
+    public Optional<List<Suggestion>> get(Key key) {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return Optional.absent();
+        }
+        if (entry.getGeneration() != getGeneration(key.getTargetLocale())) {
+            // the locale has been invalidated since this was cached
+            cache.asMap().remove(key, entry);
+            return Optional.absent();
+        }
+        return Optional.of(copyOf(entry.getSuggestions()));
+    }
+
+    /**
+     * Caches a copy of the suggestions, unless the target locale has been
+     * invalidated since generationAtStart was obtained from
+     * {@link #getGeneration(LocaleId)}.
+     */
+    public void put(Key key, List<Suggestion> suggestions,
+            long generationAtStart) {
+        // An invalidation after this check makes the entry stale, so it is
+        // discarded by the next get.
+        if (getGeneration(key.getTargetLocale()) != generationAtStart) {
+            return;
+        }
+        cache.put(key, new Entry(generationAtStart, copyOf(suggestions)));
+    }
+
+    public void textFlowStateUpdated(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) TextFlowTargetStateEvent event) {
+        invalidateLocale(event.getKey().getLocaleId());
+    }
+
+    /**
+     * Merging translations only signals its changes with DocStatsEvent.
+     */
+    public void docStatsUpdated(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) DocStatsEvent event) {
+        invalidateLocale(event.getKey().getLocaleId());
+    }
+
+    public void transMemoryUpdated(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS) TransMemoryUpdatedEvent event) {
+        log.debug("translation memory {} updated; clearing suggestions",
+                event.getSlug());
+        invalidateAll();
+    }
+
+    /**
+     * Discards the suggestions for a target locale, eg after CopyTrans has
+     * committed translations in that locale.
+     */
+    public void invalidateLocale(LocaleId localeId) {
+        localeGeneration(localeId).incrementAndGet();
+    }
+
+    @VisibleForTesting
+    void invalidateAll() {
+        globalGeneration.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static List<Suggestion> copyOf(List<Suggestion> suggestions) {
+        List<Suggestion> copy = Lists.newArrayListWithCapacity(
+                suggestions.size());
+        for (Suggestion suggestion : suggestions) {
+            Suggestion suggestionCopy =
+                    new Suggestion(suggestion.getRelevanceScore(),
+                            suggestion.getSimilarityPercent(),
+                            suggestion.getSourceContents(),
+                            suggestion.getTargetContents());
+            suggestionCopy.getMatchDetails().addAll(
+                    suggestion.getMatchDetails());
+            copy.add(suggestionCopy);
+        }
+        return copy;
+    }
+
+    @Override
+    public String getIntrospectableId() {
+        return getClass().getCanonicalName();
+    }
+
+    @Override
+    public Collection<String> getIntrospectableFieldNames() {
+        return Lists.newArrayList(SIZE_FIELD, HIT_RATE_FIELD, STATS_FIELD);
+    }
+
+    @Override
+    public String getFieldValueAsString(String fieldName) {
+        if (SIZE_FIELD.equals(fieldName)) {
+            return String.valueOf(cache.size());
+        }
+        if (HIT_RATE_FIELD.equals(fieldName)) {
+            return String.valueOf(cache.stats().hitRate());
+        }
+        if (STATS_FIELD.equals(fieldName)) {
+            return cache.stats().toString();
+        }
+        throw new IllegalArgumentException("unknown field:" + fieldName);
+    }
+
+    @Value
+    private static class Entry {
+        long generation;
+        List<Suggestion> suggestions;
+    }
+
+    /**
+     * Identifies a suggestion search. The source contents are represented by
+     * their hash to keep keys small.
+     * <p>
+     * The text flow target being translated (if any) is part of the key,
+     * because the search boosts the target's own translation and matches from
+     * its project, version, document and resId.
+     */
+    @Value
+    public static class Key {
+        String contentHash;
+        SearchType searchType;
+        LocaleId sourceLocale;
+        LocaleId targetLocale;
+        TransMemoryQuery.Condition project;
+        TransMemoryQuery.Condition document;
+        TransMemoryQuery.Condition res;
+        TransMemoryQuery.Condition includeOwnTranslation;
+        @Nullable Long textFlowTargetId;
+
+        public static Key of(TransMemoryQuery query, LocaleId sourceLocale,
+                LocaleId targetLocale, @Nullable Long textFlowTargetId) {
+            // NUL can't appear in XML content, so it can separate the
+            // plural forms
+            String contentHash = HashUtil.generateHash(
+                    StringUtils.join(query.getQueries(), '\u0000'));
+            return new Key(contentHash, query.getSearchType(), sourceLocale,
+                    targetLocale, query.getProject(), query.getDocument(),
+                    query.getRes(), query.getIncludeOwnTranslation(),
+                    textFlowTargetId);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Named;
+
+import org.zanata.common.LocaleId;
+import org.zanata.events.DocumentLocaleKey;
+import org.zanata.util.Introspectable;
+import org.zanata.util.SysProperties;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+
+/**
+ * Application-wide cache of the last time the translations of a document
+ * changed in each locale, as calculated by
+ * {@link org.zanata.dao.DocumentDAO#getTranslationsLastChanged}. This lets
+ * translated document ETags be checked without scanning every target of the
+ * document.
+ * <p>
+ * Entries are discarded by {@link TranslatedDocumentStateListener} when a
+ * target, target comment or PO target header is committed. Changes to the
+ * document itself need no invalidation, since the document's own last changed
+ * date is combined with the cached date when the ETag is generated.
+ */
+@Named("translatedDocumentStateCache")
+@ApplicationScoped
+public class TranslatedDocumentStateCache implements Introspectable {
+    private static final String BASE =
+            TranslatedDocumentStateCache.class.getName();
+    private static final String SIZE_FIELD = BASE + ".size";
+    private static final String HIT_RATE_FIELD = BASE + ".hitRate";
+    private static final String STATS_FIELD = BASE + ".stats";
+
+    private static final int MAX_ENTRIES = SysProperties.getInt(
+            SysProperties.TRANSLATED_DOC_STATE_CACHE_SIZE, 100000);
+
+    private final Cache<DocumentLocaleKey, Date> cache;
+
+    // Incremented by every invalidation. A load which overlaps an
+    // invalidation may have read the old translations, so its result is
+    // not cached.
+    private final AtomicLong generation = new AtomicLong();
+
+    public TranslatedDocumentStateCache() {
+        this(MAX_ENTRIES);
+    }
+
+    @VisibleForTesting
+    TranslatedDocumentStateCache(long maximumSize) {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached last changed date for the document's translations,
+     * using the loader (and caching its result) if there is none.
+     */
+    public Date getTranslationsLastChanged(DocumentLocaleKey key,
+            Supplier<Date> loader) {
+        Date lastChanged = cache.getIfPresent(key);
+        if (lastChanged != null) {
+            return lastChanged;
+        }
+        long generationAtStart = generation.get();
+        lastChanged = loader.get();
+        if (generation.get() == generationAtStart) {
+            cache.put(key, lastChanged);
+            if (generation.get() != generationAtStart) {
+                // an invalidation ran while we were adding the entry
+                cache.invalidate(key);
+            }
+        }
+        return lastChanged;
+    }
+
+    public void invalidate(Long documentId, LocaleId localeId) {
+        generation.incrementAndGet();
+        cache.invalidate(new DocumentLocaleKey(documentId, localeId));
+    }
+
+    /**
+     * Used when a change can't be traced to a document, eg a comment which
+     * may belong to any translation.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public String getIntrospectableId() {
+        return getClass().getCanonicalName();
+    }
+
+    @Override
+    public Collection<String> getIntrospectableFieldNames() {
+        return Lists.newArrayList(SIZE_FIELD, HIT_RATE_FIELD, STATS_FIELD);
+    }
+
+    @Override
+    public String getFieldValueAsString(String fieldName) {
+        if (SIZE_FIELD.equals(fieldName)) {
+            return String.valueOf(cache.size());
+        }
+        if (HIT_RATE_FIELD.equals(fieldName)) {
+            return String.valueOf(cache.stats().hitRate());
+        }
+        if (STATS_FIELD.equals(fieldName)) {
+            return cache.stats().toString();
+        }
+        throw new IllegalArgumentException("unknown field:" + fieldName);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.zanata.model.HSimpleComment;
+import org.zanata.model.HTextFlowTarget;
+import org.zanata.model.po.HPoTargetHeader;
+import org.zanata.util.LazyBean;
+
+/**
+ * This class is a hibernate event listener which listens on post commit events
+ * for HTextFlowTarget, HPoTargetHeader and HSimpleComment, and discards the
+ * affected entries of {@link TranslatedDocumentStateCache}.
+ * <p>
+ * A comment doesn't know which translation it belongs to, so a comment update
+ * clears the whole cache. New and removed comments also update their target.
+ *
+ * @see org.zanata.webtrans.server.HibernateIntegrator
+ */
+public class TranslatedDocumentStateListener implements
+        PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+    private static final long serialVersionUID = 1L;
+
+    private final LazyBean<TranslatedDocumentStateCache> cache =
+            new LazyBean<>(TranslatedDocumentStateCache.class);
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        entityChanged(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof HSimpleComment) {
+            cache.get().invalidateAll();
+        } else {
+            entityChanged(entity);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        entityChanged(event.getEntity());
+    }
+
+    private void entityChanged(Object entity) {
+        if (entity instanceof HTextFlowTarget) {
+            HTextFlowTarget target = (HTextFlowTarget) entity;
+            cache.get().invalidate(
+                    target.getTextFlow().getDocument().getId(),
+                    target.getLocaleId());
+        } else if (entity instanceof HPoTargetHeader) {
+            HPoTargetHeader header = (HPoTargetHeader) entity;
+            cache.get().invalidate(header.getDocument().getId(),
+                    header.getTargetLanguage().getLocaleId());
+        }
+    }
+}
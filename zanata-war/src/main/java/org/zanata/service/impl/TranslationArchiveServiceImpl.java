@@ -20,7 +20,10 @@
  */
 package org.zanata.service.impl;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.enterprise.context.RequestScoped;
@@ -46,12 +49,24 @@ import org.zanata.rest.service.ResourceUtils;
 import org.zanata.service.ConfigurationService;
 import org.zanata.service.FileSystemService;
 import org.zanata.service.TranslationArchiveService;
+import org.zanata.util.RunnableEx;
+import org.zanata.util.ScopeHelper;
+import org.zanata.util.SysProperties;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -67,6 +82,9 @@ import static org.zanata.common.ProjectType.*;
 @Slf4j
 public class TranslationArchiveServiceImpl implements
         TranslationArchiveService {
+    private static final int ARCHIVE_THREADS = SysProperties.getInt(
+            SysProperties.ARCHIVE_THREADS,
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
 
     @Inject
     private DocumentDAO documentDAO;
@@ -89,6 +107,17 @@ public class TranslationArchiveServiceImpl implements
     @Inject
     private ConfigurationService configurationServiceImpl;
 
+    private final int archiveThreads;
+
+    public TranslationArchiveServiceImpl() {
+        this(ARCHIVE_THREADS);
+    }
+
+    @VisibleForTesting
+    TranslationArchiveServiceImpl(int archiveThreads) {
+        this.archiveThreads = archiveThreads;
+    }
+
     @Override
     public String buildTranslationFileArchive(String projectSlug,
             String iterationSlug, String localeId, String userName,
@@ -138,39 +167,141 @@ public class TranslationArchiveServiceImpl implements
         final List<HDocument> allIterationDocs =
                 documentDAO
                         .getAllByProjectIteration(projectSlug, iterationSlug);
-        for (HDocument document : allIterationDocs) {
-            // Stop the process if signaled to do so
-            if (handleOpt.isPresent() && handleOpt.get().isCancelled()) {
-                zipOutput.close();
-                downloadFile.delete();
-                fileSystemServiceImpl.deleteDownloadDescriptorFile(downloadId);
-                return null;
+        boolean completed;
+        if (archiveThreads > 1) {
+            completed =
+                    writeDocumentsInParallel(allIterationDocs,
+                            hLocale.getLocaleId(), isPoProject, extensions,
+                            localeDirectory, zipOutput, handleOpt);
+        } else {
+            completed = true;
+            for (HDocument document : allIterationDocs) {
+                // Stop the process if signaled to do so
+                if (handleOpt.isPresent() && handleOpt.get().isCancelled()) {
+                    completed = false;
+                    break;
+                }
+                String filename =
+                        localeDirectory + document.getDocId() + ".po";
+                zipOutput.putNextEntry(new ZipEntry(filename));
+                writePo(document, hLocale, extensions, poWriter, zipOutput);
+                zipOutput.closeEntry();
+
+                if (handleOpt.isPresent()) {
+                    handleOpt.get().increaseProgress(1);
+                }
             }
+        }
+        if (!completed) {
+            zipOutput.close();
+            downloadFile.delete();
+            fileSystemServiceImpl.deleteDownloadDescriptorFile(downloadId);
+            return null;
+        }
+
+        zipOutput.flush();
+        zipOutput.close();
+
+        return downloadId;
+    }
+
+    private void writePo(HDocument document, HLocale hLocale,
+            Set<String> extensions, PoWriter2 poWriter, OutputStream output)
+            throws IOException {
+        TranslationsResource translationResource = new TranslationsResource();
+        List<HTextFlowTarget> hTargets =
+                textFlowTargetDAO.findTranslations(document, hLocale);
+        resourceUtils.transferToTranslationsResource(translationResource,
+                document, hLocale, extensions, hTargets,
+                Optional.<String> absent());
 
-            TranslationsResource translationResource =
-                    new TranslationsResource();
-            List<HTextFlowTarget> hTargets =
-                    textFlowTargetDAO.findTranslations(document, hLocale);
-            resourceUtils.transferToTranslationsResource(translationResource,
-                    document, hLocale, extensions, hTargets,
-                    Optional.<String> absent());
+        Resource res = resourceUtils.buildResource(document);
 
-            Resource res = resourceUtils.buildResource(document);
+        poWriter.writePo(output, "UTF-8", res, translationResource);
+    }
 
-            String filename = localeDirectory + document.getDocId() + ".po";
-            zipOutput.putNextEntry(new ZipEntry(filename));
-            poWriter.writePo(zipOutput, "UTF-8", res, translationResource);
-            zipOutput.closeEntry();
+    /**
+     * Renders the PO files of the documents on a pool of worker threads
+     * (each in its own request scope, and thus its own persistence context),
+     * while this thread adds the rendered files to the archive in document
+     * order. Only a few rendered files are held in memory at once.
+     *
+     * @return false if the task was cancelled
+     */
+    private boolean writeDocumentsInParallel(List<HDocument> documents,
+            LocaleId localeId, boolean isPoProject, Set<String> extensions,
+            String localeDirectory, ZipOutputStream zipOutput,
+            Optional<AsyncTaskHandle<String>> handleOpt) throws Exception {
+        ExecutorService executor =
+                Executors.newFixedThreadPool(archiveThreads,
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("archive-%d").setDaemon(true)
+                                .build());
+        Deque<Future<byte[]>> rendering = new ArrayDeque<>();
+        Iterator<HDocument> toRender = documents.iterator();
+        try {
+            for (HDocument document : documents) {
+                while (rendering.size() < archiveThreads * 2
+                        && toRender.hasNext()) {
+                    Long documentId = toRender.next().getId();
+                    rendering.add(executor.submit(() -> renderPo(documentId,
+                            localeId, isPoProject, extensions, handleOpt)));
+                }
+                byte[] po = getRendered(rendering.remove());
+                // Stop the process if signaled to do so
+                if (po == null
+                        || handleOpt.isPresent()
+                        && handleOpt.get().isCancelled()) {
+                    return false;
+                }
+                String filename = localeDirectory + document.getDocId() + ".po";
+                zipOutput.putNextEntry(new ZipEntry(filename));
+                zipOutput.write(po);
+                zipOutput.closeEntry();
 
-            if (handleOpt.isPresent()) {
-                handleOpt.get().increaseProgress(1);
+                if (handleOpt.isPresent()) {
+                    handleOpt.get().increaseProgress(1);
+                }
             }
+            return true;
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
-        zipOutput.flush();
-        zipOutput.close();
+    private static byte[] getRendered(Future<byte[]> future)
+            throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwables.propagateIfInstanceOf(e.getCause(), Exception.class);
+            throw Throwables.propagate(e.getCause());
+        }
+    }
 
-        return downloadId;
+    /**
+     * @return the PO file, or null if the task was cancelled
+     */
+    private byte[] renderPo(Long documentId, LocaleId localeId,
+            boolean isPoProject, Set<String> extensions,
+            Optional<AsyncTaskHandle<String>> handleOpt) throws Exception {
+        if (handleOpt.isPresent() && handleOpt.get().isCancelled()) {
+            return null;
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        // the injected DAOs resolve to this thread's request scope
+        withRequestScope(() -> {
+            HDocument document = documentDAO.getById(documentId);
+            HLocale hLocale = localeDAO.findByLocaleId(localeId);
+            writePo(document, hLocale, extensions,
+                    new PoWriter2(false, !isPoProject), output);
+        });
+        return output.toByteArray();
+    }
+
+    @VisibleForTesting
+    void withRequestScope(RunnableEx runnable) throws Exception {
+        ScopeHelper.withRequestScope(runnable);
     }
 
     @Override
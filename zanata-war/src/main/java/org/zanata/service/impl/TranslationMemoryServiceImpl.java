@@ -128,6 +128,13 @@ public class TranslationMemoryServiceImpl implements TranslationMemoryService {
     @Inject @FullText
     private FullTextEntityManager entityManager;
 
+    @Inject
+    private TransMemorySuggestionCache suggestionCache;
+
+    // first level cache: repeated searches within this request
+    private final Map<TransMemorySuggestionCache.Key, List<Suggestion>> requestSuggestions =
+            new HashMap<>();
+
     private static final Version LUCENE_VERSION = Version.LUCENE_29;
 
     // sort desc by lastChanged of HTextFlowTarget
@@ -223,8 +230,10 @@ public class TranslationMemoryServiceImpl implements TranslationMemoryService {
                 buildTMQuery(textFlow, HasSearchType.SearchType.FUZZY_PLURAL,
                         checkContext, checkDocument, checkProject, true);
 
+        // matches below the threshold are discarded while they are scored
         List<TransMemoryResultItem> tmResults =
-                searchTransMemory(targetLocaleId, sourceLocaleId, query);
+                searchTransMemory(targetLocaleId, sourceLocaleId, query,
+                        Math.max(thresholdPercent, MINIMUM_SIMILARITY));
 
         // findTMAboveThreshold
         Collection<TransMemoryResultItem> aboveThreshold =
@@ -242,6 +251,17 @@ public class TranslationMemoryServiceImpl implements TranslationMemoryService {
     public List<TransMemoryResultItem> searchTransMemory(
             LocaleId targetLocaleId, LocaleId sourceLocaleId,
             TransMemoryQuery transMemoryQuery) {
+        return searchTransMemory(targetLocaleId, sourceLocaleId,
+                transMemoryQuery, MINIMUM_SIMILARITY);
+    }
+
+    /**
+     * @param minPercent
+     *            matches less similar than this are left out
+     */
+    private List<TransMemoryResultItem> searchTransMemory(
+            LocaleId targetLocaleId, LocaleId sourceLocaleId,
+            TransMemoryQuery transMemoryQuery, double minPercent) {
         // NB: If we want to, we could pass the TFT id from the editor
         // via GWT-RPC(TransMemoryQuery), allowing Lucene to rank results
         // by metadata too.
@@ -256,7 +276,7 @@ public class TranslationMemoryServiceImpl implements TranslationMemoryService {
                 new LinkedHashMap<TMKey, TransMemoryResultItem>(matches.size());
         for (Object[] match : matches) {
             processIndexMatch(transMemoryQuery, matchesMap, match,
-                    sourceLocaleId, targetLocaleId);
+                    sourceLocaleId, targetLocaleId, minPercent);
         }
         List<TransMemoryResultItem> results =
                 Lists.newArrayList(matchesMap.values());
@@ -268,8 +288,26 @@ public class TranslationMemoryServiceImpl implements TranslationMemoryService {
     public List<Suggestion> searchTransMemoryWithDetails(
             LocaleId targetLocaleId, LocaleId sourceLocaleId,
             TransMemoryQuery transMemoryQuery, Optional<Long> textFlowTargetId) {
-        return new QueryMatchProcessor(transMemoryQuery, sourceLocaleId, targetLocaleId, textFlowTargetId)
-                .process();
+        TransMemorySuggestionCache.Key key =
+                TransMemorySuggestionCache.Key.of(transMemoryQuery,
+                        sourceLocaleId, targetLocaleId,
+                        textFlowTargetId.orNull());
+        List<Suggestion> suggestions = requestSuggestions.get(key);
+        if (suggestions == null) {
+            Optional<List<Suggestion>> cached = suggestionCache.get(key);
+            if (cached.isPresent()) {
+                suggestions = cached.get();
+            } else {
+                long generation =
+                        suggestionCache.getGeneration(targetLocaleId);
+                suggestions = new QueryMatchProcessor(transMemoryQuery,
+                        sourceLocaleId, targetLocaleId, textFlowTargetId)
+                        .process();
+                suggestionCache.put(key, suggestions, generation);
+            }
+            requestSuggestions.put(key, suggestions);
+        }
+        return new ArrayList<>(suggestions);
     }
 
     private TransMemoryQuery buildTMQuery(HTextFlow textFlow,
@@ -349,7 +387,8 @@ public class TranslationMemoryServiceImpl implements TranslationMemoryService {
 
     private void processIndexMatch(TransMemoryQuery transMemoryQuery,
             Map<TMKey, TransMemoryResultItem> matchesMap, Object[] match,
-            LocaleId sourceLocaleId, LocaleId targetLocaleId) {
+            LocaleId sourceLocaleId, LocaleId targetLocaleId,
+            double minPercent) {
         Object entity = match[1];
         if (entity instanceof HTextFlowTarget) {
             HTextFlowTarget textFlowTarget = (HTextFlowTarget) entity;
@@ -364,10 +403,10 @@ public class TranslationMemoryServiceImpl implements TranslationMemoryService {
 
             double percent =
                 calculateSimilarityPercentage(transMemoryQuery,
-                    textFlowContents);
-            if (percent < MINIMUM_SIMILARITY) {
+                    textFlowContents, minPercent);
+            if (percent < minPercent) {
                 log.debug("Ignoring TM - {} with less than {}% matching.",
-                    textFlowContents, MINIMUM_SIMILARITY);
+                    textFlowContents, minPercent);
                 return;
             }
             TransMemoryResultItem item = createOrGetResultItem(
@@ -383,10 +422,11 @@ public class TranslationMemoryServiceImpl implements TranslationMemoryService {
                     Lists.newArrayList(transUnit.getTransUnitVariants()
                             .get(targetLocaleId.getId()).getPlainTextSegment());
             double percent =
-                calculateSimilarityPercentage(transMemoryQuery, sourceContents);
-            if (percent < MINIMUM_SIMILARITY) {
+                calculateSimilarityPercentage(transMemoryQuery, sourceContents,
+                        minPercent);
+            if (percent < minPercent) {
                 log.debug("Ignoring TM - {} with less than {}% matching.",
-                        sourceContents, MINIMUM_SIMILARITY);
+                        sourceContents, minPercent);
                 return;
             }
             TransMemoryResultItem item =
@@ -397,27 +437,33 @@ public class TranslationMemoryServiceImpl implements TranslationMemoryService {
         }
     }
 
+    /**
+     * @param minPercent
+     *            the caller's threshold: the Levenshtein calculation gives up
+     *            early on matches below it, which are then scored as 0
+     */
     private static double calculateSimilarityPercentage(TransMemoryQuery query,
-            List<String> sourceContents) {
+            List<String> sourceContents, double minPercent) {
         double percent;
+        double minSimilarity = minPercent / 100;
         if (query.getSearchType() == HasSearchType.SearchType.CONTENT_HASH) {
             return 100;
         } else if (query.getSearchType() == HasSearchType.SearchType.FUZZY_PLURAL) {
             percent =
                     100 * LevenshteinTokenUtil.getSimilarity(
-                            query.getQueries(), sourceContents);
+                            query.getQueries(), sourceContents, minSimilarity);
             if (percent > 99.99) {
                 // make sure we only get 100% similarity if every character
                 // matches
                 percent =
                         100 * LevenshteinUtil.getSimilarity(query.getQueries(),
-                                sourceContents);
+                                sourceContents, minSimilarity);
             }
         } else {
             final String searchText = query.getQueries().get(0);
             percent =
                     100 * LevenshteinTokenUtil.getSimilarity(searchText,
-                            sourceContents);
+                            sourceContents, minSimilarity);
             if (percent > 99.99) {
                 // make sure we only get 100% similarity if every character
                 // matches
@@ -1090,7 +1136,9 @@ public class TranslationMemoryServiceImpl implements TranslationMemoryService {
          * @return the created suggestion object
          */
         private Suggestion createSuggestion(QueryMatch match) {
-            double similarity = calculateSimilarityPercentage(query, match.getSourceContents());
+            // suggestions are not filtered, so every score must be exact
+            double similarity = calculateSimilarityPercentage(query,
+                    match.getSourceContents(), 0);
             return new Suggestion(match.getScore(), similarity, match.getSourceContents(), match.getTargetContents());
         }
 
@@ -36,6 +36,7 @@ import javax.enterprise.context.RequestScoped;
 import javax.persistence.EntityManager;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.lang.StringUtils;
@@ -44,6 +45,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import org.apache.deltaspike.jpa.api.transaction.Transactional;
 import org.zanata.async.Async;
+import org.zanata.async.AsyncTaskLane;
 import org.zanata.async.AsyncTaskHandle;
 import org.zanata.async.AsyncTaskResult;
 import org.zanata.common.ContentState;
@@ -61,6 +63,7 @@ import org.zanata.events.TextFlowTargetStateEvent;
 import org.zanata.exception.ZanataServiceException;
 import org.zanata.i18n.Messages;
 import org.zanata.lock.Lock;
+import org.zanata.lock.LockNotAcquiredException;
 import org.zanata.model.HAccount;
 import org.zanata.model.HDocument;
 import org.zanata.model.HLocale;
@@ -89,12 +92,12 @@ import org.zanata.webtrans.shared.model.TransUnitUpdateInfo;
 import org.zanata.webtrans.shared.model.TransUnitUpdateRequest;
 import org.zanata.webtrans.shared.model.ValidationAction;
 
-import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import static org.zanata.events.TextFlowTargetStateEvent.TextFlowTargetStateChange;
 
@@ -543,7 +546,7 @@ public class TranslationServiceImpl implements TranslationService {
     @Override
     // This will not run in a transaction. Instead, transactions are controlled
     // within the method itself.
-    @Async
+    @Async(AsyncTaskLane.NORMAL)
     public
     Future<List<String>> translateAllInDocAsync(String projectSlug,
             String iterationSlug, String docId, LocaleId locale,
@@ -629,18 +632,8 @@ public class TranslationServiceImpl implements TranslationService {
             final boolean assignCreditToUploader, AsyncTaskHandle handle,
             final TranslationSourceType translationSourceType) {
         final HProjectIteration hProjectIteration =
-                projectIterationDAO.getBySlug(projectSlug, iterationSlug);
-
-        if (hProjectIteration == null) {
-            throw new ZanataServiceException("Version '" + iterationSlug
-                    + "' for project '" + projectSlug + "' ");
-        }
-
-        if (mergeType == MergeType.IMPORT) {
-            identity.checkPermission("import-translation", hProjectIteration);
-        }
-
-        ResourceUtils.validateExtensions(extensions);
+                getIterationForPush(projectSlug, iterationSlug, mergeType,
+                        extensions);
 
         log.debug("pass evaluate");
         final HDocument document =
@@ -651,8 +644,6 @@ public class TranslationServiceImpl implements TranslationService {
 
         log.debug("start put translations entity:{}", translations);
 
-        boolean changed = false;
-
         final HLocale hLocale =
                 localeServiceImpl.validateLocaleByProjectIteration(locale,
                         projectSlug, iterationSlug);
@@ -664,15 +655,168 @@ public class TranslationServiceImpl implements TranslationService {
                     translations.getTextFlowTargets().size());
         }
 
+        return translateLocalesInDoc(hProjectIteration, document,
+                ImmutableMap.of(hLocale, translations), extensions, mergeType,
+                assignCreditToUploader, handleOp, translationSourceType)
+                .get(hLocale);
+    }
+
+    @Override
+    // This will not run in a transaction. Instead, transactions are controlled
+    // within the method itself.
+    @Async(AsyncTaskLane.BULK)
+    public Future<List<String>> translateAllInDocsAsync(String projectSlug,
+            String iterationSlug,
+            Map<String, Map<LocaleId, TranslationsResource>> translations,
+            Set<String> extensions, MergeType mergeType,
+            boolean assignCreditToUploader, AsyncTaskHandle handle,
+            TranslationSourceType translationSourceType) {
+        return AsyncTaskResult.taskResult(translateAllInDocs(projectSlug,
+                iterationSlug, translations, extensions, mergeType,
+                assignCreditToUploader, handle, translationSourceType));
+    }
+
+    @Override
+    // can't use @Transactional because we call runInTransaction
+    public List<String> translateAllInDocs(final String projectSlug,
+            final String iterationSlug,
+            final Map<String, Map<LocaleId, TranslationsResource>> translations,
+            final Set<String> extensions, final MergeType mergeType,
+            final boolean assignCreditToUploader, AsyncTaskHandle handle,
+            final TranslationSourceType translationSourceType) {
+        final HProjectIteration hProjectIteration =
+                getIterationForPush(projectSlug, iterationSlug, mergeType,
+                        extensions);
+        final Optional<AsyncTaskHandle> handleOp =
+                Optional.fromNullable(handle);
+
+        // resolve each locale once for all documents
+        Map<LocaleId, HLocale> locales = Maps.newHashMap();
+        int totalTargets = 0;
+        for (Map<LocaleId, TranslationsResource> docTranslations : translations
+                .values()) {
+            for (Map.Entry<LocaleId, TranslationsResource> entry : docTranslations
+                    .entrySet()) {
+                if (!locales.containsKey(entry.getKey())) {
+                    locales.put(entry.getKey(), localeServiceImpl
+                            .validateLocaleByProjectIteration(entry.getKey(),
+                                    projectSlug, iterationSlug));
+                }
+                totalTargets += entry.getValue().getTextFlowTargets().size();
+            }
+        }
+        if (handleOp.isPresent()) {
+            handleOp.get().setMaxProgress(totalTargets);
+        }
+
+        List<String> warnings = Lists.newArrayList();
+        for (Map.Entry<String, Map<LocaleId, TranslationsResource>> docEntry : translations
+                .entrySet()) {
+            String docId = docEntry.getKey();
+            HDocument document =
+                    documentDAO.getByDocIdAndIteration(hProjectIteration,
+                            docId);
+            if (document == null || document.isObsolete()) {
+                warnings.add("Could not find document " + docId
+                        + "; skipping its translations");
+                continue;
+            }
+            Map<HLocale, TranslationsResource> translationsByLocale =
+                    Maps.newLinkedHashMap();
+            for (Map.Entry<LocaleId, TranslationsResource> entry : docEntry
+                    .getValue().entrySet()) {
+                translationsByLocale.put(locales.get(entry.getKey()),
+                        entry.getValue());
+            }
+
+            List<Lock> locks = Lists.newArrayList();
+            try {
+                try {
+                    for (HLocale hLocale : translationsByLocale.keySet()) {
+                        Lock lock = new Lock(projectSlug, iterationSlug,
+                                docId, hLocale.getLocaleId(), "push");
+                        lockManagerServiceImpl.attain(lock);
+                        locks.add(lock);
+                    }
+                } catch (LockNotAcquiredException e) {
+                    log.warn("skipping translations of document {}: {}",
+                            docId, e.getMessage());
+                    warnings.add("Document " + docId + " is locked ("
+                            + e.getMessage() + "); skipping its translations");
+                    continue;
+                }
+                Map<HLocale, List<String>> docWarnings =
+                        translateLocalesInDoc(hProjectIteration, document,
+                                translationsByLocale, extensions, mergeType,
+                                assignCreditToUploader, handleOp,
+                                translationSourceType);
+                for (Map.Entry<HLocale, List<String>> entry : docWarnings
+                        .entrySet()) {
+                    for (String warning : entry.getValue()) {
+                        warnings.add(docId + " [" + entry.getKey().getLocaleId()
+                                + "]: " + warning);
+                    }
+                }
+            } finally {
+                for (Lock lock : locks) {
+                    lockManagerServiceImpl.release(lock);
+                }
+            }
+        }
+        return warnings;
+    }
+
+    private HProjectIteration getIterationForPush(String projectSlug,
+            String iterationSlug, MergeType mergeType, Set<String> extensions) {
+        final HProjectIteration hProjectIteration =
+                projectIterationDAO.getBySlug(projectSlug, iterationSlug);
+
+        if (hProjectIteration == null) {
+            throw new ZanataServiceException("Version '" + iterationSlug
+                    + "' for project '" + projectSlug + "' ");
+        }
+
+        if (mergeType == MergeType.IMPORT) {
+            identity.checkPermission("import-translation", hProjectIteration);
+        }
+
+        ResourceUtils.validateExtensions(extensions);
+        return hProjectIteration;
+    }
+
+    /**
+     * Saves the translations of one document for several locales. Each
+     * transaction saves the next batch of targets for every locale, so the
+     * document's text flows (and their targets) are loaded once per batch
+     * instead of once per batch per locale.
+     *
+     * @return warnings for each locale
+     */
+    private Map<HLocale, List<String>> translateLocalesInDoc(
+            final HProjectIteration hProjectIteration,
+            final HDocument document,
+            final Map<HLocale, TranslationsResource> translationsByLocale,
+            final Set<String> extensions, final MergeType mergeType,
+            final boolean assignCreditToUploader,
+            final Optional<AsyncTaskHandle> handleOp,
+            final TranslationSourceType translationSourceType) {
+        final Set<HLocale> changedLocales = Sets.newHashSet();
+
         try {
-            changed |= runInTransaction(() ->
-                            // handle extensions
-                            resourceUtils
-                                    .transferFromTranslationsResourceExtensions(
-                                            translations.getExtensions(true),
-                                            document, extensions, hLocale,
-                                            mergeType)
-            );
+            runInTransaction(() -> {
+                for (Map.Entry<HLocale, TranslationsResource> entry : translationsByLocale
+                        .entrySet()) {
+                    // handle extensions
+                    if (resourceUtils
+                            .transferFromTranslationsResourceExtensions(
+                                    entry.getValue().getExtensions(true),
+                                    document, extensions, entry.getKey(),
+                                    mergeType)) {
+                        changedLocales.add(entry.getKey());
+                    }
+                }
+                return null;
+            });
         } catch (Exception e) {
             log.error("exception in transferFromTranslationsResourceExtensions: {}", e.getMessage());
             throw new ZanataServiceException("Error during translation.", 500,
@@ -680,50 +824,74 @@ public class TranslationServiceImpl implements TranslationService {
         }
 
         // NB: removedTargets only applies for MergeType.IMPORT
-        final Collection<Long> removedTextFlowTargetIds =
-                new HashSet<>();
-        final List<String> warnings = new ArrayList<String>();
-
-        if (mergeType == MergeType.IMPORT) {
-            for (HTextFlow textFlow : document.getTextFlows()) {
-                HTextFlowTarget hTarget =
-                        textFlow.getTargets().get(hLocale.getId());
-                if (hTarget != null) {
-                    removedTextFlowTargetIds.add(hTarget.getId());
-                }
+        final Map<HLocale, Collection<Long>> removedTextFlowTargetIds =
+                Maps.newHashMap();
+        final Map<HLocale, List<String>> warnings = Maps.newLinkedHashMap();
+        // Break the targets into batches
+        final Map<HLocale, List<List<TextFlowTarget>>> batchesByLocale =
+                Maps.newHashMap();
+        int numBatches = 0;
+
+        for (Map.Entry<HLocale, TranslationsResource> entry : translationsByLocale
+                .entrySet()) {
+            HLocale hLocale = entry.getKey();
+            Collection<Long> removedIds = new HashSet<>();
+            if (mergeType == MergeType.IMPORT) {
+                removedIds.addAll(textFlowTargetDAO.findTranslationIds(
+                        document, hLocale));
             }
+            removedTextFlowTargetIds.put(hLocale, removedIds);
+            warnings.put(hLocale, new ArrayList<String>());
+            List<List<TextFlowTarget>> batches = Lists.partition(
+                    entry.getValue().getTextFlowTargets(), BATCH_SIZE);
+            batchesByLocale.put(hLocale, batches);
+            numBatches = Math.max(numBatches, batches.size());
         }
 
-        // Break the target into batches
-        List<List<TextFlowTarget>> batches =
-                Lists.partition(translations.getTextFlowTargets(), BATCH_SIZE);
-
-        for (final List<TextFlowTarget> batch : batches) {
+        for (int i = 0; i < numBatches; i++) {
+            final Map<HLocale, List<TextFlowTarget>> batchByLocale =
+                    Maps.newLinkedHashMap();
+            for (HLocale hLocale : translationsByLocale.keySet()) {
+                List<List<TextFlowTarget>> batches =
+                        batchesByLocale.get(hLocale);
+                if (i < batches.size()) {
+                    batchByLocale.put(hLocale, batches.get(i));
+                }
+            }
             try {
-                changed |=
-                        runInTransaction(() -> saveBatch(
-                                extensions, warnings, hLocale, document,
+                changedLocales.addAll(
+                        runInTransaction(() -> saveBatches(
+                                extensions, warnings, document,
                                 mergeType, removedTextFlowTargetIds, handleOp,
                                 hProjectIteration.getId(),
-                                batch, assignCreditToUploader,
-                                translationSourceType));
+                                batchByLocale, assignCreditToUploader,
+                                translationSourceType)));
             } catch (Exception e) {
                 log.error("exception saving translation batch: {}",
                         e.getMessage());
                 throw new ZanataServiceException("Error during translation.",
                         500, e);
             }
-
         }
 
-        if (changed || !removedTextFlowTargetIds.isEmpty()) {
+        final Set<HLocale> updatedLocales = Sets.newLinkedHashSet();
+        for (HLocale hLocale : translationsByLocale.keySet()) {
+            if (changedLocales.contains(hLocale)
+                    || !removedTextFlowTargetIds.get(hLocale).isEmpty()) {
+                updatedLocales.add(hLocale);
+            }
+        }
+        if (!updatedLocales.isEmpty()) {
             try {
                 runInTransaction(() -> {
-                    for (Long targetId : removedTextFlowTargetIds) {
-                        // need to refresh from persistence
-                        HTextFlowTarget target =
-                                textFlowTargetDAO.findById(targetId, true);
-                        target.clear();
+                    for (HLocale hLocale : updatedLocales) {
+                        for (Long targetId : removedTextFlowTargetIds
+                                .get(hLocale)) {
+                            // need to refresh from persistence
+                            HTextFlowTarget target =
+                                    textFlowTargetDAO.findById(targetId, true);
+                            target.clear();
+                        }
                     }
                     textFlowTargetDAO.flush();
 
@@ -732,10 +900,12 @@ public class TranslationServiceImpl implements TranslationService {
                 });
 
                 Long actorId = authenticatedAccount.getPerson().getId();
-                documentUploadedEvent.fire(new DocumentUploadedEvent(
-                        actorId,
-                        document.getId(), false,
-                        hLocale.getLocaleId()));
+                for (HLocale hLocale : updatedLocales) {
+                    documentUploadedEvent.fire(new DocumentUploadedEvent(
+                            actorId,
+                            document.getId(), false,
+                            hLocale.getLocaleId()));
+                }
             } catch (Exception e) {
                 log.error("exception in removeTargets: {}", e.getMessage());
                 throw new ZanataServiceException("Error during translation.",
@@ -758,16 +928,20 @@ public class TranslationServiceImpl implements TranslationService {
         return nPlurals;
     }
 
-    private Boolean saveBatch(
+    /**
+     * Saves a batch of targets for each locale in the current transaction.
+     *
+     * @return the locales whose targets changed
+     */
+    private Set<HLocale> saveBatches(
             final Set<String> extensions,
-            final List<String> warnings,
-            final HLocale locale,
+            final Map<HLocale, List<String>> warnings,
             HDocument document,
             final MergeType mergeType,
-            final Collection<Long> removedTextFlowTargetIds,
+            final Map<HLocale, Collection<Long>> removedTextFlowTargetIds,
             final Optional<AsyncTaskHandle> handleOp,
             final Long projectIterationId,
-            final List<TextFlowTarget> batch,
+            final Map<HLocale, List<TextFlowTarget>> batchByLocale,
             final boolean assignCreditToUploader,
             final TranslationSourceType translationSourceType) {
 
@@ -775,20 +949,53 @@ public class TranslationServiceImpl implements TranslationService {
         // history rely on after commit callback.
         textFlowTargetDAO.clear();
         document = entityManager.find(HDocument.class, document.getId());
-        boolean changed = false;
 
         // we need a fresh object in this session,
         // so that it can lazily load associated objects
         HProjectIteration iteration =
                 projectIterationDAO.findById(projectIterationId);
+        // load the text flows (with all their targets) once for all locales
+        Set<String> resIds = Sets.newLinkedHashSet();
+        for (List<TextFlowTarget> batch : batchByLocale.values()) {
+            for (TextFlowTarget target : batch) {
+                resIds.add(target.getResId());
+            }
+        }
         Map<String, HTextFlow> resIdToTextFlowMap =
-                textFlowDAO.getByDocumentAndResIds(document, Lists.transform(
-                        batch, new Function<TextFlowTarget, String>() {
-                    @Override
-                    public String apply(TextFlowTarget input) {
-                        return input.getResId();
-                    }
-                }));
+                textFlowDAO.getByDocumentAndResIds(document,
+                        Lists.newArrayList(resIds));
+
+        Set<HLocale> changedLocales = Sets.newHashSet();
+        for (Map.Entry<HLocale, List<TextFlowTarget>> entry : batchByLocale
+                .entrySet()) {
+            HLocale locale = entry.getKey();
+            if (saveBatch(extensions, warnings.get(locale), locale, document,
+                    iteration, resIdToTextFlowMap, mergeType,
+                    removedTextFlowTargetIds.get(locale), handleOp,
+                    projectIterationId, entry.getValue(),
+                    assignCreditToUploader, translationSourceType)) {
+                changedLocales.add(locale);
+            }
+        }
+        textFlowTargetDAO.flush();
+        return changedLocales;
+    }
+
+    private boolean saveBatch(
+            final Set<String> extensions,
+            final List<String> warnings,
+            final HLocale locale,
+            HDocument document,
+            HProjectIteration iteration,
+            Map<String, HTextFlow> resIdToTextFlowMap,
+            final MergeType mergeType,
+            final Collection<Long> removedTextFlowTargetIds,
+            final Optional<AsyncTaskHandle> handleOp,
+            final Long projectIterationId,
+            final List<TextFlowTarget> batch,
+            final boolean assignCreditToUploader,
+            final TranslationSourceType translationSourceType) {
+        boolean changed = false;
         final int numPlurals = resourceUtils.getNumPlurals(document, locale);
 
         List<TextFlowTargetStateChange> targetStates = Lists.newArrayList();
@@ -911,7 +1118,6 @@ public class TranslationServiceImpl implements TranslationService {
 
             docStatsEvent.fire(docEvent);
         }
-        textFlowTargetDAO.flush();
         return changed;
     }
 
@@ -920,7 +1126,8 @@ public class TranslationServiceImpl implements TranslationService {
             Map<ContentState, Long> contentStateDeltas) {
         TextFlowTargetStateChange state =
                 new TextFlowTargetStateChange(textFlow.getId(),
-                        hTarget.getId(), hTarget.getState(), oldState);
+                        hTarget.getId(), hTarget.getState(), oldState,
+                        textFlow.getWordCount());
 
         targetStates.add(state);
         DocStatsEvent.updateContentStateDeltas(contentStateDeltas,
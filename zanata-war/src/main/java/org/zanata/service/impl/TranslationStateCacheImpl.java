@@ -20,10 +20,13 @@
  */
 package org.zanata.service.impl;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
 
@@ -34,8 +37,11 @@ import javax.enterprise.event.TransactionPhase;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import lombok.Value;
+
 import org.zanata.cache.CacheWrapper;
 import org.zanata.cache.InfinispanCacheWrapper;
+import org.zanata.common.ContentState;
 import org.zanata.common.LocaleId;
 import org.zanata.dao.DocumentDAO;
 import org.zanata.dao.LocaleDAO;
@@ -50,7 +56,9 @@ import org.zanata.model.HTextFlowTarget;
 import org.zanata.service.TranslationStateCache;
 import org.zanata.service.ValidationFactoryProvider;
 import org.zanata.ui.model.statistic.WordStatistic;
+import org.zanata.util.Introspectable;
 import org.zanata.util.ServiceLocator;
+import org.zanata.util.StatisticsUtil;
 import org.zanata.util.Zanata;
 import org.zanata.webtrans.shared.model.DocumentId;
 import org.zanata.webtrans.shared.model.DocumentStatus;
@@ -58,6 +66,9 @@ import org.zanata.webtrans.shared.model.ValidationAction;
 import org.zanata.webtrans.shared.model.ValidationId;
 
 import com.google.common.cache.CacheLoader;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 /**
  * Default Implementation of the Translation State Cache.
@@ -69,7 +80,8 @@ import com.google.common.cache.CacheLoader;
 // TODO split into APPLICATION and STATELESS beans
 @javax.enterprise.context.ApplicationScoped
 
-public class TranslationStateCacheImpl implements TranslationStateCache {
+public class TranslationStateCacheImpl implements TranslationStateCache,
+        Introspectable {
     private static final String BASE = TranslationStateCacheImpl.class.getName();
 
     private static final String DOC_STATISTIC_CACHE_NAME = BASE
@@ -152,6 +164,18 @@ public class TranslationStateCacheImpl implements TranslationStateCache {
                 documentId, localeId));
     }
 
+    @Override
+    public Map<DocumentLocaleKey, WordStatistic> getDocumentStatistics(
+            Collection<Long> documentIds, Collection<LocaleId> localeIds) {
+        List<DocumentLocaleKey> keys = Lists.newArrayList();
+        for (Long documentId : documentIds) {
+            for (LocaleId localeId : localeIds) {
+                keys.add(new DocumentLocaleKey(documentId, localeId));
+            }
+        }
+        return documentStatisticCache.getAll(keys);
+    }
+
     @Override
     public void clearDocumentStatistics(Long documentId) {
         for (HLocale locale : localeDAO.findAll()) {
@@ -187,6 +211,64 @@ public class TranslationStateCacheImpl implements TranslationStateCache {
         }
     }
 
+    @Override
+    public Set<Long> findTargetsWithWarningOrError(
+            Collection<HTextFlowTarget> targets,
+            Collection<ValidationId> validationIds) {
+        Map<Long, HTextFlowTarget> targetsById = Maps.newHashMap();
+        for (HTextFlowTarget target : targets) {
+            targetsById.put(target.getId(), target);
+        }
+        Map<Long, Map<ValidationId, Boolean>> cacheEntries =
+                targetValidationCache.getAll(targetsById.keySet());
+
+        // read the contents here, since entities must not be touched by
+        // other threads
+        List<PendingValidation> pending = Lists.newArrayList();
+        for (HTextFlowTarget target : targetsById.values()) {
+            Map<ValidationId, Boolean> cacheEntry =
+                    cacheEntries.get(target.getId());
+            List<ValidationId> missing = Lists.newArrayList();
+            synchronized (cacheEntry) {
+                for (ValidationId validationId : validationIds) {
+                    if (!cacheEntry.containsKey(validationId)) {
+                        missing.add(validationId);
+                    }
+                }
+            }
+            if (!missing.isEmpty()) {
+                pending.add(new PendingValidation(target.getId(),
+                        firstContent(target.getTextFlow().getContents()),
+                        firstContent(target.getContents()), missing));
+            }
+        }
+        // validation is CPU-bound, so spread it across cores
+        Map<Long, Map<ValidationId, Boolean>> results =
+                pending.parallelStream().collect(Collectors.toMap(
+                        PendingValidation::getTargetId,
+                        PendingValidation::validate));
+
+        Set<Long> targetIdsWithWarningOrError = Sets.newHashSet();
+        for (Map.Entry<Long, Map<ValidationId, Boolean>> entry : cacheEntries
+                .entrySet()) {
+            Map<ValidationId, Boolean> cacheEntry = entry.getValue();
+            synchronized (cacheEntry) {
+                Map<ValidationId, Boolean> result =
+                        results.get(entry.getKey());
+                if (result != null) {
+                    cacheEntry.putAll(result);
+                }
+                for (ValidationId validationId : validationIds) {
+                    if (Boolean.TRUE.equals(cacheEntry.get(validationId))) {
+                        targetIdsWithWarningOrError.add(entry.getKey());
+                        break;
+                    }
+                }
+            }
+        }
+        return targetIdsWithWarningOrError;
+    }
+
     /**
      * This method contains all logic to be run immediately after a Text Flow
      * Target has been successfully translated.
@@ -202,12 +284,21 @@ public class TranslationStateCacheImpl implements TranslationStateCache {
         }
     }
 
+    @Override
     public void docStatsUpdated(
         @Observes(during = TransactionPhase.AFTER_SUCCESS)
             DocStatsEvent event) {
-        // invalidate document statistic cache
-        clearDocumentStatistics(event.getKey().getDocumentId(),
-            event.getKey().getLocaleId());
+        // apply word deltas to the cached document statistic (if any) rather
+        // than invalidating it
+        WordStatistic stats = documentStatisticCache.get(event.getKey());
+        if (stats != null) {
+            for (Map.Entry<ContentState, Long> entry : event
+                    .getWordDeltasByState().entrySet()) {
+                stats.increment(entry.getKey(),
+                        Math.toIntExact(entry.getValue()));
+            }
+            documentStatisticCache.put(event.getKey(), stats);
+        }
 
         // update document status information
         updateDocStatusCache(event.getKey(),
@@ -230,17 +321,58 @@ public class TranslationStateCacheImpl implements TranslationStateCache {
         HTextFlowTarget tft =
                 textFlowTargetDAO.findById(textFlowTargetId, false);
         if (tft != null) {
-            ValidationAction action =
-                    ValidationFactoryProvider.getFactoryInstance()
-                            .getValidationAction(validationId);
-            List<String> errorList =
-                    action.validate(tft.getTextFlow().getContents().get(0), tft
-                            .getContents().get(0));
-            return !errorList.isEmpty();
+            return hasWarningOrError(validationId,
+                    tft.getTextFlow().getContents().get(0),
+                    tft.getContents().get(0));
         }
         return null;
     }
 
+    private static boolean hasWarningOrError(ValidationId validationId,
+            String source, String translation) {
+        ValidationAction action =
+                ValidationFactoryProvider.getFactoryInstance()
+                        .getValidationAction(validationId);
+        List<String> errorList = action.validate(source, translation);
+        return !errorList.isEmpty();
+    }
+
+    private static String firstContent(List<String> contents) {
+        return contents.isEmpty() ? null : contents.get(0);
+    }
+
+    @Override
+    public int reconcileStatistics() {
+        return documentStatisticCache.reconcile(
+                StatisticsUtil::copyWordStatistic);
+    }
+
+    // below are all monitoring stuff
+    @Override
+    public String getIntrospectableId() {
+        return getClass().getCanonicalName();
+    }
+
+    @Override
+    public Collection<String> getIntrospectableFieldNames() {
+        return Lists.newArrayList(DOC_STATISTIC_CACHE_NAME,
+                DOC_STATUS_CACHE_NAME, TFT_VALIDATION_CACHE_NAME);
+    }
+
+    @Override
+    public String getFieldValueAsString(String fieldName) {
+        if (DOC_STATISTIC_CACHE_NAME.equals(fieldName)) {
+            return documentStatisticCache.getStats().toString();
+        }
+        if (DOC_STATUS_CACHE_NAME.equals(fieldName)) {
+            return docStatusCache.getStats().toString();
+        }
+        if (TFT_VALIDATION_CACHE_NAME.equals(fieldName)) {
+            return targetValidationCache.getStats().toString();
+        }
+        throw new IllegalArgumentException("unknown field:" + fieldName);
+    }
+
     private static class DocumentStatisticLoader extends
             CacheLoader<DocumentLocaleKey, WordStatistic> {
 
@@ -254,6 +386,25 @@ public class TranslationStateCacheImpl implements TranslationStateCache {
                     key.getDocumentId(), key.getLocaleId());
             return wordStatistic;
         }
+
+        @Override
+        public Map<DocumentLocaleKey, WordStatistic> loadAll(
+                Iterable<? extends DocumentLocaleKey> keys) throws Exception {
+            Set<Long> documentIds = Sets.newHashSet();
+            Set<LocaleId> localeIds = Sets.newHashSet();
+            for (DocumentLocaleKey key : keys) {
+                documentIds.add(key.getDocumentId());
+                localeIds.add(key.getLocaleId());
+            }
+            Map<DocumentLocaleKey, WordStatistic> allStats =
+                    getDocumentDAO().getWordStatistics(documentIds, localeIds);
+            // only return what was asked for
+            Map<DocumentLocaleKey, WordStatistic> result = Maps.newHashMap();
+            for (DocumentLocaleKey key : keys) {
+                result.put(key, allStats.get(key));
+            }
+            return result;
+        }
     }
 
     private static class HTextFlowTargetIdLoader extends
@@ -283,6 +434,26 @@ public class TranslationStateCacheImpl implements TranslationStateCache {
         }
     }
 
+    /**
+     * Validations which have not yet been run for a target.
+     */
+    @Value
+    private static class PendingValidation {
+        Long targetId;
+        String source;
+        String translation;
+        List<ValidationId> validationIds;
+
+        Map<ValidationId, Boolean> validate() {
+            Map<ValidationId, Boolean> result = Maps.newHashMap();
+            for (ValidationId validationId : validationIds) {
+                result.put(validationId,
+                        hasWarningOrError(validationId, source, translation));
+            }
+            return result;
+        }
+    }
+
     private static DocumentStatus updateDocumentStatus(DocumentDAO documentDAO,
             DocumentStatus documentStatus, Long documentId,
             HTextFlowTarget target) {
@@ -7,6 +7,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 
 import org.zanata.async.Async;
+import org.zanata.async.AsyncTaskLane;
 import org.zanata.common.LocaleId;
 import org.zanata.dao.DocumentDAO;
 import org.zanata.dao.TextFlowTargetDAO;
@@ -46,7 +47,10 @@ public class TranslationUpdatedManager {
     @Inject
     private DocumentDAO documentDAO;
 
-    @Async
+    @Inject
+    private WebHookDispatcher webHookDispatcher;
+
+    @Async(AsyncTaskLane.INTERACTIVE)
     public void docStatsUpdated(
         @Observes(during = TransactionPhase.AFTER_SUCCESS)
         DocStatsEvent event) {
@@ -94,15 +98,17 @@ public class TranslationUpdatedManager {
     public void publishWebhookEvent(List<WebHook> webHooks,
             DocumentStatsEvent event) {
         for (WebHook webHook : webHooks) {
-            WebHooksPublisher.publish(webHook.getUrl(), event,
+            webHookDispatcher.publish(webHook.getUrl(), event,
                     Optional.fromNullable(webHook.getSecret()));
         }
     }
 
     @VisibleForTesting
     public void init(DocumentDAO documentDAO,
-            TextFlowTargetDAO textFlowTargetDAO) {
+            TextFlowTargetDAO textFlowTargetDAO,
+            WebHookDispatcher webHookDispatcher) {
         this.documentDAO = documentDAO;
         this.textFlowTargetDAO = textFlowTargetDAO;
+        this.webHookDispatcher = webHookDispatcher;
     }
 }
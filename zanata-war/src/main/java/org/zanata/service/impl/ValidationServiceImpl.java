@@ -6,8 +6,10 @@ package org.zanata.service.impl;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,6 +38,7 @@ import org.zanata.webtrans.shared.validation.ValidationFactory;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 /**
  *
@@ -212,16 +215,8 @@ public class ValidationServiceImpl implements ValidationService {
 
     private boolean documentHasWarningOrError(HDocument hDoc,
             List<ValidationId> validationIds, LocaleId localeId) {
-        for (HTextFlow textFlow : hDoc.getTextFlows()) {
-            boolean hasError =
-                    textFlowTargetHasWarningOrError(textFlow.getId(),
-                            validationIds, localeId);
-            if (hasError) {
-                // return true if error found, else continue
-                return true;
-            }
-        }
-        return false;
+        return !findTextFlowsWithWarningOrError(hDoc.getTextFlows(),
+                validationIds, localeId).isEmpty();
     }
 
     @Override
@@ -231,13 +226,13 @@ public class ValidationServiceImpl implements ValidationService {
         log.debug("Start filter {} textFlows", textFlows.size());
         Stopwatch stopwatch = Stopwatch.createStarted();
 
+        Set<Long> textFlowIdsWithWarningOrError =
+                findTextFlowsWithWarningOrError(textFlows, validationIds,
+                        localeId);
         List<HTextFlow> result = new ArrayList<HTextFlow>();
 
         for (HTextFlow textFlow : textFlows) {
-            boolean hasWarningOrError =
-                    textFlowTargetHasWarningOrError(textFlow.getId(),
-                            validationIds, localeId);
-            if (hasWarningOrError) {
+            if (textFlowIdsWithWarningOrError.contains(textFlow.getId())) {
                 result.add(textFlow);
             }
         }
@@ -256,22 +251,42 @@ public class ValidationServiceImpl implements ValidationService {
         return result.subList(startIndex, toIndex);
     }
 
-    private boolean textFlowTargetHasWarningOrError(Long textFlowId,
-            List<ValidationId> validationIds, LocaleId localeId) {
-        HTextFlowTarget target =
-                textFlowTargetDAO.getTextFlowTarget(textFlowId, localeId);
-        if (target != null) {
-            for (ValidationId validationId : validationIds) {
-                Boolean value =
-                        translationStateCacheImpl
-                                .textFlowTargetHasWarningOrError(
-                                        target.getId(), validationId);
-                if (value != null && value.booleanValue()) {
-                    return value.booleanValue();
-                }
+    /**
+     * Loads the targets of all the text flows' documents in one query, rather
+     * than one query per text flow, then checks them against the validation
+     * cache.
+     *
+     * @return ids of the text flows whose target has a warning or error
+     */
+    private Set<Long> findTextFlowsWithWarningOrError(
+            Collection<HTextFlow> textFlows, List<ValidationId> validationIds,
+            LocaleId localeId) {
+        if (textFlows.isEmpty() || validationIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<Long> documentIds = Sets.newHashSet();
+        Set<Long> textFlowIds = Sets.newHashSet();
+        for (HTextFlow textFlow : textFlows) {
+            documentIds.add(textFlow.getDocument().getId());
+            textFlowIds.add(textFlow.getId());
+        }
+        List<HTextFlowTarget> targets = Lists.newArrayList();
+        for (HTextFlowTarget target : textFlowTargetDAO.findByDocumentIds(
+                documentIds, localeId)) {
+            if (textFlowIds.contains(target.getTextFlow().getId())) {
+                targets.add(target);
+            }
+        }
+        Set<Long> targetIds =
+                translationStateCacheImpl.findTargetsWithWarningOrError(
+                        targets, validationIds);
+        Set<Long> result = Sets.newHashSet();
+        for (HTextFlowTarget target : targets) {
+            if (targetIds.contains(target.getId())) {
+                result.add(target.getTextFlow().getId());
             }
         }
-        return false;
+        return result;
     }
 
     @Override
@@ -22,6 +22,8 @@
 
 package org.zanata.service.impl;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -41,9 +43,15 @@ import org.zanata.service.VersionLocaleKey;
 import org.zanata.service.VersionStateCache;
 import org.zanata.ui.model.statistic.WordStatistic;
 import org.zanata.util.IServiceLocator;
+import org.zanata.util.Introspectable;
 import org.zanata.util.ServiceLocator;
+import org.zanata.util.StatisticsUtil;
 
 import com.google.common.cache.CacheLoader;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
 import org.zanata.util.Zanata;
 
 import javax.enterprise.event.Observes;
@@ -54,7 +62,8 @@ import javax.enterprise.event.TransactionPhase;
  */
 @Named("versionStateCacheImpl")
 @javax.enterprise.context.ApplicationScoped
-public class VersionStateCacheImpl implements VersionStateCache {
+public class VersionStateCacheImpl implements VersionStateCache,
+        Introspectable {
     private static final String BASE = VersionStateCacheImpl.class.getName();
 
     private static final String VERSION_STATISTIC_CACHE_NAME = BASE
@@ -115,6 +124,21 @@ public class VersionStateCacheImpl implements VersionStateCache {
                 projectIterationId, localeId));
     }
 
+    @Override
+    public Map<LocaleId, WordStatistic> getVersionStatistics(
+            Long projectIterationId, Collection<LocaleId> localeIds) {
+        List<VersionLocaleKey> keys = Lists.newArrayList();
+        for (LocaleId localeId : localeIds) {
+            keys.add(new VersionLocaleKey(projectIterationId, localeId));
+        }
+        Map<LocaleId, WordStatistic> result = Maps.newHashMap();
+        for (Map.Entry<VersionLocaleKey, WordStatistic> entry : versionStatisticCache
+                .getAll(keys).entrySet()) {
+            result.put(entry.getKey().getLocaleId(), entry.getValue());
+        }
+        return result;
+    }
+
     @Override
     public void clearVersionStatsCache(Long versionId) {
         LocaleDAO localeDAO = serviceLocator.getInstance(LocaleDAO.class);
@@ -125,6 +149,31 @@ public class VersionStateCacheImpl implements VersionStateCache {
         }
     }
 
+    @Override
+    public int reconcileStatistics() {
+        return versionStatisticCache.reconcile(
+                StatisticsUtil::copyWordStatistic);
+    }
+
+    // below are all monitoring stuff
+    @Override
+    public String getIntrospectableId() {
+        return getClass().getCanonicalName();
+    }
+
+    @Override
+    public Collection<String> getIntrospectableFieldNames() {
+        return Lists.newArrayList(VERSION_STATISTIC_CACHE_NAME);
+    }
+
+    @Override
+    public String getFieldValueAsString(String fieldName) {
+        if (VERSION_STATISTIC_CACHE_NAME.equals(fieldName)) {
+            return versionStatisticCache.getStats().toString();
+        }
+        throw new IllegalArgumentException("unknown field:" + fieldName);
+    }
+
     @VisibleForTesting
     public void setCacheContainer(CacheContainer cacheContainer) {
         this.cacheContainer = cacheContainer;
@@ -147,5 +196,29 @@ public class VersionStateCacheImpl implements VersionStateCache {
 
             return wordStatistic;
         }
+
+        @Override
+        public Map<VersionLocaleKey, WordStatistic> loadAll(
+                Iterable<? extends VersionLocaleKey> keys) throws Exception {
+            Multimap<Long, LocaleId> localesByVersion =
+                    ArrayListMultimap.create();
+            for (VersionLocaleKey key : keys) {
+                localesByVersion.put(key.getProjectIterationId(),
+                        key.getLocaleId());
+            }
+            Map<VersionLocaleKey, WordStatistic> result = Maps.newHashMap();
+            for (Map.Entry<Long, Collection<LocaleId>> entry : localesByVersion
+                    .asMap().entrySet()) {
+                Map<LocaleId, WordStatistic> stats =
+                        getProjectIterationDAO().getWordStatistics(
+                                entry.getKey(), entry.getValue());
+                for (Map.Entry<LocaleId, WordStatistic> stat : stats
+                        .entrySet()) {
+                    result.put(new VersionLocaleKey(entry.getKey(),
+                            stat.getKey()), stat.getValue());
+                }
+            }
+            return result;
+        }
     }
 }
@@ -0,0 +1,344 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Named;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.MediaType;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.zanata.events.WebhookEventType;
+import org.zanata.util.Introspectable;
+import org.zanata.util.SysProperties;
+import org.zanata.webhook.events.DocumentMilestoneEvent;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Delivers webhook events in the background, so that publishing an event
+ * never waits for the callback server.
+ * <p>
+ * All deliveries share one pooled HTTP client. Each callback URL has its own
+ * bounded queue, and receives at most one request at a time, in the order
+ * the events were published. A milestone event which is identical to one
+ * still waiting for the same URL is dropped, since delivering it twice
+ * tells the receiver nothing more. (Statistics events describe changes, so
+ * every one of them is delivered.) Failed deliveries are retried with
+ * exponential backoff. A URL's (empty) queue is discarded once it has been
+ * idle for half an hour.
+ */
+@Named("webHookDispatcher")
+@ApplicationScoped
+@Slf4j
+public class WebHookDispatcher implements Introspectable {
+    private static final String BASE = WebHookDispatcher.class.getName();
+    private static final String STATS_FIELD = BASE + ".stats";
+
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    // well above MAX_BACKOFF_MILLIS, so that a busy endpoint never expires
+    private static final long ENDPOINT_IDLE_MINUTES = 30;
+
+    private final int threads;
+    private final int queueSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+
+    private final Cache<String, Endpoint> endpoints;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+    private Client client;
+
+    public WebHookDispatcher() {
+        this(SysProperties.getInt(SysProperties.WEBHOOK_THREADS, 4),
+                SysProperties.getInt(SysProperties.WEBHOOK_QUEUE_SIZE, 1000),
+                SysProperties.getInt(SysProperties.WEBHOOK_MAX_ATTEMPTS, 5),
+                TimeUnit.SECONDS.toMillis(1), Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    WebHookDispatcher(int threads, int queueSize, int maxAttempts,
+            long initialBackoffMillis, Ticker ticker) {
+        this.threads = threads;
+        this.queueSize = queueSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        endpoints = CacheBuilder.newBuilder()
+                .expireAfterAccess(ENDPOINT_IDLE_MINUTES, TimeUnit.MINUTES)
+                .ticker(ticker)
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = new ScheduledThreadPoolExecutor(threads,
+                new ThreadFactoryBuilder().setNameFormat("webhook-%d")
+                        .setDaemon(true).build());
+        client = new ResteasyClientBuilder()
+                .connectionPoolSize(threads)
+                .maxPooledPerRoute(threads)
+                .establishConnectionTimeout(10, TimeUnit.SECONDS)
+                .socketTimeout(30, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        client.close();
+    }
+
+    /**
+     * Queues an event for delivery to a callback URL.
+     */
+    public void publish(@Nonnull String callbackURL,
+            @Nonnull WebhookEventType event, Optional<String> secretKey) {
+        publish(callbackURL, event.getJSON(), secretKey,
+                event instanceof DocumentMilestoneEvent);
+    }
+
+    /**
+     * @param idempotent
+     *            whether delivering the same data twice means the same as
+     *            delivering it once, so that a duplicate may be dropped
+     */
+    @VisibleForTesting
+    void publish(@Nonnull String callbackURL, @Nonnull String data,
+            Optional<String> secretKey, boolean idempotent) {
+        published.incrementAndGet();
+        endpoints.asMap().computeIfAbsent(callbackURL, Endpoint::new)
+                .offer(new Delivery(data, secretKey.orNull(), idempotent));
+    }
+
+    public Statistics getStatistics() {
+        int queued = 0;
+        for (Endpoint endpoint : endpoints.asMap().values()) {
+            queued += endpoint.getQueueSize();
+        }
+        long deliveredCount = delivered.get();
+        return new Statistics(published.get(), deliveredCount, queued,
+                coalesced.get(), dropped.get(), retried.get(), failed.get(),
+                deliveredCount > 0 ? totalLatency.get() / deliveredCount : 0,
+                maxLatency.get());
+    }
+
+    @VisibleForTesting
+    long getEndpointCount() {
+        endpoints.cleanUp();
+        return endpoints.size();
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("webhook dispatcher is shut down");
+        }
+    }
+
+    private void schedule(Runnable task, long delayMillis) {
+        try {
+            executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("webhook dispatcher is shut down");
+        }
+    }
+
+    @VisibleForTesting
+    long getBackoffMillis(int attempts) {
+        long backoff = initialBackoffMillis << Math.min(attempts - 1, 30);
+        return Math.min(backoff, MAX_BACKOFF_MILLIS);
+    }
+
+    @Override
+    public String getIntrospectableId() {
+        return WebHookDispatcher.class.getCanonicalName();
+    }
+
+    @Override
+    public Collection<String> getIntrospectableFieldNames() {
+        return Lists.newArrayList(STATS_FIELD);
+    }
+
+    @Override
+    public String getFieldValueAsString(String fieldName) {
+        if (STATS_FIELD.equals(fieldName)) {
+            return getStatistics().toString();
+        }
+        throw new IllegalArgumentException("unknown field:" + fieldName);
+    }
+
+    /**
+     * Delivery counts since startup. Latencies are in milliseconds, from
+     * publishing an event to its successful delivery.
+     */
+    @Value
+    public static class Statistics {
+        long published;
+        long delivered;
+        int queued;
+        long coalesced;
+        long dropped;
+        long retried;
+        long failed;
+        long averageLatency;
+        long maxLatency;
+    }
+
+    @RequiredArgsConstructor
+    private static class Delivery {
+        private final String data;
+        private final String secretKey;
+        private final boolean idempotent;
+        private final long publishTime = System.currentTimeMillis();
+        private int attempts;
+
+        boolean isDuplicateOf(Delivery other) {
+            return idempotent && other.idempotent
+                    && data.equals(other.data)
+                    && Objects.equals(secretKey, other.secretKey);
+        }
+    }
+
+    private class Endpoint {
+        private final String callbackURL;
+        // guarded by this
+        private final Deque<Delivery> queue = new ArrayDeque<>();
+        // guarded by this; true while a delivery is in progress or scheduled
+        private boolean busy;
+
+        Endpoint(String callbackURL) {
+            this.callbackURL = callbackURL;
+        }
+
+        synchronized int getQueueSize() {
+            return queue.size();
+        }
+
+        void offer(Delivery delivery) {
+            synchronized (this) {
+                for (Delivery waiting : queue) {
+                    if (delivery.isDuplicateOf(waiting)) {
+                        coalesced.incrementAndGet();
+                        return;
+                    }
+                }
+                if (queue.size() >= queueSize) {
+                    dropped.incrementAndGet();
+                    log.warn("webhook queue for {} is full; dropping event",
+                            callbackURL);
+                    return;
+                }
+                queue.add(delivery);
+                if (busy) {
+                    return;
+                }
+                busy = true;
+            }
+            execute(this::deliverNext);
+        }
+
+        private void deliverNext() {
+            Delivery delivery;
+            synchronized (this) {
+                delivery = queue.poll();
+                if (delivery == null) {
+                    busy = false;
+                    return;
+                }
+            }
+            attempt(delivery);
+        }
+
+        private void attempt(Delivery delivery) {
+            // keep this endpoint cached while it has work to do
+            endpoints.getIfPresent(callbackURL);
+            delivery.attempts++;
+            if (post(delivery)) {
+                long latency =
+                        System.currentTimeMillis() - delivery.publishTime;
+                delivered.incrementAndGet();
+                totalLatency.addAndGet(latency);
+                maxLatency.accumulateAndGet(latency, Math::max);
+                // give other endpoints a turn before the next delivery
+                execute(this::deliverNext);
+            } else if (delivery.attempts < maxAttempts) {
+                retried.incrementAndGet();
+                schedule(() -> attempt(delivery),
+                        getBackoffMillis(delivery.attempts));
+            } else {
+                failed.incrementAndGet();
+                log.warn("giving up on webhook {} after {} attempts",
+                        callbackURL, delivery.attempts);
+                execute(this::deliverNext);
+            }
+        }
+
+        private boolean post(Delivery delivery) {
+            try {
+                int status = WebHooksPublisher.post(client, callbackURL,
+                        delivery.data, MediaType.APPLICATION_JSON_TYPE,
+                        MediaType.APPLICATION_JSON_TYPE,
+                        Optional.fromNullable(delivery.secretKey));
+                if (status >= 200 && status < 300) {
+                    return true;
+                }
+                log.debug("webhook {} returned status {}", callbackURL,
+                        status);
+                return false;
+            } catch (Exception e) {
+                log.debug("error posting webhook " + callbackURL, e);
+                return false;
+            }
+        }
+    }
+}
@@ -22,22 +22,21 @@
 package org.zanata.service.impl;
 
 import javax.annotation.Nonnull;
+import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 import org.apache.commons.lang.StringUtils;
-import org.jboss.resteasy.client.jaxrs.ResteasyClient;
-import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
-import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
-import org.zanata.events.WebhookEventType;
 
 import com.google.common.base.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.zanata.util.HmacUtil;
 
 /**
- * Do http post for webhook event
+ * Do http post for webhook event. Events are queued for delivery by
+ * {@link WebHookDispatcher}.
  *
  * @author Alex Eng <a href="mailto:aeng@redhat.com">aeng@redhat.com</a>
  */
@@ -46,31 +45,31 @@ public class WebHooksPublisher {
 
     public static final String WEBHOOK_HEADER = "X-Zanata-Webhook";
 
-    public static void publish(@Nonnull String callbackURL,
-        @Nonnull WebhookEventType event, Optional<String> secretKey) {
-        publish(callbackURL, event.getJSON(), MediaType.APPLICATION_JSON_TYPE,
-            MediaType.APPLICATION_JSON_TYPE, secretKey);
-    }
+    /**
+     * Posts data to a webhook callback URL, signing it if there is a secret
+     * key.
+     *
+     * @return the HTTP status code of the response
+     */
+    protected static int post(@Nonnull Client client,
+            @Nonnull String callbackURL, @Nonnull String data,
+            @Nonnull MediaType acceptType, @Nonnull MediaType mediaType,
+            Optional<String> secretKey) {
+        Invocation.Builder postBuilder =
+                client.target(callbackURL).request().accept(acceptType);
 
-    protected static void publish(@Nonnull String callbackURL,
-            @Nonnull String data, @Nonnull MediaType acceptType,
-            @Nonnull MediaType mediaType, Optional<String> secretKey) {
+        if (secretKey.isPresent() &&
+                StringUtils.isNotBlank(secretKey.get())) {
+            String sha =
+                    signWebhookHeader(data, secretKey.get(), callbackURL);
+            postBuilder.header(WEBHOOK_HEADER, sha);
+        }
+        log.debug("firing webhook: {}:{}", callbackURL, data);
+        Response response = postBuilder.post(Entity.entity(data, mediaType));
         try {
-            ResteasyClient client = new ResteasyClientBuilder().build();
-            ResteasyWebTarget target = client.target(callbackURL);
-            Invocation.Builder postBuilder =
-                    target.request().accept(acceptType);
-
-            if (secretKey.isPresent() &&
-                    StringUtils.isNotBlank(secretKey.get())) {
-                String sha =
-                        signWebhookHeader(data, secretKey.get(), callbackURL);
-                postBuilder.header(WEBHOOK_HEADER, sha);
-            }
-            log.debug("firing async webhook: {}:{}", callbackURL, data);
-            postBuilder.async().post(Entity.entity(data, mediaType));
-        } catch (Exception e) {
-            log.error("Error on webhooks post {}, {}", callbackURL, e);
+            return response.getStatus();
+        } finally {
+            response.close();
         }
     }
 
@@ -21,6 +21,14 @@
 package org.zanata.tmx;
 
 import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import javax.enterprise.context.Dependent;
 import javax.persistence.EntityExistsException;
@@ -37,6 +45,7 @@ import javax.xml.stream.XMLStreamReader;
 
 import lombok.AllArgsConstructor;
 import lombok.Cleanup;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import nu.xom.Element;
 
@@ -47,14 +56,23 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import org.zanata.common.util.ElementBuilder;
 import org.zanata.model.tm.TransMemory;
+import org.zanata.model.tm.TransMemoryUnit;
 import org.zanata.transaction.TransactionUtil;
 import org.zanata.util.RunnableEx;
+import org.zanata.util.SysProperties;
 import org.zanata.util.TMXParseException;
 import org.zanata.xml.TmxDtdResolver;
 import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Parses TMX input.
+ * <p>
+ * Parsing runs on its own thread, which feeds parsed translation units
+ * through a bounded queue to the calling thread. The calling thread saves
+ * them in batches, each in its own transaction, so that parsing and saving
+ * overlap.
  *
  * @author Carlos Munoz <a
  *         href="mailto:camunoz@redhat.com">camunoz@redhat.com</a>
@@ -64,7 +82,19 @@ import com.google.common.base.Throwables;
 @Slf4j
 public class TMXParser {
     // Batch size to commit in a new transaction for long files
-    private static final int BATCH_SIZE = 100;
+    private static final int BATCH_SIZE = SysProperties.getInt(
+            SysProperties.TMX_IMPORT_BATCH_SIZE, 1000);
+
+    private static final ThreadFactory READER_THREADS =
+            new ThreadFactoryBuilder().setNameFormat("tmx-reader-%d")
+                    .setDaemon(true).build();
+
+    // marks the end of the input in the queue
+    private static final ParsedItem END = new ParsedItem(null);
+    // marks the end of the input when parsing has failed
+    private static final ParsedItem FAILED = new ParsedItem(null);
+    // tells the saving thread to save the header applied to the TM
+    private static final ParsedItem HEADER = new ParsedItem(null);
 
     @Inject
     private Session session;
@@ -76,34 +106,26 @@ public class TMXParser {
             RollbackException, HeuristicMixedException,
             HeuristicRollbackException, SystemException, NotSupportedException {
         int handledTUs = 0;
+        ExecutorService readerExecutor =
+                Executors.newSingleThreadExecutor(READER_THREADS);
         try {
             log.info("parsing started for: {}", transMemory.getSlug());
             session.setFlushMode(FlushMode.MANUAL);
             session.setCacheMode(CacheMode.IGNORE);
-            XMLInputFactory factory = XMLInputFactory.newInstance();
-            factory.setProperty(XMLInputFactory.SUPPORT_DTD, true);
-            factory.setProperty(XMLInputFactory.IS_VALIDATING, true);
-            factory.setXMLResolver(new TmxDtdResolver());
-            @Cleanup
-            XMLStreamReader reader = factory.createXMLStreamReader(input);
-
-            QName tmx = new QName("tmx");
-
-            while (reader.hasNext()
-                    && reader.next() != XMLStreamConstants.START_ELEMENT) {
-            }
-            if (!reader.hasNext())
-                throw new TMXParseException("No root element");
-            if (!reader.getName().equals(tmx))
-                throw new TMXParseException("Wrong root element: expected tmx");
+            BlockingQueue<ParsedItem> queue =
+                    new ArrayBlockingQueue<>(BATCH_SIZE);
+            Future<Void> reading =
+                    readerExecutor.submit(new Reader(input, transMemory,
+                            queue));
 
-            // At this point, event = START_ELEMENT and name = tmx
-            while (reader.hasNext()) {
-                CommitBatch commitBatch =
-                        new CommitBatch(reader, 0, transMemory);
+            CommitBatch commitBatch;
+            do {
+                commitBatch = new CommitBatch(queue, reading, transMemory);
                 TransactionUtil.get().runEx(commitBatch);
                 handledTUs += commitBatch.handledTUs;
-            }
+            } while (!commitBatch.finished);
+            // rethrows any parsing error
+            reading.get();
         } catch (EntityExistsException e) {
             String msg =
                     "Possible duplicate TU (duplicate tuid or duplicate"
@@ -112,48 +134,126 @@ public class TMXParser {
         } catch (Exception e) {
             Throwable rootCause = Throwables.getRootCause(e);
             if (rootCause instanceof TMXParseException) {
-                throw (TMXParseException) e;
+                throw (TMXParseException) rootCause;
             } else if (rootCause instanceof XMLStreamException) {
                 throw new TMXParseException(rootCause);
             } else {
                 throw Throwables.propagate(e);
             }
         } finally {
+            // stops the reader if saving failed
+            readerExecutor.shutdownNow();
             log.info("parsing stopped for: {}, TU count={}",
                     transMemory.getSlug(), handledTUs);
         }
     }
 
+    @AllArgsConstructor
+    private static class ParsedItem {
+        private final TransMemoryUnit unit;
+    }
 
-
+    /**
+     * Parses the input, putting each translation unit on the queue, followed
+     * by {@link #END}, or by {@link #FAILED} if parsing fails.
+     */
     @AllArgsConstructor
-    private class CommitBatch implements RunnableEx {
-        private XMLStreamReader reader;
-        private int handledTUs;
-        private TransMemory transMemory;
+    private class Reader implements Callable<Void> {
+        private final QName tmx = new QName("tmx");
         private final QName header = new QName("header");
         private final QName tu = new QName("tu");
+        private InputStream input;
+        private TransMemory transMemory;
+        private BlockingQueue<ParsedItem> queue;
 
         @Override
-        public void run() throws Exception {
-            while (reader.hasNext() && handledTUs < BATCH_SIZE) {
+        public Void call() throws Exception {
+            boolean interrupted = false;
+            boolean failed = true;
+            try {
+                parse();
+                failed = false;
+            } catch (InterruptedException e) {
+                // saving has stopped, so nothing will take END
+                interrupted = true;
+                throw e;
+            } finally {
+                if (!interrupted) {
+                    queue.put(failed ? FAILED : END);
+                }
+            }
+            return null;
+        }
+
+        private void parse() throws Exception {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+            factory.setProperty(XMLInputFactory.IS_VALIDATING, true);
+            factory.setXMLResolver(new TmxDtdResolver());
+            @Cleanup
+            XMLStreamReader reader = factory.createXMLStreamReader(input);
+
+            while (reader.hasNext()
+                    && reader.next() != XMLStreamConstants.START_ELEMENT) {
+            }
+            if (!reader.hasNext())
+                throw new TMXParseException("No root element");
+            if (!reader.getName().equals(tmx))
+                throw new TMXParseException("Wrong root element: expected tmx");
+
+            // At this point, event = START_ELEMENT and name = tmx
+            while (reader.hasNext()) {
                 int eventType = reader.next();
                 if (eventType == XMLStreamConstants.START_ELEMENT) {
                     QName elemName = reader.getName();
                     if (elemName.equals(tu)) {
                         Element tuElem = ElementBuilder.buildElement(reader);
-                        transMemoryAdapter
-                                .processTransUnit(transMemory, tuElem);
-                        handledTUs++;
+                        queue.put(new ParsedItem(transMemoryAdapter
+                                .parseTransUnit(transMemory, tuElem)));
                     } else if (elemName.equals(header)) {
                         Element headerElem =
                                 ElementBuilder.buildElement(reader);
-                        transMemoryAdapter.processHeader(transMemory,
+                        // units after the header depend on its source language
+                        transMemoryAdapter.applyHeader(transMemory,
                                 headerElem);
+                        queue.put(HEADER);
                     }
                 }
             }
         }
     }
 
+    @RequiredArgsConstructor
+    private class CommitBatch implements RunnableEx {
+        private final BlockingQueue<ParsedItem> queue;
+        private final Future<Void> reading;
+        private final TransMemory transMemory;
+        private int handledTUs;
+        private boolean finished;
+
+        @Override
+        public void run() throws Exception {
+            List<TransMemoryUnit> units = Lists.newArrayList();
+            while (units.size() < BATCH_SIZE) {
+                ParsedItem item = queue.take();
+                if (item == END) {
+                    finished = true;
+                    break;
+                } else if (item == FAILED) {
+                    // rethrows the parsing error, which rolls back the
+                    // units of this batch (but not the batches before it)
+                    reading.get();
+                } else if (item == HEADER) {
+                    transMemoryAdapter.saveHeader(transMemory);
+                } else {
+                    units.add(item.unit);
+                }
+            }
+            transMemoryAdapter.saveTransUnits(transMemory, units);
+            session.flush();
+            session.clear();
+            handledTUs = units.size();
+        }
+    }
+
 }
@@ -21,6 +21,9 @@
 
 package org.zanata.tmx;
 
+import java.util.List;
+import java.util.Map;
+
 import javax.enterprise.context.Dependent;
 import javax.persistence.EntityManager;
 
@@ -37,6 +40,8 @@ import org.zanata.model.tm.TMXMetadataHelper;
 import org.zanata.model.tm.TransMemory;
 import org.zanata.util.TMXParseException;
 
+import com.google.common.collect.Maps;
+
 /**
  * Translation Memory Adapter for the TMX parser. Provides callback effects
  * (functions) to be used when the parser encounters certain specific events.
@@ -56,24 +61,32 @@ public class TransMemoryAdapter {
     private TransMemoryDAO transMemoryDAO;
 
     /**
-     * Persists the header elements when encountered while parsing. This
-     * modifies the translation memory fields and metadata.
+     * Sets the translation memory fields and metadata from a header element,
+     * without persisting them.
      *
      * @throws TMXParseException
      */
-    public void processHeader(TransMemory tm, Element headerElem)
+    public void applyHeader(TransMemory tm, Element headerElem)
             throws TMXParseException {
         TMXMetadataHelper.setMetadata(tm, headerElem);
+    }
+
+    /**
+     * Persists header fields previously set by
+     * {@link #applyHeader(TransMemory, Element)}.
+     */
+    public void saveHeader(TransMemory tm) {
         entityManager.merge(tm);
     }
 
     /**
-     * Persists a translation unit when a tu element is encountered while
-     * parsing.
+     * Builds a translation unit from a tu element, without accessing the
+     * database. The header (if any) must already have been applied to the
+     * translation memory.
      *
      * @throws TMXParseException
      */
-    public void processTransUnit(TransMemory tm, Element tuElem)
+    public TransMemoryUnit parseTransUnit(TransMemory tm, Element tuElem)
             throws TMXParseException {
         TransMemoryUnit tu = new TransMemoryUnit();
         tu.setTranslationMemory(tm);
@@ -84,9 +97,34 @@ public class TransMemoryAdapter {
         addTUVs(tu, tuElem.getChildElements("tuv"));
 
         tu.setUniqueId(determineUniqueId(tu));
+        return tu;
+    }
 
-        tu = mergeWithExistingTUIfAny(tu);
-        entityManager.merge(tu);
+    /**
+     * Persists a batch of parsed translation units. Existing units with the
+     * same unique ids are found with one query and updated. If the batch
+     * contains several units with the same unique id, the last one wins, as
+     * it would if they were saved one at a time.
+     */
+    public void saveTransUnits(TransMemory tm, List<TransMemoryUnit> units) {
+        Map<String, TransMemoryUnit> unitsById = Maps.newLinkedHashMap();
+        for (TransMemoryUnit tu : units) {
+            unitsById.put(tu.getUniqueId(), tu);
+        }
+        if (unitsById.isEmpty()) {
+            return;
+        }
+        Map<String, TransMemoryUnit> existingUnits =
+                transMemoryDAO.findTranslationUnits(tm.getSlug(),
+                        unitsById.keySet());
+        for (TransMemoryUnit tu : unitsById.values()) {
+            TransMemoryUnit existingTu = existingUnits.get(tu.getUniqueId());
+            if (existingTu != null) {
+                copyInto(existingTu, tu);
+            } else {
+                entityManager.persist(tu);
+            }
+        }
     }
 
     private String determineUniqueId(TransMemoryUnit tu)
@@ -131,24 +169,16 @@ public class TransMemoryAdapter {
         tu.getTransUnitVariants().put(tuv.getLanguage(), tuv);
     }
 
-    private TransMemoryUnit mergeWithExistingTUIfAny(TransMemoryUnit newTU) {
-        TransMemoryUnit existingTu =
-                transMemoryDAO.findTranslationUnit(newTU.getTranslationMemory()
-                        .getSlug(), newTU.getUniqueId());
-        if (existingTu != null) {
-            existingTu
-                    .setMetadata(newTU.getMetadataType(), newTU.getMetadata());
-            existingTu.setPosition(newTU.getPosition());
-            existingTu.setSourceLanguage(newTU.getSourceLanguage());
-            existingTu.setTransUnitId(newTU.getTransUnitId());
-            existingTu.getTransUnitVariants().clear();
-            existingTu.getTransUnitVariants().putAll(
-                    newTU.getTransUnitVariants());
-            // No need to set the unique id or parent Trans Memory, it should be
-            // the same
-            return existingTu;
-        }
-        return newTU;
+    private static void copyInto(TransMemoryUnit existingTu,
+            TransMemoryUnit newTU) {
+        existingTu.setMetadata(newTU.getMetadataType(), newTU.getMetadata());
+        existingTu.setPosition(newTU.getPosition());
+        existingTu.setSourceLanguage(newTU.getSourceLanguage());
+        existingTu.setTransUnitId(newTU.getTransUnitId());
+        existingTu.getTransUnitVariants().clear();
+        existingTu.getTransUnitVariants().putAll(newTU.getTransUnitVariants());
+        // No need to set the unique id or parent Trans Memory, it should be
+        // the same
     }
 
 }
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+
+import lombok.Value;
+
+/**
+ * Immutable Aho-Corasick automaton which finds every occurrence of a set of
+ * terms in a text with a single pass over the text, however many terms there
+ * are.
+ * <p>
+ * Matching is case-insensitive, and any run of whitespace in the text matches
+ * a single space in a term. Terms only match whole words: a match may not
+ * start or end inside a word, except in scripts which don't separate words
+ * with spaces (eg Chinese, Japanese or Thai).
+ *
+ * @param <T>
+ *            the value associated with each term
+ */
+public final class AhoCorasickMatcher<T> {
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    private static final Set<Character.UnicodeScript> UNSPACED_SCRIPTS =
+            EnumSet.of(Character.UnicodeScript.HAN,
+                    Character.UnicodeScript.HIRAGANA,
+                    Character.UnicodeScript.KATAKANA,
+                    Character.UnicodeScript.THAI,
+                    Character.UnicodeScript.LAO,
+                    Character.UnicodeScript.KHMER,
+                    Character.UnicodeScript.MYANMAR);
+
+    private static final Comparator<Match<?>> MATCH_ORDER =
+            Comparator.<Match<?>> comparingInt(Match::getStart)
+                    .thenComparing(Comparator.<Match<?>> comparingInt(
+                            Match::getEnd).reversed());
+
+    private final Node root;
+    // normalised length of each term, indexed by term number
+    private final int[] termLengths;
+    private final List<T> values;
+
+    private AhoCorasickMatcher(Node root, int[] termLengths, List<T> values) {
+        this.root = root;
+        this.termLengths = termLengths;
+        this.values = values;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<T>();
+    }
+
+    /**
+     * @return the number of terms in this matcher
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Finds every occurrence of every term in the text, including
+     * overlapping occurrences.
+     *
+     * @return matches ordered by start position, and longest first for
+     *         matches starting at the same position
+     */
+    public List<Match<T>> findAll(String text) {
+        if (values.isEmpty() || text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Match<T>> matches = Lists.newArrayList();
+        // the position in text of each normalised character fed to the
+        // automaton, so that matches can be reported in terms of text
+        int[] textPositions = new int[text.length()];
+        int fed = 0;
+        boolean lastWasSpace = true;
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (lastWasSpace) {
+                    continue;
+                }
+                lastWasSpace = true;
+                c = ' ';
+            } else {
+                lastWasSpace = false;
+                c = fold(c);
+            }
+            textPositions[fed++] = i;
+            node = node.next(c);
+            for (int term : node.outputs) {
+                int start = textPositions[fed - termLengths[term]];
+                int end = i + 1;
+                if (isWordBoundary(text, start)
+                        && isWordBoundary(text, end)) {
+                    matches.add(new Match<T>(start, end, values.get(term)));
+                }
+            }
+        }
+        matches.sort(MATCH_ORDER);
+        return matches;
+    }
+
+    private static boolean isWordBoundary(String text, int index) {
+        if (index == 0 || index == text.length()) {
+            return true;
+        }
+        return !isSpacedWordChar(text.charAt(index - 1))
+                || !isSpacedWordChar(text.charAt(index));
+    }
+
+    private static boolean isSpacedWordChar(char c) {
+        return Character.isLetterOrDigit(c)
+                && !UNSPACED_SCRIPTS.contains(Character.UnicodeScript.of(c));
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Normalises a term the same way text is normalised while matching: case
+     * is folded and whitespace is trimmed and collapsed to single spaces.
+     */
+    private static String normalise(String term) {
+        StringBuilder sb = new StringBuilder(term.length());
+        boolean lastWasSpace = true;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (!lastWasSpace) {
+                    sb.append(' ');
+                    lastWasSpace = true;
+                }
+            } else {
+                sb.append(fold(c));
+                lastWasSpace = false;
+            }
+        }
+        if (lastWasSpace && sb.length() > 0) {
+            sb.setLength(sb.length() - 1);
+        }
+        return sb.toString();
+    }
+
+    @Value
+    public static class Match<T> {
+        /** index of the first character of the match in the text */
+        int start;
+        /** index after the last character of the match in the text */
+        int end;
+        T value;
+    }
+
+    public static final class Builder<T> {
+        private final List<String> terms = Lists.newArrayList();
+        private final List<T> values = Lists.newArrayList();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a term to be matched. Terms which are blank are ignored, and
+         * the same term may be added more than once with different values.
+         */
+        public Builder<T> add(String term, T value) {
+            String normalised = normalise(term);
+            if (!normalised.isEmpty()) {
+                terms.add(normalised);
+                values.add(value);
+            }
+            return this;
+        }
+
+        public AhoCorasickMatcher<T> build() {
+            Node root = new Node(null);
+            int[] termLengths = new int[terms.size()];
+            for (int term = 0; term < terms.size(); term++) {
+                String content = terms.get(term);
+                termLengths[term] = content.length();
+                Node node = root;
+                for (int i = 0; i < content.length(); i++) {
+                    node = node.childOrCreate(content.charAt(i));
+                }
+                node.addOutput(term);
+            }
+            // breadth-first, so that each node's failure link is complete
+            // before any of its children are visited
+            Queue<Node> queue = new ArrayDeque<>();
+            for (Node child : root.children.values()) {
+                child.fail = root;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                Node node = queue.remove();
+                for (Map.Entry<Character, Node> entry : node.children
+                        .entrySet()) {
+                    char c = entry.getKey();
+                    Node child = entry.getValue();
+                    Node fail = node.fail;
+                    while (fail != root && !fail.children.containsKey(c)) {
+                        fail = fail.fail;
+                    }
+                    Node failChild = fail.children.get(c);
+                    child.fail = failChild != null ? failChild : root;
+                    child.inheritOutputs(child.fail);
+                    queue.add(child);
+                }
+            }
+            return new AhoCorasickMatcher<T>(root, termLengths,
+                    Collections.unmodifiableList(Lists.newArrayList(values)));
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private Node fail;
+        // terms ending at this node, including those ending at nodes on the
+        // failure chain (ie suffixes of this node's prefix)
+        private int[] outputs = NO_OUTPUTS;
+
+        private Node(Node fail) {
+            this.fail = fail;
+        }
+
+        private Node childOrCreate(char c) {
+            return children.computeIfAbsent(c, k -> new Node(null));
+        }
+
+        private void addOutput(int term) {
+            outputs = Arrays.copyOf(outputs, outputs.length + 1);
+            outputs[outputs.length - 1] = term;
+        }
+
+        private void inheritOutputs(Node other) {
+            if (other.outputs.length > 0) {
+                int[] merged = Arrays.copyOf(outputs,
+                        outputs.length + other.outputs.length);
+                System.arraycopy(other.outputs, 0, merged, outputs.length,
+                        other.outputs.length);
+                outputs = merged;
+            }
+        }
+
+        private Node next(char c) {
+            Node node = this;
+            while (true) {
+                Node child = node.children.get(c);
+                if (child != null) {
+                    return child;
+                }
+                if (node.fail == null) {
+                    // root
+                    return node;
+                }
+                node = node.fail;
+            }
+        }
+    }
+}
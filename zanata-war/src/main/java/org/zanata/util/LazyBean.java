@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.util;
+
+import javax.inject.Provider;
+
+/**
+ * Looks up a normal scoped bean the first time it is needed. This is for
+ * objects which are created before CDI has started, such as hibernate event
+ * listeners, and so can't have the bean injected.
+ *
+ * @see org.zanata.webtrans.server.HibernateIntegrator
+ */
+public class LazyBean<T> implements Provider<T> {
+    private final Class<T> beanClass;
+    private volatile T bean;
+
+    public LazyBean(Class<T> beanClass) {
+        this.beanClass = beanClass;
+    }
+
+    @Override
+    public T get() {
+        T result = bean;
+        if (result == null) {
+            // a concurrent lookup would find the same contextual reference
+            result = ServiceLocator.instance().getInstance(beanClass);
+            bean = result;
+        }
+        return result;
+    }
+}
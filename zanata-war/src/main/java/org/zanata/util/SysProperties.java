@@ -55,6 +55,117 @@ public class SysProperties {
      * Override Lucene value for project iteration (slug)
      */
     public static final String TM_BOOST_ITERATION = "zanata.tm.boost.iteration";
+    /**
+     * Maximum number of TM suggestion searches to cache
+     */
+    public static final String TM_SUGGESTION_CACHE_SIZE =
+            "zanata.tm.suggestion.cache.size";
+    /**
+     * Minutes before a cached TM suggestion search expires
+     */
+    public static final String TM_SUGGESTION_CACHE_EXPIRY_MINUTES =
+            "zanata.tm.suggestion.cache.expiry.minutes";
+    /**
+     * Number of threads for reindexing. More than one enables partitioned
+     * reindexing, which can be resumed if interrupted.
+     */
+    public static final String REINDEX_THREADS = "zanata.reindex.threads";
+    /**
+     * Number of entity ids in each chunk of a partitioned reindex
+     */
+    public static final String REINDEX_CHUNK_SIZE = "zanata.reindex.chunk.size";
+    /**
+     * Whether CopyTrans should find matches for a batch of text flows at once
+     * (default true), rather than one text flow at a time
+     */
+    public static final String COPY_TRANS_BULK = "zanata.copytrans.bulk";
+    /**
+     * Number of threads rendering documents for offline translation archives
+     * (1 renders them one at a time on the task's own thread)
+     */
+    public static final String ARCHIVE_THREADS = "zanata.archive.threads";
+    /**
+     * Maximum total number of text flows held in cached editor navigation
+     * indexes
+     */
+    public static final String NAVIGATION_INDEX_CACHE_TEXT_FLOWS =
+            "zanata.editor.navigation.cache.textflows";
+    /**
+     * Translated documents with more targets than this are streamed to REST
+     * clients one target at a time, rather than built in memory
+     */
+    public static final String REST_TRANSLATIONS_STREAMING_THRESHOLD =
+            "zanata.rest.translations.streaming.threshold";
+    /**
+     * Maximum number of (document, locale) entries in the cache used for
+     * translated document ETags
+     */
+    public static final String TRANSLATED_DOC_STATE_CACHE_SIZE =
+            "zanata.rest.translations.etag.cache.size";
+    /**
+     * Seconds a REST call may wait for an [active] permit before it is
+     * rejected with status 429
+     */
+    public static final String REST_LIMIT_WAIT_SECONDS =
+            "zanata.rest.limit.wait.seconds";
+    /**
+     * Number of [active] permits needed by a REST call which pushes a
+     * document or uploads a file (other calls need one)
+     */
+    public static final String REST_LIMIT_HEAVY_WEIGHT =
+            "zanata.rest.limit.heavy.weight";
+    /**
+     * Number of threads (and pooled connections) for webhook delivery
+     */
+    public static final String WEBHOOK_THREADS = "zanata.webhook.threads";
+    /**
+     * Maximum number of webhook events waiting for each callback URL
+     */
+    public static final String WEBHOOK_QUEUE_SIZE =
+            "zanata.webhook.queue.size";
+    /**
+     * Number of times to try delivering a webhook event before giving up
+     */
+    public static final String WEBHOOK_MAX_ATTEMPTS =
+            "zanata.webhook.max.attempts";
+    /**
+     * Milliseconds for which trans unit updates are held and coalesced before
+     * they are sent to editors (0 sends every event straight away)
+     */
+    public static final String EDITOR_EVENTS_WINDOW_MILLIS =
+            "zanata.editor.events.window.millis";
+    /**
+     * Maximum number of coalesced events held for each editor workspace
+     */
+    public static final String EDITOR_EVENTS_QUEUE_SIZE =
+            "zanata.editor.events.queue.size";
+    /**
+     * Number of translation units saved in each transaction of a TMX import
+     */
+    public static final String TMX_IMPORT_BATCH_SIZE =
+            "zanata.tmx.import.batch.size";
+    /**
+     * Maximum number of permission decisions to cache (0 disables the cache)
+     */
+    public static final String PERMISSION_CACHE_SIZE =
+            "zanata.permission.cache.size";
+    /**
+     * Seconds before a cached permission decision expires
+     */
+    public static final String PERMISSION_CACHE_EXPIRY_SECONDS =
+            "zanata.permission.cache.expiry.seconds";
+    /**
+     * Milliseconds between writes of the aggregated translation activity
+     * shown in dashboards
+     */
+    public static final String ACTIVITY_FLUSH_MILLIS =
+            "zanata.activity.flush.millis";
+    /**
+     * Maximum number of (source locale, target locale) glossary term
+     * matchers to keep in memory
+     */
+    public static final String GLOSSARY_MATCHER_CACHE_SIZE =
+            "zanata.glossary.matcher.cache.size";
     /**
      * Override default lock timeout for @Synchronized beans
      */
@@ -101,4 +212,19 @@ public class SysProperties {
         return Long.getLong(propName, defVal);
     }
 
+    /**
+     * Gets the value of a system property as a boolean if available,
+     * otherwise returning the default value.
+     * @param propName name of the system property
+     * @param defVal the default to use if the property is missing
+     * @return the boolean value
+     */
+    public static boolean getBoolean(String propName, boolean defVal) {
+        String prop = System.getProperty(propName);
+        if (prop != null) {
+            return Boolean.parseBoolean(prop);
+        }
+        return defVal;
+    }
+
 }
@@ -26,6 +26,7 @@ import org.zanata.webtrans.shared.rpc.PublishWorkspaceChat;
 import org.zanata.webtrans.shared.rpc.SessionEventData;
 import org.zanata.webtrans.shared.rpc.TransUnitEdit;
 import org.zanata.webtrans.shared.rpc.TransUnitUpdated;
+import org.zanata.webtrans.shared.rpc.TransUnitUpdatedBatch;
 import org.zanata.webtrans.shared.rpc.WorkspaceContextUpdate;
 
 import com.allen_sauer.gwt.log.client.Log;
@@ -189,7 +190,12 @@ public class EventProcessor implements RemoteEventListener {
     @Override
     public void apply(Event event) {
         // Log.info("received remote event "+event);
-        if (event instanceof SessionEventData) {
+        if (event instanceof TransUnitUpdatedBatch) {
+            for (TransUnitUpdated updated : ((TransUnitUpdatedBatch) event)
+                    .getUpdates()) {
+                apply(updated);
+            }
+        } else if (event instanceof SessionEventData) {
             SessionEventData ed = (SessionEventData) event;
             GwtEvent<?> gwtEvent = eventRegistry.getEvent(ed);
             if (gwtEvent != null) {
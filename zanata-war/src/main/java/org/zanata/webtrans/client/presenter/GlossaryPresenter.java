@@ -40,7 +40,6 @@ import org.zanata.webtrans.shared.model.TransUnit;
 import org.zanata.webtrans.shared.model.UserWorkspaceContext;
 import org.zanata.webtrans.shared.rpc.GetGlossary;
 import org.zanata.webtrans.shared.rpc.GetGlossaryResult;
-import org.zanata.webtrans.shared.rpc.HasSearchType.SearchType;
 
 import com.allen_sauer.gwt.log.client.Log;
 import com.google.gwt.event.dom.client.KeyCodes;
@@ -113,25 +112,30 @@ public class GlossaryPresenter extends WidgetPresenter<GlossaryDisplay>
 
     private void createGlossaryRequest(final String query,
             GetGlossary.SearchType searchType) {
-        LocaleId srcLocale = LocaleId.EN_US;
-        if (userWorkspaceContext.getSelectedDoc().getSourceLocale() != null) {
-            srcLocale = userWorkspaceContext.getSelectedDoc().getSourceLocale();
-        }
         final GetGlossary action =
                 new GetGlossary(query, userWorkspaceContext
                         .getWorkspaceContext().getWorkspaceId().getLocaleId(),
-                        srcLocale, searchType);
+                        getSourceLocale(), searchType);
         scheduleGlossaryRequest(action);
     }
 
+    private LocaleId getSourceLocale() {
+        LocaleId srcLocale = LocaleId.EN_US;
+        if (userWorkspaceContext.getSelectedDoc().getSourceLocale() != null) {
+            srcLocale = userWorkspaceContext.getSelectedDoc().getSourceLocale();
+        }
+        return srcLocale;
+    }
+
     public void createGlossaryRequestForTransUnit(TransUnit transUnit) {
         StringBuilder sources = new StringBuilder();
         for (String source : transUnit.getSources()) {
             sources.append(source);
             sources.append(" ");
         }
-        SearchType searchType = GetGlossary.SearchType.FUZZY;
-        createGlossaryRequest(sources.toString(), searchType);
+        scheduleGlossaryRequest(GetGlossary.forSourceText(sources.toString(),
+                userWorkspaceContext.getWorkspaceContext().getWorkspaceId()
+                        .getLocaleId(), getSourceLocale()));
     }
 
     private void scheduleGlossaryRequest(GetGlossary action) {
@@ -10,7 +10,11 @@ import org.hibernate.integrator.spi.Integrator;
 import org.hibernate.metamodel.source.MetadataImplementor;
 import org.hibernate.service.spi.SessionFactoryServiceRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.zanata.security.permission.PermissionDecisionListener;
+import org.zanata.service.impl.DocumentStatisticListener;
+import org.zanata.service.impl.GlossaryTermListener;
 import org.zanata.service.impl.SlugEntityUpdatedListener;
+import org.zanata.service.impl.TranslatedDocumentStateListener;
 import org.zanata.util.Contexts;
 import org.zanata.util.ServiceLocator;
 
@@ -49,6 +53,42 @@ public class HibernateIntegrator implements Integrator {
         eventListenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE,
                 slugEntityUpdatedListener);
 
+        TranslatedDocumentStateListener translatedDocumentStateListener =
+                new TranslatedDocumentStateListener();
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT,
+                translatedDocumentStateListener);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE,
+                translatedDocumentStateListener);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE,
+                translatedDocumentStateListener);
+
+        PermissionDecisionListener permissionDecisionListener =
+                new PermissionDecisionListener();
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT,
+                permissionDecisionListener);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE,
+                permissionDecisionListener);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE,
+                permissionDecisionListener);
+
+        GlossaryTermListener glossaryTermListener =
+                new GlossaryTermListener();
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT,
+                glossaryTermListener);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE,
+                glossaryTermListener);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE,
+                glossaryTermListener);
+
+        // statistics are updated in the same transaction as translations
+        DocumentStatisticListener documentStatisticListener =
+                new DocumentStatisticListener();
+        eventListenerRegistry.appendListeners(EventType.POST_INSERT,
+                documentStatisticListener);
+        eventListenerRegistry.appendListeners(EventType.POST_UPDATE,
+                documentStatisticListener);
+        eventListenerRegistry.appendListeners(EventType.POST_DELETE,
+                documentStatisticListener);
     }
 
     @Override
@@ -42,6 +42,7 @@ public class TranslationWorkspaceImpl implements TranslationWorkspace {
     private final Multimap<String, EditorClientId> httpSessionToEditorClientId;
     private final Map<String, EditorClientId> connectionIdToEditorClientId;
     private final EventExecutorService eventExecutorService;
+    private final WorkspaceEventDispatcher eventDispatcher;
 
     {
         ArrayListMultimap<String, EditorClientId> almm =
@@ -62,6 +63,8 @@ public class TranslationWorkspaceImpl implements TranslationWorkspace {
                 EventExecutorServiceFactory.getInstance();
         this.eventExecutorService =
                 factory.getEventExecutorService(workspaceId);
+        this.eventDispatcher = new WorkspaceEventDispatcher(
+                eventData -> eventExecutorService.addEvent(domain, eventData));
 
         UserManager userManager =
                 UserManagerFactory.getInstance().getUserManager();
@@ -164,7 +167,7 @@ public class TranslationWorkspaceImpl implements TranslationWorkspace {
 
     @Override
     public <T extends SessionEventData> void publish(T eventData) {
-        eventExecutorService.addEvent(domain, eventData);
+        eventDispatcher.publish(eventData);
     }
 
     @Override
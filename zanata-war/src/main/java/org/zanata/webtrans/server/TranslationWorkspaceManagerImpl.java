@@ -15,6 +15,7 @@ import de.novanic.eventservice.service.registry.user.UserManager;
 import de.novanic.eventservice.service.registry.user.UserManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.zanata.async.Async;
+import org.zanata.async.AsyncTaskLane;
 import org.zanata.common.EntityStatus;
 import org.zanata.common.ProjectType;
 import org.zanata.dao.ProjectIterationDAO;
@@ -139,7 +140,7 @@ public class TranslationWorkspaceManagerImpl implements
     // current thread. We have to open a new transaction to load any lazy
     // properties (otherwise exception like javax.resource.ResourceException:
     // IJ000460: Error checking for a transaction: Transactions are not active)
-    @Async
+    @Async(AsyncTaskLane.INTERACTIVE)
     public void projectUpdate(@Observes final ProjectUpdate payload) {
         // avoid WELD-2019
         final ProjectUpdate event = payload;
@@ -165,7 +166,7 @@ public class TranslationWorkspaceManagerImpl implements
         }
     }
 
-    @Async
+    @Async(AsyncTaskLane.INTERACTIVE)
     public void projectIterationUpdate(@Observes ProjectIterationUpdate payload) {
         projectIterationUpdate(payload.getIteration(),
                 Optional.<String> absent(), Optional.of(payload.getOldSlug()));
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import org.zanata.util.SysProperties;
+import org.zanata.webtrans.shared.auth.EditorClientId;
+import org.zanata.webtrans.shared.model.TransUnitId;
+import org.zanata.webtrans.shared.model.TransUnitUpdateInfo;
+import org.zanata.webtrans.shared.rpc.SessionEventData;
+import org.zanata.webtrans.shared.rpc.TransUnitEdit;
+import org.zanata.webtrans.shared.rpc.TransUnitUpdated;
+import org.zanata.webtrans.shared.rpc.TransUnitUpdatedBatch;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Sends the events of one workspace to its editors, coalescing the bursts of
+ * {@link TransUnitUpdated} events caused by bulk operations.
+ * <p>
+ * Trans unit updates (and {@link TransUnitEdit} selections) are held for a
+ * short window. Within the window, later updates of a trans unit replace
+ * earlier ones, and selections of an editor replace its earlier selections.
+ * At the end of the window the updates are sent as a single
+ * {@link TransUnitUpdatedBatch}. The number of held events is bounded: when
+ * the bound is reached they are sent straight away, on the publishing thread,
+ * which slows down the bulk operation rather than the editors.
+ * <p>
+ * Any other event sends the held events first, so that editors see events in
+ * the order they were published.
+ */
+@Slf4j
+class WorkspaceEventDispatcher {
+    private static final long WINDOW_MILLIS = SysProperties.getLong(
+            SysProperties.EDITOR_EVENTS_WINDOW_MILLIS, 250);
+    private static final int MAX_PENDING = SysProperties.getInt(
+            SysProperties.EDITOR_EVENTS_QUEUE_SIZE, 500);
+
+    // shared by all workspaces; it only hands events to GWTEventService
+    private static final ScheduledExecutorService SCHEDULER =
+            new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+                    .setNameFormat("workspace-events-%d").setDaemon(true)
+                    .build());
+
+    private final Consumer<SessionEventData> sink;
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final int maxPending;
+
+    // all guarded by this
+    private final Map<UpdateKey, TransUnitUpdated> pendingUpdates =
+            Maps.newLinkedHashMap();
+    private final Map<EditorClientId, TransUnitEdit> pendingEdits =
+            Maps.newLinkedHashMap();
+    private boolean flushScheduled;
+
+    WorkspaceEventDispatcher(Consumer<SessionEventData> sink) {
+        this(sink, SCHEDULER, WINDOW_MILLIS, MAX_PENDING);
+    }
+
+    @VisibleForTesting
+    WorkspaceEventDispatcher(Consumer<SessionEventData> sink,
+            ScheduledExecutorService scheduler, long windowMillis,
+            int maxPending) {
+        this.sink = sink;
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+        this.maxPending = maxPending;
+    }
+
+    synchronized void publish(SessionEventData eventData) {
+        if (windowMillis <= 0) {
+            sink.accept(eventData);
+        } else if (eventData instanceof TransUnitUpdated) {
+            TransUnitUpdated updated = (TransUnitUpdated) eventData;
+            UpdateKey key = UpdateKey.of(updated);
+            // removing first moves the update to the end of the batch, after
+            // any updates of the trans unit made under other keys
+            TransUnitUpdated previous = pendingUpdates.remove(key);
+            pendingUpdates.put(key, previous == null ? updated
+                    : coalesce(previous, updated));
+            afterHolding();
+        } else if (eventData instanceof TransUnitEdit) {
+            TransUnitEdit edit = (TransUnitEdit) eventData;
+            pendingEdits.remove(edit.getEditorClientId());
+            pendingEdits.put(edit.getEditorClientId(), edit);
+            afterHolding();
+        } else {
+            flush();
+            sink.accept(eventData);
+        }
+    }
+
+    /**
+     * Sends all the held events.
+     */
+    synchronized void flush() {
+        flushScheduled = false;
+        if (!pendingEdits.isEmpty()) {
+            for (TransUnitEdit edit : pendingEdits.values()) {
+                sink.accept(edit);
+            }
+            pendingEdits.clear();
+        }
+        if (pendingUpdates.size() == 1) {
+            sink.accept(pendingUpdates.values().iterator().next());
+        } else if (!pendingUpdates.isEmpty()) {
+            sink.accept(new TransUnitUpdatedBatch(
+                    ImmutableList.copyOf(pendingUpdates.values())));
+        }
+        pendingUpdates.clear();
+    }
+
+    synchronized int getPendingCount() {
+        return pendingUpdates.size() + pendingEdits.size();
+    }
+
+    private void afterHolding() {
+        if (getPendingCount() >= maxPending) {
+            log.debug("{} events waiting; sending them now", maxPending);
+            flush();
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            scheduler.schedule(this::flushQuietly, windowMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("error sending workspace events", e);
+        }
+    }
+
+    /**
+     * Combines two successive updates of a trans unit into one, which goes
+     * from the state before the first update to the state after the second.
+     */
+    private static TransUnitUpdated coalesce(TransUnitUpdated first,
+            TransUnitUpdated second) {
+        TransUnitUpdateInfo firstInfo = first.getUpdateInfo();
+        TransUnitUpdateInfo secondInfo = second.getUpdateInfo();
+        if (!firstInfo.isSuccess() || !secondInfo.isSuccess()) {
+            return second;
+        }
+        TransUnitUpdateInfo info = new TransUnitUpdateInfo(true,
+                firstInfo.isTargetChanged() || secondInfo.isTargetChanged(),
+                secondInfo.getDocumentId(), secondInfo.getTransUnit(),
+                secondInfo.getSourceWordCount(),
+                firstInfo.getPreviousVersionNum(),
+                firstInfo.getPreviousState());
+        return new TransUnitUpdated(info, second.getEditorClientId(),
+                second.getUpdateType());
+    }
+
+    /**
+     * Updates are only coalesced if they were made in the same way by the
+     * same editor (if any), because editors treat their own saves
+     * differently.
+     */
+    @Value
+    private static class UpdateKey {
+        TransUnitId transUnitId;
+        EditorClientId editorClientId;
+        TransUnitUpdated.UpdateType updateType;
+
+        static UpdateKey of(TransUnitUpdated updated) {
+            return new UpdateKey(
+                    updated.getUpdateInfo().getTransUnit().getId(),
+                    updated.getEditorClientId(), updated.getUpdateType());
+        }
+    }
+}
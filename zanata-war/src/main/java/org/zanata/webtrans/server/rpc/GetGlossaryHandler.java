@@ -37,6 +37,9 @@ import org.zanata.dao.GlossaryDAO;
 import org.zanata.model.HGlossaryTerm;
 import org.zanata.search.LevenshteinUtil;
 import org.zanata.security.ZanataIdentity;
+import org.zanata.service.impl.GlossaryTermMatcherCache;
+import org.zanata.service.impl.GlossaryTermMatcherCache.TermPair;
+import org.zanata.util.AhoCorasickMatcher.Match;
 import org.zanata.util.ShortString;
 import org.zanata.webtrans.server.ActionHandlerFor;
 import org.zanata.webtrans.shared.model.GlossaryResultItem;
@@ -67,6 +70,9 @@ public class GetGlossaryHandler extends
     @Inject
     private ZanataIdentity identity;
 
+    @Inject
+    private GlossaryTermMatcherCache glossaryTermMatcherCache;
+
     @Override
     public GetGlossaryResult execute(GetGlossary action,
             ExecutionContext context) throws ActionException {
@@ -78,9 +84,56 @@ public class GetGlossaryHandler extends
         log.debug("Fetching Glossary matches({}) for \"{}\"", searchType,
                 abbrev);
 
-        LocaleId localeID = action.getLocaleId();
         ArrayList<GlossaryResultItem> results;
+        if (action.isTermLookup()) {
+            results = findTerms(action);
+        } else {
+            results = searchGlossary(action);
+        }
+
+        Collections.sort(results, COMPARATOR);
+        if (results.size() > MAX_RESULTS) {
+            results = new ArrayList<GlossaryResultItem>(
+                    results.subList(0, MAX_RESULTS));
+        }
 
+        log.debug("Returning {} Glossary matches for \"{}\"", results.size(),
+                abbrev);
+        return new GetGlossaryResult(action, results);
+    }
+
+    /**
+     * Finds the glossary terms which occur in the source text of a row, using
+     * the in-memory term matcher rather than the search index.
+     */
+    private ArrayList<GlossaryResultItem> findTerms(GetGlossary action) {
+        String sourceText = action.getQuery();
+        List<Match<TermPair>> matches =
+                glossaryTermMatcherCache.findTerms(action.getSrcLocaleId(),
+                        action.getLocaleId(), sourceText);
+        Map<GlossaryKey, GlossaryResultItem> matchesMap =
+                new LinkedHashMap<GlossaryKey, GlossaryResultItem>();
+        for (Match<TermPair> match : matches) {
+            TermPair pair = match.getValue();
+            // every match is exact, so relevance is the term's share of the
+            // source text
+            float score = (float) (match.getEnd() - match.getStart())
+                    / sourceText.length();
+            GlossaryResultItem item =
+                    getOrCreateGlossaryResultItem(matchesMap,
+                            pair.getSource(), pair.getTarget(), score,
+                            sourceText);
+            if (!item.getSourceIdList().contains(pair.getSourceTermId())) {
+                item.addSourceId(pair.getSourceTermId());
+            }
+        }
+        return new ArrayList<GlossaryResultItem>(matchesMap.values());
+    }
+
+    private ArrayList<GlossaryResultItem> searchGlossary(GetGlossary action) {
+        String searchText = action.getQuery();
+        SearchType searchType = action.getSearchType();
+        LocaleId localeID = action.getLocaleId();
         try {
             List<Object[]> matches =
                     glossaryDAO.getSearchResult(searchText, searchType,
@@ -107,7 +160,7 @@ public class GetGlossaryHandler extends
                                 (Float) match[0], searchText);
                 item.addSourceId(sourceTerm.getId());
             }
-            results = new ArrayList<GlossaryResultItem>(matchesMap.values());
+            return new ArrayList<GlossaryResultItem>(matchesMap.values());
         } catch (ParseException e) {
             if (searchType == SearchType.FUZZY) {
                 log.warn("Can't parse fuzzy query '" + searchText + "'");
@@ -115,14 +168,8 @@ public class GetGlossaryHandler extends
                 // escaping failed!
                 log.error("Can't parse query '" + searchText + "'", e);
             }
-            results = new ArrayList<GlossaryResultItem>(0);
+            return new ArrayList<GlossaryResultItem>(0);
         }
-
-        Collections.sort(results, COMPARATOR);
-
-        log.debug("Returning {} Glossary matches for \"{}\"", results.size(),
-                abbrev);
-        return new GetGlossaryResult(action, results);
     }
 
     private static GlossaryResultItem getOrCreateGlossaryResultItem(
@@ -32,10 +32,12 @@ import javax.inject.Named;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
+import org.zanata.dao.DocumentDAO;
 import org.zanata.dao.TextFlowDAO;
 import org.zanata.exception.ZanataServiceException;
 import org.zanata.model.HLocale;
 import org.zanata.model.HTextFlow;
+import org.zanata.rest.service.ResourceUtils;
 import org.zanata.search.FilterConstraints;
 import org.zanata.security.ZanataIdentity;
 import org.zanata.service.LocaleService;
@@ -66,6 +68,12 @@ public class GetTransUnitListHandler extends
     @Inject
     private TextFlowDAO textFlowDAO;
 
+    @Inject
+    private DocumentDAO documentDAO;
+
+    @Inject
+    private ResourceUtils resourceUtils;
+
     @Inject
     private LocaleService localeServiceImpl;
 
@@ -139,12 +147,20 @@ public class GetTransUnitListHandler extends
             }
         }
 
-        List<HTextFlow> textFlows =
-                getTextFlows(action, hLocale, targetOffset, constraints);
+        List<TransUnit> units;
+        if (!hasStatusAndSearchFilter(action) && !hasValidationFilter(action)) {
+            log.debug("Fetch TransUnits:*");
+            units = getTransUnitPage(action, hLocale, targetOffset);
+        } else {
+            List<HTextFlow> textFlows =
+                    getTextFlows(action, hLocale, targetOffset, constraints);
+            units = Lists.transform(textFlows,
+                    new HTextFlowToTransUnitFunction(hLocale,
+                            transUnitTransformer));
+        }
 
         GetTransUnitListResult result =
-                transformToTransUnits(action, hLocale, textFlows, targetOffset,
-                        targetPageIndex);
+                toResult(action, units, targetOffset, targetPageIndex);
         result.setNavigationIndex(navigationResult);
         return result;
     }
@@ -160,31 +176,36 @@ public class GetTransUnitListHandler extends
         return totalPageNumber > 0 ? totalPageNumber - 1 : totalPageNumber;
     }
 
+    /**
+     * Loads a page of an unfiltered document straight into TransUnits, with
+     * one query and without loading entities.
+     */
+    private List<TransUnit> getTransUnitPage(GetTransUnitList action,
+            HLocale hLocale, int offset) {
+        Long documentId = action.getDocumentId().getId();
+        int nPlurals = resourceUtils.getNumPlurals(
+                documentDAO.getById(documentId), hLocale);
+        return textFlowDAO.getTextFlowsAndTargetsByDocumentId(documentId,
+                hLocale, offset, action.getCount(),
+                new TransUnitResultTransformer(hLocale, nPlurals));
+    }
+
     private List<HTextFlow> getTextFlows(GetTransUnitList action,
             HLocale hLocale, int offset, FilterConstraints constraints) {
         List<HTextFlow> textFlows;
         if (!hasStatusAndSearchFilter(action)) {
-            log.debug("Fetch TransUnits:*");
-            if (!hasValidationFilter(action)) {
-                // TODO debt: this should use a left join to fetch target (and
-                // possibly comments)
-                textFlows =
-                        textFlowDAO.getTextFlowsByDocumentId(action
-                                .getDocumentId().getId(), offset,
-                                action.getCount());
-            } else {
-                // TODO debt: this is not scalable. But we may not have other
-                // choice
-                // for validation filter. Maybe use scrollable result will help?
-                textFlows =
-                        textFlowDAO.getTextFlowsByDocumentId(action
-                                .getDocumentId().getId(), null, null);
-                textFlows =
-                        validationServiceImpl.filterHasWarningOrErrorTextFlow(
-                                textFlows, action.getValidationIds(),
-                                hLocale.getLocaleId(), offset,
-                                action.getCount());
-            }
+            log.debug("Fetch TransUnits:* with validation filter");
+            // TODO debt: this is not scalable. But we may not have other
+            // choice
+            // for validation filter. Maybe use scrollable result will help?
+            textFlows =
+                    textFlowDAO.getTextFlowsByDocumentId(action
+                            .getDocumentId().getId(), null, null);
+            textFlows =
+                    validationServiceImpl.filterHasWarningOrErrorTextFlow(
+                            textFlows, action.getValidationIds(),
+                            hLocale.getLocaleId(), offset,
+                            action.getCount());
         } else {
             // has status and other search field filter
             log.debug("Fetch TransUnits filtered by status and/or search: {}",
@@ -232,13 +253,8 @@ public class GetTransUnitListHandler extends
         }
     }
 
-    private GetTransUnitListResult transformToTransUnits(
-            GetTransUnitList action, HLocale hLocale,
-            List<HTextFlow> textFlows, int targetOffset, int targetPage) {
-        List<TransUnit> units =
-                Lists.transform(textFlows, new HTextFlowToTransUnitFunction(
-                        hLocale, transUnitTransformer));
-
+    private GetTransUnitListResult toResult(GetTransUnitList action,
+            List<TransUnit> units, int targetOffset, int targetPage) {
         int gotoRow = 0;
         if (action.getTargetTransUnitId() != null) {
             int row =
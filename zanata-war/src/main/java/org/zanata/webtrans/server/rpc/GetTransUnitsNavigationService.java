@@ -34,15 +34,18 @@ import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 import org.zanata.common.ContentState;
 import org.zanata.dao.TextFlowDAO;
+import org.zanata.events.DocumentLocaleKey;
 import org.zanata.model.HLocale;
 import org.zanata.model.HTextFlow;
 import org.zanata.model.HTextFlowTarget;
 import org.zanata.search.FilterConstraints;
+import org.zanata.webtrans.shared.model.DocumentId;
 import org.zanata.webtrans.shared.model.TransUnitId;
 import org.zanata.webtrans.shared.rpc.EditorFilter;
 import org.zanata.webtrans.shared.rpc.GetTransUnitsNavigation;
 import org.zanata.webtrans.shared.rpc.GetTransUnitsNavigationResult;
 
+import com.google.common.base.Strings;
 import lombok.extern.slf4j.Slf4j;
 
 @Named("getTransUnitsNavigationService")
@@ -53,8 +56,25 @@ public class GetTransUnitsNavigationService {
     @Inject
     private TextFlowDAO textFlowDAO;
 
+    @Inject
+    private TransUnitNavigationIndexCache navigationIndexCache;
+
     protected GetTransUnitsNavigationResult getNavigationIndexes(
             GetTransUnitsNavigation action, HLocale hLocale) {
+        FilterConstraints constraints = action.getConstraints();
+        if (isStatusFilterOnly(constraints)) {
+            DocumentId documentId = action.getDocumentId();
+            TransUnitNavigationIndexCache.NavigationIndex index =
+                    navigationIndexCache.get(
+                            new DocumentLocaleKey(documentId.getId(),
+                                    hLocale.getLocaleId()),
+                            () -> loadNavigationIndex(documentId, hLocale));
+            GetTransUnitsNavigationResult result =
+                    index.filter(constraints.getIncludedStates());
+            log.debug("for action {} returned size: {} (cached)", action,
+                    result.getIdIndexList().size());
+            return result;
+        }
         List<TransUnitId> idIndexList = new ArrayList<TransUnitId>();
         Map<TransUnitId, ContentState> transIdStateMap =
                 new HashMap<TransUnitId, ContentState>();
@@ -77,6 +97,37 @@ public class GetTransUnitsNavigationService {
         return new GetTransUnitsNavigationResult(idIndexList, transIdStateMap);
     }
 
+    /**
+     * Only the state filter can be applied to a cached navigation index; any
+     * other constraint needs the full query.
+     */
+    private static boolean isStatusFilterOnly(FilterConstraints constraints) {
+        return Strings.isNullOrEmpty(constraints.getSearchString())
+                && Strings.isNullOrEmpty(constraints.getResId())
+                && constraints.getChangedBefore() == null
+                && constraints.getChangedAfter() == null
+                && Strings.isNullOrEmpty(constraints.getLastModifiedByUser())
+                && Strings.isNullOrEmpty(constraints.getSourceComment())
+                && Strings.isNullOrEmpty(constraints.getTransComment())
+                && Strings.isNullOrEmpty(constraints.getMsgContext());
+    }
+
+    private TransUnitNavigationIndexCache.NavigationIndex loadNavigationIndex(
+            DocumentId documentId, HLocale hLocale) {
+        List<HTextFlow> textFlows =
+                textFlowDAO.getNavigationByDocumentId(documentId, hLocale,
+                        new TextFlowResultTransformer(hLocale),
+                        FilterConstraints.builder().keepAll().build());
+        long[] ids = new long[textFlows.size()];
+        ContentState[] states = new ContentState[textFlows.size()];
+        for (int i = 0; i < ids.length; i++) {
+            HTextFlow textFlow = textFlows.get(i);
+            ids[i] = textFlow.getId();
+            states[i] = textFlow.getTargets().get(hLocale.getId()).getState();
+        }
+        return new TransUnitNavigationIndexCache.NavigationIndex(ids, states);
+    }
+
     /**
      * This class is just so we can set id (protected) and avoid hibernate
      * proxies.
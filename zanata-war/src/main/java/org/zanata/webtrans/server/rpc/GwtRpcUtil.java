@@ -58,14 +58,26 @@ class GwtRpcUtil {
      */
     static ArrayList<String> getTargetContentsWithPadding(HTextFlow textFlow,
             HTextFlowTarget target, int nPlurals) {
-        int expectedResultSize = textFlow.isPlural() ? nPlurals : 1;
+        return padTargetContents(textFlow.getResId(), textFlow.isPlural(),
+                target == null ? null : target.getContents(), nPlurals);
+    }
+
+    /**
+     * Pads (or trims) target contents to nPlurals (if the text flow allows
+     * plurals), or to 1 otherwise.
+     *
+     * @param targetContents
+     *            contents of the target, or null if there is no target
+     */
+    static ArrayList<String> padTargetContents(String resId, boolean plural,
+            List<String> targetContents, int nPlurals) {
+        int expectedResultSize = plural ? nPlurals : 1;
         ArrayList<String> result = new ArrayList<String>(expectedResultSize);
-        if (target != null) {
-            List<String> targetContents = target.getContents();
+        if (targetContents != null) {
             if (targetContents.size() > expectedResultSize) {
                 log.warn(
-                        "TextFlowTarget {} has {} strings: trimming excess plurals",
-                        target.getId(), targetContents.size());
+                        "Target for text flow {} has {} strings: trimming excess plurals",
+                        resId, targetContents.size());
                 result.addAll(targetContents.subList(0, expectedResultSize));
             } else {
                 result.addAll(targetContents);
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server.rpc;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Named;
+
+import org.zanata.common.ContentState;
+import org.zanata.events.DocumentLocaleKey;
+import org.zanata.events.DocumentUploadedEvent;
+import org.zanata.events.TextFlowTargetStateEvent;
+import org.zanata.util.Introspectable;
+import org.zanata.util.SysProperties;
+import org.zanata.webtrans.shared.model.ContentStateGroup;
+import org.zanata.webtrans.shared.model.TransUnitId;
+import org.zanata.webtrans.shared.rpc.GetTransUnitsNavigationResult;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Caches the editor's navigation index (the ids and states of all text flows
+ * in a document, in document order) for each document and locale, so that
+ * changing the status filter does not need to query the database.
+ * <p>
+ * Cached indexes are updated as translation states change, and are discarded
+ * when a document is uploaded.
+ */
+@Named("transUnitNavigationIndexCache")
+@ApplicationScoped
+public class TransUnitNavigationIndexCache implements Introspectable {
+    private static final String BASE =
+            TransUnitNavigationIndexCache.class.getName();
+    private static final String SIZE_FIELD = BASE + ".size";
+    private static final String STATS_FIELD = BASE + ".stats";
+
+    private static final long MAX_TEXT_FLOWS = SysProperties.getLong(
+            SysProperties.NAVIGATION_INDEX_CACHE_TEXT_FLOWS, 2000000);
+
+    private final Cache<DocumentLocaleKey, NavigationIndex> cache;
+
+    // incremented before every change, so that a load which overlaps a
+    // change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public TransUnitNavigationIndexCache() {
+        this(MAX_TEXT_FLOWS);
+    }
+
+    @VisibleForTesting
+    TransUnitNavigationIndexCache(long maxTextFlows) {
+        cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxTextFlows)
+                .weigher((DocumentLocaleKey key, NavigationIndex index) ->
+                        index.size())
+                .expireAfterAccess(30, TimeUnit.MINUTES)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached index for a document and locale, or loads and caches
+     * it.
+     *
+     * @param loader
+     *            loads the index from the database
+     */
+    public NavigationIndex get(DocumentLocaleKey key,
+            Supplier<NavigationIndex> loader) {
+        NavigationIndex index = cache.getIfPresent(key);
+        if (index != null) {
+            return index;
+        }
+        long generationAtStart = generation.get();
+        index = loader.get();
+        cache.put(key, index);
+        if (generation.get() != generationAtStart) {
+            // a change may have been missed by the loaded index
+            cache.invalidate(key);
+        }
+        return index;
+    }
+
+    public void textFlowStateUpdated(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS)
+            TextFlowTargetStateEvent event) {
+        generation.incrementAndGet();
+        NavigationIndex index = cache.getIfPresent(event.getKey());
+        if (index == null) {
+            return;
+        }
+        for (TextFlowTargetStateEvent.TextFlowTargetStateChange change : event
+                .getStates()) {
+            if (!index.updateState(change.getTextFlowId(),
+                    change.getNewState())) {
+                // a text flow we don't know about (eg newly added)
+                cache.invalidate(event.getKey());
+                return;
+            }
+        }
+    }
+
+    public void documentUploaded(
+            @Observes(during = TransactionPhase.AFTER_SUCCESS)
+            DocumentUploadedEvent event) {
+        generation.incrementAndGet();
+        if (event.isSourceDocument()) {
+            // text flows may have been added, removed or reordered
+            cache.asMap().keySet().removeIf(key -> key.getDocumentId()
+                    .equals(event.getDocumentId()));
+        } else {
+            cache.invalidate(new DocumentLocaleKey(event.getDocumentId(),
+                    event.getLocaleId()));
+        }
+    }
+
+    @Override
+    public String getIntrospectableId() {
+        return TransUnitNavigationIndexCache.class.getCanonicalName();
+    }
+
+    @Override
+    public Collection<String> getIntrospectableFieldNames() {
+        return Lists.newArrayList(SIZE_FIELD, STATS_FIELD);
+    }
+
+    @Override
+    public String getFieldValueAsString(String fieldName) {
+        if (SIZE_FIELD.equals(fieldName)) {
+            return String.valueOf(cache.size());
+        }
+        if (STATS_FIELD.equals(fieldName)) {
+            return cache.stats().toString();
+        }
+        throw new IllegalArgumentException("unknown field:" + fieldName);
+    }
+
+    /**
+     * Ids and states of the text flows in a document, in document order. The
+     * states are stored as {@link ContentState} ordinals (New for text flows
+     * without a target).
+     */
+    public static final class NavigationIndex {
+        private static final ContentState[] STATES = ContentState.values();
+
+        private final long[] textFlowIds;
+        // guarded by this
+        private final byte[] states;
+        // textFlowIds in ascending order, and their positions in textFlowIds
+        private final long[] sortedIds;
+        private final int[] sortedPositions;
+
+        public NavigationIndex(long[] textFlowIds, ContentState[] states) {
+            int size = textFlowIds.length;
+            this.textFlowIds = textFlowIds;
+            this.states = new byte[size];
+            for (int i = 0; i < size; i++) {
+                this.states[i] = (byte) states[i].ordinal();
+            }
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(textFlowIds[a],
+                    textFlowIds[b]));
+            sortedIds = new long[size];
+            sortedPositions = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedIds[i] = textFlowIds[order[i]];
+                sortedPositions[i] = order[i];
+            }
+        }
+
+        public int size() {
+            return textFlowIds.length;
+        }
+
+        /**
+         * @return false if the text flow is not in this index
+         */
+        synchronized boolean updateState(Long textFlowId, ContentState state) {
+            int i = Arrays.binarySearch(sortedIds, textFlowId);
+            if (i < 0) {
+                return false;
+            }
+            states[sortedPositions[i]] = (byte) state.ordinal();
+            return true;
+        }
+
+        /**
+         * @return the ids and states of the text flows with one of the given
+         *         states, in document order
+         */
+        public synchronized GetTransUnitsNavigationResult filter(
+                ContentStateGroup includedStates) {
+            boolean[] include = new boolean[STATES.length];
+            for (ContentState state : includedStates.asList()) {
+                include[state.ordinal()] = true;
+            }
+            List<TransUnitId> idIndexList = Lists.newArrayList();
+            Map<TransUnitId, ContentState> transIdStateMap =
+                    Maps.newHashMap();
+            for (int i = 0; i < textFlowIds.length; i++) {
+                if (include[states[i]]) {
+                    TransUnitId id = new TransUnitId(textFlowIds[i]);
+                    idIndexList.add(id);
+                    transIdStateMap.put(id, STATES[states[i]]);
+                }
+            }
+            return new GetTransUnitsNavigationResult(idIndexList,
+                    transIdStateMap);
+        }
+    }
+}
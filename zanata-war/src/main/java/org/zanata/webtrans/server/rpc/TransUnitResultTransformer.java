@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server.rpc;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.transform.ResultTransformer;
+import org.zanata.common.ContentState;
+import org.zanata.model.HLocale;
+import org.zanata.model.HTextFlow;
+import org.zanata.webtrans.shared.model.TransUnit;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Builds {@link TransUnit}s directly from the columns selected by
+ * {@link org.zanata.dao.TextFlowDAO#getTextFlowsAndTargetsByDocumentId}, so
+ * that the editor's pages don't need text flow and target entities (and the
+ * lazy loading of their targets and comments).
+ * <p>
+ * The result is the same as that of
+ * {@link TransUnitTransformer#transform(HTextFlow, HLocale)}.
+ */
+public class TransUnitResultTransformer implements ResultTransformer {
+    private static final long serialVersionUID = 1L;
+    private static final int NULL_TARGET_VERSION_NUM = 0;
+
+    private final HLocale hLocale;
+    private final int nPlurals;
+
+    /**
+     * @param nPlurals
+     *            number of plural forms of the locale in the document
+     */
+    public TransUnitResultTransformer(HLocale hLocale, int nPlurals) {
+        this.hLocale = hLocale;
+        this.nPlurals = nPlurals;
+    }
+
+    @Override
+    public TransUnit transformTuple(Object[] tuple, String[] aliases) {
+        Map<String, Object> row = Maps.newHashMapWithExpectedSize(tuple.length);
+        for (int i = 0; i < aliases.length; i++) {
+            row.put(aliases[i], tuple[i]);
+        }
+        String resId = (String) row.get("resId");
+        boolean plural = Boolean.TRUE.equals(row.get("plural"));
+        // state is only null when there is no target
+        boolean hasTarget = row.get("state") != null;
+
+        TransUnit.Builder builder =
+                TransUnit.Builder
+                        .newTransUnitBuilder()
+                        .setId((Long) row.get("id"))
+                        .setResId(resId)
+                        .setLocaleId(hLocale.getLocaleId())
+                        .setPlural(plural)
+                        .setSources(contents(row, "source"))
+                        .setSourceComment((String) row.get("sourceComment"))
+                        .setTargets(GwtRpcUtil.padTargetContents(resId,
+                                plural,
+                                hasTarget ? contents(row, "target") : null,
+                                nPlurals))
+                        .setTargetComment((String) row.get("targetComment"))
+                        .setMsgContext((String) row.get("msgContext"))
+                        .setSourceRefs((String) row.get("sourceRefs"))
+                        .setSourceFlags((String) row.get("sourceFlags"))
+                        .setRowIndex((Integer) row.get("pos"))
+                        .setVerNum(hasTarget ? (Integer) row.get("verNum")
+                                : NULL_TARGET_VERSION_NUM)
+                        .setCommentsCount(hasTarget ? ((Number) row
+                                .get("commentsCount")).intValue() : 0);
+
+        if (hasTarget) {
+            builder.setStatus((ContentState) row.get("state"));
+            builder.setLastModifiedBy((String) row.get("lastModifiedBy"));
+            builder.setLastModifiedTime((Date) row.get("lastChanged"));
+            builder.setRevisionComment((String) row.get("revisionComment"));
+        }
+        return builder.build();
+    }
+
+    /**
+     * The same as HTextFlow/HTextFlowTarget.getContents(): content0 to
+     * contentN, where contentN is the last non-null content.
+     */
+    private static ArrayList<String> contents(Map<String, Object> row,
+            String prefix) {
+        ArrayList<String> contents = Lists.newArrayList();
+        int last = -1;
+        for (int i = 0; i < HTextFlow.MAX_PLURALS; i++) {
+            if (row.get(prefix + i) != null) {
+                last = i;
+            }
+        }
+        for (int i = 0; i <= last; i++) {
+            contents.add((String) row.get(prefix + i));
+        }
+        return contents;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<TransUnit> transformList(List collection) {
+        return collection;
+    }
+}
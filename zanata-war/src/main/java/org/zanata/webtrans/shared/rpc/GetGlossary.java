@@ -9,6 +9,7 @@ public class GetGlossary implements DispatchAction<GetGlossaryResult>,
     private String query;
     private SearchType searchType;
     private LocaleId srcLocaleId;
+    private boolean termLookup;
 
     @SuppressWarnings("unused")
     private GetGlossary() {
@@ -22,6 +23,19 @@ public class GetGlossary implements DispatchAction<GetGlossaryResult>,
         this.srcLocaleId = srcLocaleId;
     }
 
+    /**
+     * Creates an action which finds the glossary terms occurring in the
+     * source text of a row, rather than searching for a query typed by the
+     * user.
+     */
+    public static GetGlossary forSourceText(String sourceText,
+            LocaleId localeId, LocaleId srcLocaleId) {
+        GetGlossary action = new GetGlossary(sourceText, localeId,
+                srcLocaleId, SearchType.FUZZY);
+        action.termLookup = true;
+        return action;
+    }
+
     @Override
     public SearchType getSearchType() {
         return searchType;
@@ -47,6 +61,14 @@ public class GetGlossary implements DispatchAction<GetGlossaryResult>,
         return srcLocaleId;
     }
 
+    /**
+     * @return true if the query is the source text of a row, in which to
+     *         find glossary terms
+     */
+    public boolean isTermLookup() {
+        return termLookup;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -57,6 +79,7 @@ public class GetGlossary implements DispatchAction<GetGlossaryResult>,
         result =
                 prime * result
                         + ((searchType == null) ? 0 : searchType.hashCode());
+        result = prime * result + (termLookup ? 1231 : 1237);
         return result;
     }
 
@@ -86,7 +109,8 @@ public class GetGlossary implements DispatchAction<GetGlossaryResult>,
         } else if (!query.equals(other.query)) {
             return false;
         }
-        return searchType == other.searchType;
+        return searchType == other.searchType
+                && termLookup == other.termLookup;
     }
 
 }
@@ -26,6 +26,7 @@ import org.hibernate.internal.SessionImpl;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.runner.RunWith;
+import org.zanata.dao.DocumentStatisticDAO;
 
 /**
  * Adapted from org.jboss.seam.mock.DBUnitSeamTest
@@ -77,6 +78,7 @@ public abstract class ZanataDbunitJpaTest extends ZanataJpaTest {
         }
 
         executeOperations(beforeTestOperations);
+        rebuildDocumentStatistics();
         clearCache();
     }
 
@@ -86,6 +88,19 @@ public abstract class ZanataDbunitJpaTest extends ZanataJpaTest {
         clearCache();
     }
 
+    /**
+     * DBUnit bypasses Hibernate events, so the stored statistics are rebuilt
+     * from the loaded data (as they are when the database is migrated).
+     */
+    private void rebuildDocumentStatistics() {
+        getSession().createSQLQuery("delete from HDocumentStatistic")
+                .executeUpdate();
+        DocumentStatisticDAO dao = new DocumentStatisticDAO(getSession());
+        for (Long documentId : dao.getAllDocumentIds()) {
+            dao.recalculate(documentId);
+        }
+    }
+
     private void clearCache() {
         /*
          * Session session = getSession();
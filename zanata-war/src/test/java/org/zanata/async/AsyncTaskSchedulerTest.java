@@ -0,0 +1,157 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.async;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class AsyncTaskSchedulerTest {
+    private AsyncTaskScheduler scheduler;
+
+    @After
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    private static AsyncTaskScheduler newScheduler(int threads,
+            int queueCapacity, int maxTasksPerUser) {
+        Map<AsyncTaskLane, AsyncTaskScheduler.LaneConfig> lanes =
+                new EnumMap<>(AsyncTaskLane.class);
+        for (AsyncTaskLane lane : AsyncTaskLane.values()) {
+            lanes.put(lane, new AsyncTaskScheduler.LaneConfig(threads,
+                    queueCapacity, maxTasksPerUser));
+        }
+        return new AsyncTaskScheduler(lanes);
+    }
+
+    private static Runnable await(CountDownLatch started,
+            CountDownLatch release) {
+        return () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    @Test
+    public void busyBulkLaneDoesNotDelayInteractiveLane() throws Exception {
+        scheduler = newScheduler(1, 10, 0);
+        CountDownLatch bulkStarted = new CountDownLatch(1);
+        CountDownLatch releaseBulk = new CountDownLatch(1);
+        CountDownLatch interactiveRan = new CountDownLatch(1);
+
+        scheduler.submit(AsyncTaskLane.BULK, null,
+                await(bulkStarted, releaseBulk));
+        assertThat(bulkStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        scheduler.submit(AsyncTaskLane.INTERACTIVE, null,
+                interactiveRan::countDown);
+
+        assertThat(interactiveRan.await(5, TimeUnit.SECONDS)).isTrue();
+        releaseBulk.countDown();
+    }
+
+    @Test
+    public void rejectsTasksWhenQueueIsFull() throws Exception {
+        scheduler = newScheduler(1, 1, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.submit(AsyncTaskLane.NORMAL, null, await(started, release));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // fills the queue
+        scheduler.submit(AsyncTaskLane.NORMAL, null, () -> {
+        });
+
+        try {
+            scheduler.submit(AsyncTaskLane.NORMAL, null, () -> {
+            });
+            fail("expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        release.countDown();
+
+        AsyncTaskLaneStatistics stats =
+                scheduler.getStatistics(AsyncTaskLane.NORMAL);
+        assertThat(stats.getSubmittedTasks()).isEqualTo(2);
+        assertThat(stats.getRejectedTasks()).isEqualTo(1);
+    }
+
+    @Test
+    public void limitsRunningTasksPerUser() throws Exception {
+        scheduler = newScheduler(2, 10, 1);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch otherUserRan = new CountDownLatch(1);
+        CountDownLatch secondRan = new CountDownLatch(1);
+
+        scheduler.submit(AsyncTaskLane.NORMAL, "alice",
+                await(firstStarted, releaseFirst));
+        assertThat(firstStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        scheduler.submit(AsyncTaskLane.NORMAL, "alice", secondRan::countDown);
+        scheduler.submit(AsyncTaskLane.NORMAL, "bob",
+                otherUserRan::countDown);
+
+        // bob's task uses the free thread, while alice's second task waits
+        assertThat(otherUserRan.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(secondRan.getCount()).isEqualTo(1);
+        assertThat(scheduler.getStatistics(AsyncTaskLane.NORMAL)
+                .getQueuedTasks()).isEqualTo(1);
+
+        releaseFirst.countDown();
+        assertThat(secondRan.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void recordsCompletedTasks() throws Exception {
+        scheduler = newScheduler(2, 10, 0);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            scheduler.submit(AsyncTaskLane.NORMAL, "alice", () -> {
+                runs.incrementAndGet();
+                done.countDown();
+            });
+        }
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        scheduler.shutdown();
+
+        assertThat(runs.get()).isEqualTo(3);
+        AsyncTaskLaneStatistics stats =
+                scheduler.getStatistics(AsyncTaskLane.NORMAL);
+        assertThat(stats.getSubmittedTasks()).isEqualTo(3);
+        assertThat(stats.getQueuedTasks()).isEqualTo(0);
+    }
+}
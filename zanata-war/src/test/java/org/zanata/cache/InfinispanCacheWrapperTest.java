@@ -0,0 +1,239 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors as indicated by the
+ * @author tags. See the copyright.txt file in the distribution for a full
+ * listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This software is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this software; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA, or see the FSF
+ * site: http://www.fsf.org.
+ */
+package org.zanata.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InfinispanCacheWrapperTest {
+    private static final String CACHE_NAME = "testCache";
+
+    private InfinispanTestCacheContainer cacheContainer;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        cacheContainer = new InfinispanTestCacheContainer();
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        cacheContainer.stop();
+    }
+
+    @Test
+    public void concurrentMissesOnSameKeyShareOneLoad() throws Exception {
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLoad = new CountDownLatch(1);
+        final AtomicInteger loadCount = new AtomicInteger();
+        final CacheWrapper<String, String> cache =
+                InfinispanCacheWrapper.create(CACHE_NAME, cacheContainer,
+                        new CacheLoader<String, String>() {
+                            @Override
+                            public String load(String key) throws Exception {
+                                loadCount.incrementAndGet();
+                                loadStarted.countDown();
+                                releaseLoad.await(5, TimeUnit.SECONDS);
+                                return key.toUpperCase();
+                            }
+                        });
+
+        Future<String> first = executor.submit(getWithLoader(cache, "a"));
+        loadStarted.await(5, TimeUnit.SECONDS);
+        Future<String> second = executor.submit(getWithLoader(cache, "a"));
+        Thread.sleep(50);
+        releaseLoad.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("A");
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(cache.getStats().loadCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void missesOnDifferentKeysLoadInParallel() throws Exception {
+        final CountDownLatch bothLoading = new CountDownLatch(2);
+        final CacheWrapper<String, String> cache =
+                InfinispanCacheWrapper.create(CACHE_NAME, cacheContainer,
+                        new CacheLoader<String, String>() {
+                            @Override
+                            public String load(String key) throws Exception {
+                                bothLoading.countDown();
+                                // only completes if the other key's load is
+                                // running at the same time
+                                if (!bothLoading.await(5, TimeUnit.SECONDS)) {
+                                    throw new IllegalStateException(
+                                            "loads were serialised");
+                                }
+                                return key.toUpperCase();
+                            }
+                        });
+
+        Future<String> a = executor.submit(getWithLoader(cache, "a"));
+        Future<String> b = executor.submit(getWithLoader(cache, "b"));
+
+        assertThat(a.get(10, TimeUnit.SECONDS)).isEqualTo("A");
+        assertThat(b.get(10, TimeUnit.SECONDS)).isEqualTo("B");
+    }
+
+    @Test
+    public void recordsHitsAndMisses() throws Exception {
+        CacheWrapper<String, String> cache =
+                InfinispanCacheWrapper.create(CACHE_NAME, cacheContainer,
+                        new CacheLoader<String, String>() {
+                            @Override
+                            public String load(String key) throws Exception {
+                                return key;
+                            }
+                        });
+
+        cache.getWithLoader("a");
+        cache.getWithLoader("a");
+        cache.getWithLoader("a");
+
+        assertThat(cache.getStats().missCount()).isEqualTo(1);
+        assertThat(cache.getStats().hitCount()).isEqualTo(2);
+        assertThat(cache.getStats().loadSuccessCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getAllLoadsMissingKeysInOneBulkLoad() throws Exception {
+        final AtomicInteger bulkLoadCount = new AtomicInteger();
+        CacheWrapper<String, String> cache =
+                InfinispanCacheWrapper.create(CACHE_NAME, cacheContainer,
+                        new CacheLoader<String, String>() {
+                            @Override
+                            public String load(String key) throws Exception {
+                                throw new AssertionError(
+                                        "should use bulk loading");
+                            }
+
+                            @Override
+                            public Map<String, String> loadAll(
+                                    Iterable<? extends String> keys)
+                                    throws Exception {
+                                bulkLoadCount.incrementAndGet();
+                                Map<String, String> result = Maps.newHashMap();
+                                for (String key : keys) {
+                                    result.put(key, key.toUpperCase());
+                                }
+                                return result;
+                            }
+                        });
+        cache.put("a", "cached");
+
+        Map<String, String> result =
+                cache.getAll(ImmutableList.of("a", "b", "c"));
+
+        assertThat(result).containsEntry("a", "cached")
+                .containsEntry("b", "B").containsEntry("c", "C");
+        assertThat(bulkLoadCount.get()).isEqualTo(1);
+        assertThat(cache.get("b")).isEqualTo("B");
+    }
+
+    @Test
+    public void getAllFallsBackToSingleLoads() throws Exception {
+        CacheWrapper<String, String> cache =
+                InfinispanCacheWrapper.create(CACHE_NAME, cacheContainer,
+                        new CacheLoader<String, String>() {
+                            @Override
+                            public String load(String key) throws Exception {
+                                return key.toUpperCase();
+                            }
+                        });
+
+        Map<String, String> result = cache.getAll(ImmutableList.of("a", "b"));
+
+        assertThat(result).containsEntry("a", "A").containsEntry("b", "B");
+        assertThat(cache.getStats().loadSuccessCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void reconcileReplacesDriftedEntries() throws Exception {
+        CacheWrapper<String, String> cache =
+                InfinispanCacheWrapper.create(CACHE_NAME, cacheContainer,
+                        new CacheLoader<String, String>() {
+                            @Override
+                            public String load(String key) throws Exception {
+                                return key.toUpperCase();
+                            }
+                        });
+        cache.put("a", "A");
+        cache.put("b", "drifted");
+
+        int drifted = cache.reconcile(value -> value);
+
+        assertThat(drifted).isEqualTo(1);
+        assertThat(cache.get("a")).isEqualTo("A");
+        assertThat(cache.get("b")).isEqualTo("B");
+    }
+
+    @Test
+    public void reconcileKeepsEntriesUpdatedDuringLoad() throws Exception {
+        List<String> cachedValue = Lists.newArrayList("stale");
+        CacheWrapper<String, List<String>> cache =
+                InfinispanCacheWrapper.create(CACHE_NAME, cacheContainer,
+                new CacheLoader<String, List<String>>() {
+                    @Override
+                    public List<String> load(String key) throws Exception {
+                        // an update applied in place while loading
+                        cachedValue.add("update");
+                        return Lists.newArrayList("loaded");
+                    }
+                });
+        cache.put("a", cachedValue);
+
+        int drifted = cache.reconcile(Lists::newArrayList);
+
+        assertThat(drifted).isEqualTo(0);
+        assertThat(cache.get("a")).containsExactly("stale", "update");
+    }
+
+    private static Callable<String> getWithLoader(
+            final CacheWrapper<String, String> cache, final String key) {
+        return new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return cache.getWithLoader(key);
+            }
+        };
+    }
+}
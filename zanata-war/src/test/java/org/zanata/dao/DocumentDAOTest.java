@@ -24,6 +24,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
 
+import java.util.Map;
+
 import javax.annotation.Nullable;
 
 import org.dbunit.operation.DatabaseOperation;
@@ -31,13 +33,17 @@ import org.junit.Before;
 import org.junit.Test;
 import org.zanata.ZanataDbunitJpaTest;
 import org.zanata.common.LocaleId;
+import org.zanata.events.DocumentLocaleKey;
 import org.zanata.model.HDocument;
 import org.zanata.model.HLocale;
 import org.zanata.model.HSimpleComment;
 import org.zanata.model.HTextFlow;
 import org.zanata.model.HTextFlowTarget;
 
+import org.zanata.ui.model.statistic.WordStatistic;
+
 import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
 
 /**
  * @author Carlos Munoz <a
@@ -101,6 +107,26 @@ public class DocumentDAOTest extends ZanataDbunitJpaTest {
         }
     }
 
+    @Test
+    public void bulkWordStatisticsMatchSingleWordStatistics() throws Exception {
+        HDocument doc =
+                documentDAO.getByProjectIterationAndDocId(PROJECT_SLUG,
+                        ITERATION_SLUG, DOC_ID);
+
+        Map<DocumentLocaleKey, WordStatistic> bulkStats =
+                documentDAO.getWordStatistics(ImmutableList.of(doc.getId()),
+                        ImmutableList.of(as.getLocaleId(), de.getLocaleId()));
+
+        assertThat(bulkStats.size(), equalTo(2));
+        for (HLocale locale : ImmutableList.of(as, de)) {
+            WordStatistic single =
+                    documentDAO.getWordStatistics(doc.getId(),
+                            locale.getLocaleId());
+            assertThat(bulkStats.get(new DocumentLocaleKey(doc.getId(),
+                    locale.getLocaleId())), equalTo(single));
+        }
+    }
+
     private void testHashChange(Function<HDocument, Void> mutator,
             boolean expectHashChange) throws Exception {
         String docHash =
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.dbunit.operation.DatabaseOperation;
+import org.junit.Before;
+import org.junit.Test;
+import org.zanata.ZanataDbunitJpaTest;
+import org.zanata.common.ContentState;
+import org.zanata.common.LocaleId;
+import org.zanata.model.HDocument;
+import org.zanata.model.HDocumentStatistic;
+import org.zanata.model.HLocale;
+
+public class DocumentStatisticDAOTest extends ZanataDbunitJpaTest {
+    private DocumentStatisticDAO dao;
+    private HDocument doc;
+    private HLocale as;
+
+    @Override
+    protected void prepareDBUnitOperations() {
+        beforeTestOperations.add(new DataSetOperation(
+                "org/zanata/test/model/ClearAllTables.dbunit.xml",
+                DatabaseOperation.CLEAN_INSERT));
+        beforeTestOperations.add(new DataSetOperation(
+                "org/zanata/test/model/AccountData.dbunit.xml",
+                DatabaseOperation.CLEAN_INSERT));
+        beforeTestOperations.add(new DataSetOperation(
+                "org/zanata/test/model/ProjectsData.dbunit.xml",
+                DatabaseOperation.CLEAN_INSERT));
+        beforeTestOperations.add(new DataSetOperation(
+                "org/zanata/test/model/TextFlowTestData.dbunit.xml",
+                DatabaseOperation.CLEAN_INSERT));
+        beforeTestOperations.add(new DataSetOperation(
+                "org/zanata/test/model/LocalesData.dbunit.xml",
+                DatabaseOperation.CLEAN_INSERT));
+    }
+
+    @Before
+    public void setUp() {
+        dao = new DocumentStatisticDAO(getSession());
+        doc = new DocumentDAO(getSession()).getByProjectIterationAndDocId(
+                "sample-project", "1.0", "my/path/document.txt");
+        as = new LocaleDAO(getSession()).findByLocaleId(new LocaleId("as"));
+    }
+
+    @Test
+    public void recalculatedStatisticsMatchTargets() {
+        dao.recalculate(doc.getId());
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> live = getSession().createQuery(
+                "select tft.state, count(tft), sum(tft.textFlow.wordCount) "
+                        + "from HTextFlowTarget tft "
+                        + "where tft.textFlow.document = :doc "
+                        + "and tft.locale = :locale "
+                        + "and tft.textFlow.obsolete = false "
+                        + "group by tft.state")
+                .setParameter("doc", doc).setParameter("locale", as).list();
+        assertThat(live).isNotEmpty();
+        for (Object[] row : live) {
+            HDocumentStatistic stored =
+                    getStatistic(doc, as, (ContentState) row[0]);
+            assertThat((long) stored.getMessages()).isEqualTo(row[1]);
+            assertThat(stored.getWords()).isEqualTo(row[2]);
+        }
+    }
+
+    @Test
+    public void addToStatisticCreatesAndUpdatesRows() {
+        dao.recalculate(doc.getId());
+        HDocumentStatistic before =
+                getStatistic(doc, as, ContentState.Approved);
+        int messages = before == null ? 0 : before.getMessages();
+        long words = before == null ? 0 : before.getWords();
+        getSession().clear();
+
+        dao.addToStatistic(doc.getId(), as.getId(), ContentState.Approved, 2,
+                7);
+        dao.addToStatistic(doc.getId(), as.getId(), ContentState.Approved,
+                -1, -3);
+
+        HDocumentStatistic after =
+                getStatistic(doc, as, ContentState.Approved);
+        assertThat(after.getMessages()).isEqualTo(messages + 1);
+        assertThat(after.getWords()).isEqualTo(words + 4);
+    }
+
+    private HDocumentStatistic getStatistic(HDocument doc, HLocale locale,
+            ContentState state) {
+        return (HDocumentStatistic) getSession()
+                .createQuery(
+                        "from HDocumentStatistic s where s.document = :doc "
+                                + "and s.locale = :locale "
+                                + "and s.state = :state")
+                .setParameter("doc", doc).setParameter("locale", locale)
+                .setParameter("state", state).uniqueResult();
+    }
+}
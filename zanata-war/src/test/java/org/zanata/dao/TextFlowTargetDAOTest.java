@@ -21,6 +21,9 @@
 
 package org.zanata.dao;
 
+import java.util.List;
+import java.util.Map;
+
 import org.dbunit.operation.DatabaseOperation;
 import org.junit.Before;
 import org.junit.Test;
@@ -32,6 +35,8 @@ import org.zanata.model.HTextFlowTargetHistory;
 import org.zanata.model.type.EntityType;
 import org.zanata.model.type.TranslationSourceType;
 
+import com.google.common.collect.ImmutableList;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -116,4 +121,24 @@ public class TextFlowTargetDAOTest extends ZanataDbunitJpaTest {
         assertThat(history1.getSourceType()).isEqualTo(sourceType1);
         assertThat(history1.getCopiedEntityId()).isEqualTo(copiedEntityId1);
     }
+
+    @Test
+    public void countsCopyTransCandidatesByHash() {
+        // "hello world" has a Translated target in "as"
+        String hash = "5eb63bbbe01eeed093cb22bb8f5acdc3";
+        List<String> hashes = ImmutableList.of(hash, "no-such-hash");
+
+        Map<String, Long> counts = textFlowTargetDAO
+                .countCopyTransCandidates(hashes, as.getLocaleId(), null,
+                        null);
+        List<TextFlowTargetDAO.CopyTransCandidate> candidates =
+                textFlowTargetDAO.findCopyTransCandidates(hashes,
+                        as.getLocaleId(), null, null);
+
+        assertThat(counts).hasSize(1).containsEntry(hash,
+                (long) candidates.size());
+        assertThat(candidates).isNotEmpty();
+        assertThat(textFlowTargetDAO.countCopyTransCandidates(hashes,
+                as.getLocaleId(), "no/such/doc", null)).isEmpty();
+    }
 }
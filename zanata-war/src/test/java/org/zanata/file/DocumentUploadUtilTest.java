@@ -35,22 +35,17 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.sql.Blob;
-import java.sql.SQLException;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.deltaspike.core.spi.scope.window.WindowContext;
 import org.hibernate.Session;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.zanata.common.EntityStatus;
 import org.zanata.exception.ChunkUploadException;
 import org.zanata.model.HDocumentUpload;
-import org.zanata.model.HDocumentUploadPart;
 import org.zanata.rest.DocumentFileUploadForm;
 import org.zanata.service.TranslationFileService;
 
@@ -69,7 +64,7 @@ import javax.inject.Inject;
 public class DocumentUploadUtilTest extends DocumentUploadTest {
 
     private static final String HASH_OF_ABCDEFGHI =
-            "d41d8cd98f00b204e9800998ecf8427e";
+            "8aa99b1f439ff71293e95357bac6fd94";
     @Produces @Mock
     Session session;
     @Produces @Mock
@@ -86,12 +81,10 @@ public class DocumentUploadUtilTest extends DocumentUploadTest {
     @Produces @ContextPath String contextPath = "";
 
     @Mock
-    Blob partBlob0;
-    @Mock
-    Blob partBlob1;
+    File combinedFile;
 
-    @Captor
-    private ArgumentCaptor<InputStream> persistedInputStreamCaptor;
+    private final InputStream finalPartStream =
+            new ByteArrayInputStream("ghi".getBytes());
 
     @Inject
     private DocumentUploadUtil util;
@@ -329,43 +322,32 @@ public class DocumentUploadUtilTest extends DocumentUploadTest {
     }
 
     @Test
-    public void canCombineUploadPartsInOrder() throws SQLException, IOException {
-        HDocumentUpload upload = mockTwoPartUploadUsingHash(HASH_OF_ABCDEFGHI);
-
-        InputStream finalPartStream =
-                new ByteArrayInputStream("ghi".getBytes());
-        File persistedFile = new File("test");
+    public void combineReturnsCombinedFile() {
+        HDocumentUpload upload = mockCombinedUpload(HASH_OF_ABCDEFGHI);
 
         DocumentFileUploadForm uploadForm = new DocumentFileUploadForm();
         uploadForm.setFileStream(finalPartStream);
 
-        when(
-                translationFileService
-                        .persistToTempFile(persistedInputStreamCaptor.capture()))
-                .thenReturn(persistedFile);
-
         File returnedFile =
                 util.combineToTempFileAndDeleteUploadRecord(upload,
                         uploadForm);
 
-        assertThat(returnedFile, is(sameInstance(persistedFile)));
-        String persistedContents =
-                IOUtils.toString(persistedInputStreamCaptor.getValue(), "utf-8");
-        assertThat(persistedContents, is("abcdefghi"));
+        assertThat(returnedFile, is(sameInstance(combinedFile)));
+        verify(uploadPartPersistService).combineUploadParts(upload,
+                finalPartStream);
         verify(session).delete(upload);
     }
 
     @Test
-    public void combineFailsOnHashMismatch() throws SQLException {
-        HDocumentUpload upload = mockTwoPartUploadUsingHash("incorrect hash");
-        InputStream finalPartStream =
-                new ByteArrayInputStream("ghi".getBytes());
+    public void combineFailsOnHashMismatch() {
+        HDocumentUpload upload = mockCombinedUpload("incorrect hash");
 
         DocumentFileUploadForm uploadForm = new DocumentFileUploadForm();
         uploadForm.setFileStream(finalPartStream);
 
         try {
             util.combineToTempFileAndDeleteUploadRecord(upload, uploadForm);
+            fail("Should throw exception if hash does not match");
         } catch (ChunkUploadException e) {
             assertThat(e.getStatusCode(), is(CONFLICT));
             assertThat(
@@ -374,13 +356,13 @@ public class DocumentUploadUtilTest extends DocumentUploadTest {
                           "not match server-generated hash. Aborted upload " +
                           "operation."));
         }
+        verify(combinedFile).delete();
+        verify(session).delete(upload);
     }
 
     @Test
-    public void combineSetsHashWhenNoHashProvided() throws SQLException {
-        HDocumentUpload upload = mockTwoPartUploadUsingHash("");
-        InputStream finalPartStream =
-                new ByteArrayInputStream("ghi".getBytes());
+    public void combineSetsHashWhenNoHashProvided() {
+        HDocumentUpload upload = mockCombinedUpload("");
 
         DocumentFileUploadForm uploadForm = new DocumentFileUploadForm();
         uploadForm.setFileStream(finalPartStream);
@@ -389,22 +371,13 @@ public class DocumentUploadUtilTest extends DocumentUploadTest {
         assertThat(uploadForm.getHash(), is(HASH_OF_ABCDEFGHI));
     }
 
-    private HDocumentUpload mockTwoPartUploadUsingHash(String hash)
-            throws SQLException {
+    private HDocumentUpload mockCombinedUpload(String hash) {
         HDocumentUpload upload = new HDocumentUpload();
         upload.setContentHash(hash);
-
-        HDocumentUploadPart part0 = new HDocumentUploadPart();
-        when(partBlob0.getBinaryStream()).thenReturn(
-                new ByteArrayInputStream("abc".getBytes()));
-        part0.setContent(partBlob0);
-        upload.getParts().add(part0);
-
-        HDocumentUploadPart part1 = new HDocumentUploadPart();
-        when(partBlob1.getBinaryStream()).thenReturn(
-                new ByteArrayInputStream("def".getBytes()));
-        part1.setContent(partBlob1);
-        upload.getParts().add(part1);
+        when(uploadPartPersistService.combineUploadParts(upload,
+                finalPartStream)).thenReturn(
+                new UploadPartPersistService.CombinedUpload(combinedFile,
+                        HASH_OF_ABCDEFGHI));
         return upload;
     }
 
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.zanata.exception.ChunkUploadException;
+import org.zanata.model.HDocumentUpload;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+
+public class FileSystemUploadPartPersistServiceTest {
+    private static final String HASH_OF_ABCDEFGHI =
+            "8aa99b1f439ff71293e95357bac6fd94";
+
+    @Rule
+    public TemporaryFolder stagingFolder = new TemporaryFolder();
+
+    private FileSystemUploadPartPersistService service;
+    private HDocumentUpload upload;
+
+    @Before
+    public void setUp() {
+        service = new FileSystemUploadPartPersistService(
+                stagingFolder.getRoot());
+        upload = new HDocumentUpload();
+        upload.setId(5L);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(Charsets.UTF_8));
+    }
+
+    @Test
+    public void combinesPartsInOrder() throws IOException {
+        service.saveUploadPart(upload, stream("abc"), 3);
+        service.saveUploadPart(upload, stream("def"), 3);
+
+        UploadPartPersistService.CombinedUpload combined =
+                service.combineUploadParts(upload, stream("ghi"));
+
+        assertThat(Files.toString(combined.getFile(), Charsets.UTF_8))
+                .isEqualTo("abcdefghi");
+        assertThat(combined.getMd5Hash()).isEqualTo(HASH_OF_ABCDEFGHI);
+    }
+
+    @Test
+    public void hashesStagedFileIfHashWasLost() {
+        service.saveUploadPart(upload, stream("abcdef"), 6);
+
+        // eg the server restarted between parts
+        FileSystemUploadPartPersistService restarted =
+                new FileSystemUploadPartPersistService(
+                        stagingFolder.getRoot());
+        UploadPartPersistService.CombinedUpload combined =
+                restarted.combineUploadParts(upload, stream("ghi"));
+
+        assertThat(combined.getMd5Hash()).isEqualTo(HASH_OF_ABCDEFGHI);
+    }
+
+    @Test
+    public void hashesStagedFileIfPartWasStagedElsewhere() throws IOException {
+        service.saveUploadPart(upload, stream("abc"), 3);
+        // eg another node sharing the staging directory
+        FileSystemUploadPartPersistService otherNode =
+                new FileSystemUploadPartPersistService(
+                        stagingFolder.getRoot());
+        otherNode.saveUploadPart(upload, stream("def"), 3);
+
+        UploadPartPersistService.CombinedUpload combined =
+                service.combineUploadParts(upload, stream("ghi"));
+
+        assertThat(Files.toString(combined.getFile(), Charsets.UTF_8))
+                .isEqualTo("abcdefghi");
+        assertThat(combined.getMd5Hash()).isEqualTo(HASH_OF_ABCDEFGHI);
+    }
+
+    @Test
+    public void failedPartIsNotKept() throws IOException {
+        service.saveUploadPart(upload, stream("abc"), 3);
+        InputStream failing = new InputStream() {
+            private int count;
+
+            @Override
+            public int read() throws IOException {
+                if (count++ < 2) {
+                    return 'x';
+                }
+                throw new IOException("connection reset");
+            }
+        };
+        try {
+            service.saveUploadPart(upload, failing, 3);
+            fail("Should throw exception if the part can't be read");
+        } catch (ChunkUploadException e) {
+            // expected
+        }
+        service.saveUploadPart(upload, stream("def"), 3);
+
+        UploadPartPersistService.CombinedUpload combined =
+                service.combineUploadParts(upload, stream("ghi"));
+
+        assertThat(Files.toString(combined.getFile(), Charsets.UTF_8))
+                .isEqualTo("abcdefghi");
+        assertThat(combined.getMd5Hash()).isEqualTo(HASH_OF_ABCDEFGHI);
+    }
+
+    @Test
+    public void deletesOnlyAbandonedParts() {
+        HDocumentUpload otherUpload = new HDocumentUpload();
+        otherUpload.setId(6L);
+        service.saveUploadPart(upload, stream("abc"), 3);
+        service.saveUploadPart(otherUpload, stream("abc"), 3);
+        File[] staged = stagingFolder.getRoot().listFiles();
+        assertThat(staged).hasSize(2);
+        long now = System.currentTimeMillis();
+        assertThat(staged[0].setLastModified(now - 3600 * 1000 * 25))
+                .isTrue();
+
+        int deleted = service.deleteUploadPartsOlderThan(
+                new Date(now - 3600 * 1000 * 24));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(stagingFolder.getRoot().listFiles()).hasSize(1);
+    }
+}
@@ -43,8 +43,10 @@ import org.mockito.Captor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.zanata.common.DocumentType;
+import org.zanata.model.HLocale;
 import org.zanata.exception.ChunkUploadException;
 import org.zanata.model.HDocument;
+import org.zanata.model.HDocumentUpload;
 import org.zanata.model.HRawDocument;
 import org.zanata.rest.dto.resource.Resource;
 import org.zanata.security.ZanataCredentials;
@@ -226,6 +228,36 @@ public class SourceDocumentUploadTest extends DocumentUploadTest {
         assertThat(responseEntity().getErrorMessage(), is(nullValue()));
     }
 
+    @Test
+    @InRequestScope
+    public void countsAcceptedChunksOfMultipartUpload() throws IOException {
+        HDocumentUpload upload = new HDocumentUpload();
+        upload.setId(5L);
+        // parts are counted by DocumentUploadUtil as they are stored
+        upload.setPartCount(2);
+
+        conf = defaultUpload().last(false).build();
+        mockRequiredServices();
+        when(documentUploadUtil.saveUploadPart(conf.id, (HLocale) null,
+                conf.uploadForm)).thenReturn(upload);
+        response = sourceUpload.tryUploadSourceFile(conf.id, conf.uploadForm);
+        assertResponseHasStatus(ACCEPTED);
+        assertThat(responseEntity().getAcceptedChunks(), is(2));
+        assertThat(responseEntity().isExpectingMore(), is(true));
+
+        conf = defaultUpload().first(false).uploadId(5L).build();
+        mockRequiredServices();
+        when(documentUploadDAO.findById(5L)).thenReturn(upload);
+        when(documentUploadUtil.combineToTempFileAndDeleteUploadRecord(upload,
+                conf.uploadForm)).thenReturn(
+                File.createTempFile("tests", "combined"));
+        when(documentUploadUtil.isNewDocument(conf.id)).thenReturn(true);
+        response = sourceUpload.tryUploadSourceFile(conf.id, conf.uploadForm);
+        assertResponseHasStatus(CREATED);
+        assertThat(responseEntity().getAcceptedChunks(), is(3));
+        assertThat(responseEntity().isExpectingMore(), is(false));
+    }
+
     @Test
     @InRequestScope
     public void usesGivenParameters() throws IOException {
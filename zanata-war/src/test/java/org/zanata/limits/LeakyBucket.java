@@ -8,6 +8,9 @@ import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 
 /**
+ * The synchronized bucket which {@link TokenBucket} replaced, kept as the
+ * baseline for {@link TokenBucketBenchmark}.
+ *
  * @author Patrick Huang <a
  *         href="mailto:pahuang@redhat.com">pahuang@redhat.com</a>
  */
@@ -1,15 +1,22 @@
 package org.zanata.limits;
 
 import java.io.IOException;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.zanata.util.RunnableEx;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -20,8 +27,12 @@ public class RateLimitingProcessorTest {
     public static final String API_KEY = "apiKey";
     private RateLimitingProcessor processor;
     @Mock
+    private HttpServletRequest request;
+    @Mock
     private HttpServletResponse response;
     @Mock
+    private AsyncContext asyncContext;
+    @Mock
     private FilterChain filterChain;
     @Mock
     private RateLimitManager rateLimitManager;
@@ -40,26 +51,125 @@ public class RateLimitingProcessorTest {
     @Test
     public void restCallLimiterReturnsFalseWillCauseErrorResponse()
             throws Exception {
-        when(restCallLimiter.tryAcquireAndRun(runnable)).thenReturn(false);
+        when(restCallLimiter.tryAcquireAndRun(1, runnable)).thenReturn(false);
         doReturn(restCallLimiter).when(rateLimitManager).getLimiter(
                 RateLimiterToken.fromApiKey(API_KEY));
 
-        processor.processForApiKey(API_KEY, response, runnable);
+        processor.processForApiKey(API_KEY, request, response, runnable);
 
-        verify(restCallLimiter).tryAcquireAndRun(runnable);
+        verify(restCallLimiter).tryAcquireAndRun(1, runnable);
         verify(response).sendError(eq(429), anyString());
+        verify(response).setHeader(eq("Retry-After"), anyString());
     }
 
     @Test
     public void restCallLimiterReturnsTrueWillNotReturnErrorResponse()
             throws Exception {
-        when(restCallLimiter.tryAcquireAndRun(runnable)).thenReturn(true);
+        when(restCallLimiter.tryAcquireAndRun(1, runnable)).thenReturn(true);
         doReturn(restCallLimiter).when(rateLimitManager).getLimiter(
             RateLimiterToken.fromApiKey(API_KEY));
 
-        processor.processForApiKey(API_KEY, response, runnable);
+        processor.processForApiKey(API_KEY, request, response, runnable);
 
-        verify(restCallLimiter).tryAcquireAndRun(runnable);
+        verify(restCallLimiter).tryAcquireAndRun(1, runnable);
         verifyZeroInteractions(response);
     }
+
+    @Test
+    public void documentPushNeedsMorePermits() throws Exception {
+        when(request.getMethod()).thenReturn("PUT");
+        when(request.getRequestURI()).thenReturn(
+                "/rest/projects/p/about-fedora/iterations/i/master/r/About_Fedora");
+        when(restCallLimiter.tryAcquireAndRun(RestCallCost.HEAVY.getWeight(),
+                runnable)).thenReturn(true);
+        doReturn(restCallLimiter).when(rateLimitManager).getLimiter(
+                RateLimiterToken.fromApiKey(API_KEY));
+
+        processor.processForApiKey(API_KEY, request, response, runnable);
+
+        verify(restCallLimiter).tryAcquireAndRun(
+                RestCallCost.HEAVY.getWeight(), runnable);
+    }
+
+    @Test
+    public void activePermitTimeoutWillCauseRetryAfterResponse()
+            throws Exception {
+        when(restCallLimiter.tryAcquireAndRun(1, runnable)).thenThrow(
+                new ActivePermitTimeoutException("timeout"));
+        doReturn(restCallLimiter).when(rateLimitManager).getLimiter(
+                RateLimiterToken.fromApiKey(API_KEY));
+
+        processor.processForApiKey(API_KEY, request, response, runnable);
+
+        verify(response).setHeader("Retry-After",
+                String.valueOf(RateLimitingProcessor.RETRY_AFTER_SECONDS));
+        verify(response).sendError(eq(429), anyString());
+    }
+
+    @Test
+    public void waitingRequestIsSuspendedAndDispatchedWhenPermitIsFree()
+            throws Exception {
+        RestCallLimiter limiter = new RestCallLimiter(2, 1);
+        doReturn(limiter).when(rateLimitManager).getLimiter(
+                RateLimiterToken.fromApiKey(API_KEY));
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.startAsync()).thenReturn(asyncContext);
+        when(asyncContext.getRequest()).thenReturn(request);
+        // the first request holds the only active permit
+        RestCallLimiter.Ticket running = limiter.tryEnter(1);
+        running.tryActivate();
+
+        processor.processForApiKey(API_KEY, request, response, runnable);
+
+        verify(request).startAsync();
+        verifyZeroInteractions(runnable);
+        verify(asyncContext, never()).dispatch();
+        assertThat(limiter.getQueueDepth()).isEqualTo(1);
+
+        running.release();
+
+        verify(asyncContext).dispatch();
+        ArgumentCaptor<Object> ticket = ArgumentCaptor.forClass(Object.class);
+        verify(request).setAttribute(
+                eq(RateLimitingProcessor.TICKET_ATTRIBUTE), ticket.capture());
+        when(request.getDispatcherType()).thenReturn(DispatcherType.ASYNC);
+        when(request.getAttribute(RateLimitingProcessor.TICKET_ATTRIBUTE))
+                .thenReturn(ticket.getValue());
+
+        assertThat(processor.resumeIfAdmitted(request, runnable)).isTrue();
+
+        verify(runnable).run();
+        assertThat(limiter.availableActivePermit()).isEqualTo(1);
+        assertThat(limiter.availableConcurrentPermit()).isEqualTo(2);
+    }
+
+    @Test
+    public void suspendedRequestTimesOutWithRetryAfterResponse()
+            throws Exception {
+        RestCallLimiter limiter = new RestCallLimiter(2, 1);
+        doReturn(limiter).when(rateLimitManager).getLimiter(
+                RateLimiterToken.fromApiKey(API_KEY));
+        when(request.isAsyncSupported()).thenReturn(true);
+        when(request.startAsync()).thenReturn(asyncContext);
+        when(asyncContext.getResponse()).thenReturn(response);
+        RestCallLimiter.Ticket running = limiter.tryEnter(1);
+        running.tryActivate();
+
+        processor.processForApiKey(API_KEY, request, response, runnable);
+
+        ArgumentCaptor<AsyncListener> listener =
+                ArgumentCaptor.forClass(AsyncListener.class);
+        verify(asyncContext).addListener(listener.capture());
+        listener.getValue().onTimeout(new AsyncEvent(asyncContext));
+
+        verify(response).setHeader(eq("Retry-After"), anyString());
+        verify(response).sendError(eq(429), anyString());
+        verify(asyncContext).complete();
+        assertThat(limiter.getQueueDepth()).isEqualTo(0);
+        assertThat(limiter.availableConcurrentPermit()).isEqualTo(1);
+
+        running.release();
+        verify(asyncContext, never()).dispatch();
+        verifyZeroInteractions(runnable);
+    }
 }
@@ -6,7 +6,6 @@ import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -115,6 +114,15 @@ public class RestCallLimiterTest {
         }
     }
 
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + UNIT.toMillis(TIMEOUT);
+        while (limiter.getQueueDepth() < depth
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(limiter.getQueueDepth()).as("queue depth").isEqualTo(depth);
+    }
+
     private void awakenBlockedRunnables() {
         // tell blocking Runnables to wake up
         awakenLatch.countDown();
@@ -158,10 +166,6 @@ public class RestCallLimiterTest {
         limiter = new RestCallLimiter(maxConcurrent, maxActive);
 
         int expectedBlocksNum = maxConcurrent - maxActive;
-        CountingLatch expectedBlocks = new CountingLatch(expectedBlocksNum, "blocks");
-        BlockCountingSemaphore blockCountingSemaphore =
-                new BlockCountingSemaphore(maxActive, expectedBlocks);
-        limiter.changeActiveSemaphore(blockCountingSemaphore);
         // Given: each thread will take some time to do its job
 
         // When: max concurrent threads are accessing simultaneously
@@ -179,10 +183,10 @@ public class RestCallLimiterTest {
 
         SoftAssertions softly = new SoftAssertions();
         execsStarted.awaitAndVerify(softly);
-        expectedBlocks.awaitAndVerify(softly);
+        awaitQueueDepth(expectedBlocksNum);
         expectedRejects.awaitAndVerify(softly);
         execsFinished.assertEquals(softly, 0);
-        softly.assertThat(blockCountingSemaphore.numOfBlockedThreads()).as("blocked threads").isEqualTo(
+        softly.assertThat(limiter.getQueueDepth()).as("blocked threads").isEqualTo(
             expectedBlocksNum);
         softly.assertAll();
         awakenBlockedRunnables();
@@ -271,11 +275,6 @@ public class RestCallLimiterTest {
         limiter = new RestCallLimiter(maxConcurrent, maxActive);
 
         int expectedBlocksNum = 1;
-        CountingLatch expectedBlocks =
-            new CountingLatch(expectedBlocksNum, "blocks");
-        BlockCountingSemaphore blockCountingSemaphore =
-            new BlockCountingSemaphore(maxActive, expectedBlocks);
-        limiter.changeActiveSemaphore(blockCountingSemaphore);
 
         int numTasks = maxActive + expectedBlocksNum;
         final CountingLatch execsStarted =
@@ -292,7 +291,7 @@ public class RestCallLimiterTest {
         // 3 requests, 1 request should block
         execsStarted.awaitAndVerify();
         expectedRejects.awaitAndVerify();
-        expectedBlocks.awaitAndVerify();
+        awaitQueueDepth(expectedBlocksNum);
 
         int newMaxActive = 3;
         limiter.setMaxActive(newMaxActive);
@@ -364,41 +363,89 @@ public class RestCallLimiterTest {
         execsFinished.awaitAndVerify();
     }
 
-    private static class BlockCountingSemaphore extends Semaphore {
-        private static final long serialVersionUID = 1L;
-        private final AtomicInteger blockCounter = new AtomicInteger(0);
-        private final CountDownLatch blockLatch;
-
-        public BlockCountingSemaphore(int permits, CountDownLatch expectedBlocksLatch) {
-            super(permits);
-            blockLatch = expectedBlocksLatch;
-        }
+    @Test
+    public void shouldGrantQueuedTicketsInArrivalOrder() {
+        limiter = new RestCallLimiter(maxConcurrent, maxActive);
+        AtomicInteger heavyActivated = new AtomicInteger();
+        AtomicInteger lightActivated = new AtomicInteger();
+
+        RestCallLimiter.Ticket running = limiter.tryEnter(1);
+        assertThat(running.tryActivate()).isTrue();
+        // needs both active permits, so it has to wait
+        RestCallLimiter.Ticket heavy = limiter.tryEnter(maxActive);
+        assertThat(heavy.tryActivate()).isFalse();
+        heavy.whenActive(heavyActivated::incrementAndGet);
+        // a permit is free, but the light ticket must not overtake
+        RestCallLimiter.Ticket light = limiter.tryEnter(1);
+        assertThat(light.tryActivate()).isFalse();
+        light.whenActive(lightActivated::incrementAndGet);
+        assertThat(limiter.getQueueDepth()).isEqualTo(2);
+
+        running.release();
+        assertThat(heavyActivated.get()).isEqualTo(1);
+        assertThat(lightActivated.get()).isEqualTo(0);
+
+        heavy.release();
+        assertThat(lightActivated.get()).isEqualTo(1);
+        light.release();
+        // releasing twice has no effect
+        light.release();
+        assertThat(limiter.availableActivePermit()).isEqualTo(maxActive);
+        assertThat(limiter.availableConcurrentPermit())
+                .isEqualTo(maxConcurrent);
+    }
 
-        @Override
-        public boolean tryAcquire() {
-            boolean got = super.tryAcquire();
-            if (!got) {
-                blockCounter.incrementAndGet();
-                blockLatch.countDown();
+    @Test
+    public void shouldNotLetBlockingRequestOvertakeQueuedTicket()
+            throws Exception {
+        limiter = new RestCallLimiter(maxConcurrent, maxActive);
+        RestCallLimiter.Ticket running = limiter.tryEnter(1);
+        assertThat(running.tryActivate()).isTrue();
+        RestCallLimiter.Ticket heavy = limiter.tryEnter(maxActive);
+        AtomicInteger heavyActivated = new AtomicInteger();
+        heavy.whenActive(heavyActivated::incrementAndGet);
+
+        // a permit is free, but the blocking request must wait its turn
+        CountingLatch execsFinished = new CountingLatch(1, "execs finished");
+        threadPool.submit(runnable(() -> {
+            if (limiter.tryAcquireAndRun(nullRunnable)) {
+                execsFinished.countDown();
             }
-            return got;
-        }
+        }));
+        awaitQueueDepth(2);
 
-        @Override
-        public boolean tryAcquire(long timeout, TimeUnit unit)
-                throws InterruptedException {
-            // check for instant permit, and count as a block if unavailable:
-            boolean got = this.tryAcquire();
-            if (got) {
-                return true;
-            } else {
-                return super.tryAcquire(timeout, unit);
-            }
-        }
+        running.release();
+        assertThat(heavyActivated.get()).isEqualTo(1);
+        assertThat(execsFinished.getCount()).isEqualTo(1);
+        assertThat(limiter.getQueueDepth()).isEqualTo(1);
 
-        public int numOfBlockedThreads() {
-            return blockCounter.get();
-        }
+        heavy.release();
+        execsFinished.awaitAndVerify();
+        assertThat(limiter.availableActivePermit()).isEqualTo(maxActive);
+        assertThat(limiter.availableConcurrentPermit())
+                .isEqualTo(maxConcurrent);
+    }
+
+    @Test
+    public void shouldCapWeightAtMaxActive() throws Exception {
+        limiter = new RestCallLimiter(maxConcurrent, maxActive);
+        RestCallLimiter.Ticket ticket = limiter.tryEnter(maxActive + 5);
+        assertThat(ticket.tryActivate()).isTrue();
+        assertThat(limiter.availableActivePermit()).isEqualTo(0);
+        ticket.release();
+
+        assertThat(limiter.tryAcquireAndRun(maxActive + 5, nullRunnable))
+                .isTrue();
+        assertThat(limiter.availableActivePermit()).isEqualTo(maxActive);
+    }
+
+    @Test
+    public void shouldRejectTicketsAboveMaxConcurrent() {
+        limiter = new RestCallLimiter(1, maxActive);
+        RestCallLimiter.Ticket ticket = limiter.tryEnter(1);
+        assertThat(limiter.tryEnter(1)).isNull();
+        ticket.release();
+        assertThat(limiter.tryEnter(1)).isNotNull();
     }
 
     private static class CountingLatch extends CountDownLatch {
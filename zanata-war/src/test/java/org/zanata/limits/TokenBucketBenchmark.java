@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.limits;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Micro-benchmark of contended rate-limit bookkeeping, comparing the
+ * synchronized {@link LeakyBucket} with the lock-free {@link TokenBucket}.
+ * One bucket is shared by all threads. A capacity of 1 with a long refill
+ * matches RateLimitingProcessor's log limiter (nearly every call is refused);
+ * a huge capacity makes every call succeed and update the bucket.
+ * <p>
+ * Run with:
+ * {@code mvn test-compile exec:java -Dexec.mainClass=org.zanata.limits.TokenBucketBenchmark -Dexec.classpathScope=test}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class TokenBucketBenchmark {
+    private static final int[] THREADS = { 8, 32, 128 };
+
+    @Param({ "1", "1000000000000" })
+    public long capacity;
+
+    private LeakyBucket leakyBucket;
+    private TokenBucket tokenBucket;
+
+    @Setup
+    public void setUp() {
+        leakyBucket = new LeakyBucket(capacity, 5, TimeUnit.MINUTES);
+        tokenBucket = new TokenBucket(capacity, 5, TimeUnit.MINUTES);
+    }
+
+    @Benchmark
+    public boolean leakyBucket() {
+        return leakyBucket.tryAcquire();
+    }
+
+    @Benchmark
+    public boolean tokenBucket() {
+        return tokenBucket.tryAcquire();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options options =
+                    new OptionsBuilder()
+                            .include(TokenBucketBenchmark.class
+                                    .getSimpleName())
+                            .threads(threads).build();
+            new Runner(options).run();
+        }
+    }
+}
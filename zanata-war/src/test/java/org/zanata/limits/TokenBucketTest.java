@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.limits;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TokenBucketTest {
+    private final int refillDuration = 20;
+    private final TimeUnit refillTimeUnit = TimeUnit.MILLISECONDS;
+    private final long refillNanos = TimeUnit.NANOSECONDS.convert(
+            refillDuration, refillTimeUnit);
+    private Ticker ticker;
+    private ExecutorService executorService;
+
+    @Before
+    public void beforeMethod() {
+        ticker = mock(Ticker.class);
+    }
+
+    @After
+    public void afterMethod() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void willWaitUntilRefill() {
+        TokenBucket bucket = new TokenBucket(1, refillDuration,
+                refillTimeUnit, ticker);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        when(ticker.read()).thenReturn(refillNanos - 1);
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        when(ticker.read()).thenReturn(refillNanos);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void willMakeUpTheRefillWhenTimePassed() {
+        TokenBucket bucket = new TokenBucket(2, refillDuration,
+                refillTimeUnit, ticker);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        // after twice of refill duration it should've filled up.
+        when(ticker.read()).thenReturn(refillNanos * 2);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void willNotRefillBeyondCapacity() {
+        TokenBucket bucket = new TokenBucket(2, refillDuration,
+                refillTimeUnit, ticker);
+        assertThat(bucket.tryAcquire()).isTrue();
+
+        when(ticker.read()).thenReturn(refillNanos * 10);
+
+        assertThat(bucket.availablePermits()).isEqualTo(2);
+        assertThat(bucket.tryAcquire(3)).isFalse();
+        assertThat(bucket.tryAcquire(2)).isTrue();
+    }
+
+    @Test
+    public void failedAcquireDoesNotDelayRefill() {
+        TokenBucket bucket = new TokenBucket(1, refillDuration,
+                refillTimeUnit, ticker);
+        assertThat(bucket.tryAcquire()).isTrue();
+
+        when(ticker.read()).thenReturn(refillNanos / 2);
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        when(ticker.read()).thenReturn(refillNanos);
+        assertThat(bucket.tryAcquire()).isTrue();
+    }
+
+    @Test
+    public void concurrentAcquiresNeverOverdraw() throws Exception {
+        final TokenBucket bucket = new TokenBucket(100, 1, TimeUnit.HOURS,
+                ticker);
+        int threads = 8;
+        Callable<Integer> callable = () -> {
+            int acquired = 0;
+            for (int i = 0; i < 1000; i++) {
+                if (bucket.tryAcquire()) {
+                    acquired++;
+                }
+            }
+            return acquired;
+        };
+        executorService = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> futures = executorService.invokeAll(
+                Collections.nCopies(threads, callable));
+
+        int total = 0;
+        for (Future<Integer> future : futures) {
+            total += future.get();
+        }
+        assertThat(total).isEqualTo(100);
+        assertThat(bucket.availablePermits()).isEqualTo(0);
+    }
+
+    @Test
+    public void concurrentTest() throws Exception {
+        final TokenBucket bucket = new TokenBucket(1, refillDuration,
+                refillTimeUnit, ticker);
+        Callable<Boolean> callable = bucket::tryAcquire;
+        int threads = 3;
+        List<Callable<Boolean>> callables =
+                Collections.nCopies(threads, callable);
+        executorService = Executors.newFixedThreadPool(threads);
+
+        assertThat(results(executorService.invokeAll(callables)))
+                .containsOnlyOnce(true).containsOnly(true, false);
+
+        // here we simulate that we have waited enough time and try again
+        when(ticker.read()).thenReturn(refillNanos);
+
+        assertThat(results(executorService.invokeAll(callables)))
+                .containsOnlyOnce(true).containsOnly(true, false);
+    }
+
+    private static List<Boolean> results(List<Future<Boolean>> futures)
+            throws Exception {
+        List<Boolean> results = Lists.newArrayList();
+        for (Future<Boolean> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+}
@@ -68,7 +68,8 @@ public class RestLimitingFilterTest extends ZanataTest {
 
         dispatcher.doFilter(request, response, filterChain);
 
-        verify(processor).processForApiKey(same("apiKeyInAuth"), same(response),
+        verify(processor).processForApiKey(same("apiKeyInAuth"), same(request),
+            same(response),
             taskCaptor.capture());
 
         // verify task is calling filter chain
@@ -85,7 +86,8 @@ public class RestLimitingFilterTest extends ZanataTest {
 
         dispatcher.doFilter(request, response, filterChain);
 
-        verify(processor).processForUser(same("admin"), same(response),
+        verify(processor).processForUser(same("admin"), same(request),
+            same(response),
             taskCaptor.capture());
 
         // verify task is calling filter chain
@@ -118,7 +120,8 @@ public class RestLimitingFilterTest extends ZanataTest {
 
         dispatcher.doFilter(request, response, filterChain);
 
-        verify(processor).processForAnonymousIP(same(clientIP), same(response),
+        verify(processor).processForAnonymousIP(same(clientIP), same(request),
+            same(response),
             taskCaptor.capture());
 
         // verify task is calling filter chain
@@ -126,4 +129,17 @@ public class RestLimitingFilterTest extends ZanataTest {
         task.run();
         verify(filterChain).doFilter(request, response);
     }
+
+    @Test
+    public void willRunResumedRequestWithoutLimitingAgain() throws Exception {
+        when(processor.resumeIfAdmitted(same(request), any(RunnableEx.class)))
+                .thenReturn(true);
+
+        dispatcher.doFilter(request, response, filterChain);
+
+        verify(processor).resumeIfAdmitted(same(request),
+                any(RunnableEx.class));
+        verifyNoMoreInteractions(processor);
+        verify(dispatcher, never()).getAuthenticatedUser();
+    }
 }
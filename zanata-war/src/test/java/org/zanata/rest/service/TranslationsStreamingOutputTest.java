@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.rest.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Test;
+import org.zanata.common.ContentState;
+import org.zanata.rest.dto.DTOUtil;
+import org.zanata.rest.dto.resource.TextFlowTarget;
+import org.zanata.rest.dto.resource.TranslationsResource;
+
+import com.google.common.base.Functions;
+import com.google.common.collect.Lists;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TranslationsStreamingOutputTest {
+
+    private TranslationsResource expected() {
+        TranslationsResource expected =
+                new TranslationsResourceTestObjectFactory().getAllExtension();
+        TextFlowTarget target2 = new TextFlowTarget("rest2");
+        target2.setContents("greeting world");
+        target2.setState(ContentState.NeedReview);
+        expected.getTextFlowTargets().add(target2);
+        return expected;
+    }
+
+    /**
+     * Streams the targets of the resource (which is left with none)
+     */
+    private byte[] stream(TranslationsResource envelope, boolean json)
+            throws Exception {
+        List<TextFlowTarget> targets =
+                Lists.newArrayList(envelope.getTextFlowTargets());
+        envelope.getTextFlowTargets().clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TranslationsStreamingOutput.testInstance(envelope,
+                targets.iterator(), Functions.<TextFlowTarget> identity(),
+                json).write(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void streamedXmlMatchesResource() throws Exception {
+        TranslationsResource expected = expected();
+
+        byte[] xml = stream(expected(), false);
+
+        TranslationsResource actual =
+                (TranslationsResource) JAXBContext
+                        .newInstance(TranslationsResource.class)
+                        .createUnmarshaller()
+                        .unmarshal(new ByteArrayInputStream(xml));
+        assertThat(DTOUtil.toXML(actual)).isEqualTo(DTOUtil.toXML(expected));
+    }
+
+    @Test
+    public void streamedJsonMatchesResource() throws Exception {
+        TranslationsResource expected = expected();
+
+        byte[] json = stream(expected(), true);
+
+        TranslationsResource actual =
+                new ObjectMapper().readValue(json, TranslationsResource.class);
+        assertThat(DTOUtil.toXML(actual)).isEqualTo(DTOUtil.toXML(expected));
+    }
+
+    @Test
+    public void streamsEmptyTargetList() throws Exception {
+        TranslationsResource expected = new TranslationsResource();
+        expected.getExtensions(true);
+
+        byte[] xml = stream(expected, false);
+
+        TranslationsResource actual =
+                (TranslationsResource) JAXBContext
+                        .newInstance(TranslationsResource.class)
+                        .createUnmarshaller()
+                        .unmarshal(new ByteArrayInputStream(xml));
+        assertThat(actual.getTextFlowTargets()).isEmpty();
+    }
+}
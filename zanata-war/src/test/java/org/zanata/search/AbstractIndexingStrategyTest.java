@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.search;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.search.FullTextSession;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.zanata.model.HAccount;
+
+import com.google.common.collect.Lists;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AbstractIndexingStrategyTest {
+    @Mock
+    private FullTextSession session;
+    @Mock
+    private Query query;
+    @Mock
+    private ScrollableResults results;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(session.createQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.scroll(ScrollMode.FORWARD_ONLY)).thenReturn(results);
+        when(results.get(0)).thenReturn(new HAccount());
+    }
+
+    private void returnRows(int rows) {
+        AtomicInteger remaining = new AtomicInteger(rows);
+        when(results.next()).thenAnswer(
+                invocation -> remaining.getAndDecrement() > 0);
+    }
+
+    @Test
+    public void rangeIndexingCallsBackForEachEntity() {
+        returnRows(3);
+        List<Integer> indexed = Lists.newArrayList();
+        AbstractIndexingStrategy<HAccount> strategy =
+                new AbstractIndexingStrategy<HAccount>(HAccount.class) {
+                    @Override
+                    protected void onEntityIndexed(int n,
+                            FullTextSession session) {
+                        indexed.add(n);
+                    }
+
+                    @Override
+                    protected ScrollableResults queryResults(int offset,
+                            FullTextSession session) {
+                        throw new AssertionError("range should be queried");
+                    }
+                };
+
+        int count = strategy.invokeForRange(null, session, 1L, 3L);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(indexed).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void rangeIndexingDoesNotRestartThePagedQuery() {
+        returnRows(SimpleClassIndexingStrategy.MAX_QUERY_ROWS + 1);
+        SimpleClassIndexingStrategy<HAccount> strategy =
+                new SimpleClassIndexingStrategy<>(HAccount.class);
+
+        int count = strategy.invokeForRange(null, session, 1L,
+                SimpleClassIndexingStrategy.MAX_QUERY_ROWS + 1);
+
+        assertThat(count)
+                .isEqualTo(SimpleClassIndexingStrategy.MAX_QUERY_ROWS + 1);
+        // only the range query was run
+        verify(session, times(1)).createQuery(anyString());
+        assertThat(strategy.getScrollableResults()).isNull();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.zanata.search;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Micro-benchmark of the Levenshtein similarity calculations used to score
+ * translation memory matches. Compares the unbounded calculation with the
+ * threshold-aware one for a similar pair (a typical TM hit) and a dissimilar
+ * pair (a poor Lucene hit) at typical segment lengths.
+ * <p>
+ * Run with:
+ * {@code mvn test-compile exec:java -Dexec.mainClass=org.zanata.search.LevenshteinBenchmark -Dexec.classpathScope=test}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevenshteinBenchmark {
+    private static final String[] WORDS = { "the", "file", "could", "not",
+            "be", "saved", "because", "disk", "is", "full", "please", "check",
+            "your", "settings", "and", "try", "again", "select", "a",
+            "language", "from", "list", "below", "to", "continue", "update" };
+
+    // minimum similarity used by TranslationMemoryServiceImpl (1%) and a
+    // stricter one as used by CopyTrans-like callers
+    @Param({ "0.01", "0.7" })
+    public double minSimilarity;
+
+    // short UI string, sentence, paragraph
+    @Param({ "40", "200", "1000" })
+    public int length;
+
+    private String query;
+    private List<String> similar;
+    private List<String> dissimilar;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        query = randomText(random, length);
+        // change roughly every tenth word
+        StringBuilder edited = new StringBuilder();
+        for (String word : query.split(" ")) {
+            if (edited.length() > 0) {
+                edited.append(' ');
+            }
+            edited.append(random.nextInt(10) == 0 ? "changed" : word);
+        }
+        similar = Collections.singletonList(edited.toString());
+        dissimilar = Collections.singletonList(randomText(random, length));
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    @Benchmark
+    public double tokenSimilaritySimilar() {
+        return LevenshteinTokenUtil.getSimilarity(query, similar);
+    }
+
+    @Benchmark
+    public double tokenSimilaritySimilarBounded() {
+        return LevenshteinTokenUtil.getSimilarity(query, similar,
+                minSimilarity);
+    }
+
+    @Benchmark
+    public double tokenSimilarityDissimilar() {
+        return LevenshteinTokenUtil.getSimilarity(query, dissimilar);
+    }
+
+    @Benchmark
+    public double tokenSimilarityDissimilarBounded() {
+        return LevenshteinTokenUtil.getSimilarity(query, dissimilar,
+                minSimilarity);
+    }
+
+    @Benchmark
+    public double charSimilaritySimilar() {
+        return LevenshteinUtil.getSimilarity(query, similar.get(0));
+    }
+
+    @Benchmark
+    public double charSimilaritySimilarBounded() {
+        return LevenshteinUtil.getSimilarity(query, similar.get(0),
+                minSimilarity);
+    }
+
+    @Benchmark
+    public double charSimilarityDissimilar() {
+        return LevenshteinUtil.getSimilarity(query, dissimilar.get(0));
+    }
+
+    @Benchmark
+    public double charSimilarityDissimilarBounded() {
+        return LevenshteinUtil.getSimilarity(query, dissimilar.get(0),
+                minSimilarity);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options =
+                new OptionsBuilder().include(
+                        LevenshteinBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
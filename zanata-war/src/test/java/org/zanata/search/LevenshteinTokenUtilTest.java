@@ -179,5 +179,33 @@ public class LevenshteinTokenUtilTest {
         assertThat(similarity).isEqualTo(expected, DELTA);
     }
 
+    @Test
+    public void testBoundedDistanceInWords() {
+        String[] s1 = { "one", "two", "three", "four" };
+        String[] s2 = { "one", "too", "three", "for" };
+        assertThat(LevenshteinTokenUtil.getLevenshteinDistanceInWords(s1, s2,
+                2)).isEqualTo(2);
+        assertThat(LevenshteinTokenUtil.getLevenshteinDistanceInWords(s1, s2,
+                1)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testBoundedSimilarityMatchesUnbounded() {
+        List<String> strings1 = Arrays.asList("foo bar baz", "one two three");
+        List<String> strings2 = Arrays.asList("foo bar", "one two four");
+        double similarity =
+                LevenshteinTokenUtil.getSimilarity(strings1, strings2);
+        assertThat(LevenshteinTokenUtil.getSimilarity(strings1, strings2,
+                similarity - 0.01)).isEqualTo(similarity, DELTA);
+        assertThat(LevenshteinTokenUtil.getSimilarity(strings1, strings2,
+                similarity + 0.01)).isEqualTo(0.0, DELTA);
+
+        double mean =
+                LevenshteinTokenUtil.getSimilarity("foo bar baz", strings2);
+        assertThat(LevenshteinTokenUtil.getSimilarity("foo bar baz", strings2,
+                mean - 0.01)).isEqualTo(mean, DELTA);
+        assertThat(LevenshteinTokenUtil.getSimilarity("foo bar baz", strings2,
+                mean + 0.01)).isEqualTo(0.0, DELTA);
+    }
 
 }
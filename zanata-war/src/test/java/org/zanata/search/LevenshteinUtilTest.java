@@ -106,4 +106,48 @@ public class LevenshteinUtilTest {
         assertThat(similarity).isEqualTo(1.0, DELTA);
     }
 
+    @Test
+    public void testBoundedDistanceWithinThreshold() {
+        assertThat(LevenshteinUtil.getLevenshteinDistance("kitten", "sitting",
+                3)).isEqualTo(3);
+        assertThat(LevenshteinUtil.getLevenshteinDistance("kitten", "sitting",
+                10)).isEqualTo(3);
+        assertThat(LevenshteinUtil.getLevenshteinDistance("", "abc", 3))
+                .isEqualTo(3);
+        assertThat(LevenshteinUtil.getLevenshteinDistance("same", "same", 0))
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void testBoundedDistanceAboveThreshold() {
+        assertThat(LevenshteinUtil.getLevenshteinDistance("kitten", "sitting",
+                2)).isEqualTo(-1);
+        assertThat(LevenshteinUtil.getLevenshteinDistance("a", "abcdef", 4))
+                .isEqualTo(-1);
+    }
+
+    @Test
+    public void testBoundedDistanceMatchesUnbounded() {
+        String s1 = "The quick brown fox jumps over the lazy dog.";
+        String s2 = "The quick brown cat jumped over a lazy dog!";
+        int distance = LevenshteinUtil.getLevenshteinDistance(s1, s2);
+        for (int threshold = 0; threshold < 50; threshold++) {
+            int expected = distance <= threshold ? distance : -1;
+            assertThat(LevenshteinUtil.getLevenshteinDistance(s1, s2,
+                    threshold)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testBoundedSimilarity() {
+        List<String> strings1 = Arrays.asList("1234567890", "abcdefghij");
+        List<String> strings2 = Arrays.asList("123456789", "bcdefghij");
+        assertThat(LevenshteinUtil.getSimilarity(strings1, strings2, 0.5))
+                .isEqualTo(0.9, DELTA);
+        assertThat(LevenshteinUtil.getSimilarity(strings1, strings2, 0.95))
+                .isEqualTo(0.0, DELTA);
+        assertThat(LevenshteinUtil.getSimilarity("one two", "one two", 1.0))
+                .isEqualTo(1.0, DELTA);
+    }
+
 }
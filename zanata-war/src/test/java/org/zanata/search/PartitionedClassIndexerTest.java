@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.search;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.hibernate.Query;
+import org.hibernate.search.FullTextSession;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.zanata.async.AsyncTaskHandle;
+import org.zanata.model.HTextFlowTarget;
+
+import com.google.common.collect.Lists;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PartitionedClassIndexerTest {
+    @Mock
+    private FullTextSession session;
+    @Mock
+    private Query query;
+    @Mock
+    private AbstractIndexingStrategy<HTextFlowTarget> strategy;
+
+    private final List<String> indexedRanges =
+            Lists.newCopyOnWriteArrayList();
+    private final ReindexCheckpoint checkpoint = new ReindexCheckpoint(null);
+    private final AsyncTaskHandle<Void> handle = new AsyncTaskHandle<>();
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(session.createQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.uniqueResult()).thenReturn(new Object[] { 1L, 25L });
+        doAnswer(invocation -> {
+            long fromId = (Long) invocation.getArguments()[2];
+            long toId = (Long) invocation.getArguments()[3];
+            if (fromId == 11 && indexedRanges.contains("fail")) {
+                throw new RuntimeException("chunk failed");
+            }
+            indexedRanges.add(fromId + "-" + toId);
+            return (int) (toId - fromId + 1);
+        }).when(strategy).invokeForRange(any(AsyncTaskHandle.class),
+                any(FullTextSession.class), anyLong(), anyLong());
+        // chunks run in order, one at a time
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private PartitionedClassIndexer<HTextFlowTarget> indexer() {
+        return new PartitionedClassIndexer<>(handle, HTextFlowTarget.class,
+                strategy, () -> session, executor, 10, checkpoint);
+    }
+
+    @Test
+    public void indexesEachChunkOfTheIdRange() throws Exception {
+        indexer().index(session);
+
+        assertThat(indexedRanges).containsExactly("1-10", "11-20", "21-25");
+        assertThat(checkpoint.getNextId(HTextFlowTarget.class).isPresent())
+                .isFalse();
+    }
+
+    @Test
+    public void failedChunkLeavesCheckpointAfterCompletedChunks()
+            throws Exception {
+        indexedRanges.add("fail");
+        try {
+            indexer().index(session);
+            fail("expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).hasMessage("chunk failed");
+        }
+
+        assertThat(checkpoint.getNextId(HTextFlowTarget.class).get())
+                .isEqualTo(11L);
+    }
+
+    @Test
+    public void resumesFromCheckpoint() throws Exception {
+        checkpoint.setNextId(HTextFlowTarget.class, 11L);
+        when(query.uniqueResult()).thenReturn(new Object[] { 11L, 25L });
+
+        indexer().index(session);
+
+        verify(query).setParameter("fromId", 11L);
+        assertThat(indexedRanges).containsExactly("11-20", "21-25");
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.search;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.zanata.model.HProject;
+import org.zanata.model.HTextFlowTarget;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReindexCheckpointTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void checkpointsSurviveRestart() throws Exception {
+        File file = new File(folder.getRoot(), "checkpoints.properties");
+        ReindexCheckpoint checkpoint = new ReindexCheckpoint(file);
+        checkpoint.setNextId(HTextFlowTarget.class, 42L);
+        checkpoint.setNextId(HProject.class, 7L);
+        checkpoint.clear(HProject.class);
+
+        ReindexCheckpoint reloaded = new ReindexCheckpoint(file);
+
+        assertThat(reloaded.getNextId(HTextFlowTarget.class).get())
+                .isEqualTo(42L);
+        assertThat(reloaded.getNextId(HProject.class).isPresent()).isFalse();
+    }
+
+    @Test
+    public void worksWithoutFile() {
+        ReindexCheckpoint checkpoint = new ReindexCheckpoint(null);
+        checkpoint.setNextId(HTextFlowTarget.class, 42L);
+
+        assertThat(checkpoint.getNextId(HTextFlowTarget.class).get())
+                .isEqualTo(42L);
+    }
+}
@@ -17,6 +17,7 @@ import org.zanata.exception.NotLoggedInException;
 import org.zanata.model.HAccount;
 import org.zanata.model.HAccountRole;
 import org.zanata.model.HProjectIteration;
+import org.zanata.seam.security.AbstractRunAsOperation;
 import org.zanata.seam.security.IdentityManager;
 import org.zanata.security.annotations.Authenticated;
 import org.zanata.servlet.annotations.ContextPath;
@@ -215,6 +216,38 @@ public class ZanataIdentityTest extends ZanataJpaTest {
         assertThat(identity.hasPermission(target, "seam.insert")).isTrue();
     }
 
+    @Test
+    public void runAsRolesAreNotCachedForAnonymousUser() {
+        // eg account activation, which runs as admin before login
+        identity.runAs(new AbstractRunAsOperation() {
+            @Override
+            public void execute() {
+                assertThat(identity.hasPermission("seam.user", "update"))
+                        .isTrue();
+            }
+        }.addRole("admin"));
+
+        assertThat(identity.hasPermission("seam.user", "update")).isFalse();
+    }
+
+    @Test
+    public void runAsRolesAreNotCachedForAuthenticatedUser() {
+        identity.getCredentials().setUsername(username);
+        identity.getCredentials().setPassword(validPassword);
+        identity.login();
+
+        // eg changing a password, which runs as admin
+        identity.runAs(new AbstractRunAsOperation() {
+            @Override
+            public void execute() {
+                assertThat(identity.hasPermission("seam.user", "update"))
+                        .isTrue();
+            }
+        }.addRole("admin"));
+
+        assertThat(identity.hasPermission("seam.user", "update")).isFalse();
+    }
+
     @Test(expected = AuthorizationException.class)
     public void canCheckPermission() {
         identity.getCredentials().setUsername(username);
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.security.permission;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.zanata.common.LocaleId;
+import org.zanata.model.HLocale;
+import org.zanata.model.HProject;
+
+import com.google.common.collect.ImmutableSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PermissionDecisionCacheTest {
+    private static final Set<String> USER_ROLES = ImmutableSet.of("user");
+    private PermissionDecisionCache cache;
+    private AtomicInteger evalCount;
+    private HProject project;
+    private HLocale locale;
+
+    @Before
+    public void setUp() {
+        cache = new PermissionDecisionCache(100, 60);
+        evalCount = new AtomicInteger();
+        project = new HProject();
+        project.setId(1L);
+        locale = new HLocale(LocaleId.DE);
+        locale.setId(2L);
+    }
+
+    private boolean check(String username, String action, boolean granted,
+            Object... targets) {
+        return checkWithRoles(username, USER_ROLES, action, granted, targets);
+    }
+
+    private boolean checkWithRoles(String username, Set<String> roles,
+            String action, boolean granted, Object... targets) {
+        return cache.checkPermission(username, roles, action, targets, () -> {
+            evalCount.incrementAndGet();
+            return granted;
+        });
+    }
+
+    @Test
+    public void evaluatesOnlyOnce() {
+        assertThat(check("alice", "modify-translation", true, project, locale))
+                .isTrue();
+        assertThat(check("alice", "modify-translation", false, project,
+                locale)).isTrue();
+        assertThat(evalCount.get()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void decisionsAreKeptPerAccountAndAction() {
+        check("alice", "modify-translation", true, project, locale);
+        check("bob", "modify-translation", false, project, locale);
+        check(null, "modify-translation", false, project, locale);
+        check("alice", "review-translation", false, project, locale);
+
+        assertThat(evalCount.get()).isEqualTo(4);
+        assertThat(check("alice", "modify-translation", false, project,
+                locale)).isTrue();
+        assertThat(check("bob", "modify-translation", true, project, locale))
+                .isFalse();
+    }
+
+    @Test
+    public void decisionsAreKeptPerRoles() {
+        // a run-as operation adds roles without changing the account
+        checkWithRoles(null, ImmutableSet.of("admin"), "update", true,
+                "seam.user");
+
+        assertThat(checkWithRoles(null, ImmutableSet.of(), "update", false,
+                "seam.user")).isFalse();
+        assertThat(check("alice", "update", false, "seam.user")).isFalse();
+        assertThat(checkWithRoles("alice", ImmutableSet.of("user", "admin"),
+                "update", true, "seam.user")).isTrue();
+        assertThat(evalCount.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void sameEntityIsMatchedById() {
+        HProject sameProject = new HProject();
+        sameProject.setId(1L);
+        check("alice", "update", true, project);
+
+        assertThat(check("alice", "update", false, sameProject)).isTrue();
+        assertThat(evalCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void transientTargetIsNotCached() {
+        HProject newProject = new HProject();
+        check("alice", "insert", true, newProject);
+        check("alice", "insert", true, newProject);
+        check("alice", "view", true, new Object());
+        check("alice", "view", true, new Object());
+
+        assertThat(evalCount.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void invalidateAllForgetsDecisions() {
+        check("alice", "modify-translation", true, project, locale);
+
+        cache.invalidateAll();
+
+        assertThat(check("alice", "modify-translation", false, project,
+                locale)).isFalse();
+    }
+
+    @Test
+    public void languageTeamChangeForgetsDecisions() {
+        check("alice", "modify-translation", false, project, locale);
+
+        cache.onLanguageTeamPermissionChanged(null);
+
+        assertThat(check("alice", "modify-translation", true, project,
+                locale)).isTrue();
+    }
+
+    @Test
+    public void evaluationOverlappingInvalidationIsNotCached() {
+        cache.checkPermission("alice", USER_ROLES, "update",
+                new Object[] { project },
+                () -> {
+                    // a membership is committed while the old one is read
+                    cache.invalidateAll();
+                    return false;
+                });
+
+        assertThat(check("alice", "update", true, project)).isTrue();
+    }
+
+    @Test
+    public void zeroSizeDisablesCache() {
+        cache = new PermissionDecisionCache(0, 60);
+        check("alice", "update", true, project);
+        check("alice", "update", true, project);
+
+        assertThat(evalCount.get()).isEqualTo(2);
+    }
+}
@@ -65,6 +65,8 @@ import javax.transaction.UserTransaction;
 @SupportDeltaspikeCore
 public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
 
+    private static final int WORD_COUNT = 3;
+
     private Long personId = new Long(1L);
     private Long versionId = new Long(1L);
     private Long projectVersionId = new Long(1L);
@@ -74,6 +76,9 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
     @Inject
     private ActivityServiceImpl activityService;
 
+    @Inject
+    private ActivityLogBuffer activityLogBuffer;
+
     @Produces @Mock IServiceLocator serviceLocator;
 
     @Override
@@ -125,7 +130,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
             buildEvent(personId, versionId, documentId, null,
                 new LocaleId("as"), textFlowTargetId, ContentState.Approved,
                 ContentState.NeedReview);
-        activityService.logTextFlowStateUpdate(event);
+        logTextFlowStateUpdate(event);
         Activity activity =
                 activityService.findActivity(personId,
                         EntityType.HProjectIteration, projectVersionId,
@@ -142,7 +147,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
                 new LocaleId("as"),
                 textFlowTargetId, ContentState.Approved,
                 ContentState.NeedReview);
-        activityService.logTextFlowStateUpdate(event);
+        logTextFlowStateUpdate(event);
         List<Activity> activities =
                 activityService.findLatestActivitiesForContext(personId,
                         projectVersionId, 0, 10);
@@ -153,7 +158,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
                 new LocaleId("as"),
                 textFlowTargetId, ContentState.Rejected,
                 ContentState.NeedReview);
-        activityService.logTextFlowStateUpdate(event2);
+        logTextFlowStateUpdate(event2);
 
         activities =
                 activityService.findLatestActivitiesForContext(personId,
@@ -175,7 +180,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
                 new LocaleId("as"),
                 textFlowTargetId, ContentState.Translated,
                 ContentState.NeedReview);
-        activityService.logTextFlowStateUpdate(event);
+        logTextFlowStateUpdate(event);
 
         Activity activity =
                 activityService.findActivity(personId,
@@ -189,7 +194,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
             buildEvent(personId, versionId, documentId, null,
                 new LocaleId("as"), textFlowTargetId, ContentState.NeedReview,
                 ContentState.New);
-        activityService.logTextFlowStateUpdate(event2);
+        logTextFlowStateUpdate(event2);
         activity =
                 activityService.findActivity(personId,
                         EntityType.HProjectIteration, projectVersionId,
@@ -205,14 +210,14 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
                 new LocaleId("as"),
                 textFlowTargetId, ContentState.Translated,
                 ContentState.NeedReview);
-        activityService.logTextFlowStateUpdate(event);
+        logTextFlowStateUpdate(event);
 
         TextFlowTargetStateEvent event2 =
             buildEvent(personId, versionId, documentId, null,
                 new LocaleId("as"),
                 textFlowTargetId, ContentState.Approved,
                 ContentState.NeedReview);
-        activityService.logTextFlowStateUpdate(event2);
+        logTextFlowStateUpdate(event2);
 
         activityService.onDocumentUploaded(new DocumentUploadedEvent(personId,
                 documentId, false, new LocaleId("as")));
@@ -231,27 +236,27 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
         TextFlowTargetStateEvent event =
             buildEvent(personId, versionId, documentId2, null, LocaleId.EN_US,
                 new Long(5), ContentState.Translated, ContentState.NeedReview);
-        activityService.logTextFlowStateUpdate(event);
+        logTextFlowStateUpdate(event);
 
         TextFlowTargetStateEvent event2 =
             buildEvent(personId, versionId, documentId2, null, LocaleId.EN_US,
                 new Long(5), ContentState.Approved, ContentState.NeedReview);
-        activityService.logTextFlowStateUpdate(event2);
+        logTextFlowStateUpdate(event2);
 
         TextFlowTargetStateEvent event3 =
             buildEvent(personId, versionId, documentId2, null, LocaleId.EN_US,
                 new Long(5), ContentState.Approved, ContentState.NeedReview);
-        activityService.logTextFlowStateUpdate(event3);
+        logTextFlowStateUpdate(event3);
 
         TextFlowTargetStateEvent event4 =
             buildEvent(personId, versionId, documentId2, null, LocaleId.EN_US,
                 new Long(6), ContentState.Rejected, ContentState.Translated);
-        activityService.logTextFlowStateUpdate(event4);
+        logTextFlowStateUpdate(event4);
 
         TextFlowTargetStateEvent event5 =
             buildEvent(personId, versionId, documentId2, null, LocaleId.EN_US,
                 new Long(6), ContentState.NeedReview, ContentState.New);
-        activityService.logTextFlowStateUpdate(event5);
+        logTextFlowStateUpdate(event5);
 
         List<Activity> activities =
             activityService.findLatestActivitiesForContext(personId,
@@ -260,6 +265,66 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
         assertThat(activities.size(), equalTo(2));
     }
 
+    @Test
+    @InRequestScope
+    public void testBufferedEventsAreAggregated() throws Exception {
+        TextFlowTargetStateEvent event =
+            buildEvent(personId, versionId, documentId, null,
+                new LocaleId("as"), textFlowTargetId, ContentState.Translated,
+                ContentState.New);
+        TextFlowTargetStateEvent event2 =
+            buildEvent(personId, versionId, documentId, null,
+                new LocaleId("as"), textFlowTargetId, ContentState.Translated,
+                ContentState.NeedReview);
+        activityService.logTextFlowStateUpdate(event);
+        activityService.logTextFlowStateUpdate(event2);
+        assertThat(activityService.findLatestActivitiesForContext(personId,
+                projectVersionId, 0, 10).size(), equalTo(0));
+
+        activityLogBuffer.flush();
+
+        Activity activity =
+                activityService.findActivity(personId,
+                        EntityType.HProjectIteration, projectVersionId,
+                        ActivityType.UPDATE_TRANSLATION, new Date());
+        assertThat(activity.getEventCount(), equalTo(2));
+        assertThat(activity.getWordCount(), equalTo(2 * WORD_COUNT));
+        assertThat(activityLogBuffer.getPendingCount(), equalTo(0));
+    }
+
+    @Test
+    @InRequestScope
+    public void testUnsavableActivityIsRetriedThenDropped() throws Exception {
+        Long unknownPersonId = 9999L;
+        activityService.logTextFlowStateUpdate(buildEvent(unknownPersonId,
+                versionId, documentId, null, new LocaleId("as"),
+                textFlowTargetId, ContentState.Translated, ContentState.New));
+        logTextFlowStateUpdate(buildEvent(personId, versionId, documentId,
+                null, new LocaleId("as"), textFlowTargetId,
+                ContentState.Translated, ContentState.New));
+
+        // the valid activity is saved in spite of the invalid one
+        Activity activity =
+                activityService.findActivity(personId,
+                        EntityType.HProjectIteration, projectVersionId,
+                        ActivityType.UPDATE_TRANSLATION, new Date());
+        assertThat(activity, not(nullValue()));
+        assertThat(activityLogBuffer.getPendingCount(), equalTo(1));
+
+        for (int i = 2; i < ActivityLogBuffer.MAX_ATTEMPTS; i++) {
+            activityLogBuffer.flush();
+        }
+        assertThat(activityLogBuffer.getPendingCount(), equalTo(1));
+        activityLogBuffer.flush();
+        assertThat(activityLogBuffer.getPendingCount(), equalTo(0));
+    }
+
+    private void logTextFlowStateUpdate(TextFlowTargetStateEvent event)
+            throws Exception {
+        activityService.logTextFlowStateUpdate(event);
+        activityLogBuffer.flush();
+    }
+
     private TextFlowTargetStateEvent buildEvent(Long personId, Long versionId,
         Long documentId, Long tfIf, LocaleId localeId,
         Long tftId, ContentState newState, ContentState oldState) {
@@ -268,7 +333,7 @@ public class ActivityServiceImplTest extends ZanataDbunitJpaTest {
 
         TextFlowTargetStateEvent.TextFlowTargetStateChange state =
             new TextFlowTargetStateEvent.TextFlowTargetStateChange(tfIf,
-                tftId, newState, oldState);
+                tftId, newState, oldState, WORD_COUNT);
 
         return new TextFlowTargetStateEvent(key, versionId, personId, state);
     }
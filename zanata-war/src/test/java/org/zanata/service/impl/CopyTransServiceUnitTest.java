@@ -82,6 +82,8 @@ public class CopyTransServiceUnitTest {
     TranslationStateCache translationStateCacheImpl;
     @Mock
     TextFlowDAO textFlowDAO;
+    @Mock
+    TransMemorySuggestionCache transMemorySuggestionCache;
 
     @Before
     public void initializeSeam() {
@@ -103,7 +105,8 @@ public class CopyTransServiceUnitTest {
                 new CopyTransServiceImpl(
                         localeServiceImpl, projectDAO, documentDAO,
                         copyTransWorkFactory, textFlowTargetDAO,
-                        translationStateCacheImpl, textFlowDAO);
+                        translationStateCacheImpl, textFlowDAO,
+                        transMemorySuggestionCache);
 
         HCopyTransOptions projOptions = new HCopyTransOptions(IGNORE, IGNORE, IGNORE);
 
@@ -25,7 +25,16 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import org.junit.Test;
 import org.zanata.common.ContentState;
+import org.zanata.common.ContentType;
+import org.zanata.common.LocaleId;
+import org.zanata.dao.TextFlowTargetDAO.CopyTransCandidate;
+import org.zanata.model.HDocument;
+import org.zanata.model.HLocale;
+import org.zanata.model.HProject;
+import org.zanata.model.HProjectIteration;
+import org.zanata.model.HTextFlow;
 
+import java.util.Date;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -233,4 +242,84 @@ public class CopyTransWorkTest {
                 false, Approved), is(Translated));
     }
 
+    @Test
+    public void bestMatchPrefersSameResIdThenDocIdThenProject() {
+        HTextFlow textFlow = textFlow(1L, "res1", "doc1", 10L);
+        CopyTransCandidate otherProject =
+                candidate(100L, 2L, "res1", "doc1", 20L, date(3));
+        CopyTransCandidate sameDocOtherRes =
+                candidate(101L, 3L, "res2", "doc1", 10L, date(3));
+        CopyTransCandidate sameResSameDoc =
+                candidate(102L, 4L, "res1", "doc1", 10L, date(1));
+
+        assertThat(CopyTransWorkFactory.findBestMatch(textFlow,
+                ImmutableList.of(otherProject, sameDocOtherRes,
+                        sameResSameDoc), false).get(),
+                is(sameResSameDoc));
+        assertThat(CopyTransWorkFactory.findBestMatch(textFlow,
+                ImmutableList.of(otherProject, sameDocOtherRes), false).get(),
+                is(otherProject));
+    }
+
+    @Test
+    public void bestMatchIgnoresOwnTranslation() {
+        HTextFlow textFlow = textFlow(1L, "res1", "doc1", 10L);
+        CopyTransCandidate own =
+                candidate(100L, 1L, "res1", "doc1", 10L, date(1));
+
+        assertThat(CopyTransWorkFactory.findBestMatch(textFlow,
+                ImmutableList.of(own), false).isPresent(), is(false));
+    }
+
+    @Test
+    public void bestMatchWithContextCheckRequiresSameResId() {
+        HTextFlow textFlow = textFlow(1L, "res1", "doc1", 10L);
+        CopyTransCandidate otherRes =
+                candidate(100L, 2L, "res2", "doc1", 10L, date(1));
+
+        assertThat(CopyTransWorkFactory.findBestMatch(textFlow,
+                ImmutableList.of(otherRes), true).isPresent(), is(false));
+        assertThat(CopyTransWorkFactory.findBestMatch(textFlow,
+                ImmutableList.of(otherRes), false).get(), is(otherRes));
+    }
+
+    @Test
+    public void bestMatchPrefersMostRecentlyChanged() {
+        HTextFlow textFlow = textFlow(1L, "res1", "doc1", 10L);
+        CopyTransCandidate undated =
+                candidate(100L, 2L, "res1", "doc2", 20L, null);
+        CopyTransCandidate older =
+                candidate(101L, 3L, "res1", "doc2", 20L, date(1));
+        CopyTransCandidate newer =
+                candidate(102L, 4L, "res1", "doc2", 20L, date(2));
+
+        assertThat(CopyTransWorkFactory.findBestMatch(textFlow,
+                ImmutableList.of(undated, older, newer), false).get(),
+                is(newer));
+    }
+
+    private static HTextFlow textFlow(Long id, String resId, String docId,
+            Long projectId) {
+        HProject project = new HProject();
+        project.setId(projectId);
+        HProjectIteration iteration = new HProjectIteration();
+        iteration.setProject(project);
+        HDocument document = new HDocument(docId, docId, "", ContentType.PO,
+                new HLocale(LocaleId.EN_US));
+        document.setProjectIteration(iteration);
+        HTextFlow textFlow = new HTextFlow(document, resId, "content");
+        textFlow.setId(id);
+        return textFlow;
+    }
+
+    private static CopyTransCandidate candidate(Long targetId,
+            Long textFlowId, String resId, String docId, Long projectId,
+            Date lastChanged) {
+        return new CopyTransCandidate(targetId, textFlowId, "hash", resId,
+                docId, projectId, lastChanged);
+    }
+
+    private static Date date(long millis) {
+        return new Date(millis);
+    }
 }
@@ -143,8 +143,9 @@ public class DocumentServiceImplTest {
     public void documentMilestoneEventTranslatedTest() {
         doNothing().when(spyService).publishDocumentMilestoneEvent(
                 any(List.class), any(DocumentMilestoneEvent.class));
-        WordStatistic stats = new WordStatistic(0, 0, 0, 10, 0);
-        when(translationStateCacheImpl.getDocumentStatistics(docId, localeId))
+        // statistics before the save, which are still in the database
+        WordStatistic stats = new WordStatistic(0, 0, 10, 0, 0);
+        when(documentDAO.getWordStatistics(docId, localeId))
             .thenReturn(stats);
         runDocumentStatisticUpdatedTest(spyService, ContentState.New,
                 ContentState.Translated);
@@ -167,8 +168,8 @@ public class DocumentServiceImplTest {
 
     @Test
     public void documentMilestoneEventTranslatedNot100Test() {
-        WordStatistic stats = new WordStatistic(0, 1, 0, 9, 0);
-        when(translationStateCacheImpl.getDocumentStatistics(docId, localeId))
+        WordStatistic stats = new WordStatistic(0, 1, 10, 0, 0);
+        when(documentDAO.getWordStatistics(docId, localeId))
             .thenReturn(stats);
         runDocumentStatisticUpdatedTest(spyService, ContentState.New,
                 ContentState.Translated);
@@ -187,8 +188,8 @@ public class DocumentServiceImplTest {
     public void documentMilestoneEventApprovedTest() {
         doNothing().when(spyService).publishDocumentMilestoneEvent(
             any(List.class), any(DocumentMilestoneEvent.class));
-        WordStatistic stats = new WordStatistic(10, 0, 0, 0, 0);
-        when(translationStateCacheImpl.getDocumentStatistics(docId, localeId))
+        WordStatistic stats = new WordStatistic(0, 0, 0, 10, 0);
+        when(documentDAO.getWordStatistics(docId, localeId))
             .thenReturn(stats);
         runDocumentStatisticUpdatedTest(spyService, ContentState.Translated,
                 ContentState.Approved);
@@ -211,8 +212,8 @@ public class DocumentServiceImplTest {
 
     @Test
     public void documentMilestoneEventApprovedNot100Test() {
-        WordStatistic stats = new WordStatistic(9, 0, 0, 1, 0);
-        when(translationStateCacheImpl.getDocumentStatistics(docId, localeId))
+        WordStatistic stats = new WordStatistic(0, 0, 0, 10, 1);
+        when(documentDAO.getWordStatistics(docId, localeId))
             .thenReturn(stats);
         runDocumentStatisticUpdatedTest(spyService, ContentState.Translated,
                 ContentState.Approved);
@@ -230,7 +231,7 @@ public class DocumentServiceImplTest {
     @Test
     public void documentMilestoneEventSameStateTest1() {
         WordStatistic stats = new WordStatistic(10, 0, 0, 0, 0);
-        when(translationStateCacheImpl.getDocumentStatistics(docId, localeId))
+        when(documentDAO.getWordStatistics(docId, localeId))
             .thenReturn(stats);
 
         runDocumentStatisticUpdatedTest(spyService, ContentState.Approved,
@@ -249,7 +250,7 @@ public class DocumentServiceImplTest {
     public void documentMilestoneEventSameStateTest2() {
         WordStatistic stats = new WordStatistic(0, 0, 0, 10, 0);
 
-        when(translationStateCacheImpl.getDocumentStatistics(docId, localeId))
+        when(documentDAO.getWordStatistics(docId, localeId))
             .thenReturn(stats);
 
         runDocumentStatisticUpdatedTest(spyService, ContentState.Translated,
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.dbunit.operation.DatabaseOperation;
+import org.hibernate.Session;
+import org.junit.Test;
+import org.zanata.ZanataDbunitJpaTest;
+import org.zanata.common.ContentState;
+import org.zanata.common.LocaleId;
+import org.zanata.dao.DocumentDAO;
+import org.zanata.dao.LocaleDAO;
+import org.zanata.model.HDocument;
+import org.zanata.model.HDocumentStatistic;
+import org.zanata.model.HLocale;
+import org.zanata.model.HTextFlow;
+import org.zanata.model.HTextFlowTarget;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Saves translations through Hibernate and checks the statistics kept by
+ * {@link DocumentStatisticListener} against the translations themselves.
+ */
+public class DocumentStatisticListenerTest extends ZanataDbunitJpaTest {
+    private static final String DOC_ID = "my/path/document-2.txt";
+
+    @Override
+    protected void prepareDBUnitOperations() {
+        beforeTestOperations.add(new DataSetOperation(
+                "org/zanata/test/model/ClearAllTables.dbunit.xml",
+                DatabaseOperation.CLEAN_INSERT));
+        beforeTestOperations.add(new DataSetOperation(
+                "org/zanata/test/model/AccountData.dbunit.xml",
+                DatabaseOperation.CLEAN_INSERT));
+        beforeTestOperations.add(new DataSetOperation(
+                "org/zanata/test/model/ProjectsData.dbunit.xml",
+                DatabaseOperation.CLEAN_INSERT));
+        beforeTestOperations.add(new DataSetOperation(
+                "org/zanata/test/model/TextFlowTestData.dbunit.xml",
+                DatabaseOperation.CLEAN_INSERT));
+        beforeTestOperations.add(new DataSetOperation(
+                "org/zanata/test/model/LocalesData.dbunit.xml",
+                DatabaseOperation.CLEAN_INSERT));
+    }
+
+    @Test
+    public void statisticsFollowSavedTranslations() {
+        // make sure the rebuilt table is committed before changing anything
+        Session session = newSession();
+        assertThat(storedStatistics(session))
+                .isEqualTo(liveStatistics(session));
+
+        HDocument doc = getDocument(session);
+        List<HTextFlow> textFlows = doc.getTextFlows();
+        HLocale de =
+                new LocaleDAO(session).findByLocaleId(new LocaleId("de"));
+
+        // update: NeedReview -> Translated
+        HTextFlowTarget updated = getTarget(textFlows.get(0));
+        updated.setState(ContentState.Translated);
+
+        // delete a NeedReview target
+        HTextFlowTarget deleted = getTarget(textFlows.get(1));
+        textFlows.get(1).getTargets().remove(deleted.getLocale().getId());
+        session.delete(deleted);
+
+        // insert an Approved target in another locale
+        HTextFlowTarget inserted = new HTextFlowTarget(textFlows.get(2), de);
+        inserted.setContents("neu");
+        inserted.setState(ContentState.Approved);
+        textFlows.get(2).getTargets().put(de.getId(), inserted);
+        session.save(inserted);
+
+        session = newSession();
+        assertThat(storedStatistics(session))
+                .isEqualTo(liveStatistics(session))
+                .containsKey(de.getId() + "/" + ContentState.Approved);
+
+        // obsolete the text flow which has the inserted target
+        doc = getDocument(session);
+        doc.getTextFlows().remove(2).setObsolete(true);
+
+        session = newSession();
+        assertThat(storedStatistics(session))
+                .isEqualTo(liveStatistics(session))
+                .doesNotContainKey(de.getId() + "/" + ContentState.Approved);
+    }
+
+    private static HDocument getDocument(Session session) {
+        return new DocumentDAO(session).getByProjectIterationAndDocId(
+                "sample-project", "1.0", DOC_ID);
+    }
+
+    private static HTextFlowTarget getTarget(HTextFlow textFlow) {
+        // each of these text flows has a single target in the source data
+        return textFlow.getTargets().values().iterator().next();
+    }
+
+    /**
+     * Statistics rows of the document, as "localeId/state" to
+     * "messages/words". Rows which have been decremented to zero are
+     * ignored.
+     */
+    private static Map<String, String> storedStatistics(Session session) {
+        @SuppressWarnings("unchecked")
+        List<HDocumentStatistic> rows = session
+                .createQuery("from HDocumentStatistic s "
+                        + "where s.document.docId = :docId")
+                .setParameter("docId", DOC_ID).list();
+        Map<String, String> stats = Maps.newHashMap();
+        for (HDocumentStatistic row : rows) {
+            if (row.getMessages() != 0 || row.getWords() != 0) {
+                stats.put(row.getLocale().getId() + "/" + row.getState(),
+                        row.getMessages() + "/" + row.getWords());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * The same statistics, aggregated from the translations.
+     */
+    private static Map<String, String> liveStatistics(Session session) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = session.createQuery(
+                "select tft.locale.id, tft.state, count(tft), "
+                        + "sum(tft.textFlow.wordCount) "
+                        + "from HTextFlowTarget tft "
+                        + "where tft.textFlow.document.docId = :docId "
+                        + "and tft.textFlow.obsolete = false "
+                        + "group by tft.locale.id, tft.state")
+                .setParameter("docId", DOC_ID).list();
+        Map<String, String> stats = Maps.newHashMap();
+        for (Object[] row : rows) {
+            stats.put(row[0] + "/" + row[1], row[2] + "/" + row[3]);
+        }
+        return stats;
+    }
+}
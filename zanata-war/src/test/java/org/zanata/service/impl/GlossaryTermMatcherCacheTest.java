@@ -0,0 +1,187 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.zanata.common.LocaleId;
+import org.zanata.dao.GlossaryDAO;
+import org.zanata.service.impl.GlossaryTermMatcherCache.TermPair;
+import org.zanata.util.AhoCorasickMatcher.Match;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class GlossaryTermMatcherCacheTest {
+    private static final LocaleId SRC = LocaleId.EN_US;
+    private static final LocaleId TRANS = LocaleId.DE;
+    private static final String TEXT = "Open the file system browser.";
+
+    @Mock
+    private GlossaryDAO glossaryDAO;
+
+    private GlossaryTermMatcherCache cache;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        cache = new GlossaryTermMatcherCache(10, glossaryDAO);
+        when(glossaryDAO.getTermPairs(SRC, TRANS)).thenReturn(
+                Lists.newArrayList(row(1L, 11L, "file system", "Dateisystem"),
+                        row(2L, 21L, "browser", "Browser")));
+    }
+
+    private static Object[] row(Long entryId, Long sourceTermId,
+            String source, String target) {
+        return new Object[] { entryId, sourceTermId, source, target };
+    }
+
+    private List<String> findTerms() {
+        List<String> terms = Lists.newArrayList();
+        for (Match<TermPair> match : cache.findTerms(SRC, TRANS, TEXT)) {
+            TermPair pair = match.getValue();
+            terms.add(pair.getSource() + "=" + pair.getTarget());
+        }
+        return terms;
+    }
+
+    @Test
+    public void loadsGlossaryOnceAndReusesMatcher() {
+        assertThat(findTerms()).containsOnly("file system=Dateisystem",
+                "browser=Browser");
+        assertThat(findTerms()).containsOnly("file system=Dateisystem",
+                "browser=Browser");
+
+        verify(glossaryDAO).getTermPairs(SRC, TRANS);
+        verifyNoMoreInteractions(glossaryDAO);
+    }
+
+    @Test
+    public void reloadsOnlyChangedEntriesOnce() {
+        findTerms();
+        when(glossaryDAO.getTermPairsByEntryIds(SRC, TRANS,
+                ImmutableList.of(1L))).thenReturn(Lists.<Object[]> newArrayList(
+                row(1L, 11L, "file system", "Dateiensystem")));
+
+        cache.entryChanged(1L);
+
+        assertThat(findTerms()).containsOnly("file system=Dateiensystem",
+                "browser=Browser");
+        // the stale entry has been drained, so nothing is reloaded again
+        assertThat(findTerms()).containsOnly("file system=Dateiensystem",
+                "browser=Browser");
+        verify(glossaryDAO).getTermPairs(SRC, TRANS);
+        verify(glossaryDAO).getTermPairsByEntryIds(SRC, TRANS,
+                ImmutableList.of(1L));
+        verifyNoMoreInteractions(glossaryDAO);
+    }
+
+    @Test
+    public void removesDeletedEntry() {
+        findTerms();
+        when(glossaryDAO.getTermPairsByEntryIds(SRC, TRANS,
+                ImmutableList.of(2L))).thenReturn(
+                Lists.<Object[]> newArrayList());
+
+        cache.entryChanged(2L);
+
+        assertThat(findTerms()).containsOnly("file system=Dateisystem");
+    }
+
+    @Test
+    public void retriesChangedEntryAfterFailedReload() {
+        findTerms();
+        RuntimeException failure = new RuntimeException("database down");
+        when(glossaryDAO.getTermPairsByEntryIds(SRC, TRANS,
+                ImmutableList.of(2L))).thenThrow(failure).thenReturn(
+                Lists.<Object[]> newArrayList(
+                        row(2L, 21L, "browser", "Webbrowser")));
+
+        cache.entryChanged(2L);
+        try {
+            findTerms();
+            fail("expected the reload to fail");
+        } catch (RuntimeException e) {
+            assertThat(e).isSameAs(failure);
+        }
+
+        assertThat(findTerms()).containsOnly("file system=Dateisystem",
+                "browser=Webbrowser");
+        verify(glossaryDAO, times(2)).getTermPairsByEntryIds(SRC, TRANS,
+                ImmutableList.of(2L));
+    }
+
+    @Test
+    public void reloadsUpToThresholdEntryByEntryInBatches() {
+        findTerms();
+        when(glossaryDAO.getTermPairsByEntryIds(eq(SRC), eq(TRANS),
+                anyCollectionOf(Long.class))).thenReturn(
+                Lists.<Object[]> newArrayList());
+
+        for (long id = 1001; id <= 2000; id++) {
+            cache.entryChanged(id);
+        }
+        findTerms();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> batches =
+                (ArgumentCaptor) ArgumentCaptor.forClass(List.class);
+        verify(glossaryDAO, times(2)).getTermPairsByEntryIds(eq(SRC),
+                eq(TRANS), batches.capture());
+        assertThat(batches.getAllValues().get(0)).hasSize(500);
+        assertThat(batches.getAllValues().get(1)).hasSize(500);
+        verify(glossaryDAO).getTermPairs(SRC, TRANS);
+    }
+
+    @Test
+    public void reloadsWholeGlossaryAboveThreshold() {
+        findTerms();
+        when(glossaryDAO.getTermPairs(SRC, TRANS)).thenReturn(
+                Lists.<Object[]> newArrayList(
+                        row(2L, 21L, "browser", "Webbrowser")));
+
+        for (long id = 1000; id <= 2000; id++) {
+            cache.entryChanged(id);
+        }
+
+        assertThat(findTerms()).containsOnly("browser=Webbrowser");
+        verify(glossaryDAO, times(2)).getTermPairs(SRC, TRANS);
+        verify(glossaryDAO, never()).getTermPairsByEntryIds(
+                any(LocaleId.class), any(LocaleId.class),
+                anyCollectionOf(Long.class));
+    }
+}
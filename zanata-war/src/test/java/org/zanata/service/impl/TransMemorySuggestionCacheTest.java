@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.zanata.common.LocaleId;
+import org.zanata.rest.editor.dto.suggestion.Suggestion;
+import org.zanata.webtrans.shared.model.TransMemoryQuery;
+import org.zanata.webtrans.shared.rpc.HasSearchType.SearchType;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransMemorySuggestionCacheTest {
+    private TransMemorySuggestionCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new TransMemorySuggestionCache(100, 10);
+    }
+
+    private static TransMemorySuggestionCache.Key key(String query,
+            LocaleId targetLocale) {
+        return TransMemorySuggestionCache.Key.of(
+                new TransMemoryQuery(query, SearchType.FUZZY), LocaleId.EN_US,
+                targetLocale, 1L);
+    }
+
+    private static List<Suggestion> suggestions(String target) {
+        return Lists.newArrayList(new Suggestion(1.0, 100.0,
+                ImmutableList.of("source"), ImmutableList.of(target)));
+    }
+
+    @Test
+    public void returnsCachedSuggestions() {
+        TransMemorySuggestionCache.Key key = key("source", LocaleId.DE);
+        cache.put(key, suggestions("Quelle"), cache.getGeneration(LocaleId.DE));
+
+        assertThat(cache.get(key).get()).extracting("targetContents")
+                .containsExactly(ImmutableList.of("Quelle"));
+        assertThat(cache.get(key("other", LocaleId.DE)).isPresent()).isFalse();
+        assertThat(cache.getFieldValueAsString(
+                TransMemorySuggestionCache.class.getName() + ".size"))
+                .isEqualTo("1");
+    }
+
+    @Test
+    public void keyDependsOnTextFlowTarget() {
+        // the search boosts the target's own translation
+        TransMemoryQuery query = new TransMemoryQuery("source",
+                SearchType.FUZZY);
+        assertThat(TransMemorySuggestionCache.Key.of(query, LocaleId.EN_US,
+                LocaleId.DE, 1L)).isNotEqualTo(
+                TransMemorySuggestionCache.Key.of(query, LocaleId.EN_US,
+                        LocaleId.DE, 2L));
+    }
+
+    @Test
+    public void callersCannotModifyCachedSuggestions() {
+        TransMemorySuggestionCache.Key key = key("source", LocaleId.DE);
+        cache.put(key, suggestions("Quelle"), cache.getGeneration(LocaleId.DE));
+
+        cache.get(key).get().clear();
+
+        assertThat(cache.get(key).get()).hasSize(1);
+    }
+
+    @Test
+    public void invalidatesOnlyChangedLocale() {
+        TransMemorySuggestionCache.Key de = key("source", LocaleId.DE);
+        TransMemorySuggestionCache.Key fr = key("source", LocaleId.FR);
+        cache.put(de, suggestions("Quelle"), cache.getGeneration(LocaleId.DE));
+        cache.put(fr, suggestions("source"), cache.getGeneration(LocaleId.FR));
+
+        cache.invalidateLocale(LocaleId.DE);
+
+        assertThat(cache.get(de).isPresent()).isFalse();
+        assertThat(cache.get(fr).isPresent()).isTrue();
+    }
+
+    @Test
+    public void invalidateAllClearsEverything() {
+        TransMemorySuggestionCache.Key de = key("source", LocaleId.DE);
+        cache.put(de, suggestions("Quelle"), cache.getGeneration(LocaleId.DE));
+
+        cache.invalidateAll();
+
+        assertThat(cache.get(de).isPresent()).isFalse();
+    }
+
+    @Test
+    public void doesNotCacheSearchWhichOverlappedInvalidation() {
+        TransMemorySuggestionCache.Key key = key("source", LocaleId.DE);
+        long generation = cache.getGeneration(LocaleId.DE);
+
+        cache.invalidateLocale(LocaleId.DE);
+        cache.put(key, suggestions("Quelle"), generation);
+
+        assertThat(cache.get(key).isPresent()).isFalse();
+    }
+
+    @Test
+    public void cachesSearchWhichOverlappedOtherLocaleInvalidation() {
+        TransMemorySuggestionCache.Key key = key("source", LocaleId.DE);
+        long generation = cache.getGeneration(LocaleId.DE);
+
+        cache.invalidateLocale(LocaleId.FR);
+        cache.put(key, suggestions("Quelle"), generation);
+
+        assertThat(cache.get(key).isPresent()).isTrue();
+    }
+
+    @Test
+    public void staleEntryIsRemovedWhenRead() {
+        TransMemorySuggestionCache.Key key = key("source", LocaleId.DE);
+        cache.put(key, suggestions("Quelle"), cache.getGeneration(LocaleId.DE));
+
+        cache.invalidateLocale(LocaleId.DE);
+
+        assertThat(cache.get(key).isPresent()).isFalse();
+        assertThat(cache.getFieldValueAsString(
+                TransMemorySuggestionCache.class.getName() + ".size"))
+                .isEqualTo("0");
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.zanata.common.LocaleId;
+import org.zanata.dao.DocumentDAO;
+import org.zanata.events.DocumentLocaleKey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TranslatedDocumentStateCacheTest {
+    private static final DocumentLocaleKey DE_KEY =
+            new DocumentLocaleKey(1L, LocaleId.DE);
+    private static final DocumentLocaleKey FR_KEY =
+            new DocumentLocaleKey(1L, LocaleId.FR);
+
+    private TranslatedDocumentStateCache cache;
+    private AtomicInteger loadCount;
+
+    @Before
+    public void setUp() {
+        cache = new TranslatedDocumentStateCache(100);
+        loadCount = new AtomicInteger();
+    }
+
+    private Date load(DocumentLocaleKey key, long time) {
+        return cache.getTranslationsLastChanged(key, () -> {
+            loadCount.incrementAndGet();
+            return new Date(time);
+        });
+    }
+
+    @Test
+    public void loadsOnlyOnce() {
+        assertThat(load(DE_KEY, 1000L)).isEqualTo(new Date(1000L));
+        assertThat(load(DE_KEY, 2000L)).isEqualTo(new Date(1000L));
+        assertThat(loadCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidateOnlyAffectsOneLocale() {
+        load(DE_KEY, 1000L);
+        load(FR_KEY, 1000L);
+
+        cache.invalidate(1L, LocaleId.DE);
+
+        assertThat(load(DE_KEY, 2000L)).isEqualTo(new Date(2000L));
+        assertThat(load(FR_KEY, 2000L)).isEqualTo(new Date(1000L));
+    }
+
+    @Test
+    public void invalidateAllAffectsEveryLocale() {
+        load(DE_KEY, 1000L);
+        load(FR_KEY, 1000L);
+
+        cache.invalidateAll();
+
+        assertThat(load(DE_KEY, 2000L)).isEqualTo(new Date(2000L));
+        assertThat(load(FR_KEY, 2000L)).isEqualTo(new Date(2000L));
+    }
+
+    @Test
+    public void loadOverlappingInvalidationIsNotCached() {
+        cache.getTranslationsLastChanged(DE_KEY, () -> {
+            // a translation is committed while the old state is being read
+            cache.invalidate(1L, LocaleId.DE);
+            return new Date(1000L);
+        });
+
+        assertThat(load(DE_KEY, 2000L)).isEqualTo(new Date(2000L));
+    }
+
+    @Test
+    public void stateHashUsesLatestOfDocumentAndTranslations() {
+        assertThat(DocumentDAO.toTranslatedDocumentStateHash(new Date(1000L),
+                new Date(2000L))).isEqualTo(
+                DocumentDAO.toTranslatedDocumentStateHash(new Date(2000L),
+                        new Date(1000L)));
+        assertThat(DocumentDAO.toTranslatedDocumentStateHash(new Date(1000L),
+                new Date(2000L))).isNotEqualTo(
+                DocumentDAO.toTranslatedDocumentStateHash(new Date(1000L),
+                        new Date(3000L)));
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.zanata.ZanataTest;
+import org.zanata.async.AsyncTaskHandle;
+import org.zanata.common.ContentType;
+import org.zanata.common.LocaleId;
+import org.zanata.common.ProjectType;
+import org.zanata.dao.DocumentDAO;
+import org.zanata.dao.LocaleDAO;
+import org.zanata.dao.ProjectIterationDAO;
+import org.zanata.dao.TextFlowTargetDAO;
+import org.zanata.model.HDocument;
+import org.zanata.model.HLocale;
+import org.zanata.model.HProjectIteration;
+import org.zanata.rest.dto.resource.Resource;
+import org.zanata.rest.dto.resource.TextFlow;
+import org.zanata.rest.service.ResourceUtils;
+import org.zanata.service.ConfigurationService;
+import org.zanata.service.FileSystemService;
+import org.zanata.util.RunnableEx;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the archive builder which renders documents on worker threads.
+ */
+public class TranslationArchiveServiceImplTest extends ZanataTest {
+    private static final String PROJECT = "project";
+    private static final String VERSION = "master";
+    private static final int THREADS = 2;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private DocumentDAO documentDAO;
+    @Mock
+    private LocaleDAO localeDAO;
+    @Mock
+    private ProjectIterationDAO projectIterationDAO;
+    @Mock
+    private ResourceUtils resourceUtils;
+    @Mock
+    private TextFlowTargetDAO textFlowTargetDAO;
+    @Mock
+    private FileSystemService fileSystemService;
+    @Mock
+    private ConfigurationService configurationService;
+
+    // request scopes entered by workers, and those not yet left
+    private final Set<String> scopeThreads = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger scopesEntered = new AtomicInteger();
+    private final AtomicInteger activeScopes = new AtomicInteger();
+
+    @InjectMocks
+    private TranslationArchiveServiceImpl service =
+            new ScopeTrackingArchiveService();
+
+    private List<HDocument> documents;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        HProjectIteration iteration = new HProjectIteration();
+        iteration.setProjectType(ProjectType.Gettext);
+        when(projectIterationDAO.getBySlug(PROJECT, VERSION))
+                .thenReturn(iteration);
+        when(configurationService.getConfigurationFileName())
+                .thenReturn("zanata.xml");
+        when(configurationService.getConfigForOfflineTranslation(
+                eq(PROJECT), eq(VERSION), any(HLocale.class)))
+                .thenReturn("<config/>");
+        when(fileSystemService.createDownloadDescriptorFile(
+                any(File.class), anyString(), anyString()))
+                .thenReturn("download-id");
+
+        documents = Lists.newArrayList();
+        for (long id = 1; id <= 5; id++) {
+            HDocument document =
+                    new HDocument("doc" + id, ContentType.PO, null);
+            document.setId(id);
+            documents.add(document);
+            when(documentDAO.getById(id)).thenReturn(document);
+            Resource resource = new Resource(document.getDocId());
+            resource.setLang(LocaleId.EN_US);
+            resource.getTextFlows().add(new TextFlow("tf" + id,
+                    LocaleId.EN_US, "text of " + document.getDocId()));
+            when(resourceUtils.buildResource(document)).thenReturn(resource);
+        }
+        when(documentDAO.getAllByProjectIteration(PROJECT, VERSION))
+                .thenReturn(documents);
+    }
+
+    @Test
+    public void workersRenderEachLocaleInDocumentOrder() throws Exception {
+        for (String locale : ImmutableList.of("de", "fr")) {
+            File archive = newStagingFile(locale);
+            String downloadId =
+                    service.buildTranslationFileArchive(PROJECT, VERSION,
+                            locale, "admin", new AsyncTaskHandle<>());
+
+            assertThat(downloadId).isEqualTo("download-id");
+            Map<String, String> entries = readZip(archive);
+            String localeDir = PROJECT + "-" + VERSION + "/" + locale + "/";
+            assertThat(entries.keySet()).containsExactly(
+                    PROJECT + "-" + VERSION + "/zanata.xml",
+                    localeDir + "doc1.po", localeDir + "doc2.po",
+                    localeDir + "doc3.po", localeDir + "doc4.po",
+                    localeDir + "doc5.po");
+            for (HDocument document : documents) {
+                assertThat(entries.get(localeDir + document.getDocId()
+                        + ".po")).contains("\"text of " + document.getDocId()
+                        + "\"");
+            }
+        }
+        assertThat(scopesEntered.get()).isEqualTo(documents.size() * 2);
+        assertThat(activeScopes.get()).isEqualTo(0);
+        for (String thread : scopeThreads) {
+            assertThat(thread).startsWith("archive-");
+        }
+    }
+
+    @Test
+    public void workerFailureIsPropagatedAndScopesAreLeft() throws Exception {
+        newStagingFile("de");
+        // the last document fails, so every other worker is done by then
+        HDocument failing = documents.get(documents.size() - 1);
+        RuntimeException failure = new RuntimeException("render failed");
+        when(textFlowTargetDAO.findTranslations(eq(failing),
+                any(HLocale.class))).thenThrow(failure);
+
+        try {
+            service.buildTranslationFileArchive(PROJECT, VERSION, "de",
+                    "admin", new AsyncTaskHandle<>());
+            fail("expected the worker's exception");
+        } catch (RuntimeException e) {
+            assertThat(e).isSameAs(failure);
+        }
+        assertThat(scopesEntered.get()).isEqualTo(documents.size());
+        assertThat(activeScopes.get()).isEqualTo(0);
+    }
+
+    private File newStagingFile(String locale) throws IOException {
+        HLocale hLocale = new HLocale(new LocaleId(locale));
+        when(localeDAO.findByLocaleId(new LocaleId(locale)))
+                .thenReturn(hLocale);
+        File archive = tempFolder.newFile(locale + ".zip");
+        when(fileSystemService.createDownloadStagingFile("zip"))
+                .thenReturn(archive);
+        return archive;
+    }
+
+    private static Map<String, String> readZip(File archive)
+            throws IOException {
+        Map<String, String> entries = Maps.newLinkedHashMap();
+        try (ZipInputStream zip =
+                new ZipInputStream(new FileInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(),
+                        new String(ByteStreams.toByteArray(zip), "UTF-8"));
+            }
+        }
+        return entries;
+    }
+
+    private class ScopeTrackingArchiveService
+            extends TranslationArchiveServiceImpl {
+        ScopeTrackingArchiveService() {
+            super(THREADS);
+        }
+
+        @Override
+        void withRequestScope(RunnableEx runnable) throws Exception {
+            scopeThreads.add(Thread.currentThread().getName());
+            scopesEntered.incrementAndGet();
+            activeScopes.incrementAndGet();
+            try {
+                runnable.run();
+            } finally {
+                activeScopes.decrementAndGet();
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.zanata.service.impl;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.enterprise.inject.Produces;
@@ -30,6 +31,8 @@ import org.zanata.common.LocaleId;
 import org.zanata.common.MergeType;
 import org.zanata.i18n.Messages;
 import org.zanata.jpa.FullText;
+import org.zanata.lock.Lock;
+import org.zanata.lock.LockNotAcquiredException;
 import org.zanata.model.HAccount;
 import org.zanata.model.HDocument;
 import org.zanata.model.HLocale;
@@ -46,6 +49,8 @@ import org.zanata.security.ZanataIdentity;
 import com.github.huangp.entityunit.entity.EntityMaker;
 import com.github.huangp.entityunit.entity.EntityMakerBuilder;
 import com.github.huangp.entityunit.maker.FixedValueMaker;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.jamonapi.Monitor;
 import com.jamonapi.MonitorFactory;
@@ -56,6 +61,7 @@ import org.zanata.test.CdiUnitRunner;
 import org.zanata.transaction.TransactionUtil;
 import org.zanata.util.IServiceLocator;
 
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 @Slf4j
@@ -181,6 +187,126 @@ public class TranslationServiceImplJpaTest extends ZanataJpaTest {
         Assertions.assertThat(histories).hasSize(numOfTextFlowsHavingTarget);
     }
 
+    @Test
+    @InRequestScope
+    public void pushTranslationsForManyLocales() {
+        EntityMaker entityMaker = EntityMakerBuilder.builder()
+                .addFieldOrPropertyMaker(HProject.class, "sourceViewURL",
+                        FixedValueMaker.EMPTY_STRING_MAKER).build();
+        HProjectIteration iteration = entityMaker
+                .makeAndPersist(getEm(), HProjectIteration.class);
+        HLocale srcLocale = createAndPersistLocale(LocaleId.EN_US, getEm());
+        HLocale deLocale = createAndPersistLocale(LocaleId.DE, getEm());
+        HLocale frLocale = createAndPersistLocale(LocaleId.FR, getEm());
+
+        String versionSlug = iteration.getSlug();
+        String projectSlug = iteration.getProject().getSlug();
+
+        HDocument document = new HDocument("message", ContentType.PO, srcLocale);
+        document.setProjectIteration(iteration);
+        getEm().persist(document);
+        getEm().flush();
+
+        int numOfTextFlows = 10;
+        createSourceAndSomeTargets(document, deLocale, numOfTextFlows);
+        getEm().getTransaction().commit();
+        getEm().getTransaction().begin();
+
+        Map<LocaleId, TranslationsResource> byLocale = Maps.newHashMap();
+        for (HLocale locale : Lists.newArrayList(deLocale, frLocale)) {
+            TranslationsResource translations = new TranslationsResource();
+            translations.setRevision(1);
+            for (int i = 0; i < numOfTextFlows; i++) {
+                addSampleTranslation(translations, "res" + i);
+            }
+            byLocale.put(locale.getLocaleId(), translations);
+        }
+        Map<String, Map<LocaleId, TranslationsResource>> translations =
+                Maps.newHashMap();
+        translations.put(document.getDocId(), byLocale);
+        translations.put("missing", Maps.newHashMap(byLocale));
+
+        List<String> warnings = service.translateAllInDocs(projectSlug,
+                versionSlug, translations, extensions, MergeType.AUTO, false,
+                null, TranslationSourceType.API_UPLOAD);
+        getEm().getTransaction().commit();
+        getEm().getTransaction().begin();
+
+        Assertions.assertThat(warnings).hasSize(1);
+        Assertions.assertThat(warnings.get(0)).contains("missing");
+        for (HLocale locale : Lists.newArrayList(deLocale, frLocale)) {
+            Long targetsCount = getEm().createQuery(
+                    "select count(*) from HTextFlowTarget where locale = :locale and state = :state",
+                    Long.class).setParameter("locale", locale)
+                    .setParameter("state", ContentState.Translated)
+                    .getSingleResult();
+            Assertions.assertThat(targetsCount).isEqualTo(numOfTextFlows);
+        }
+    }
+
+    @Test
+    @InRequestScope
+    public void skipsLockedDocumentAndPushesTheOthers() {
+        EntityMaker entityMaker = EntityMakerBuilder.builder()
+                .addFieldOrPropertyMaker(HProject.class, "sourceViewURL",
+                        FixedValueMaker.EMPTY_STRING_MAKER).build();
+        HProjectIteration iteration = entityMaker
+                .makeAndPersist(getEm(), HProjectIteration.class);
+        HLocale srcLocale = createAndPersistLocale(LocaleId.EN_US, getEm());
+        HLocale deLocale = createAndPersistLocale(LocaleId.DE, getEm());
+
+        String versionSlug = iteration.getSlug();
+        String projectSlug = iteration.getProject().getSlug();
+
+        int numOfTextFlows = 4;
+        Map<String, Map<LocaleId, TranslationsResource>> translations =
+                Maps.newLinkedHashMap();
+        for (String docId : Lists.newArrayList("locked", "message")) {
+            HDocument document =
+                    new HDocument(docId, ContentType.PO, srcLocale);
+            document.setProjectIteration(iteration);
+            getEm().persist(document);
+            getEm().flush();
+            createSourceAndSomeTargets(document, deLocale, numOfTextFlows);
+
+            TranslationsResource docTranslations = new TranslationsResource();
+            docTranslations.setRevision(1);
+            for (int i = 0; i < numOfTextFlows; i++) {
+                addSampleTranslation(docTranslations, "res" + i);
+            }
+            Map<LocaleId, TranslationsResource> byLocale = Maps.newHashMap();
+            byLocale.put(LocaleId.DE, docTranslations);
+            translations.put(docId, byLocale);
+        }
+        getEm().getTransaction().commit();
+        getEm().getTransaction().begin();
+
+        Lock lock = new Lock(projectSlug, versionSlug, "locked", LocaleId.DE,
+                "push");
+        doThrow(new LockNotAcquiredException(lock, "Already locked"))
+                .when(lockManagerService).attain(lock);
+
+        List<String> warnings = service.translateAllInDocs(projectSlug,
+                versionSlug, translations, extensions, MergeType.AUTO, false,
+                null, TranslationSourceType.API_UPLOAD);
+        getEm().getTransaction().commit();
+        getEm().getTransaction().begin();
+
+        Assertions.assertThat(warnings).hasSize(1);
+        Assertions.assertThat(warnings.get(0)).contains("locked");
+        for (String docId : Lists.newArrayList("locked", "message")) {
+            Long translated = getEm().createQuery(
+                    "select count(*) from HTextFlowTarget " +
+                            "where textFlow.document.docId = :docId " +
+                            "and state = :state",
+                    Long.class).setParameter("docId", docId)
+                    .setParameter("state", ContentState.Translated)
+                    .getSingleResult();
+            Assertions.assertThat(translated).isEqualTo(
+                    docId.equals("locked") ? 0L : numOfTextFlows);
+        }
+    }
+
     private static HLocale createAndPersistLocale(LocaleId localeId,
             EntityManager entityManager) {
         HLocale hLocale = new HLocale(localeId, true, true);
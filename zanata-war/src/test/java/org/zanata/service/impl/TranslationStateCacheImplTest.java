@@ -21,6 +21,7 @@
 package org.zanata.service.impl;
 
 import com.google.common.cache.CacheLoader;
+import com.google.common.collect.Lists;
 import org.apache.deltaspike.core.api.provider.BeanProvider;
 import org.hibernate.Session;
 import org.infinispan.manager.CacheContainer;
@@ -30,12 +31,19 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.zanata.cache.InfinispanTestCacheContainer;
+import org.zanata.common.ContentState;
+import org.zanata.common.ContentType;
 import org.zanata.common.LocaleId;
 import org.zanata.dao.DocumentDAO;
 import org.zanata.dao.LocaleDAO;
 import org.zanata.dao.TextFlowDAO;
 import org.zanata.dao.TextFlowTargetDAO;
+import org.zanata.events.DocStatsEvent;
 import org.zanata.events.DocumentLocaleKey;
+import org.zanata.model.HDocument;
+import org.zanata.model.HLocale;
+import org.zanata.model.HTextFlow;
+import org.zanata.model.HTextFlowTarget;
 import org.zanata.test.CdiUnitRunner;
 import org.zanata.ui.model.statistic.WordStatistic;
 import org.zanata.util.Zanata;
@@ -47,8 +55,10 @@ import javax.enterprise.inject.Produces;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -151,4 +161,72 @@ public class TranslationStateCacheImplTest {
                                                        // once
         assertThat(result, equalTo(true));
     }
+
+    @Test
+    public void docStatsUpdatedAppliesWordDeltasToCachedStatistic()
+            throws Exception {
+        // Given:
+        Long documentId = 100L;
+        LocaleId localeId = LocaleId.DE;
+        DocumentLocaleKey key = new DocumentLocaleKey(documentId, localeId);
+        when(docStatisticLoader.load(key)).thenReturn(
+                new WordStatistic(0, 0, 10, 5, 0));
+        tsCache.getDocumentStatistics(documentId, localeId);
+
+        Map<ContentState, Long> deltas = new HashMap<>();
+        DocStatsEvent.updateContentStateDeltas(deltas, ContentState.Translated,
+                ContentState.New, 3);
+
+        // When:
+        tsCache.docStatsUpdated(new DocStatsEvent(key, 1L, deltas, 1L));
+
+        // Then:
+        WordStatistic result =
+                tsCache.getDocumentStatistics(documentId, localeId);
+        verify(docStatisticLoader).load(key); // not invalidated
+        assertThat(result.getUntranslated(), equalTo(7));
+        assertThat(result.getTranslated(), equalTo(8));
+    }
+
+    @Test
+    public void findTargetsWithWarningOrErrorValidatesAndCachesResults()
+            throws Exception {
+        // Given:
+        HTextFlowTarget badTarget = target(1L, "<b>hello</b>", "hallo");
+        HTextFlowTarget goodTarget =
+                target(2L, "<b>hello</b>", "<b>hallo</b>");
+        HTextFlowTarget cachedTarget = target(3L, "hello", "hallo");
+        Map<ValidationId, Boolean> cachedResult = new HashMap<>();
+        cachedResult.put(ValidationId.HTML_XML, true);
+        when(targetValidationLoader.load(1L)).thenReturn(new HashMap<>());
+        when(targetValidationLoader.load(2L)).thenReturn(new HashMap<>());
+        when(targetValidationLoader.load(3L)).thenReturn(cachedResult);
+
+        // When:
+        Set<Long> result =
+                tsCache.findTargetsWithWarningOrError(
+                        Lists.newArrayList(badTarget, goodTarget,
+                                cachedTarget),
+                        Lists.newArrayList(ValidationId.HTML_XML));
+
+        // Then:
+        assertThat(result, containsInAnyOrder(1L, 3L));
+        assertThat(tsCache.textFlowTargetHasWarningOrError(1L,
+                ValidationId.HTML_XML), equalTo(true));
+        assertThat(tsCache.textFlowTargetHasWarningOrError(2L,
+                ValidationId.HTML_XML), equalTo(false));
+    }
+
+    private static HTextFlowTarget target(Long id, String source,
+            String translation) {
+        HDocument document = new HDocument("doc", "doc", "", ContentType.PO,
+                new HLocale(LocaleId.EN_US));
+        HTextFlow textFlow = new HTextFlow(document, "res" + id, source);
+        textFlow.setId(id);
+        HTextFlowTarget target =
+                new HTextFlowTarget(textFlow, new HLocale(LocaleId.DE));
+        target.setId(id);
+        target.setContents(translation);
+        return target;
+    }
 }
@@ -49,11 +49,13 @@ import org.zanata.model.WebHook;
 import org.zanata.ui.model.statistic.WordStatistic;
 import org.zanata.util.StatisticsUtil;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -69,6 +71,9 @@ public class TranslationUpdatedManagerTest {
     @Mock
     private TextFlowTargetDAO textFlowTargetDAO;
 
+    @Mock
+    private WebHookDispatcher webHookDispatcher;
+
     TranslationUpdatedManager manager;
 
     List<WebHook> webHooks = Lists.newArrayList();
@@ -93,7 +98,7 @@ public class TranslationUpdatedManagerTest {
     public void setup() {
         MockitoAnnotations.initMocks(this);
         manager = new TranslationUpdatedManager();
-        manager.init(documentDAO, textFlowTargetDAO);
+        manager.init(documentDAO, textFlowTargetDAO, webHookDispatcher);
 
         HProjectIteration version = Mockito.mock(HProjectIteration.class);
         HProject project = Mockito.mock(HProject.class);
@@ -155,5 +160,7 @@ public class TranslationUpdatedManagerTest {
         assertThat(captor.getValue().size(), is(1));
         assertThat(((WebHook) captor.getValue().get(0)).getWebhookType(),
                 is(WebhookType.DocumentStatsEvent));
+        verify(webHookDispatcher).publish(eq("http://test.example.com"),
+                eq(webhookEvent), any(Optional.class));
     }
 }
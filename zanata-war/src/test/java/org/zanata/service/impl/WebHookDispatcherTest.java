@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the dispatcher against a stub HTTP server.
+ */
+public class WebHookDispatcherTest {
+    private HttpServer server;
+    private String callbackURL;
+    private WebHookDispatcher dispatcher;
+
+    private final Queue<String> received = new ConcurrentLinkedQueue<>();
+    private final Queue<String> signatures = new ConcurrentLinkedQueue<>();
+    // responses to return, in order; 200 once these run out
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/hook", this::handle);
+        server.start();
+        callbackURL = "http://localhost:" + server.getAddress().getPort()
+                + "/hook";
+        dispatcher = new WebHookDispatcher(2, 10, 3, 10, ticker);
+        dispatcher.start();
+    }
+
+    @After
+    public void tearDown() {
+        dispatcher.stop();
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            received.add(IOUtils.toString(body, "UTF-8"));
+        }
+        String signature = exchange.getRequestHeaders()
+                .getFirst(WebHooksPublisher.WEBHOOK_HEADER);
+        if (signature != null) {
+            signatures.add(signature);
+        }
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Integer status = statuses.poll();
+        exchange.sendResponseHeaders(status != null ? status : 200, -1);
+        exchange.close();
+    }
+
+    private void awaitDelivered(long delivered) throws InterruptedException {
+        awaitStatistics(() -> dispatcher.getStatistics()
+                .getDelivered() >= delivered);
+    }
+
+    private static void awaitStatistics(Condition condition)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.isMet() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.isMet()).isTrue();
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    @Test
+    public void deliversSignedEvent() throws Exception {
+        dispatcher.publish(callbackURL, "{\"a\":1}", Optional.of("secret"),
+                false);
+
+        awaitDelivered(1);
+        assertThat(received).containsExactly("{\"a\":1}");
+        assertThat(signatures).containsExactly(WebHooksPublisher
+                .signWebhookHeader("{\"a\":1}", "secret", callbackURL));
+    }
+
+    @Test
+    public void deliversEventsInOrder() throws Exception {
+        List<String> events = Lists.newArrayList();
+        for (int i = 0; i < 5; i++) {
+            events.add("{\"n\":" + i + "}");
+            dispatcher.publish(callbackURL, "{\"n\":" + i + "}",
+                    Optional.absent(), false);
+        }
+
+        awaitDelivered(5);
+        assertThat(received).containsExactlyElementsOf(events);
+    }
+
+    @Test
+    public void retriesFailedDelivery() throws Exception {
+        statuses.add(500);
+        statuses.add(503);
+
+        dispatcher.publish(callbackURL, "{}", Optional.absent(), false);
+
+        awaitDelivered(1);
+        assertThat(received).hasSize(3);
+        assertThat(dispatcher.getStatistics().getRetried()).isEqualTo(2);
+        assertThat(dispatcher.getStatistics().getFailed()).isEqualTo(0);
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            statuses.add(500);
+        }
+
+        dispatcher.publish(callbackURL, "{}", Optional.absent(), false);
+
+        awaitStatistics(() -> dispatcher.getStatistics().getFailed() == 1);
+        assertThat(received).hasSize(3);
+        assertThat(dispatcher.getStatistics().getDelivered()).isEqualTo(0);
+    }
+
+    @Test
+    public void coalescesIdenticalIdempotentEvents() throws Exception {
+        release = new CountDownLatch(1);
+        dispatcher.publish(callbackURL, "{\"first\":1}", Optional.absent(),
+                false);
+        awaitStatistics(() -> received.size() == 1);
+
+        // these wait behind the first delivery, which is blocked
+        for (int i = 0; i < 3; i++) {
+            dispatcher.publish(callbackURL, "{\"milestone\":1}",
+                    Optional.absent(), true);
+        }
+        release.countDown();
+
+        awaitDelivered(2);
+        assertThat(received).containsExactly("{\"first\":1}",
+                "{\"milestone\":1}");
+        assertThat(dispatcher.getStatistics().getCoalesced()).isEqualTo(2);
+    }
+
+    @Test
+    public void deliversEveryIdenticalNonIdempotentEvent() throws Exception {
+        release = new CountDownLatch(1);
+        dispatcher.publish(callbackURL, "{\"first\":1}", Optional.absent(),
+                false);
+        awaitStatistics(() -> received.size() == 1);
+
+        // identical statistics deltas, which must all be delivered
+        for (int i = 0; i < 3; i++) {
+            dispatcher.publish(callbackURL, "{\"words\":1}",
+                    Optional.absent(), false);
+        }
+        release.countDown();
+
+        awaitDelivered(4);
+        assertThat(received).containsExactly("{\"first\":1}",
+                "{\"words\":1}", "{\"words\":1}", "{\"words\":1}");
+        assertThat(dispatcher.getStatistics().getCoalesced()).isEqualTo(0);
+    }
+
+    @Test
+    public void dropsEventsWhenQueueIsFull() throws Exception {
+        release = new CountDownLatch(1);
+        dispatcher.publish(callbackURL, "{\"first\":1}", Optional.absent(),
+                false);
+        awaitStatistics(() -> received.size() == 1);
+
+        for (int i = 0; i < 11; i++) {
+            dispatcher.publish(callbackURL, "{\"n\":" + i + "}",
+                    Optional.absent(), false);
+        }
+        release.countDown();
+
+        awaitDelivered(11);
+        assertThat(dispatcher.getStatistics().getDropped()).isEqualTo(1);
+    }
+
+    @Test
+    public void backoffIsExponential() {
+        assertThat(dispatcher.getBackoffMillis(1)).isEqualTo(10);
+        assertThat(dispatcher.getBackoffMillis(2)).isEqualTo(20);
+        assertThat(dispatcher.getBackoffMillis(3)).isEqualTo(40);
+    }
+
+    @Test
+    public void discardsIdleEndpoints() throws Exception {
+        dispatcher.publish(callbackURL, "{\"a\":1}", Optional.absent(), false);
+        awaitDelivered(1);
+        assertThat(dispatcher.getEndpointCount()).isEqualTo(1);
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(31));
+        assertThat(dispatcher.getEndpointCount()).isEqualTo(0);
+
+        dispatcher.publish(callbackURL, "{\"a\":2}", Optional.absent(), false);
+        awaitDelivered(2);
+        assertThat(received).containsExactly("{\"a\":1}", "{\"a\":2}");
+    }
+}
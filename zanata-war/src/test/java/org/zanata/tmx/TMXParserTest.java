@@ -363,4 +363,17 @@ public class TMXParserTest {
         tm = getEm().find(TransMemory.class, tm.getId());
         assertThat(tm.getTranslationUnits().size(), is(8));
     }
+
+    @Test
+    @InRequestScope
+    public void duplicateTuidsInOneFileKeepLastUnit() throws Exception {
+        TransMemory tm =
+                createTMFromFile("/tmx/valid-tm-with-duplicate-tuids.tmx");
+
+        tm = getEm().find(TransMemory.class, tm.getId());
+        assertThat(tm.getTranslationUnits().size(), is(1));
+        TransMemoryUnit tu = tm.getTranslationUnits().iterator().next();
+        assertThat(tu.getTransUnitVariants().get("es").getPlainTextSegment(),
+                equalTo("Esta es la entrada corregida."));
+    }
 }
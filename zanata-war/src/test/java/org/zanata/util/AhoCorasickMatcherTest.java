@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.zanata.util.AhoCorasickMatcher.Match;
+
+public class AhoCorasickMatcherTest {
+
+    private static AhoCorasickMatcher<String> matcherOf(String... terms) {
+        AhoCorasickMatcher.Builder<String> builder =
+                AhoCorasickMatcher.builder();
+        for (String term : terms) {
+            builder.add(term, term);
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void findsOverlappingTerms() {
+        AhoCorasickMatcher<String> matcher =
+                matcherOf("file", "file system", "system call");
+
+        List<Match<String>> matches =
+                matcher.findAll("A file system call failed.");
+
+        assertThat(matches).containsExactly(
+                new Match<>(2, 13, "file system"),
+                new Match<>(2, 6, "file"),
+                new Match<>(7, 18, "system call"));
+    }
+
+    @Test
+    public void matchesWholeWordsOnly() {
+        AhoCorasickMatcher<String> matcher = matcherOf("art");
+
+        List<Match<String>> matches =
+                matcher.findAll("Fedora Artwork and art.");
+
+        assertThat(matches).containsExactly(new Match<>(19, 22, "art"));
+    }
+
+    @Test
+    public void ignoresCaseAndWhitespaceDifferences() {
+        AhoCorasickMatcher<String> matcher = matcherOf(" File  System ");
+
+        List<Match<String>> matches = matcher.findAll("the FILE\n\tsystem");
+
+        assertThat(matches).containsExactly(
+                new Match<>(4, 16, " File  System "));
+    }
+
+    @Test
+    public void matchesInsideWordsOfUnspacedScripts() {
+        AhoCorasickMatcher<String> matcher = matcherOf("文档");
+
+        List<Match<String>> matches = matcher.findAll("Fedora 文档项目");
+
+        assertThat(matches).containsExactly(new Match<>(7, 9, "文档"));
+    }
+
+    @Test
+    public void reportsEachValueOfARepeatedTerm() {
+        AhoCorasickMatcher<Integer> matcher =
+                AhoCorasickMatcher.<Integer> builder()
+                        .add("file", 1)
+                        .add("File", 2)
+                        .build();
+
+        List<Match<Integer>> matches = matcher.findAll("open file");
+
+        assertThat(matches).containsOnly(
+                new Match<>(5, 9, 1), new Match<>(5, 9, 2));
+    }
+
+    @Test
+    public void ignoresBlankTerms() {
+        AhoCorasickMatcher<String> matcher = matcherOf("", "  ");
+
+        assertThat(matcher.size()).isEqualTo(0);
+        assertThat(matcher.findAll("any text")).isEmpty();
+    }
+}
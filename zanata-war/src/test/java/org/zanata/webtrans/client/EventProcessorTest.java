@@ -7,13 +7,21 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.zanata.common.ContentState;
 import org.zanata.common.ProjectType;
 import org.zanata.model.TestFixture;
+import org.zanata.webtrans.client.events.TransUnitUpdatedEvent;
 import org.zanata.webtrans.client.events.WorkspaceContextUpdateEvent;
+import org.zanata.webtrans.shared.model.DocumentId;
+import org.zanata.webtrans.shared.model.TransUnitUpdateInfo;
 import org.zanata.webtrans.shared.model.UserWorkspaceContext;
 import org.zanata.webtrans.shared.rpc.SessionEventData;
+import org.zanata.webtrans.shared.rpc.TransUnitUpdated;
+import org.zanata.webtrans.shared.rpc.TransUnitUpdatedBatch;
 import org.zanata.webtrans.shared.rpc.WorkspaceContextUpdate;
+import org.zanata.webtrans.shared.rpc.TransUnitUpdated.UpdateType;
 import com.allen_sauer.gwt.log.client.Log;
+import com.google.common.collect.Lists;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 
 import de.novanic.eventservice.client.config.EventServiceConfigurationTransferable;
@@ -23,8 +31,10 @@ import de.novanic.eventservice.client.event.domain.Domain;
 import net.customware.gwt.presenter.client.EventBus;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isA;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -109,6 +119,24 @@ public class EventProcessorTest {
         verify(eventBus).fireEvent(eventCaptor.capture());
     }
 
+    @Test
+    public void applyWithBatchFiresEventForEachUpdate() {
+        DocumentId documentId = new DocumentId(1L, "");
+        TransUnitUpdated updated1 = new TransUnitUpdated(
+                new TransUnitUpdateInfo(true, true, documentId,
+                        TestFixture.makeTransUnit(1), 3, 0,
+                        ContentState.New), null, UpdateType.NonEditorSave);
+        TransUnitUpdated updated2 = new TransUnitUpdated(
+                new TransUnitUpdateInfo(true, true, documentId,
+                        TestFixture.makeTransUnit(2), 3, 0,
+                        ContentState.New), null, UpdateType.NonEditorSave);
+
+        eventProcessor.apply(new TransUnitUpdatedBatch(Lists.newArrayList(
+                updated1, updated2)));
+
+        verify(eventBus, times(2)).fireEvent(isA(TransUnitUpdatedEvent.class));
+    }
+
     @Test
     public void applyWithBogusSessionEventData() {
         SessionEventData sessionEventData = mock(SessionEventData.class);
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.zanata.common.ContentState;
+import org.zanata.model.TestFixture;
+import org.zanata.webtrans.shared.auth.EditorClientId;
+import org.zanata.webtrans.shared.model.DocumentId;
+import org.zanata.webtrans.shared.model.Person;
+import org.zanata.webtrans.shared.model.PersonId;
+import org.zanata.webtrans.shared.model.TransUnit;
+import org.zanata.webtrans.shared.model.TransUnitUpdateInfo;
+import org.zanata.webtrans.shared.rpc.ExitWorkspace;
+import org.zanata.webtrans.shared.rpc.SessionEventData;
+import org.zanata.webtrans.shared.rpc.TransUnitEdit;
+import org.zanata.webtrans.shared.rpc.TransUnitUpdated;
+import org.zanata.webtrans.shared.rpc.TransUnitUpdatedBatch;
+
+import com.google.common.collect.Lists;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WorkspaceEventDispatcherTest {
+    private static final DocumentId DOC_ID = new DocumentId(1L, "doc");
+    @Mock
+    private ScheduledExecutorService scheduler;
+    private List<SessionEventData> sent = Lists.newArrayList();
+    private WorkspaceEventDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+        dispatcher = new WorkspaceEventDispatcher(sent::add, scheduler, 100,
+                10);
+    }
+
+    private static TransUnitUpdated updated(long id, int previousVersion,
+            ContentState previousState, ContentState newState) {
+        return updated(id, previousVersion, previousState, newState, null);
+    }
+
+    private static TransUnitUpdated updated(long id, int previousVersion,
+            ContentState previousState, ContentState newState,
+            EditorClientId editor) {
+        TransUnit transUnit = TestFixture.makeTransUnit(id, newState);
+        return new TransUnitUpdated(new TransUnitUpdateInfo(true, true,
+                DOC_ID, transUnit, 2, previousVersion, previousState), editor,
+                TransUnitUpdated.UpdateType.NonEditorSave);
+    }
+
+    private Runnable scheduledFlush() {
+        ArgumentCaptor<Runnable> captor =
+                ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(captor.capture(), eq(100L),
+                eq(TimeUnit.MILLISECONDS));
+        return captor.getValue();
+    }
+
+    @Test
+    public void holdsUpdatesUntilTheWindowEnds() {
+        dispatcher.publish(updated(1, 0, ContentState.New,
+                ContentState.Translated));
+        dispatcher.publish(updated(2, 0, ContentState.New,
+                ContentState.Translated));
+
+        assertThat(sent).isEmpty();
+        // only one flush is scheduled per window
+        scheduledFlush().run();
+
+        assertThat(sent).hasSize(1);
+        TransUnitUpdatedBatch batch = (TransUnitUpdatedBatch) sent.get(0);
+        assertThat(batch.getUpdates()).hasSize(2);
+    }
+
+    @Test
+    public void sendsSingleUpdateUnbatched() {
+        TransUnitUpdated updated = updated(1, 0, ContentState.New,
+                ContentState.Translated);
+        dispatcher.publish(updated);
+        scheduledFlush().run();
+
+        assertThat(sent).containsExactly(updated);
+    }
+
+    @Test
+    public void coalescesUpdatesOfTheSameTransUnit() {
+        dispatcher.publish(updated(1, 3, ContentState.New,
+                ContentState.NeedReview));
+        dispatcher.publish(updated(1, 4, ContentState.NeedReview,
+                ContentState.Translated));
+        dispatcher.flush();
+
+        assertThat(sent).hasSize(1);
+        TransUnitUpdateInfo info =
+                ((TransUnitUpdated) sent.get(0)).getUpdateInfo();
+        assertThat(info.getPreviousVersionNum()).isEqualTo(3);
+        assertThat(info.getPreviousState()).isEqualTo(ContentState.New);
+        assertThat(info.getTransUnit().getStatus())
+                .isEqualTo(ContentState.Translated);
+    }
+
+    @Test
+    public void coalescedUpdateMovesAfterOtherEditorsUpdates() {
+        EditorClientId editorA = new EditorClientId("a", 1);
+        EditorClientId editorB = new EditorClientId("b", 1);
+        dispatcher.publish(updated(1, 3, ContentState.New,
+                ContentState.NeedReview, editorA));
+        TransUnitUpdated byB = updated(1, 4, ContentState.NeedReview,
+                ContentState.Translated, editorB);
+        dispatcher.publish(byB);
+        dispatcher.publish(updated(1, 5, ContentState.Translated,
+                ContentState.Approved, editorA));
+        dispatcher.flush();
+
+        List<TransUnitUpdated> updates =
+                ((TransUnitUpdatedBatch) sent.get(0)).getUpdates();
+        assertThat(updates).hasSize(2);
+        assertThat(updates.get(0)).isSameAs(byB);
+        // clients end on editor A's latest update
+        TransUnitUpdated last = updates.get(1);
+        assertThat(last.getEditorClientId()).isEqualTo(editorA);
+        assertThat(last.getUpdateInfo().getTransUnit().getStatus())
+                .isEqualTo(ContentState.Approved);
+    }
+
+    @Test
+    public void doesNotCoalesceUpdatesOfDifferentEditors() {
+        TransUnitUpdated byFirst = updated(1, 3, ContentState.New,
+                ContentState.NeedReview, new EditorClientId("s1", -1));
+        TransUnitUpdated bySecond = updated(1, 4, ContentState.NeedReview,
+                ContentState.Translated, new EditorClientId("s2", -1));
+        dispatcher.publish(byFirst);
+        dispatcher.publish(bySecond);
+        dispatcher.flush();
+
+        assertThat(((TransUnitUpdatedBatch) sent.get(0)).getUpdates())
+                .containsExactly(byFirst, bySecond);
+    }
+
+    @Test
+    public void keepsOnlyLatestSelectionOfAnEditor() {
+        EditorClientId editor = new EditorClientId("session", 1);
+        Person person = new Person(new PersonId("bob"), "Bob", "");
+        dispatcher.publish(new TransUnitEdit(editor, person,
+                TestFixture.makeTransUnit(1).getId()));
+        TransUnitEdit latest = new TransUnitEdit(editor, person,
+                TestFixture.makeTransUnit(2).getId());
+        dispatcher.publish(latest);
+        dispatcher.flush();
+
+        assertThat(sent).containsExactly(latest);
+    }
+
+    @Test
+    public void otherEventsSendHeldEventsFirst() {
+        TransUnitUpdated updated = updated(1, 0, ContentState.New,
+                ContentState.Translated);
+        ExitWorkspace exit = new ExitWorkspace(new EditorClientId("s", 1),
+                new Person(new PersonId("bob"), "Bob", ""));
+        dispatcher.publish(updated);
+        dispatcher.publish(exit);
+
+        assertThat(sent).containsExactly(updated, exit);
+    }
+
+    @Test
+    public void sendsStraightAwayWhenQueueIsFull() {
+        for (int i = 0; i < 10; i++) {
+            dispatcher.publish(updated(i, 0, ContentState.New,
+                    ContentState.Translated));
+        }
+
+        assertThat(sent).hasSize(1);
+        assertThat(((TransUnitUpdatedBatch) sent.get(0)).getUpdates())
+                .hasSize(10);
+        assertThat(dispatcher.getPendingCount()).isEqualTo(0);
+        verify(scheduler, times(1)).schedule(any(Runnable.class), eq(100L),
+                eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void zeroWindowSendsEverythingStraightAway() {
+        dispatcher = new WorkspaceEventDispatcher(sent::add, scheduler, 0, 10);
+        TransUnitUpdated updated = updated(1, 0, ContentState.New,
+                ContentState.Translated);
+        dispatcher.publish(updated);
+
+        assertThat(sent).containsExactly(updated);
+    }
+}
@@ -35,8 +35,13 @@ import javax.inject.Inject;
 import javax.persistence.EntityManager;
 
 import static org.hamcrest.MatcherAssert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -125,6 +130,27 @@ public class GetGlossaryHandlerJpaTest extends ZanataDbunitJpaTest {
                 Matchers.equalTo("Fedora 美工"));
     }
 
+    @Test
+    @InRequestScope
+    public void canFindGlossaryTermsInSourceText() throws Exception {
+        // Given:
+        GetGlossary action = GetGlossary.forSourceText(
+                "Visit the Fedora Translation and Fedora Documentation pages",
+                TARGET_LOCALE_ID, LocaleId.EN_US);
+
+        // When:
+        GetGlossaryResult result = handler.execute(action, null);
+
+        // Then:
+        assertThat(result.getGlossaries(), Matchers.hasSize(2));
+        assertThat(result.getGlossaries(), Matchers.containsInAnyOrder(
+                Matchers.hasProperty("target", Matchers.equalTo("Fedora 文档")),
+                Matchers.hasProperty("target", Matchers.equalTo("Fedora 翻译"))));
+        verify(glossaryDAO, never()).getSearchResult(anyString(),
+                any(HasSearchType.SearchType.class), any(LocaleId.class),
+                anyInt());
+    }
+
     @Test
     @InRequestScope
     public void testRollback() throws Exception {
@@ -143,6 +143,23 @@ public class GetTransUnitListHandlerTest extends ZanataDbunitJpaTest {
                 Matchers.contains(1, 2, 3, 4, 5));
     }
 
+    @Test
+    @InRequestScope
+    public void testExecuteToGetPageDeepInDocument() throws Exception {
+        GetTransUnitList action =
+                GetTransUnitList.newAction(new GetTransUnitActionContext(
+                        document).withCount(3).withOffset(7));
+        prepareActionAndMockLocaleService(action);
+
+        GetTransUnitListResult result = handler.execute(action, null);
+
+        // obsolete text flow 11 is not included
+        assertThat(TestFixture.asIds(result.getUnits()),
+                Matchers.contains(8, 9, 10));
+        assertThat(result.getUnits().get(0).getRowIndex(),
+                Matchers.equalTo(7));
+    }
+
     @Test
     @InRequestScope
     public void testExecuteWithStatusFilterOnly() throws Exception {
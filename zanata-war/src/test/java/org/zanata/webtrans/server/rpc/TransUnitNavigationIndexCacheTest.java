@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016, Red Hat, Inc. and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.zanata.webtrans.server.rpc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.zanata.common.ContentState;
+import org.zanata.common.LocaleId;
+import org.zanata.events.DocumentLocaleKey;
+import org.zanata.events.DocumentUploadedEvent;
+import org.zanata.events.TextFlowTargetStateEvent;
+import org.zanata.webtrans.shared.model.ContentStateGroup;
+import org.zanata.webtrans.shared.model.TransUnitId;
+import org.zanata.webtrans.shared.rpc.GetTransUnitsNavigationResult;
+
+import com.google.common.collect.ImmutableList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransUnitNavigationIndexCacheTest {
+    private static final DocumentLocaleKey KEY =
+            new DocumentLocaleKey(1L, LocaleId.DE);
+
+    private TransUnitNavigationIndexCache cache;
+    private AtomicInteger loadCount;
+
+    @Before
+    public void setUp() {
+        cache = new TransUnitNavigationIndexCache(1000);
+        loadCount = new AtomicInteger();
+    }
+
+    private TransUnitNavigationIndexCache.NavigationIndex load() {
+        loadCount.incrementAndGet();
+        // document order differs from id order
+        return new TransUnitNavigationIndexCache.NavigationIndex(
+                new long[] { 30L, 10L, 20L },
+                new ContentState[] { ContentState.New,
+                        ContentState.Translated, ContentState.NeedReview });
+    }
+
+    private static ContentStateGroup only(ContentState state) {
+        return ContentStateGroup.builder().removeAll()
+                .includeNew(state == ContentState.New)
+                .includeFuzzy(state == ContentState.NeedReview)
+                .includeTranslated(state == ContentState.Translated)
+                .build();
+    }
+
+    @Test
+    public void filtersCachedIndexInDocumentOrder() {
+        GetTransUnitsNavigationResult all = cache.get(KEY, this::load)
+                .filter(ContentStateGroup.builder().addAll().build());
+        GetTransUnitsNavigationResult fuzzy = cache.get(KEY, this::load)
+                .filter(only(ContentState.NeedReview));
+
+        assertThat(all.getIdIndexList()).containsExactly(
+                new TransUnitId(30L), new TransUnitId(10L),
+                new TransUnitId(20L));
+        assertThat(fuzzy.getIdIndexList())
+                .containsExactly(new TransUnitId(20L));
+        assertThat(fuzzy.getTransIdStateList())
+                .containsEntry(new TransUnitId(20L), ContentState.NeedReview);
+        assertThat(loadCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void stateChangesUpdateCachedIndex() {
+        cache.get(KEY, this::load);
+
+        cache.textFlowStateUpdated(stateEvent(30L, ContentState.Translated));
+
+        GetTransUnitsNavigationResult translated = cache.get(KEY, this::load)
+                .filter(only(ContentState.Translated));
+        assertThat(translated.getIdIndexList()).containsExactly(
+                new TransUnitId(30L), new TransUnitId(10L));
+        assertThat(loadCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void unknownTextFlowInvalidatesIndex() {
+        cache.get(KEY, this::load);
+
+        cache.textFlowStateUpdated(stateEvent(99L, ContentState.Translated));
+
+        cache.get(KEY, this::load);
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void stateChangeDuringLoadIsNotCached() {
+        cache.get(KEY, () -> {
+            cache.textFlowStateUpdated(
+                    stateEvent(30L, ContentState.Translated));
+            return load();
+        });
+
+        cache.get(KEY, this::load);
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void sourceUploadInvalidatesAllLocales() {
+        DocumentLocaleKey frKey = new DocumentLocaleKey(1L, LocaleId.FR);
+        DocumentLocaleKey otherDoc = new DocumentLocaleKey(2L, LocaleId.DE);
+        cache.get(KEY, this::load);
+        cache.get(frKey, this::load);
+        cache.get(otherDoc, this::load);
+
+        cache.documentUploaded(
+                new DocumentUploadedEvent(1L, 1L, true, LocaleId.EN_US));
+
+        cache.get(KEY, this::load);
+        cache.get(frKey, this::load);
+        cache.get(otherDoc, this::load);
+        assertThat(loadCount.get()).isEqualTo(5);
+    }
+
+    private static TextFlowTargetStateEvent stateEvent(Long textFlowId,
+            ContentState newState) {
+        return new TextFlowTargetStateEvent(KEY, 1L, null,
+                ImmutableList.of(
+                        new TextFlowTargetStateEvent.TextFlowTargetStateChange(
+                                textFlowId, 100L, newState,
+                                ContentState.New, 1L)));
+    }
+}